@@ -0,0 +1,54 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.util.Random;
+
+import org.nschmidt.ldparteditor.data.BatchTransformer;
+import org.nschmidt.ldparteditor.data.Matrix;
+import org.nschmidt.ldparteditor.data.Vertex;
+
+/**
+ * Compares the transformation of a large selection one by one with the
+ * parallel batch.
+ */
+@SuppressWarnings("java:S106")
+public final class BatchTransformerBenchmark {
+
+    private static final int SELECTION_SIZE = 50000;
+
+    private BatchTransformerBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final Random rnd = new Random(4711L);
+        final Vertex[] vertices = BatchTransformerTest.randomVertices(rnd, SELECTION_SIZE);
+        final Matrix transformation = BatchTransformerTest.randomTransformation(rnd);
+
+        long start = System.nanoTime();
+        final Vertex[] expected = BatchTransformerTest.transformOneByOne(vertices, transformation);
+        final long singleTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        final Vertex[] result = BatchTransformer.transform(vertices, transformation);
+        final long batchTime = System.nanoTime() - start;
+
+        for (int i = 0; i < SELECTION_SIZE; i++) {
+            if (expected[i].xp.compareTo(result[i].xp) != 0) throw new IllegalStateException();
+        }
+        System.out.println("Transformation of " + SELECTION_SIZE + " vertices: one by one " + singleTime / 1000000L + " ms, batch " + batchTime / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+}
@@ -0,0 +1,66 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.nschmidt.ldparteditor.data.ClipboardCloner;
+import org.nschmidt.ldparteditor.data.DatFile;
+import org.nschmidt.ldparteditor.data.GData;
+
+/**
+ * Compares pasting by parsing the text with cloning the parsed data. The
+ * graphical data needs the SWT libraries.
+ */
+@SuppressWarnings("java:S106")
+public final class ClipboardClonerBenchmark {
+
+    private static final int SELECTION_SIZE = 20000;
+
+    private ClipboardClonerBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        try {
+            Class.forName("org.nschmidt.ldparteditor.enumtype.View"); //$NON-NLS-1$
+        } catch (Throwable t) {
+            System.out.println("Paste benchmark skipped, the SWT libraries are not available"); //$NON-NLS-1$
+            return;
+        }
+        final DatFile df = new DatFile("clipboard.dat"); //$NON-NLS-1$
+        final List<GData> selection = ClipboardClonerTest.createSelection(df, SELECTION_SIZE);
+
+        long start = System.nanoTime();
+        final List<GData> parsed = new ArrayList<>();
+        for (GData g : selection) {
+            parsed.add(ClipboardClonerTest.parse(g.toString(), df));
+        }
+        final long parseTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        final List<GData> cloned = new ArrayList<>();
+        for (GData g : selection) {
+            cloned.add(ClipboardCloner.paste(g, df, true));
+        }
+        final long cloneTime = System.nanoTime() - start;
+
+        for (int i = 0; i < SELECTION_SIZE; i++) {
+            if (!parsed.get(i).toString().equals(cloned.get(i).toString())) throw new IllegalStateException();
+        }
+        System.out.println("Paste of " + SELECTION_SIZE + " elements: parsed " + parseTime / 1000000L + " ms, cloned " + cloneTime / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+}
@@ -0,0 +1,92 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Vector4f;
+import org.nschmidt.ldparteditor.helper.math.MathHelper;
+import org.nschmidt.ldparteditor.helper.math.ThreadsafeHashMap;
+
+/**
+ * Compares the former condline visibility test of the renderer (a lookup in
+ * the synchronized matrix cache and temporary vectors for each condline)
+ * with the current one (a read-only cache and no temporary objects), for
+ * 500000 condlines on parallel threads.
+ */
+@SuppressWarnings("java:S106")
+public final class CondlineVisibilityBenchmark {
+
+    private static final int CONDLINES = 500000;
+
+    private CondlineVisibilityBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final Random rnd = new Random(2022L);
+        final Object[] parents = new Object[200];
+        final Matrix4f[] matrices = new Matrix4f[parents.length];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = new Object();
+            matrices[i] = CondlineVisibilityTest.randomMatrix(rnd);
+        }
+        final Vector4f[] points = new Vector4f[CONDLINES * 4];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = CondlineVisibilityTest.randomPoint(rnd);
+        }
+        final boolean[] formerShown = new boolean[CONDLINES];
+        final boolean[] shown = new boolean[CONDLINES];
+
+        long formerTime = Long.MAX_VALUE;
+        long time = Long.MAX_VALUE;
+        for (int run = 0; run < 10; run++) {
+            long start = System.nanoTime();
+            final ThreadsafeHashMap<Object, Matrix4f> syncCache = new ThreadsafeHashMap<>(1000);
+            IntStream.range(0, CONDLINES).parallel().forEach(i -> {
+                final int p = i % parents.length;
+                Matrix4f m = syncCache.get(parents[p]);
+                if (m == null) {
+                    m = matrices[p];
+                    syncCache.put(parents[p], m);
+                }
+                formerShown[i] = CondlineVisibilityTest.isShown(m, points[i * 4], points[i * 4 + 1], points[i * 4 + 2], points[i * 4 + 3], 1f);
+            });
+            formerTime = Math.min(formerTime, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            final Map<Object, Matrix4f> cache = new HashMap<>(1000);
+            for (int i = 0; i < CONDLINES; i++) {
+                final int p = i % parents.length;
+                cache.computeIfAbsent(parents[p], k -> matrices[p]);
+            }
+            IntStream.range(0, CONDLINES).parallel().forEach(i -> {
+                final Matrix4f m = cache.get(parents[i % parents.length]);
+                shown[i] = MathHelper.isCondlineShown(m, points[i * 4], points[i * 4 + 1], points[i * 4 + 2], points[i * 4 + 3], 1f);
+            });
+            time = Math.min(time, System.nanoTime() - start);
+        }
+
+        for (int i = 0; i < CONDLINES; i++) {
+            if (formerShown[i] != shown[i]) throw new IllegalStateException();
+        }
+        System.out.println("Condline visibility, " + CONDLINES + " condlines: synchronized cache and temporary vectors " + formerTime / 1000000L //$NON-NLS-1$ //$NON-NLS-2$
+                + " ms, read-only cache without temporary objects " + time / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
@@ -0,0 +1,63 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.nschmidt.ldparteditor.DuplicateIndexTest.TestFile;
+import org.nschmidt.ldparteditor.DuplicateIndexTest.TestLine;
+import org.nschmidt.ldparteditor.data.DuplicateIndex;
+
+/**
+ * Compares the incremental duplicate check with a full build of the index.
+ */
+@SuppressWarnings("java:S106")
+public final class DuplicateIndexBenchmark {
+
+    private static final String[] FIXTURES = {"subdivision.txt", "meshreduce.txt", "fulltest.txt", "texmap_complete.txt", "61071s04.dat"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+    private static final int EDITS = 150;
+
+    private DuplicateIndexBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        for (String fixture : FIXTURES) {
+            // Repeat the fixture to get a large file with many duplicates
+            final TestFile file = new TestFile(DuplicateIndexTest.repeat(DuplicateIndexTest.readFixture(fixture), 4));
+            final DuplicateIndex<TestLine> index = file.buildIndex();
+            final Random rnd = new Random(fixture.hashCode());
+
+            long incrementalTime = 0;
+            long fullTime = 0;
+            for (int edit = 0; edit < EDITS; edit++) {
+                file.randomEdit(rnd);
+
+                long start = System.nanoTime();
+                if (file.update(index) == null) throw new IllegalStateException();
+                incrementalTime += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                final DuplicateIndex<TestLine> full = file.buildIndex();
+                fullTime += System.nanoTime() - start;
+
+                if (!DuplicateIndexTest.problemLines(file, full).equals(DuplicateIndexTest.problemLines(file, index))) throw new IllegalStateException();
+            }
+            System.out.println("Duplicate check for " + EDITS + " edits on " + fixture + " (" + file.lines.size() + " lines): incremental " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                    + incrementalTime / 1000000L + " ms, full scan " + fullTime / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.util.Random;
+
+import org.nschmidt.ldparteditor.data.Vertex;
+import org.nschmidt.ldparteditor.helper.math.GeometricPredicates;
+import org.nschmidt.ldparteditor.helper.math.Vector3d;
+
+/**
+ * Compares the filtered geometric predicates with their exact versions.
+ */
+@SuppressWarnings("java:S106")
+public final class GeometricPredicatesBenchmark {
+
+    private static final int SAMPLES = 10000;
+    private static final int LINES = 300;
+
+    private GeometricPredicatesBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        benchmarkLineTriangle();
+        benchmarkLineLine();
+    }
+
+    private static void benchmarkLineTriangle() {
+        final Random rnd = new Random(2022L);
+        final Vertex[][] input = new Vertex[SAMPLES][];
+        for (int i = 0; i < SAMPLES; i++) {
+            input[i] = GeometricPredicatesTest.randomVertices(rnd, 5);
+        }
+
+        int hitsExact = 0;
+        int hitsFiltered = 0;
+        final Vector3d r = new Vector3d();
+        long start = System.nanoTime();
+        for (Vertex[] v : input) {
+            if (GeometricPredicates.intersectLineTriangleExact(v[0], v[1], v[2], v[3], v[4], r)) hitsExact++;
+        }
+        final long exactTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (Vertex[] v : input) {
+            if (GeometricPredicates.intersectLineTriangle(v[0], v[1], v[2], v[3], v[4], r)) hitsFiltered++;
+        }
+        final long filteredTime = System.nanoTime() - start;
+
+        if (hitsExact != hitsFiltered) throw new IllegalStateException();
+        System.out.println("Line/triangle test, " + SAMPLES + " samples: exact " + exactTime / 1000000L + " ms, filtered " + filteredTime / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+
+    /** All pairs of lines, like the line intersector */
+    private static void benchmarkLineLine() {
+        final Random rnd = new Random(2023L);
+        final Vector3d[][] lines = new Vector3d[LINES][];
+        for (int i = 0; i < LINES; i++) {
+            lines[i] = GeometricPredicatesTest.randomVectors(rnd, 2);
+        }
+
+        int hitsExact = 0;
+        int hitsFiltered = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < LINES; i++) {
+            for (int j = i + 1; j < LINES; j++) {
+                if (GeometricPredicates.intersectLineLineExact(lines[i][0], lines[i][1], lines[j][0], lines[j][1]) != null) hitsExact++;
+            }
+        }
+        final long exactTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < LINES; i++) {
+            for (int j = i + 1; j < LINES; j++) {
+                if (GeometricPredicates.intersectLineLine(lines[i][0], lines[i][1], lines[j][0], lines[j][1]) != null) hitsFiltered++;
+            }
+        }
+        final long filteredTime = System.nanoTime() - start;
+
+        if (hitsExact != hitsFiltered) throw new IllegalStateException();
+        System.out.println("Line/line test, " + LINES * (LINES - 1) / 2 + " pairs (" + hitsExact + " intersections): exact " + exactTime / 1000000L + " ms, filtered " + filteredTime / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+    }
+}
@@ -0,0 +1,118 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.nschmidt.ldparteditor.IndexedSetTest.Element;
+import org.nschmidt.ldparteditor.helper.math.DenseIndex;
+import org.nschmidt.ldparteditor.helper.math.IndexedSet;
+import org.nschmidt.ldparteditor.helper.math.ThreadsafeHashMap;
+
+/**
+ * Compares "select inverse" on the former object sets with the bit sets of
+ * the dense index.
+ */
+@SuppressWarnings("java:S106")
+public final class IndexedSetBenchmark {
+
+    private static final int TRIANGLES = 500000;
+    private static final int LINES = 100000;
+
+    private IndexedSetBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Element> triangles = new ArrayList<>(TRIANGLES);
+        final List<Element> lines = new ArrayList<>(LINES);
+        final DenseIndex<Element> index = new DenseIndex<>(6);
+        for (int i = 0; i < TRIANGLES; i++) {
+            final Element e = new Element(3);
+            triangles.add(e);
+            index.register(e, 3);
+        }
+        for (int i = 0; i < LINES; i++) {
+            final Element e = new Element(2);
+            lines.add(e);
+            index.register(e, 2);
+        }
+
+        // The former selection model (object sets)
+        final Set<Element> allTriangles = Collections.newSetFromMap(new ThreadsafeHashMap<>());
+        allTriangles.addAll(triangles);
+        final Set<Element> allLines = Collections.newSetFromMap(new ThreadsafeHashMap<>());
+        allLines.addAll(lines);
+        final Set<Element> hiddenSet = Collections.newSetFromMap(new ThreadsafeHashMap<>());
+        final Set<Element> selectedTrianglesSet = Collections.newSetFromMap(new ThreadsafeHashMap<>());
+        final Set<Element> selectedLinesSet = Collections.newSetFromMap(new ThreadsafeHashMap<>());
+        final Set<Element> selectedDataSet = Collections.newSetFromMap(new ThreadsafeHashMap<>());
+
+        final IndexedSet<Element> hidden = new IndexedSet<>(index);
+        final IndexedSet<Element> selectedTriangles = new IndexedSet<>(index);
+        final IndexedSet<Element> selectedLines = new IndexedSet<>(index);
+        final IndexedSet<Element> selectedData = new IndexedSet<>(index);
+
+        for (int i = 0; i < TRIANGLES; i += 3) {
+            selectedTrianglesSet.add(triangles.get(i));
+            selectedTriangles.add(triangles.get(i));
+        }
+        for (int i = 0; i < TRIANGLES; i += 7) {
+            hiddenSet.add(triangles.get(i));
+            hidden.add(triangles.get(i));
+        }
+
+        long start = System.nanoTime();
+        final Set<Element> lastTriangles = new HashSet<>(selectedTrianglesSet);
+        final Set<Element> lastLines = new HashSet<>(selectedLinesSet);
+        selectedTrianglesSet.clear();
+        selectedLinesSet.clear();
+        selectedDataSet.clear();
+        for (Element e : allTriangles) {
+            if (!hiddenSet.contains(e) && !lastTriangles.contains(e)) selectedTrianglesSet.add(e);
+        }
+        for (Element e : allLines) {
+            if (!hiddenSet.contains(e) && !lastLines.contains(e)) selectedLinesSet.add(e);
+        }
+        selectedDataSet.addAll(selectedTrianglesSet);
+        selectedDataSet.addAll(selectedLinesSet);
+        final long objectTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        final IndexedSet<Element> last = new IndexedSet<>(index);
+        last.addAll(selectedTriangles);
+        last.addAll(selectedLines);
+        selectedTriangles.copyFromCategory(3, hidden, last);
+        selectedLines.copyFromCategory(2, hidden, last);
+        selectedData.clear();
+        selectedData.addAll(selectedTriangles);
+        selectedData.addAll(selectedLines);
+        final long bitTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        final IndexedSet<Element> backup = new IndexedSet<>(index);
+        backup.copyFrom(selectedData);
+        final long backupTime = System.nanoTime() - start;
+
+        if (selectedDataSet.size() != selectedData.size() || !selectedTrianglesSet.equals(selectedTriangles)
+                || selectedData.size() != backup.size()) throw new IllegalStateException();
+        System.out.println("Select inverse, " + TRIANGLES + " triangles and " + LINES + " lines: object sets " + objectTime / 1000000L //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                + " ms, bit sets " + bitTime / 1000000L + " ms (backup " + backupTime / 1000L + " us)"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+}
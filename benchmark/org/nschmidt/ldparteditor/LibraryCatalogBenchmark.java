@@ -0,0 +1,76 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.nschmidt.ldparteditor.data.LibraryCatalog;
+
+/**
+ * Compares a cold scan of a large library folder with loading the saved
+ * catalog.
+ */
+@SuppressWarnings("java:S106")
+public final class LibraryCatalogBenchmark {
+
+    private static final int FILE_COUNT = 5000;
+
+    private LibraryCatalogBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        final Path folder = Files.createTempDirectory("catalog"); //$NON-NLS-1$
+        final File catalogFile = File.createTempFile("catalog", ".gz"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            final StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < FILE_COUNT; i++) {
+                sb.setLength(0);
+                sb.append("0 Brick with Pattern ").append(i).append('\n'); //$NON-NLS-1$
+                sb.append("0 Name: ").append(i).append("p01.dat\n"); //$NON-NLS-1$ //$NON-NLS-2$
+                sb.append("0 Author: Somebody\n0 !LDRAW_ORG Part UPDATE 2020-01\n\n"); //$NON-NLS-1$
+                for (int j = 0; j < 20; j++) {
+                    sb.append("3 16 0 0 0 1 0 0 0 1 ").append(j).append('\n'); //$NON-NLS-1$
+                }
+                LibraryCatalogTest.write(folder, i + "p01.dat", sb.toString()); //$NON-NLS-1$
+            }
+
+            long start = System.nanoTime();
+            final LibraryCatalog cold = new LibraryCatalog();
+            final int coldCount = cold.scan(folder.toFile(), true).size();
+            final long coldTime = System.nanoTime() - start;
+            cold.save(catalogFile.getAbsolutePath());
+
+            start = System.nanoTime();
+            final LibraryCatalog warm = LibraryCatalog.load(catalogFile.getAbsolutePath());
+            final int warmCount = warm.scan(folder.toFile(), true).size();
+            final long warmTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            final int syncCount = warm.scan(folder.toFile(), false).size();
+            final long syncTime = System.nanoTime() - start;
+
+            if (coldCount != FILE_COUNT || warmCount != FILE_COUNT || syncCount != FILE_COUNT) throw new IllegalStateException();
+            System.out.println("Library catalog, " + FILE_COUNT + " files: cold scan " + coldTime / 1000000L + " ms, warm load " + warmTime / 1000000L //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                    + " ms, validated sync " + syncTime / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+        } finally {
+            Files.delete(catalogFile.toPath());
+            LibraryCatalogTest.delete(folder);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.nschmidt.ldparteditor.LineFlagsTest.Entry;
+import org.nschmidt.ldparteditor.data.LineFlags;
+
+/**
+ * Compares the former hide/show snapshots (string-keyed maps) with line
+ * flags which visit every subfile and with line flags which only visit the
+ * subfiles that contain set flags.
+ */
+@SuppressWarnings("java:S106")
+public final class LineFlagsBenchmark {
+
+    private static final int SNAPSHOTS = 20;
+
+    private LineFlagsBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        // Many hidden entries (1 of 100) and a few hidden entries (1 of 10000)
+        run(100);
+        run(10000);
+    }
+
+    private static void run(int ratio) {
+        final Random rnd = new Random(2022L);
+        final List<Entry> all = new ArrayList<>();
+        final Entry first = LineFlagsTest.createFile(rnd, 3, 60, all);
+        final Set<Entry> flagged = new HashSet<>();
+        for (Entry e : all) {
+            e.flag = rnd.nextInt(ratio) == 0;
+            if (e.flag) flagged.add(e);
+        }
+
+        // Warm-up
+        for (int i = 0; i < 10; i++) {
+            legacyBackup(first, new HashMap<>(), ""); //$NON-NLS-1$
+            LineFlags.create(first, LineFlagsTest.STRUCTURE, LineFlagsTest.FLAG, null);
+            LineFlags.create(first, LineFlagsTest.STRUCTURE, LineFlagsTest.FLAG, getParents(flagged)::contains, null);
+        }
+
+        final List<Map<String, List<Boolean>>> maps = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            final Map<String, List<Boolean>> map = new HashMap<>();
+            legacyBackup(first, map, ""); //$NON-NLS-1$
+            maps.add(map);
+        }
+        final long mapTime = System.nanoTime() - start;
+
+        final List<LineFlags> snapshots = new ArrayList<>();
+        LineFlags last = null;
+        start = System.nanoTime();
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            last = LineFlags.create(first, LineFlagsTest.STRUCTURE, LineFlagsTest.FLAG, last);
+            snapshots.add(last);
+        }
+        final long fullTime = System.nanoTime() - start;
+
+        LineFlags pruned = null;
+        start = System.nanoTime();
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            // The parents are collected for each snapshot (like the vertex manager does)
+            pruned = LineFlags.create(first, LineFlagsTest.STRUCTURE, LineFlagsTest.FLAG, getParents(flagged)::contains, pruned);
+        }
+        final long prunedTime = System.nanoTime() - start;
+
+        final Set<Entry> restored = new HashSet<>();
+        pruned.forEachSet(first, LineFlagsTest.STRUCTURE, (e, flag) -> restored.add(e));
+        if (!restored.equals(flagged)) throw new IllegalStateException();
+
+        long mapSize = 0L;
+        for (Map<String, List<Boolean>> map : maps) {
+            for (Map.Entry<String, List<Boolean>> e : map.entrySet()) {
+                // Entry, key (String with array) and list (with array and references)
+                mapSize += 32L + 40L + e.getKey().length() + 24L + 16L + e.getValue().size() * 4L;
+            }
+            mapSize += 16L + map.size() * 4L * 2;
+        }
+        final Set<LineFlags> counted = new HashSet<>();
+        long snapshotSize = 0L;
+        for (LineFlags snapshot : snapshots) {
+            snapshotSize += uniqueSize(snapshot, counted);
+        }
+        if (snapshotSize >= mapSize) throw new IllegalStateException();
+
+        System.out.println("Hide/show snapshots, " + all.size() + " entries (" + flagged.size() + " hidden) x " + SNAPSHOTS + ": maps " + mapTime / 1000000L //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                + " ms / ~" + mapSize / 1024L + " KiB, line flags " + fullTime / 1000000L + " ms / ~" + snapshotSize / 1024L //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                + " KiB, line flags (hidden subfiles only) " + prunedTime / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private static Set<Entry> getParents(Set<Entry> entries) {
+        final Set<Entry> result = new HashSet<>();
+        for (Entry e : entries) {
+            Entry parent = e.parent;
+            while (parent != null && result.add(parent)) {
+                parent = parent.parent;
+            }
+        }
+        return result;
+    }
+
+    /** Counts the memory of the nodes which are not shared with another snapshot */
+    private static long uniqueSize(LineFlags node, Set<LineFlags> counted) {
+        if (!counted.add(node)) return 0L;
+        long result = node.estimateSize();
+        for (int line = 1; line < 1000; line++) {
+            final LineFlags child = node.getChild(line);
+            if (child != null) {
+                result -= child.estimateSize();
+                result += uniqueSize(child, counted);
+            }
+        }
+        return result;
+    }
+
+    /** The snapshot format which was used before */
+    private static void legacyBackup(Entry g, Map<String, List<Boolean>> s, String key) {
+        final List<Boolean> st = new ArrayList<>();
+        int lineNumber = 1;
+        s.put(key, st);
+        st.add(g.flag);
+        while ((g = g.next) != null) {
+            if (g.line) {
+                st.add(g.flag);
+                if (g.content != null) {
+                    legacyBackup(g.content, s, key + "|" + lineNumber); //$NON-NLS-1$
+                }
+                lineNumber++;
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
+
+/**
+ * Compares the insertion of lines at the top of a file with the old line map
+ * and with the line index.
+ */
+@SuppressWarnings("java:S106")
+public final class LineIndexBenchmark {
+
+    private LineIndexBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final int lineCount = 50000;
+        final int insertions = 50;
+
+        final HashBiMap<Integer, Object> map = new HashBiMap<>();
+        final LineIndex<Object> index = new LineIndex<>();
+        for (int i = 1; i <= lineCount; i++) {
+            final Object line = new Object();
+            map.put(i, line);
+            index.put(i, line);
+        }
+
+        long start = System.nanoTime();
+        final Map<Integer, Object> copy = new HashMap<>();
+        for (int i = 0; i < insertions; i++) {
+            // This is how the lines were moved before
+            final int line = 10;
+            Object data;
+            int actionLine = line;
+            while ((data = map.getValue(actionLine)) != null) {
+                copy.put(actionLine + 1, data);
+                map.removeByKey(actionLine);
+                actionLine++;
+            }
+            map.putAll(copy);
+            copy.clear();
+            map.put(line, new Object());
+        }
+        final long mapTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < insertions; i++) {
+            index.shiftKeys(10, 1);
+            index.put(10, new Object());
+        }
+        final long indexTime = System.nanoTime() - start;
+
+        if (map.size() != index.size()) throw new IllegalStateException();
+        System.out.println("Insert " + insertions + " lines at the top of " + lineCount + " lines: HashBiMap " + mapTime / 1000000L + " ms, LineIndex " + indexTime / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+    }
+}
@@ -0,0 +1,57 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import org.lwjgl.util.vector.Vector3f;
+import org.lwjgl.util.vector.Vector4f;
+import org.nschmidt.ldparteditor.opengl.OverlayGeometry;
+
+/**
+ * Compares the generation of the grid overlay for every frame with the
+ * cached overlay.
+ */
+@SuppressWarnings("java:S106")
+public final class OverlayGeometryBenchmark {
+
+    private static final int FRAMES = 10000;
+
+    private OverlayGeometryBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final Vector4f[] grid = OverlayGeometryTest.grid(0.37f, 1.3f, 200f, 150f);
+        final Vector3f[] axis = OverlayGeometryTest.axis(100f, 75f, -3f);
+        final OverlayGeometry overlay = new OverlayGeometry();
+
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++) {
+            checksum += OverlayGeometryTest.legacyGrid(grid, 0, axis, 0f, .1f, .2f, .3f).length;
+        }
+        final long legacyTime = System.nanoTime() - start;
+
+        int regenerated = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++) {
+            if (overlay.updateGrid(OverlayGeometry.GRID_1, grid, 0, axis, 0f, .1f, .2f, .3f)) regenerated++;
+            checksum -= overlay.getVertexCount(OverlayGeometry.GRID_1) * (long) OverlayGeometry.VERTEX_SIZE;
+        }
+        final long cachedTime = System.nanoTime() - start;
+
+        if (checksum != 0L || regenerated != 1) throw new IllegalStateException();
+        System.out.println("Grid overlay, " + FRAMES + " frames: generated every frame " + legacyTime / 1000000L + " ms, cached " + cachedTime / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+}
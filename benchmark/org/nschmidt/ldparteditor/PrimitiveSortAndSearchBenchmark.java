@@ -0,0 +1,72 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.nschmidt.ldparteditor.data.Primitive;
+import org.nschmidt.ldparteditor.data.PrimitiveSearchIndex;
+import org.nschmidt.ldparteditor.enumtype.Rule;
+
+/**
+ * Compares the sorting and the search of the primitive tree with the former
+ * comparisons and the regular expression search.
+ */
+@SuppressWarnings("java:S106")
+public final class PrimitiveSortAndSearchBenchmark {
+
+    private static final int LIBRARY_SIZE = 5000;
+
+    private PrimitiveSortAndSearchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Primitive> primitives = PrimitiveSortAndSearchTest.library(new Random(2022L), LIBRARY_SIZE);
+
+        // Each rule sorts fresh primitives, so the sort keys have to be computed, too
+        long start = System.nanoTime();
+        for (Rule r : new Rule[]{Rule.FILENAME_ORDER_BY_ALPHABET_WO_NUMBERS, Rule.FILENAME_ORDER_BY_LASTNUMBER}) {
+            PrimitiveSortAndSearchTest.category(PrimitiveSortAndSearchTest.copy(primitives)).sort(r);
+        }
+        final long sortTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        new ArrayList<>(primitives).sort((o1, o2) -> PrimitiveSortAndSearchTest.NUMBER_AND_MINUS.matcher(o1.getName()).replaceAll("").compareToIgnoreCase(PrimitiveSortAndSearchTest.NUMBER_AND_MINUS.matcher(o2.getName()).replaceAll(""))); //$NON-NLS-1$ //$NON-NLS-2$
+        new ArrayList<>(primitives).sort((o1, o2) -> Integer.compare(PrimitiveSortAndSearchTest.lastNumber(o1.getName()), PrimitiveSortAndSearchTest.lastNumber(o2.getName())));
+        final long oldSortTime = System.nanoTime() - start;
+
+        final List<Primitive> roots = PrimitiveSortAndSearchTest.categories(primitives);
+        final String typed = "4-4cylinder"; //$NON-NLS-1$
+        int hitsOld = 0;
+        int hitsNew = 0;
+        start = System.nanoTime();
+        for (int i = 1; i <= typed.length(); i++) {
+            hitsOld += PrimitiveSortAndSearchTest.searchWithPattern(roots, typed.substring(0, i)).size();
+        }
+        final long oldSearchTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        final PrimitiveSearchIndex index = new PrimitiveSearchIndex(roots);
+        for (int i = 1; i <= typed.length(); i++) {
+            hitsNew += index.search(typed.substring(0, i)).size();
+        }
+        final long searchTime = System.nanoTime() - start;
+
+        if (hitsOld != hitsNew) throw new IllegalStateException();
+        System.out.println("Primitives, " + LIBRARY_SIZE + " entries: sort " + oldSortTime / 1000000L + " ms before, " + sortTime / 1000000L //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                + " ms now; search (" + typed.length() + " keystrokes) " + oldSearchTime / 1000000L + " ms before, " + searchTime / 1000000L + " ms now (including the index)"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+}
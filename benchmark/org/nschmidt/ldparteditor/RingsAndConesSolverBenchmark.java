@@ -0,0 +1,59 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import org.nschmidt.ldparteditor.data.tool.RingsAndConesSolver;
+import org.nschmidt.ldparteditor.data.tool.RingsAndConesSolver.Solution;
+
+/**
+ * Compares the exact rings and cones solver with the random search.
+ */
+@SuppressWarnings("java:S106")
+public final class RingsAndConesSolverBenchmark {
+
+    private static final long F = RingsAndConesSolver.FACTOR;
+    private static final long RANDOM_SEARCH_TIME = 250L;
+
+    private RingsAndConesSolverBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final long[] radii = RingsAndConesSolverTest.allRadii();
+        for (long[] scenario : RingsAndConesSolverTest.SCENARIOS) {
+            final long radMin = scenario[0] * F / 1000L;
+            final long radMax = scenario[1] * F / 1000L;
+
+            long start = System.nanoTime();
+            final Solution exact = RingsAndConesSolver.solve(radMin, radMax, radii, () -> false);
+            final long exactTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            final long deadline = System.currentTimeMillis() + RANDOM_SEARCH_TIME;
+            final Solution random = RingsAndConesSolver.solveRandom(radMin, radMax, radii, 2, () -> System.currentTimeMillis() > deadline, s -> {});
+            final long randomTime = System.nanoTime() - start;
+
+            if (exact == null || random != null && random.isBetterThan(exact)) throw new IllegalStateException();
+            System.out.println("Rings " + scenario[0] / 1000.0 + " to " + scenario[1] / 1000.0 //$NON-NLS-1$ //$NON-NLS-2$
+                    + ": exact " + describe(exact) + " in " + exactTime / 1000000L + " ms" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                    + ", random " + describe(random) + " in " + randomTime / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+    }
+
+    private static String describe(Solution solution) {
+        if (solution == null) return "-"; //$NON-NLS-1$
+        return solution.getAmount() + " primitives, delta " + solution.getDelta() + ", " + solution.getDigits() + " digits"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+}
@@ -0,0 +1,67 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.nschmidt.ldparteditor.data.SnapshotStore;
+
+/**
+ * Compares the size of the stored snapshots with the size of the plain line
+ * arrays.
+ */
+@SuppressWarnings("java:S106")
+public final class SnapshotStoreBenchmark {
+
+    private static final int LINE_COUNT = 100000;
+    private static final int SNAPSHOT_COUNT = 5;
+
+    private SnapshotStoreBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final Random rnd = new Random(1337L);
+        final List<String> lines = SnapshotStoreTest.randomFile(rnd, LINE_COUNT);
+        final SnapshotStore store = new SnapshotStore();
+        final List<SnapshotStore.Content> snapshots = new ArrayList<>();
+        long arrayBytes = 0L;
+
+        long start = System.nanoTime();
+        for (int s = 0; s < SNAPSHOT_COUNT; s++) {
+            // Every snapshot changes a few lines
+            for (int i = 0; i < 10; i++) {
+                lines.set(rnd.nextInt(lines.size()), SnapshotStoreTest.randomLine(rnd));
+            }
+            for (String line : lines) {
+                // Header and array slot of the String and its Latin-1 byte array
+                arrayBytes += 56L + line.length();
+            }
+            snapshots.add(SnapshotStoreTest.store(store, lines));
+        }
+        final long storeTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        final String text = snapshots.get(SNAPSHOT_COUNT - 1).getText();
+        final long restoreTime = System.nanoTime() - start;
+
+        if (!String.join("\n", lines).equals(text)) throw new IllegalStateException(); //$NON-NLS-1$
+        System.out.println("Snapshots, " + SNAPSHOT_COUNT + " x " + LINE_COUNT + " lines: String[] ~" + arrayBytes / 1024L + " KiB, store " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                + store.getStoredBytes() / 1024L + " KiB in " + store.getChunkCount() + " chunks, created in " + storeTime / 1000000L //$NON-NLS-1$ //$NON-NLS-2$
+                + " ms, restored in " + restoreTime / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
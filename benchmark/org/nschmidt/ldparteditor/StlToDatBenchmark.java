@@ -0,0 +1,63 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.nschmidt.ldparteditor.text.Stl2Dat;
+
+/**
+ * Measures the import of a large binary STL file.
+ */
+@SuppressWarnings("java:S106")
+public final class StlToDatBenchmark {
+
+    private StlToDatBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        // A grid with 500 x 500 squares (500000 triangles)
+        final int n = 500;
+        final float[][] triangles = new float[2 * n * n][];
+        int t = 0;
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                triangles[t++] = new float[] {x, y, 0f, x + 1f, y, 0f, x + 1f, y + 1f, 0f};
+                triangles[t++] = new float[] {x, y, 0f, x + 1f, y + 1f, 0f, x, y + 1f, 0f};
+            }
+        }
+        final File stl = File.createTempFile("grid", ".stl"); //$NON-NLS-1$ //$NON-NLS-2$
+        final File dat = File.createTempFile("grid", ".dat"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            StlToDatTest.writeBinaryStl(stl, "grid", triangles); //$NON-NLS-1$
+
+            final long start = System.nanoTime();
+            Stl2Dat.convertStlToDatFile(stl.getAbsolutePath(), dat.getAbsolutePath(), StlToDatTest.createTestUserSettings());
+            final long time = System.nanoTime() - start;
+
+            try (var lines = Files.lines(dat.toPath(), StandardCharsets.UTF_8)) {
+                if (lines.filter(line -> line.startsWith("3 16 ")).count() != triangles.length) throw new IllegalStateException(); //$NON-NLS-1$
+            }
+            System.out.println("STL import of " + triangles.length + " triangles: " + time / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        } finally {
+            Files.deleteIfExists(stl.toPath());
+            Files.deleteIfExists(dat.toPath());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.awt.Font;
+import java.awt.font.GlyphVector;
+import java.util.List;
+
+import org.nschmidt.ldparteditor.text.TextTriangulator;
+import org.nschmidt.ldparteditor.text.TextTriangulator.Triangulation;
+
+/**
+ * Compares the triangulation of a long text glyph by glyph with the cached
+ * triangulation.
+ */
+@SuppressWarnings("java:S106")
+public final class TextTriangulatorBenchmark {
+
+    private TextTriangulatorBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 37);
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            sb.append("ENGRAVED TEXT 0123456789 "); //$NON-NLS-1$
+        }
+        final GlyphVector vector = font.createGlyphVector(TextTriangulatorTest.FRC, sb.toString());
+        final int glyphCount = vector.getNumGlyphs();
+
+        long start = System.nanoTime();
+        int uncachedTriangles = 0;
+        for (int j = 0; j < glyphCount; j++) {
+            uncachedTriangles += TextTriangulator.triangulateOutlines(List.of(vector.getGlyphOutline(j)), TextTriangulatorTest.FLATNESS, TextTriangulatorTest.MARGIN, () -> false).size();
+        }
+        final long uncachedTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int cachedTriangles = 0;
+        for (Triangulation glyph : TextTriangulator.triangulateGlyphs(font, vector, TextTriangulatorTest.FLATNESS, TextTriangulatorTest.MARGIN, () -> false)) {
+            cachedTriangles += glyph.size();
+        }
+        final long cachedTime = System.nanoTime() - start;
+
+        if (uncachedTriangles != cachedTriangles) throw new IllegalStateException();
+        System.out.println("Text triangulation, " + glyphCount + " glyphs: per glyph " + uncachedTime / 1000000L + " ms, cached " + cachedTime / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+}
@@ -0,0 +1,73 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.lwjgl.util.vector.Matrix4f;
+import org.nschmidt.ldparteditor.data.TransparencySorter;
+
+/**
+ * Compares a comparison sort of transparent triangles with the radix sort
+ * and with the re-used order of the transparency sorter.
+ */
+@SuppressWarnings("java:S106")
+public final class TransparencySorterBenchmark {
+
+    private static final int V = TransparencySorter.VERTEX_SIZE;
+
+    private TransparencySorterBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final int count = 200000;
+        final Random rnd = new Random(2022L);
+        final float[] original = TransparencySorterTest.randomTriangles(rnd, count);
+        final Matrix4f view = TransparencySorterTest.rotation(0.5f, 0.25f);
+
+        // Comparison sort of the triangles (by their centre)
+        float[] data = original.clone();
+        long start = System.nanoTime();
+        final List<Integer> indices = new ArrayList<>(count);
+        for (int t = 0; t < count; t++) {
+            indices.add(t);
+        }
+        final float[] input = data;
+        indices.sort((a, b) -> Float.compare(TransparencySorterTest.depth(input, a, view), TransparencySorterTest.depth(input, b, view)));
+        final float[] compared = new float[data.length];
+        for (int t = 0; t < count; t++) {
+            System.arraycopy(data, indices.get(t) * 3 * V, compared, t * 3 * V, 3 * V);
+        }
+        final long compareTime = System.nanoTime() - start;
+
+        final TransparencySorter sorter = new TransparencySorter();
+        data = original.clone();
+        start = System.nanoTime();
+        sorter.sort(data, 0, count * 3, view);
+        final long radixTime = System.nanoTime() - start;
+
+        data = original.clone();
+        start = System.nanoTime();
+        sorter.sort(data, 0, count * 3, view);
+        final long reuseTime = System.nanoTime() - start;
+
+        if (!TransparencySorterTest.isSorted(data, count, view) || !TransparencySorterTest.isSorted(compared, count, view)) throw new IllegalStateException();
+        System.out.println("Transparent triangles, " + count + " triangles: comparison sort " + compareTime / 1000000L //$NON-NLS-1$ //$NON-NLS-2$
+                + " ms, radix sort " + radixTime / 1000000L + " ms, re-used order " + reuseTime / 1000000L + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+}
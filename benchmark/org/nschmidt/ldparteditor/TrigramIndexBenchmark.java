@@ -0,0 +1,68 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import java.util.List;
+import java.util.Random;
+
+import org.nschmidt.ldparteditor.helper.TrigramIndex;
+
+/**
+ * Compares the part search with the trigram index and with a regular
+ * expression scan while a few words are typed.
+ */
+@SuppressWarnings("java:S106")
+public final class TrigramIndexBenchmark {
+
+    private static final int LIBRARY_SIZE = 25000;
+
+    private TrigramIndexBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<String> names = TrigramIndexTest.library(new Random(2022L), LIBRARY_SIZE);
+        final String[] typed = {"3001", "Brick  2 x  4", "Technic Axle", "p01.dat", "Slope.45"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
+        long start = System.nanoTime();
+        final TrigramIndex index = new TrigramIndex(names);
+        final long buildTime = System.nanoTime() - start;
+
+        int keystrokes = 0;
+        int hitsScan = 0;
+        int hitsIndex = 0;
+        long scanTime = 0L;
+        long indexTime = 0L;
+        long maxIndexTime = 0L;
+        for (String word : typed) {
+            for (int i = 1; i <= word.length(); i++) {
+                final String query = word.substring(0, i);
+                keystrokes++;
+                start = System.nanoTime();
+                hitsScan += TrigramIndexTest.scan(names, query).cardinality();
+                scanTime += System.nanoTime() - start;
+                start = System.nanoTime();
+                hitsIndex += index.search(query).cardinality();
+                final long time = System.nanoTime() - start;
+                indexTime += time;
+                maxIndexTime = Math.max(maxIndexTime, time);
+            }
+        }
+
+        if (hitsScan != hitsIndex) throw new IllegalStateException();
+        System.out.println("Part search, " + LIBRARY_SIZE + " names, " + keystrokes + " keystrokes: index built in " + buildTime / 1000000L //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                + " ms, regex scan " + scanTime / 1000000L + " ms, index " + indexTime / 1000000L + " ms (slowest keystroke " + maxIndexTime / 1000L + " us)"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+}
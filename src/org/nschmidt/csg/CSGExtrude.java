@@ -31,7 +31,7 @@ import org.nschmidt.ldparteditor.data.GDataCSG;
 import org.nschmidt.ldparteditor.data.GDataTEX;
 import org.nschmidt.ldparteditor.data.VertexManager;
 import org.nschmidt.ldparteditor.helper.composite3d.PathTruderSettings;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 
 public class CSGExtrude implements Primitive {
 
@@ -64,7 +64,7 @@ public class CSGExtrude implements Primitive {
         cachedData.clear();
         fillCache(cachedData, start);
 
-        final HashBiMap<Integer, GData> dpl = df.getDrawPerLineNoClone();
+        final LineIndex<GData> dpl = df.getDrawPerLineNoClone();
         final VertexManager vm= df.getVertexManager();
 
         final SortedSet<GData> sl = new TreeSet<>();
@@ -21,7 +21,6 @@ import java.io.File;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
@@ -94,7 +93,7 @@ import org.nschmidt.ldparteditor.helper.composite3d.GuiStatusManager;
 import org.nschmidt.ldparteditor.helper.composite3d.MouseActions;
 import org.nschmidt.ldparteditor.helper.composite3d.PerspectiveCalculator;
 import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeSortedMap;
 import org.nschmidt.ldparteditor.i18n.I18n;
@@ -1139,9 +1138,16 @@ public class Composite3D extends ScalableComposite {
             VertexWindow.placeVertexWindow();
         });
 
-        canvas.addListener(SWT.MouseDown, mouse::mouseDown);
+        // A click may change the selection or the manipulator of all views which show the file
+        canvas.addListener(SWT.MouseDown, event -> {
+            mouse.mouseDown(event);
+            ViewIdleManager.invalidate(lockableDatFileReference);
+        });
         canvas.addListener(SWT.MouseMove, mouse::mouseMove);
-        canvas.addListener(SWT.MouseUp, mouse::mouseUp);
+        canvas.addListener(SWT.MouseUp, event -> {
+            mouse.mouseUp(event);
+            ViewIdleManager.invalidate(lockableDatFileReference);
+        });
         canvas.addListener(SWT.MouseEnter, event -> setHasMouse(true));
         canvas.addListener(SWT.MouseExit, event -> setHasMouse(false));
 
@@ -1156,8 +1162,6 @@ public class Composite3D extends ScalableComposite {
                 perspective.zoomIn();
             else
                 perspective.zoomOut();
-
-            ViewIdleManager.refresh(c3d.getCanvas(), c3d.getRenderer());
         });
 
         new Win32MouseWheelFilter(canvas.getDisplay());
@@ -1165,18 +1169,22 @@ public class Composite3D extends ScalableComposite {
         canvas.addListener(SWT.MouseDoubleClick, event -> {
             Project.setFileToEdit(lockableDatFileReference);
             mouse.mouseDoubleClick(event);
+            ViewIdleManager.invalidate(lockableDatFileReference);
         });
 
+        // Shortcuts may change the selection or the data of the file
         canvas.addListener(SWT.KeyDown, event -> {
             final Composite3D c3d = getComposite3D();
-            ViewIdleManager.refresh(c3d.getCanvas(), c3d.getRenderer());
             keyboard.setStates(event.keyCode, SWT.KeyDown, event);
+            ViewIdleManager.refresh(c3d.getCanvas(), c3d.getRenderer());
+            ViewIdleManager.invalidate(lockableDatFileReference);
         });
 
         canvas.addListener(SWT.KeyUp, event -> {
             final Composite3D c3d = getComposite3D();
-            ViewIdleManager.refresh(c3d.getCanvas(), c3d.getRenderer());
             keyboard.setStates(event.keyCode, SWT.KeyUp, event);
+            ViewIdleManager.refresh(c3d.getCanvas(), c3d.getRenderer());
+            ViewIdleManager.invalidate(lockableDatFileReference);
         });
 
         canvas.addFocusListener(new FocusAdapter() {
@@ -1366,6 +1374,7 @@ public class Composite3D extends ScalableComposite {
      */
     public void setZoom(float zoom) {
         this.zoom = zoom;
+        ViewIdleManager.invalidate(this);
     }
 
     /**
@@ -1602,6 +1611,7 @@ public class Composite3D extends ScalableComposite {
      */
     public void setOriginShown(boolean originShown) {
         this.originShown = originShown;
+        ViewIdleManager.invalidate(this);
     }
 
     /**
@@ -1619,6 +1629,7 @@ public class Composite3D extends ScalableComposite {
      */
     public void setGridShown(boolean gridShown) {
         this.gridShown = gridShown;
+        ViewIdleManager.invalidate(this);
     }
 
     public int getRenderMode() {
@@ -1627,6 +1638,7 @@ public class Composite3D extends ScalableComposite {
 
     public void setRenderMode(int renderMode) {
         this.renderMode = renderMode;
+        ViewIdleManager.invalidate(this);
     }
 
     public int getLineMode() {
@@ -1635,6 +1647,7 @@ public class Composite3D extends ScalableComposite {
 
     public void setLineMode(int lineMode) {
         this.lineMode = lineMode;
+        ViewIdleManager.invalidate(this);
     }
 
     public boolean isLightOn() {
@@ -1643,6 +1656,7 @@ public class Composite3D extends ScalableComposite {
 
     public void setLightOn(boolean lightOn) {
         this.lightOn = lightOn;
+        ViewIdleManager.invalidate(this);
     }
 
     public boolean isMeshLines() {
@@ -1651,6 +1665,7 @@ public class Composite3D extends ScalableComposite {
 
     public void setMeshLines(boolean meshLines) {
         this.meshLines = meshLines;
+        ViewIdleManager.invalidate(this);
     }
 
     public boolean isSubMeshLines() {
@@ -1659,6 +1674,7 @@ public class Composite3D extends ScalableComposite {
 
     public void setSubMeshLines(boolean subMeshLines) {
         this.subMeshLines = subMeshLines;
+        ViewIdleManager.invalidate(this);
     }
 
     public boolean isShowingVertices() {
@@ -1667,6 +1683,7 @@ public class Composite3D extends ScalableComposite {
 
     public void setShowingVertices(boolean showingVertices) {
         this.showingVertices = showingVertices;
+        ViewIdleManager.invalidate(this);
     }
 
     public boolean isShowingHiddenVertices() {
@@ -1675,6 +1692,7 @@ public class Composite3D extends ScalableComposite {
 
     public void setShowingHiddenVertices(boolean showingHiddenVertices) {
         this.showingHiddenVertices = showingHiddenVertices;
+        ViewIdleManager.invalidate(this);
     }
 
     /**
@@ -1689,6 +1707,7 @@ public class Composite3D extends ScalableComposite {
      */
     public void setGridScale(float scale) {
         this.gridScale = scale;
+        ViewIdleManager.invalidate(this);
     }
 
     public DatFile getLockableDatFileReference() {
@@ -1700,6 +1719,7 @@ public class Composite3D extends ScalableComposite {
         Editor3DWindow.getWindow().saveState(this.lockableDatFileReference, this);
         this.lockableDatFileReference = datFile;
         Editor3DWindow.getWindow().loadState(datFile, this);
+        ViewIdleManager.invalidate(this);
     }
 
     public boolean isDatFileLockedOnDisplay() {
@@ -1724,6 +1744,7 @@ public class Composite3D extends ScalableComposite {
 
     public void setAnaglyph3d(boolean anaglyph3d) {
         this.anaglyph3d = anaglyph3d;
+        ViewIdleManager.invalidate(this);
     }
 
     public Vector4f getCursorPosition() {
@@ -1752,6 +1773,7 @@ public class Composite3D extends ScalableComposite {
 
     public void setDrawingSolidMaterials(boolean drawingSolidMaterials) {
         this.drawingSolidMaterials = drawingSolidMaterials;
+        ViewIdleManager.invalidate(this);
     }
 
     public boolean hasNegDeterminant() {
@@ -1764,6 +1786,7 @@ public class Composite3D extends ScalableComposite {
 
     public void setShowingLogo(boolean showingLogo) {
         this.showingLogo = showingLogo;
+        ViewIdleManager.invalidate(this);
     }
 
     public boolean isShowingLogo() {
@@ -1791,6 +1814,7 @@ public class Composite3D extends ScalableComposite {
 
     public void setBlackEdges(boolean blackEdges) {
         this.blackEdges = blackEdges;
+        ViewIdleManager.invalidate(this);
     }
 
     public Primitive getDraggedPrimitive() {
@@ -1807,6 +1831,7 @@ public class Composite3D extends ScalableComposite {
 
     public void setShowingAxis(boolean showingAxis) {
         this.showingAxis = showingAxis;
+        ViewIdleManager.invalidate(this);
     }
 
     public boolean isShowingLabels() {
@@ -1815,10 +1840,12 @@ public class Composite3D extends ScalableComposite {
 
     public void setShowingLabels(boolean showingLabels) {
         this.showingLabels = showingLabels;
+        ViewIdleManager.invalidate(this);
     }
 
     public void setSmoothShading(boolean smoothShading) {
         this.smoothShading = smoothShading;
+        ViewIdleManager.invalidate(this);
     }
 
     public boolean isSmoothShading() {
@@ -1971,6 +1998,7 @@ public class Composite3D extends ScalableComposite {
 
     public void setWarpedSelection(boolean warpedSelection) {
         this.warpedSelection = warpedSelection;
+        ViewIdleManager.invalidate(this);
     }
 
     public boolean isShowingCondlineControlPoints() {
@@ -1979,6 +2007,7 @@ public class Composite3D extends ScalableComposite {
 
     public void setShowingCondlineControlPoints(boolean showingCondlineControlPoints) {
         this.showingCondlineControlPoints = showingCondlineControlPoints;
+        ViewIdleManager.invalidate(this);
     }
 
     public boolean isSyncManipulator() {
@@ -2056,7 +2085,7 @@ public class Composite3D extends ScalableComposite {
 
                 Display.getDefault().asyncExec(() -> {
                     int minLine = Integer.MAX_VALUE;
-                    final HashBiMap<Integer, GData> dpl = df.getDrawPerLineNoClone();
+                    final LineIndex<GData> dpl = df.getDrawPerLineNoClone();
                     for (GData g : vm.getSelectedData()) {
                         if (dpl.containsValue(g)) {
                             int line = dpl.getKey(g);
@@ -2278,8 +2307,8 @@ public class Composite3D extends ScalableComposite {
     public Composite3DViewState exportState() {
         Composite3DViewState state = new Composite3DViewState();
 
-        state.getHideShowState().putAll(lockableDatFileReference.getVertexManager().backupHideShowState());
-        state.getSelection().putAll(lockableDatFileReference.getVertexManager().backupSelectedDataState(new HashMap<>()));
+        state.setHideShowState(lockableDatFileReference.getVertexManager().backupHideShowState());
+        state.setSelection(lockableDatFileReference.getVertexManager().snapshotSelectedDataState());
         state.getHiddenVertices().addAll(lockableDatFileReference.getVertexManager().getHiddenVertices());
         state.getSelectedVertices().addAll(lockableDatFileReference.getVertexManager().getSelectedVertices());
 
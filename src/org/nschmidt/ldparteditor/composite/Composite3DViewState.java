@@ -16,14 +16,12 @@ ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEAL
 package org.nschmidt.ldparteditor.composite;
 
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.lwjgl.util.vector.Matrix4f;
 import org.lwjgl.util.vector.Vector3f;
 import org.lwjgl.util.vector.Vector4f;
+import org.nschmidt.ldparteditor.data.LineFlags;
 import org.nschmidt.ldparteditor.data.Vertex;
 import org.nschmidt.ldparteditor.helper.Manipulator;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeSortedMap;
@@ -53,8 +51,8 @@ public class Composite3DViewState {
     /** The viewport z-Far value */
     private double zFar = 1000001f;
 
-    private final Map<String, List<Boolean>> hideShowState = new HashMap<>();
-    private final Map<String, List<Boolean>> selection = new HashMap<>();
+    private LineFlags hideShowState = LineFlags.EMPTY;
+    private LineFlags selection = LineFlags.EMPTY;
 
     private final Set<Vertex> hiddenVertices = Collections.newSetFromMap(new ThreadsafeSortedMap<>());
     private final Set<Vertex> selectedVertices = Collections.newSetFromMap(new ThreadsafeSortedMap<>());
@@ -145,14 +143,22 @@ public class Composite3DViewState {
         return manipulator;
     }
 
-    public Map<String, List<Boolean>> getHideShowState() {
+    public LineFlags getHideShowState() {
         return hideShowState;
     }
 
-    public Map<String, List<Boolean>> getSelection() {
+    void setHideShowState(LineFlags hideShowState) {
+        this.hideShowState = hideShowState;
+    }
+
+    public LineFlags getSelection() {
         return selection;
     }
 
+    void setSelection(LineFlags selection) {
+        this.selection = selection;
+    }
+
     public Set<Vertex> getHiddenVertices() {
         return hiddenVertices;
     }
@@ -1223,7 +1223,6 @@ public class CompositeTab extends CompositeTabDesign {
             if (!tabState.isSync()) {
                 DatFile df = tabState.getFileNameObj();
                 if (df.updateDuplicatesErrors(compositeTextPtr[0], treeItemDuplicatesPtr[0])) {
-                    df.getDuplicate().pushDuplicateCheck(df.getDrawChainStart());
                     int errorCount = treeItemErrorsPtr[0].getItems().size();
                     int warningCount = treeItemWarningsPtr[0].getItems().size();
                     int hintCount = treeItemHintsPtr[0].getItems().size();
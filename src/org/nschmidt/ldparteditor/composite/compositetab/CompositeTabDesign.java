@@ -176,7 +176,7 @@ class CompositeTabDesign extends CTabItem {
                 lblProblemCount.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, true, false, 8, 1));
                 lblProblemCount.setText("0 " + I18n.EDITORTEXT_ERRORS + ", 0 " + I18n.EDITORTEXT_WARNINGS + ", 0 " + I18n.EDITORTEXT_OTHERS + ", 0 " + I18n.EDITORTEXT_DUPLICATES); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 
-                Tree tree = new Tree(cmpPartProblems, SWT.BORDER | SWT.MULTI, 128);
+                Tree tree = new Tree(cmpPartProblems, SWT.BORDER | SWT.MULTI | SWT.VIRTUAL, 128);
 
                 treeProblemsPtr[0] = tree;
                 tree.setLinesVisible(true);
@@ -76,6 +76,7 @@ import org.nschmidt.ldparteditor.data.PGDataInit;
 import org.nschmidt.ldparteditor.data.PGDataProxy;
 import org.nschmidt.ldparteditor.data.PGTimestamp;
 import org.nschmidt.ldparteditor.data.Primitive;
+import org.nschmidt.ldparteditor.data.PrimitiveSearchIndex;
 import org.nschmidt.ldparteditor.dnd.PrimitiveDragAndDropTransfer;
 import org.nschmidt.ldparteditor.dnd.PrimitiveDragAndDropType;
 import org.nschmidt.ldparteditor.enumtype.MouseButton;
@@ -151,6 +152,8 @@ public class CompositePrimitive extends Composite {
     private boolean doingDND;
 
     private List<Primitive> searchResults = new ArrayList<>();
+    /** The index for the primitive search (created on demand) */
+    private volatile PrimitiveSearchIndex searchIndex = null;
     private static Map<String, PGData> cache = new HashMap<>();
     private static Map<PGTimestamp, List<String>> fileCache = new HashMap<>();
     private static Set<PGTimestamp> fileCacheHits = new HashSet<>();
@@ -651,6 +654,7 @@ public class CompositePrimitive extends Composite {
                 setFocusedPrimitive(null);
                 setSelectedPrimitive(null);
                 primitives.clear();
+                searchIndex = null;
 
                 List<String> searchPaths = new ArrayList<>();
                 String ldrawPath = WorkbenchManager.getUserSettingState().getLdrawFolderPath();
@@ -1211,6 +1215,7 @@ public class CompositePrimitive extends Composite {
                 }
                 searchResults.clear();
                 Collections.sort(primitives);
+                searchIndex = null;
                 stopDraw.set(false);
             } finally {
                 loadingLock.unlock();
@@ -1566,6 +1571,22 @@ public class CompositePrimitive extends Composite {
         return searchResults;
     }
 
+    /**
+     * Searches all primitives of the category tree
+     *
+     * @param word
+     *            the search word
+     * @return all primitives which match the pattern {@code ".*" + word + ".*"}
+     */
+    public List<Primitive> searchPrimitives(String word) {
+        PrimitiveSearchIndex index = searchIndex;
+        if (index == null) {
+            index = new PrimitiveSearchIndex(primitives);
+            searchIndex = index;
+        }
+        return index.search(word);
+    }
+
     public void collapseAll( ) {
         for (Primitive p : primitives) {
             p.collapse();
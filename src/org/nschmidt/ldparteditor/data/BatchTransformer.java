@@ -0,0 +1,59 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.math.BigDecimal;
+import java.util.stream.IntStream;
+
+/**
+ * Transforms the vertices of large selections with exact arithmetic. The
+ * vertices are split into chunks, which are transformed in parallel. The
+ * result is the same as the one of {@link Matrix#transform(BigDecimal, BigDecimal, BigDecimal)}
+ * for each single vertex.
+ */
+public enum BatchTransformer {
+    INSTANCE;
+
+    /** Small batches are not worth the parallel overhead */
+    private static final int CHUNK_SIZE = 1024;
+
+    /**
+     * @param vertices
+     *            the vertices to transform
+     * @param transformation
+     *            the transformation matrix
+     * @return the transformed vertices (in the same order)
+     */
+    public static Vertex[] transform(Vertex[] vertices, Matrix transformation) {
+        final int size = vertices.length;
+        final Vertex[] result = new Vertex[size];
+        final int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (chunks > 1) {
+            IntStream.range(0, chunks).parallel().forEach(chunk -> transform(vertices, transformation, result, chunk * CHUNK_SIZE, Math.min(size, chunk * CHUNK_SIZE + CHUNK_SIZE)));
+        } else {
+            transform(vertices, transformation, result, 0, size);
+        }
+        return result;
+    }
+
+    private static void transform(Vertex[] vertices, Matrix transformation, Vertex[] result, int start, int end) {
+        for (int i = start; i < end; i++) {
+            final Vertex v = vertices[i];
+            final BigDecimal[] temp = transformation.transform(v.xp, v.yp, v.zp);
+            result[i] = new Vertex(temp[0], temp[1], temp[2]);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.lwjgl.util.vector.Matrix4f;
+import org.nschmidt.ldparteditor.enumtype.LDConfig;
+import org.nschmidt.ldparteditor.enumtype.Threshold;
+import org.nschmidt.ldparteditor.enumtype.View;
+import org.nschmidt.ldparteditor.helper.math.Vector3d;
+import org.nschmidt.ldparteditor.project.Project;
+import org.nschmidt.ldparteditor.text.DatParser;
+
+/**
+ * Creates the pasted data of clipboard elements. The clipboard already holds
+ * parsed data. Lines, triangles, quads, condlines and subfile references are
+ * cloned from their parsed values, so that nothing has to be tokenized again.
+ * Every other element (and every case which the parser would handle in a
+ * different way) is parsed from its text.
+ */
+public enum ClipboardCloner {
+    INSTANCE;
+
+    /** The alpha value which the parser gets for colour 16 on the top level */
+    private static final float ALPHA_16 = 1.1f;
+
+    /**
+     * Creates a new top level element of the target file from a clipboard element
+     *
+     * @param source
+     *            the clipboard element
+     * @param datFile
+     *            the target file
+     * @param sameFile
+     *            {@code true} if the element was copied from the target file.
+     *            Subfile references are only cloned in this case, since the
+     *            location of the file affects where the subfile is found.
+     * @return the new data (never {@code null})
+     */
+    public static GData paste(GData source, DatFile datFile, boolean sameFile) {
+        final GData result = createClone(source, datFile, sameFile);
+        if (result != null) {
+            return result;
+        }
+        final GColour col16 = LDConfig.getColour16();
+        final Set<String> alreadyParsed = new HashSet<>();
+        alreadyParsed.add(datFile.getShortName());
+        final String text = source.toString();
+        GData pasted = DatParser.parseLine(text, -1, 0, col16.getR(), col16.getG(), col16.getB(), ALPHA_16, View.DUMMY_REFERENCE, View.ID, View.ACCURATE_ID, datFile, false, alreadyParsed).get(0).getGraphicalData();
+        if (pasted == null) {
+            pasted = new GData0(text, View.DUMMY_REFERENCE);
+        }
+        return pasted;
+    }
+
+    /**
+     * @return the clone or {@code null} if the data has to be parsed
+     */
+    static GData createClone(GData source, DatFile datFile, boolean sameFile) {
+        switch (source.type()) {
+        case 1:
+            return sameFile ? cloneSubfile((GData1) source, datFile) : null;
+        case 2:
+            return cloneLine((GData2) source, datFile);
+        case 3:
+            return cloneTriangle((GData3) source, datFile);
+        case 4:
+            return cloneQuad((GData4) source, datFile);
+        case 5:
+            return cloneCondline((GData5) source, datFile);
+        default:
+            return null;
+        }
+    }
+
+    private static GData cloneLine(GData2 gd2, DatFile datFile) {
+        if (!gd2.isLine || isIdentical(gd2.x1p, gd2.y1p, gd2.z1p, gd2.x2p, gd2.y2p, gd2.z2p)) return null;
+        final GColour c = resolveColour(gd2.colourNumber, gd2.r, gd2.g, gd2.b);
+        if (c == null) return null;
+        return new GData2(View.DUMMY_REFERENCE, c.getColourNumber(), c.getR(), c.getG(), c.getB(), c.getA(), gd2.x1p, gd2.y1p, gd2.z1p, gd2.x2p, gd2.y2p, gd2.z2p,
+                gd2.x1, gd2.y1, gd2.z1, gd2.x2, gd2.y2, gd2.z2, datFile, true);
+    }
+
+    private static GData cloneTriangle(GData3 gd3, DatFile datFile) {
+        if (!gd3.isTriangle) return null;
+        final GColour c = resolveColour(gd3.colourNumber, gd3.r, gd3.g, gd3.b);
+        if (c == null) return null;
+        return new GData3(c.getColourNumber(), c.getR(), c.getG(), c.getB(), c.getA(), gd3.x1p, gd3.y1p, gd3.z1p, gd3.x2p, gd3.y2p, gd3.z2p, gd3.x3p, gd3.y3p, gd3.z3p,
+                gd3.x1, gd3.y1, gd3.z1, gd3.x2, gd3.y2, gd3.z2, gd3.x3, gd3.y3, gd3.z3, gd3.xn, gd3.yn, gd3.zn, View.DUMMY_REFERENCE, datFile, true);
+    }
+
+    private static GData cloneQuad(GData4 gd4, DatFile datFile) {
+        final GColour c = resolveColour(gd4.colourNumber, gd4.r, gd4.g, gd4.b);
+        if (c == null) return null;
+        return new GData4(c.getColourNumber(), c.getR(), c.getG(), c.getB(), c.getA(), gd4.x1p, gd4.y1p, gd4.z1p, gd4.x2p, gd4.y2p, gd4.z2p, gd4.x3p, gd4.y3p, gd4.z3p, gd4.x4p, gd4.y4p, gd4.z4p,
+                gd4.x1, gd4.y1, gd4.z1, gd4.x2, gd4.y2, gd4.z2, gd4.x3, gd4.y3, gd4.z3, gd4.x4, gd4.y4, gd4.z4, gd4.xn, gd4.yn, gd4.zn, View.DUMMY_REFERENCE, datFile);
+    }
+
+    private static GData cloneCondline(GData5 gd5, DatFile datFile) {
+        if (isIdentical(gd5.x1p, gd5.y1p, gd5.z1p, gd5.x2p, gd5.y2p, gd5.z2p) || isIdentical(gd5.x3p, gd5.y3p, gd5.z3p, gd5.x4p, gd5.y4p, gd5.z4p)) return null;
+        final GColour c = resolveColour(gd5.colourNumber, gd5.r, gd5.g, gd5.b);
+        if (c == null) return null;
+        return new GData5(c.getColourNumber(), c.getR(), c.getG(), c.getB(), c.getA(), gd5.x1p, gd5.y1p, gd5.z1p, gd5.x2p, gd5.y2p, gd5.z2p, gd5.x3p, gd5.y3p, gd5.z3p, gd5.x4p, gd5.y4p, gd5.z4p,
+                gd5.x1, gd5.y1, gd5.z1, gd5.x2, gd5.y2, gd5.z2, gd5.x3, gd5.y3, gd5.z3, gd5.x4, gd5.y4, gd5.z4, View.DUMMY_REFERENCE, datFile);
+    }
+
+    /**
+     * Clones a subfile reference. The subfile is expanded from the cached
+     * source of the file (which is shared by all references to it). Virtual
+     * files (from the project) are parsed, since their source can change.
+     */
+    private static GData cloneSubfile(GData1 gd1, DatFile datFile) {
+        final String name = gd1.getName();
+        final String shortName = gd1.getShortName();
+        if (name == null || shortName == null || !View.DUMMY_REFERENCE.equals(gd1.parent) || gd1.accurateLocalMatrix == null) return null;
+        final List<String> lines = GData.CACHE_parsedFilesSource.get(name);
+        if (lines == null) return null;
+        for (DatFile df : Project.getUnsavedFiles()) {
+            if (name.equals(df.getNewName())) return null;
+        }
+        final String shortFilename = shortName.toLowerCase(Locale.ENGLISH).replace("s\\", "S" + File.separator).replace("\\", File.separator); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        final Set<String> alreadyParsed = new HashSet<>();
+        alreadyParsed.add(datFile.getShortName());
+        if (alreadyParsed.contains(shortFilename)) return null;
+        alreadyParsed.add(shortFilename);
+        final GColour c = resolveColour(gd1.colourNumber, gd1.r, gd1.g, gd1.b);
+        if (c == null) return null;
+        final Matrix4f tMatrix = new Matrix4f(gd1.getLocalMatrix());
+        final Matrix4f destMatrix = Matrix4f.mul(View.ID, tMatrix, null);
+        final Matrix destMatrixP = Matrix.mul(View.ACCURATE_ID, gd1.accurateLocalMatrix);
+        return new GData1(c.getColourNumber(), c.getR(), c.getG(), c.getB(), c.getA(), tMatrix, gd1.accurateLocalMatrix, lines, name, shortName, 0, gd1.negativeDeterminant,
+                destMatrix, destMatrixP, datFile, View.DUMMY_REFERENCE.firstRef, gd1.isReadOnly(), false, alreadyParsed, View.DUMMY_REFERENCE);
+    }
+
+    /**
+     * Resolves the colour like the parser does for a top level line
+     *
+     * @return {@code null} if the colour is invalid
+     */
+    private static GColour resolveColour(int colourNumber, float r, float g, float b) {
+        if (colourNumber == -1) {
+            return new GColour(-1, r, g, b, 1f);
+        }
+        final GColour col16 = LDConfig.getColour16();
+        return DatParser.validateColour(colourNumber, col16.getR(), col16.getG(), col16.getB(), ALPHA_16);
+    }
+
+    private static boolean isIdentical(BigDecimal x1, BigDecimal y1, BigDecimal z1, BigDecimal x2, BigDecimal y2, BigDecimal z2) {
+        return Vector3d.sub(new Vector3d(x1, y1, z1), new Vector3d(x2, y2, z2)).length().compareTo(Threshold.IDENTICAL_VERTEX_DISTANCE) < 0;
+    }
+}
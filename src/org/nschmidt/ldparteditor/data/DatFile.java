@@ -23,9 +23,7 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -55,6 +53,8 @@ import org.nschmidt.ldparteditor.enumtype.MyLanguage;
 import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
 import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
+import org.nschmidt.ldparteditor.helper.math.LineIndexView;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeSortedMap;
 import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.logger.NLogger;
@@ -66,6 +66,7 @@ import org.nschmidt.ldparteditor.shell.editor3d.toolitem.InsertAtCursorPositionT
 import org.nschmidt.ldparteditor.shell.editortext.EditorTextWindow;
 import org.nschmidt.ldparteditor.text.DatParser;
 import org.nschmidt.ldparteditor.text.LDParsingException;
+import org.nschmidt.ldparteditor.text.LineStyleCache;
 import org.nschmidt.ldparteditor.text.StringHelper;
 import org.nschmidt.ldparteditor.text.UTF8BufferedReader;
 import org.nschmidt.ldparteditor.text.UTF8PrintWriter;
@@ -85,8 +86,7 @@ public final class DatFile {
 
     private final GData drawChainAnchor = new GDataInit(View.DUMMY_REFERENCE);
 
-    private final HashBiMap<Integer, GData> drawPerLine = new HashBiMap<>();
-    private final Map<Integer, GData> copyDrawPerLine = new HashMap<>();
+    private final LineIndex<GData> drawPerLine = new LineIndex<>();
 
     private static final GTexture CUBEMAP_TEXTURE = new GTexture(TexType.PLANAR, "cmap.png", null, 1, new Vector3f(1,0,0), new Vector3f(1,1,0), new Vector3f(1,1,1), 0, 0); //$NON-NLS-1$
     private static final GDataTEX CUBEMAP = new GDataTEX(null, "", TexMeta.NEXT, CUBEMAP_TEXTURE, View.DUMMY_REFERENCE); //$NON-NLS-1$
@@ -131,6 +131,7 @@ public final class DatFile {
     private DuplicateManager duplicate = new DuplicateManager(this);
     private DatHeaderManager datHeader = new DatHeaderManager(this);
     private final BinaryDataRegistry binaryData = new BinaryDataRegistry();
+    private final LineStyleCache lineStyleCache = new LineStyleCache();
 
     public static DatFile createDatFileForReview(String path) {
         return new DatFile(path, true);
@@ -450,11 +451,20 @@ public final class DatFile {
         int startOffset = compositeText.getOffsetAtLine(startLine);
 
         int endLine = compositeText.getLineAtOffset(endOffsetPos);
-        int endOffset = compositeText.getOffsetAtLine(endLine) + compositeText.getLine(endLine).length();
 
         startLine++;
         endLine++;
 
+        final int lastOldLine = startLine + StringHelper.countOccurences(StringHelper.getLineDelimiter(), replacedText);
+        final List<GData> removedData = new ArrayList<>();
+        final List<GData> addedData = new ArrayList<>();
+        for (int lineNumber = startLine; lineNumber <= lastOldLine; lineNumber++) {
+            GData oldData = drawPerLine.getValue(lineNumber);
+            if (oldData != null) {
+                removedData.add(oldData);
+            }
+        }
+
         boolean tailRemoved = false;
 
         // Dispose overwritten content (and so the connected 3D info)
@@ -493,19 +503,7 @@ public final class DatFile {
 
             if (affectedOldLineCount != newLineCount && !drawPerLine.isEmpty()) {
                 // Update references at the tail
-                int diff = newLineCount - affectedOldLineCount;
-                actionStartLine = oldEndLine + 1;
-                GData data;
-
-                while ((data = drawPerLine.getValue(actionStartLine)) != null) {
-                    copyDrawPerLine.put(actionStartLine + diff, data);
-                    drawPerLine.removeByKey(actionStartLine);
-                    actionStartLine++;
-                }
-                for (Entry<Integer, GData> entry : copyDrawPerLine.entrySet()) {
-                    drawPerLine.put(entry.getKey(), entry.getValue());
-                }
-                copyDrawPerLine.clear();
+                drawPerLine.shiftKeys(oldEndLine + 1, newLineCount - affectedOldLineCount);
             }
 
         } else if (length > 0) {
@@ -543,23 +541,15 @@ public final class DatFile {
                     tailRemoved = vertices.remove(drawPerLine.getValue(startLine)) || tailRemoved;
                     drawPerLine.removeByKey(startLine);
 
-                    int lcount = compositeText.getLineCount() - newLineCount + 1;
-                    for (int i = startLine + 1; i < lcount; i++) {
-                        copyDrawPerLine.put(i + newLineCount, drawPerLine.getValue(i));
-                        drawPerLine.removeByKey(i);
-                    }
-                    for (Entry<Integer, GData> entry : copyDrawPerLine.entrySet()) {
-                        drawPerLine.put(entry.getKey(), entry.getValue());
-                    }
-                    copyDrawPerLine.clear();
+                    drawPerLine.shiftKeys(startLine + 1, newLineCount);
                 }
             }
 
         }
         NLogger.debug(getClass(), "Time after OpenGL data change: {0} ms", System.currentTimeMillis() - start); //$NON-NLS-1$
 
-        warnings.removeWithinPosition(compositeText, startOffset, endOffset, length - rlength);
-        errors.removeWithinPosition(compositeText, startOffset, endOffset, length - rlength);
+        warnings.removeWithinLines(startLine, lastOldLine, endLine - lastOldLine, length - rlength);
+        errors.removeWithinLines(startLine, lastOldLine, endLine - lastOldLine, length - rlength);
 
         int offset = compositeText.getLineDelimiter().length();
         int position = startOffset;
@@ -593,37 +583,26 @@ public final class DatFile {
                 anchorData.setNext(gdata);
                 anchorData = gdata;
                 drawPerLine.put(lineNumber, gdata);
+                addedData.add(gdata);
 
                 for (ParsingResult result : results) {
                     switch (result.getResultType()) {
                     case WARN: // Warning
                     {
 
-                        Object[] messageArguments = {lineNumber, position};
-                        MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                        formatter.setLocale(MyLanguage.getLocale());
-                        formatter.applyPattern(I18n.DATFILE_LINE);
-
                         TreeItem trtmNewTreeitem = new TreeItem(warnings);
                         trtmNewTreeitem.setImage(ResourceManager.getImage("icon16_warning.png")); //$NON-NLS-1$
                         trtmNewTreeitem.setVisible(false);
-                        trtmNewTreeitem.setText(new String[] { result.getMessage(), formatter.format(messageArguments), result.getType() });
-                        trtmNewTreeitem.setData(position);
+                        trtmNewTreeitem.setIssue(result.getMessage(), lineNumber, position, result.getType());
                     }
                     break;
                     case ERROR: // Error
                     {
 
-                        Object[] messageArguments = {lineNumber, position};
-                        MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                        formatter.setLocale(MyLanguage.getLocale());
-                        formatter.applyPattern(I18n.DATFILE_LINE);
-
                         TreeItem trtmNewTreeitem = new TreeItem(errors);
                         trtmNewTreeitem.setImage(ResourceManager.getImage("icon16_error.png")); //$NON-NLS-1$
                         trtmNewTreeitem.setVisible(false);
-                        trtmNewTreeitem.setText(new String[] { result.getMessage(), formatter.format(messageArguments), result.getType() });
-                        trtmNewTreeitem.setData(position);
+                        trtmNewTreeitem.setIssue(result.getMessage(), lineNumber, position, result.getType());
                     }
                     break;
                     default: // Hint
@@ -635,6 +614,7 @@ public final class DatFile {
                 anchorData.setNext(gdata);
                 anchorData = gdata;
                 drawPerLine.put(lineNumber, gdata);
+                addedData.add(gdata);
             }
             position += line.length() + offset;
         }
@@ -642,84 +622,14 @@ public final class DatFile {
         anchorData.setNext(targetData);
 
         // Check BFC INVERTNEXT
-        for (Iterator<TreeItem> it = errors.getItems().iterator(); it.hasNext();) {
-            TreeItem ti = it.next();
-            final String tiText = ti.getText(0);
-            if (tiText.equals( I18n.DATPARSER_INVALID_INVERT_NEXT) || tiText.equals(I18n.DATPARSER_INVALID_INVERT_NEXT_FLAT)) {
-                it.remove();
-            }
-        }
-        GData gd = drawChainAnchor;
-        int lineNumber = 1;
-        while ((gd = gd.next) != null)
-        {
-            if (gd.type() == 6 && ((GDataBFC) gd).type == BFC.INVERTNEXT) {
-                boolean validState = false;
-                GData g = gd.next;
-                while (g != null && g.type() < 2) {
-                    validState = g.type() == 1;
-                    if (validState || !g.toString().trim().isEmpty()) {
-                        break;
-                    }
-                    g = g.next;
-                }
-                
-                if (g != null && g.type() == 0 && g.toString().trim().startsWith("1 ")) { //$NON-NLS-1$
-                    // It's okay, if it is formally an invalid reference line (which falls back to a comment (type = 0))
-                } else if (validState) {
-                    final Axis flatAxis;
-                    if ((flatAxis = getVertexManager().isFlatOnAxis((GData1) g)) != Axis.NONE) {
-                        position = compositeText.getOffsetAtLine(lineNumber - 1);
-                        Object[] messageArguments = {lineNumber, position};
-                        MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                        formatter.setLocale(MyLanguage.getLocale());
-                        formatter.applyPattern(I18n.DATFILE_LINE);
-
-                        TreeItem trtmNewTreeitem = new TreeItem(errors);
-                        trtmNewTreeitem.setImage(ResourceManager.getImage("icon16_error.png")); //$NON-NLS-1$
-                        trtmNewTreeitem.setVisible(false);
-                        switch (flatAxis) {
-                        case X:
-                            trtmNewTreeitem.setText(new String[] { I18n.DATPARSER_INVALID_INVERT_NEXT_FLAT, formatter.format(messageArguments), "[E0A] " + I18n.DATPARSER_SYNTAX_ERROR }); //$NON-NLS-1$
-                            break;
-                        case Y:
-                            trtmNewTreeitem.setText(new String[] { I18n.DATPARSER_INVALID_INVERT_NEXT_FLAT, formatter.format(messageArguments), "[E0B] " + I18n.DATPARSER_SYNTAX_ERROR }); //$NON-NLS-1$
-                            break;
-                        case Z:
-                            trtmNewTreeitem.setText(new String[] { I18n.DATPARSER_INVALID_INVERT_NEXT_FLAT, formatter.format(messageArguments), "[E0C] " + I18n.DATPARSER_SYNTAX_ERROR }); //$NON-NLS-1$
-                            break;
-                        case NONE:
-                        default:
-                            trtmNewTreeitem.setText(new String[] { I18n.DATPARSER_INVALID_INVERT_NEXT_FLAT, formatter.format(messageArguments), "[E0D] " + I18n.DATPARSER_SYNTAX_ERROR }); //$NON-NLS-1$
-                            break;
-                        }
-                        trtmNewTreeitem.setData(position);
-                    }
-
-                } else {
-
-                    position = compositeText.getOffsetAtLine(lineNumber - 1);
-                    Object[] messageArguments = {lineNumber, position};
-                    MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                    formatter.setLocale(MyLanguage.getLocale());
-                    formatter.applyPattern(I18n.DATFILE_LINE);
-
-                    TreeItem trtmNewTreeitem = new TreeItem(errors);
-                    trtmNewTreeitem.setImage(ResourceManager.getImage("icon16_error.png")); //$NON-NLS-1$
-                    trtmNewTreeitem.setVisible(false);
-                    trtmNewTreeitem.setText(new String[] { I18n.DATPARSER_INVALID_INVERT_NEXT, formatter.format(messageArguments), "[E0D] " + I18n.DATPARSER_SYNTAX_ERROR }); //$NON-NLS-1$
-                    trtmNewTreeitem.setData(position);
-                }
-            }
-            lineNumber++;
-        }
+        checkInvertNext(compositeText, errors, startLine, endLine);
 
         // Get tail
         if (tailRemoved || drawChainTail == null) {
             drawChainTail = anchorData;
         }
 
-        duplicate.pushDuplicateCheck(drawChainAnchor);
+        duplicate.updateDuplicateCheck(removedData, addedData);
         updateDuplicatesErrors(compositeText, duplicates);
         datHeader.pushDatHeaderCheck(drawChainAnchor, compositeText, hints, warnings, errors, duplicates, problemCount);
         updateDatHeaderHints(compositeText, hints);
@@ -758,15 +668,15 @@ public final class DatFile {
         int startOffset = compositeText.getOffsetAtLine(startLine);
 
         int endLine = compositeText.getLineAtOffset(endOffsetPos);
-        int endOffset = compositeText.getOffsetAtLine(endLine) + compositeText.getLine(endLine).length();
 
         startLine++;
         endLine++;
 
         int rlength = replacedText.length();
 
-        warnings.removeWithinPosition(compositeText, startOffset, endOffset, length - rlength);
-        errors.removeWithinPosition(compositeText, startOffset, endOffset, length - rlength);
+        final int lastOldLine = startLine + StringHelper.countOccurences(StringHelper.getLineDelimiter(), replacedText);
+        warnings.removeWithinLines(startLine, lastOldLine, endLine - lastOldLine, length - rlength);
+        errors.removeWithinLines(startLine, lastOldLine, endLine - lastOldLine, length - rlength);
 
         int offset = StringHelper.getLineDelimiter().length();
         int position = startOffset;
@@ -797,31 +707,19 @@ public final class DatFile {
                     case WARN: // Warning
                     {
 
-                        Object[] messageArguments = {lineNumber, position};
-                        MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                        formatter.setLocale(MyLanguage.getLocale());
-                        formatter.applyPattern(I18n.DATFILE_LINE);
-
                         TreeItem trtmNewTreeitem = new TreeItem(warnings);
                         trtmNewTreeitem.setImage(ResourceManager.getImage("icon16_warning.png")); //$NON-NLS-1$
                         trtmNewTreeitem.setVisible(false);
-                        trtmNewTreeitem.setText(new String[] { result.getMessage(), formatter.format(messageArguments), result.getType() });
-                        trtmNewTreeitem.setData(position);
+                        trtmNewTreeitem.setIssue(result.getMessage(), lineNumber, position, result.getType());
                     }
                     break;
                     case ERROR: // Error
                     {
 
-                        Object[] messageArguments = {lineNumber, position};
-                        MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                        formatter.setLocale(MyLanguage.getLocale());
-                        formatter.applyPattern(I18n.DATFILE_LINE);
-
                         TreeItem trtmNewTreeitem = new TreeItem(errors);
                         trtmNewTreeitem.setImage(ResourceManager.getImage("icon16_error.png")); //$NON-NLS-1$
                         trtmNewTreeitem.setVisible(false);
-                        trtmNewTreeitem.setText(new String[] { result.getMessage(), formatter.format(messageArguments), result.getType() });
-                        trtmNewTreeitem.setData(position);
+                        trtmNewTreeitem.setIssue(result.getMessage(), lineNumber, position, result.getType());
                     }
                     break;
                     default: // Hint
@@ -833,76 +731,7 @@ public final class DatFile {
         }
 
         // Check BFC INVERTNEXT
-        for (Iterator<TreeItem> it = errors.getItems().iterator(); it.hasNext();) {
-            TreeItem ti = it.next();
-            final String tiText = ti.getText(0);
-            if (tiText.equals( I18n.DATPARSER_INVALID_INVERT_NEXT) || tiText.equals(I18n.DATPARSER_INVALID_INVERT_NEXT_FLAT)) {
-                it.remove();
-            }
-        }
-        GData gd = drawChainAnchor;
-        int lineNumber = 1;
-        while ((gd = gd.next) != null)
-        {
-            if (gd.type() == 6 && ((GDataBFC) gd).type == BFC.INVERTNEXT) {
-                boolean validState = false;
-                GData g = gd.next;
-                while (g != null && g.type() < 2) {
-                    validState = g.type() == 1;
-                    if (validState || !g.toString().trim().isEmpty()) {
-                        break;
-                    }
-                    g = g.next;
-                }
-                
-                if (g != null && g.type() == 0 && g.toString().trim().startsWith("1 ")) { //$NON-NLS-1$
-                    // It's okay, if it is formally an invalid reference line (which falls back to a comment (type = 0))
-                } else if (validState) {
-                    final Axis flatAxis;
-                    if ((flatAxis = getVertexManager().isFlatOnAxis((GData1) g)) != Axis.NONE) {
-                        position = compositeText.getOffsetAtLine(lineNumber - 1);
-                        Object[] messageArguments = {lineNumber, position};
-                        MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                        formatter.setLocale(MyLanguage.getLocale());
-                        formatter.applyPattern(I18n.DATFILE_LINE);
-
-                        TreeItem trtmNewTreeitem = new TreeItem(errors);
-                        trtmNewTreeitem.setImage(ResourceManager.getImage("icon16_error.png")); //$NON-NLS-1$
-                        trtmNewTreeitem.setVisible(false);
-                        switch (flatAxis) {
-                        case X:
-                            trtmNewTreeitem.setText(new String[] { I18n.DATPARSER_INVALID_INVERT_NEXT_FLAT, formatter.format(messageArguments), "[E0A] " + I18n.DATPARSER_SYNTAX_ERROR }); //$NON-NLS-1$
-                            break;
-                        case Y:
-                            trtmNewTreeitem.setText(new String[] { I18n.DATPARSER_INVALID_INVERT_NEXT_FLAT, formatter.format(messageArguments), "[E0B] " + I18n.DATPARSER_SYNTAX_ERROR }); //$NON-NLS-1$
-                            break;
-                        case Z:
-                            trtmNewTreeitem.setText(new String[] { I18n.DATPARSER_INVALID_INVERT_NEXT_FLAT, formatter.format(messageArguments), "[E0C] " + I18n.DATPARSER_SYNTAX_ERROR }); //$NON-NLS-1$
-                            break;
-                        case NONE:
-                        default:
-                            trtmNewTreeitem.setText(new String[] { I18n.DATPARSER_INVALID_INVERT_NEXT_FLAT, formatter.format(messageArguments), "[E0D] " + I18n.DATPARSER_SYNTAX_ERROR }); //$NON-NLS-1$
-                            break;
-                        }trtmNewTreeitem.setData(position);
-                    }
-
-                } else {
-
-                    position = compositeText.getOffsetAtLine(lineNumber - 1);
-                    Object[] messageArguments = {lineNumber, position};
-                    MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                    formatter.setLocale(MyLanguage.getLocale());
-                    formatter.applyPattern(I18n.DATFILE_LINE);
-
-                    TreeItem trtmNewTreeitem = new TreeItem(errors);
-                    trtmNewTreeitem.setImage(ResourceManager.getImage("icon16_error.png")); //$NON-NLS-1$
-                    trtmNewTreeitem.setVisible(false);
-                    trtmNewTreeitem.setText(new String[] { I18n.DATPARSER_INVALID_INVERT_NEXT, formatter.format(messageArguments), "[E0D] " + I18n.DATPARSER_SYNTAX_ERROR }); //$NON-NLS-1$
-                    trtmNewTreeitem.setData(position);
-                }
-            }
-            lineNumber++;
-        }
+        checkInvertNext(compositeText, errors, startLine, endLine);
 
         if (unselectBgPicture) {
             vertices.setSelectedBgPicture(null);
@@ -923,6 +752,93 @@ public final class DatFile {
         NLogger.debug(getClass(), "Total time to parse + validate: {0} ms", System.currentTimeMillis() - start); //$NON-NLS-1$
     }
 
+    /**
+     * Checks the INVERTNEXT statements which are affected by a change of the
+     * lines from {@code startLine} to {@code endLine}. Only the statements
+     * within the changed lines and the statement above them (if there are
+     * only blank lines in between) need to be checked again.
+     */
+    private void checkInvertNext(StyledText compositeText, TreeItem errors, int startLine, int endLine) {
+        int firstLine = startLine;
+        GData gd;
+        while (firstLine > 1 && (gd = drawPerLine.getValue(firstLine - 1)) != null) {
+            if (isInvertNext(gd)) {
+                firstLine--;
+                break;
+            }
+            if (gd.type() != 0 || !gd.toString().trim().isEmpty()) {
+                break;
+            }
+            firstLine--;
+        }
+
+        if (firstLine < startLine) {
+            errors.sortItems();
+            final List<TreeItem> items = errors.getItems();
+            for (int i = errors.firstIndexAtLine(startLine) - 1, from = errors.firstIndexAtLine(firstLine); i >= from; i--) {
+                final String tiText = items.get(i).getText(0);
+                if (tiText.equals(I18n.DATPARSER_INVALID_INVERT_NEXT) || tiText.equals(I18n.DATPARSER_INVALID_INVERT_NEXT_FLAT)) {
+                    items.remove(i);
+                }
+            }
+        }
+
+        for (int lineNumber = firstLine; lineNumber <= endLine; lineNumber++) {
+            gd = drawPerLine.getValue(lineNumber);
+            if (gd != null && isInvertNext(gd)) {
+                checkInvertNext(compositeText, errors, gd, lineNumber);
+            }
+        }
+    }
+
+    private boolean isInvertNext(GData gd) {
+        return gd.type() == 6 && ((GDataBFC) gd).type == BFC.INVERTNEXT;
+    }
+
+    private void checkInvertNext(StyledText compositeText, TreeItem errors, GData gd, int lineNumber) {
+        boolean validState = false;
+        GData g = gd.next;
+        while (g != null && g.type() < 2) {
+            validState = g.type() == 1;
+            if (validState || !g.toString().trim().isEmpty()) {
+                break;
+            }
+            g = g.next;
+        }
+
+        final String message;
+        final String type;
+        if (g != null && g.type() == 0 && g.toString().trim().startsWith("1 ")) { //$NON-NLS-1$
+            // It's okay, if it is formally an invalid reference line (which falls back to a comment (type = 0))
+            return;
+        } else if (validState) {
+            final Axis flatAxis = getVertexManager().isFlatOnAxis((GData1) g);
+            switch (flatAxis) {
+            case X:
+                type = "[E0A] " + I18n.DATPARSER_SYNTAX_ERROR; //$NON-NLS-1$
+                break;
+            case Y:
+                type = "[E0B] " + I18n.DATPARSER_SYNTAX_ERROR; //$NON-NLS-1$
+                break;
+            case Z:
+                type = "[E0C] " + I18n.DATPARSER_SYNTAX_ERROR; //$NON-NLS-1$
+                break;
+            case NONE:
+            default:
+                return;
+            }
+            message = I18n.DATPARSER_INVALID_INVERT_NEXT_FLAT;
+        } else {
+            message = I18n.DATPARSER_INVALID_INVERT_NEXT;
+            type = "[E0D] " + I18n.DATPARSER_SYNTAX_ERROR; //$NON-NLS-1$
+        }
+
+        TreeItem trtmNewTreeitem = new TreeItem(errors);
+        trtmNewTreeitem.setImage(ResourceManager.getImage("icon16_error.png")); //$NON-NLS-1$
+        trtmNewTreeitem.setVisible(false);
+        trtmNewTreeitem.setIssue(message, lineNumber, compositeText.getOffsetAtLine(lineNumber - 1), type);
+    }
+
     public boolean updateDuplicatesErrors(StyledText compositeText, TreeItem duplicates) {
         if (!duplicates.getItems().isEmpty() || !GData.CACHE_duplicates.isEmpty()) {
             int position;
@@ -947,16 +863,10 @@ public final class DatFile {
                 } catch (IllegalArgumentException iae) {
                     continue;
                 }
-                Object[] messageArguments = {lineNumber2, position};
-                MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                formatter.setLocale(MyLanguage.getLocale());
-                formatter.applyPattern(I18n.DATFILE_LINE);
-
                 TreeItem trtmNewTreeitem = new TreeItem(duplicates);
                 trtmNewTreeitem.setImage(ResourceManager.getImage("icon16_duplicate.png")); //$NON-NLS-1$
                 trtmNewTreeitem.setVisible(false);
-                trtmNewTreeitem.setText(new String[] { result.getMessage(), formatter.format(messageArguments), result.getType() });
-                trtmNewTreeitem.setData(position);
+                trtmNewTreeitem.setIssue(result.getMessage(), lineNumber2, position, result.getType());
             }
             for (GData gd2 : entriesToRemove) {
                 GData.CACHE_duplicates.remove(gd2);
@@ -1009,15 +919,10 @@ public final class DatFile {
 
                 if (isLineBoundHint) {
                     for (ParsingResult result : parsingResults) {
-                        Object[] messageArguments = {lineNumber2, position};
-                        MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                        formatter.setLocale(MyLanguage.getLocale());
-                        formatter.applyPattern(I18n.DATFILE_LINE);
                         TreeItem trtmNewTreeitem = new TreeItem(headerHints);
                         trtmNewTreeitem.setImage(ResourceManager.getImage("icon16_info.png")); //$NON-NLS-1$
                         trtmNewTreeitem.setVisible(false);
-                        trtmNewTreeitem.setText(new String[] { result.getMessage(), formatter.format(messageArguments), result.getType() });
-                        trtmNewTreeitem.setData(position);
+                        trtmNewTreeitem.setIssue(result.getMessage(), lineNumber2, position, result.getType());
                     }
                 } else {
                     for (ParsingResult result : parsingResults) {
@@ -1236,11 +1141,15 @@ public final class DatFile {
         setDrawSelection(tmpDrawSelection);
     }
 
-    public HashBiMap<Integer, GData> getDrawPerLine() {
-        return drawPerLine.copy();
+    /**
+     * @return a read-only view of the line index, which is valid until the
+     *         next change of this file
+     */
+    public LineIndexView<GData> getDrawPerLine() {
+        return drawPerLine.view();
     }
 
-    public HashBiMap<Integer, GData> getDrawPerLineNoClone() {
+    public LineIndex<GData> getDrawPerLineNoClone() {
         return drawPerLine;
     }
 
@@ -1430,13 +1339,11 @@ public final class DatFile {
         target.setNext(gdata);
         gdata.setNext(next);
 
-        drawPerLine.clear();
-
-        int i = 1;
-        for (GData start = drawChainAnchor.getNext(); start != null; start = start.getNext()) {
-            drawPerLine.put(i, start);
-            i++;
-        }
+        // The anchor of the draw chain has no line number
+        final Integer targetLine = drawPerLine.getKey(target);
+        final int lineNumber = (targetLine == null ? 0 : targetLine) + 1;
+        drawPerLine.shiftKeys(lineNumber, 1);
+        drawPerLine.put(lineNumber, gdata);
     }
 
     private void replaceComment(GData target, GData gdata) {
@@ -1514,12 +1421,10 @@ public final class DatFile {
         text = ""; //$NON-NLS-1$
         vertices.setModified(false, true);
         vertices.clear();
-        Set<Integer> lineNumbers = drawPerLine.keySet();
-        for (Integer lineNumber : lineNumbers) {
-            drawPerLine.getValue(lineNumber).derefer();
+        for (GData gd : drawPerLine.values()) {
+            gd.derefer();
         }
         drawPerLine.clear();
-        copyDrawPerLine.clear();
         drawChainAnchor.setNext(null);
         Project.getParsedFiles().remove(this);
     }
@@ -1945,28 +1850,10 @@ public final class DatFile {
         vertices.storeAxisForSlantingMatrixProjector();
         final int objCount = drawPerLine.size();
         GData[] backup = new GData[objCount];
-        Map<String, List<Boolean>> backupHiddenData = null;
-        Map<String, List<Boolean>> backupSelectedData = null;
+        final LineFlags backupHiddenData = vertices.snapshotHideShowState();
+        final LineFlags backupSelectedData = vertices.snapshotSelectedDataState();
         int count = 0;
         GData data2draw = drawChainAnchor.getNext();
-        final boolean isBackupHiddenData = !vertices.hiddenData.isEmpty();
-        final boolean isBackupSelectedData = !vertices.selectedData.isEmpty();
-        if (isBackupHiddenData && isBackupSelectedData) {
-            backupHiddenData = new HashMap<>();
-            backupSelectedData = new HashMap<>();
-            vertices.backupHideShowAndSelectedState(backupHiddenData, backupSelectedData);
-        } else {
-            if (isBackupHiddenData) {
-                backupHiddenData = vertices.backupHideShowState(new HashMap<>());
-            } else {
-                backupHiddenData = new HashMap<>();
-            }
-            if (isBackupSelectedData) {
-                backupSelectedData = vertices.backupSelectedDataState(new HashMap<>());
-            } else {
-                backupSelectedData = new HashMap<>();
-            }
-        }
         while (count < objCount) {
             if (data2draw != null) {
                 backup[count] = data2draw;
@@ -2055,4 +1942,8 @@ public final class DatFile {
     public BinaryDataRegistry getBinaryData() {
         return binaryData;
     }
+
+    public LineStyleCache getLineStyleCache() {
+        return lineStyleCache;
+    }
 }
@@ -0,0 +1,310 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.nschmidt.ldparteditor.logger.NLogger;
+
+import de.matthiasmann.twl.util.PNGDecoder;
+import de.matthiasmann.twl.util.PNGDecoder.Format;
+
+/**
+ * A process-wide cache for decoded RGBA images. Entries are identified by their
+ * resolved path and a timestamp (e.g. the modification time of the file), so a
+ * texture which is used by multiple renderers is decoded only once. The cache is
+ * limited by a memory budget and evicts the least recently used images first.
+ * <br>
+ * Decoding happens on a small background pool. Callers receive
+ * {@link DecodedImage#PENDING} until the image is ready and have to ask again
+ * later (e.g. on the next frame). This class does not need an OpenGL context.
+ */
+public final class DecodedImageCache {
+
+    /** The shared cache for all renderers (256 MB) */
+    public static final DecodedImageCache SHARED = new DecodedImageCache(256L * 1024L * 1024L, 2);
+
+    /** Failed entries and tiny images still have some costs */
+    private static final long MIN_ENTRY_SIZE = 64L;
+
+    /** Supplies the encoded PNG data for a cache entry */
+    @FunctionalInterface
+    public interface Source {
+        InputStream open() throws IOException;
+    }
+
+    /** An immutable, decoded RGBA image (4 bytes per pixel, row by row) */
+    public static final class DecodedImage {
+
+        /** Returned while the image is decoded in the background */
+        public static final DecodedImage PENDING = new DecodedImage(1, 1, new byte[] { 0, 0, 0, 0 });
+        /** Returned if the image could not be read or decoded */
+        public static final DecodedImage UNREADABLE = new DecodedImage(1, 1, new byte[] { 0, 0, 0, -1 });
+
+        private final int width;
+        private final int height;
+        private final byte[] rgba;
+
+        DecodedImage(int width, int height, byte[] rgba) {
+            this.width = width;
+            this.height = height;
+            this.rgba = rgba;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * @return the raw pixel data. Don't modify this array, since it is
+         *         shared by all users of the cache.
+         */
+        public byte[] getRGBA() {
+            return rgba;
+        }
+
+        public boolean isReady() {
+            return this != PENDING && this != UNREADABLE;
+        }
+
+        long getSize() {
+            return Math.max(MIN_ENTRY_SIZE, rgba.length);
+        }
+    }
+
+    private static final class Key {
+        private final String path;
+        private final long timestamp;
+
+        private Key(String path, long timestamp) {
+            this.path = path;
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * path.hashCode() + Long.hashCode(timestamp);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Key other = (Key) obj;
+            return timestamp == other.timestamp && path.equals(other.path);
+        }
+    }
+
+    private final long budget;
+    private final ExecutorService decoder;
+
+    /** The decoded images in access order (LRU first) */
+    private final LinkedHashMap<Key, DecodedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+    /** The images which are queued or currently decoded */
+    private final Map<Key, Boolean> pending = new HashMap<>();
+    private long size = 0L;
+
+    private int decodeCount = 0;
+
+    private volatile Runnable decodedListener = null;
+
+    public DecodedImageCache(long budget, int threads) {
+        this.budget = budget;
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 10L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            final Thread t = new Thread(r, "Texture Decoder " + threadNumber.incrementAndGet()); //$NON-NLS-1$
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        this.decoder = pool;
+    }
+
+    /**
+     * Returns the decoded image for a file and starts decoding it in the
+     * background if it is not cached yet.
+     *
+     * @param file
+     *            the resolved image file
+     * @return the image, {@link DecodedImage#PENDING} while it is decoded or
+     *         {@link DecodedImage#UNREADABLE} on failure
+     */
+    public DecodedImage request(File file) {
+        final File absoluteFile = file.getAbsoluteFile();
+        return request(absoluteFile.getPath(), absoluteFile.lastModified(), () -> new FileInputStream(absoluteFile));
+    }
+
+    /**
+     * Returns the decoded image for the given key and starts decoding it in the
+     * background if it is not cached yet.
+     *
+     * @return the image, {@link DecodedImage#PENDING} while it is decoded or
+     *         {@link DecodedImage#UNREADABLE} on failure
+     */
+    public DecodedImage request(String path, long timestamp, Source source) {
+        final Key key = new Key(path, timestamp);
+        synchronized (this) {
+            final DecodedImage result = images.get(key);
+            if (result != null) {
+                return result;
+            }
+            if (pending.put(key, Boolean.TRUE) != null) {
+                return DecodedImage.PENDING;
+            }
+        }
+        decoder.execute(() -> {
+            try {
+                store(key, decode(source));
+            } finally {
+                // The entry must not stay pending if the decoder fails with an error
+                synchronized (this) {
+                    pending.remove(key);
+                }
+                final Runnable listener = decodedListener;
+                if (listener != null) listener.run();
+            }
+        });
+        return DecodedImage.PENDING;
+    }
+
+    /**
+     * Sets the action which is called (on the decoder thread) after an image
+     * was decoded in the background.
+     */
+    public void setDecodedListener(Runnable listener) {
+        this.decodedListener = listener;
+    }
+
+    /**
+     * Returns the decoded image for the given key and decodes it on the calling
+     * thread if it is not cached yet.
+     *
+     * @return the image or {@link DecodedImage#UNREADABLE} on failure
+     */
+    public DecodedImage load(String path, long timestamp, Source source) {
+        final Key key = new Key(path, timestamp);
+        synchronized (this) {
+            final DecodedImage result = images.get(key);
+            if (result != null) {
+                return result;
+            }
+        }
+        final DecodedImage result = decode(source);
+        store(key, result);
+        return result;
+    }
+
+    /**
+     * Removes all images from the cache. Running decoder tasks are not cancelled.
+     */
+    public synchronized void clear() {
+        images.clear();
+        size = 0L;
+    }
+
+    /**
+     * @return the memory which is currently occupied by decoded images (in bytes)
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of cached images
+     */
+    public synchronized int getImageCount() {
+        return images.size();
+    }
+
+    /**
+     * @return how many images were decoded by this cache so far
+     */
+    public synchronized int getDecodeCount() {
+        return decodeCount;
+    }
+
+    private synchronized void store(Key key, DecodedImage image) {
+        pending.remove(key);
+        decodeCount++;
+        final long imageSize = image.getSize();
+        if (imageSize > budget) {
+            // Never keep images which would flush the whole cache
+            return;
+        }
+        final DecodedImage previous = images.put(key, image);
+        if (previous != null) {
+            size -= previous.getSize();
+        }
+        size += imageSize;
+        final Iterator<DecodedImage> it = images.values().iterator();
+        while (size > budget && it.hasNext()) {
+            final DecodedImage eldest = it.next();
+            if (eldest != image) {
+                size -= eldest.getSize();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Decodes an image without caching it. Images which are larger than the
+     * memory budget of this cache are rejected before any pixel data is
+     * allocated.
+     *
+     * @return the image or {@link DecodedImage#UNREADABLE} on failure
+     */
+    DecodedImage decode(Source source) {
+        try (InputStream in = source.open()) {
+            if (in == null) {
+                return DecodedImage.UNREADABLE;
+            }
+            final PNGDecoder decoder = new PNGDecoder(in);
+            final int width = decoder.getWidth();
+            final int height = decoder.getHeight();
+            final long imageSize = 4L * width * height;
+            if (imageSize > budget || imageSize > Integer.MAX_VALUE) {
+                NLogger.debug(DecodedImageCache.class, "The image is too large (" + width + "x" + height + ")."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                return DecodedImage.UNREADABLE;
+            }
+            final byte[] rgba = new byte[(int) imageSize];
+            decoder.decode(ByteBuffer.wrap(rgba), width * 4, Format.RGBA);
+            return new DecodedImage(width, height, rgba);
+        } catch (IOException | RuntimeException ex) {
+            NLogger.debug(DecodedImageCache.class, ex);
+            return DecodedImage.UNREADABLE;
+        }
+    }
+}
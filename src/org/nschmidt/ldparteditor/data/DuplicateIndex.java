@@ -0,0 +1,504 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A persistent index for the duplicate line check. It maps normalized keys
+ * (line type, colour and vertex order) to the lines which share them, so a
+ * text change only needs to look at the changed lines and at the lines which
+ * share a key with them.<br>
+ * <br>
+ * The rules are the same as for a full scan from the top of the file:
+ * <ul>
+ * <li>A line, triangle or quad is a duplicate of the first line with the same
+ * vertices (in the same winding order, the colour does not matter). Lines and
+ * condlines may also be reversed.</li>
+ * <li>A reference is a duplicate of the first identical reference to the same
+ * file (the colour does not matter), as long as both are (or both are not) inverted by
+ * "0 BFC INVERTNEXT".</li>
+ * <li>Meta commands are duplicates if the previous meta command was the
+ * same.</li>
+ * <li>Invisible condlines (with an angle above the maximum) are reported, but
+ * they are not compared to other lines.</li>
+ * </ul>
+ *
+ * @param <T>
+ *            the type of a line (e.g. {@link GData})
+ */
+public final class DuplicateIndex<T> {
+
+    /** The line has no problem */
+    public static final int NO_PROBLEM = -1;
+    /** The line is an invisible condline */
+    public static final int INVISIBLE = 0;
+
+    /**
+     * Provides the information about the lines of a file (the lines form a
+     * doubly linked list).
+     */
+    public interface Lines<T> {
+        T getNext(T line);
+
+        T getBefore(T line);
+
+        /** @return the line number (1-based) */
+        int getLineNumber(T line);
+
+        /**
+         * @return {@code 1} to {@code 5} for geometry, {@code 6} for BFC
+         *         statements, a value greater than 6 for other meta commands
+         *         and {@code 0} for all lines without an effect on the check
+         */
+        int getType(T line);
+
+        boolean isInvertNext(T line);
+
+        /** @return {@code true} if the line is a condline with an invalid angle */
+        boolean isInvisibleCondline(T line);
+
+        String getText(T line);
+
+        /** @return the short name of the file which is referenced by a type 1 line */
+        String getShortName(T line);
+    }
+
+    private static final class Entry<T> {
+        final int type;
+        final String key;
+        final String textKey;
+        final boolean degenerated;
+        T reference;
+        boolean resets;
+
+        Entry(int type, String key, String textKey, boolean degenerated) {
+            this.type = type;
+            this.key = key;
+            this.textKey = textKey;
+            this.degenerated = degenerated;
+        }
+
+        boolean hasOwners() {
+            return type <= 5 && key != null;
+        }
+    }
+
+    private final Lines<T> lines;
+    /** The entries of all lines (lines without an effect share one entry) */
+    private final Map<T, Entry<T>> entries = new HashMap<>();
+    private final Entry<T> none = new Entry<>(0, null, null, false);
+    private int metaCount = 0;
+    /** Lines per key, sorted by their line number */
+    private final Map<String, List<T>> owners = new HashMap<>();
+    /** All lines with a problem */
+    private final Set<T> problems = new HashSet<>();
+    /** The line numbers while the index is built (in file order, independent of the text) */
+    private Map<T, Integer> buildLineNumbers = null;
+
+    public DuplicateIndex(Lines<T> lines) {
+        this.lines = lines;
+    }
+
+    /**
+     * Indexes all lines from {@code first} to the end of the file.
+     *
+     * @param first
+     *            the first line (can be {@code null})
+     */
+    public void build(T first) {
+        entries.clear();
+        owners.clear();
+        problems.clear();
+        metaCount = 0;
+        buildLineNumbers = new HashMap<>();
+        int lineNumber = 1;
+        for (T line = first; line != null; line = lines.getNext(line)) {
+            buildLineNumbers.put(line, lineNumber);
+            lineNumber++;
+            final Entry<T> entry = createEntry(line);
+            entries.put(line, entry);
+            if (entry == none) continue;
+            if (entry.type > 6) metaCount++;
+            if (entry.hasOwners()) {
+                // The lines are added in order, so they can be appended
+                owners.computeIfAbsent(entry.key, k -> new ArrayList<>(1)).add(line);
+                if (entry.textKey != null) {
+                    owners.computeIfAbsent(entry.textKey, k -> new ArrayList<>(1)).add(line);
+                }
+            }
+            evaluate(line, entry);
+        }
+        buildLineNumbers = null;
+    }
+
+    /**
+     * Updates the index after a change of the file. The change replaces the
+     * removed lines with the added lines (a text change always adds at least
+     * one line). The removed lines must not be part of the file anymore, the
+     * added lines must already be linked.
+     *
+     * @return the lines which have a new problem state (see
+     *         {@link #getProblem(Object)}) or {@code null} if the lines do not
+     *         match the index anymore (then the index needs to be built
+     *         again). The line number of a referenced line can also change
+     *         without a new problem state.
+     */
+    public Set<T> update(Collection<T> removed, Collection<T> added) {
+        final Set<T> addedLines = new HashSet<>(added);
+        for (T line : removed) {
+            if (!entries.containsKey(line)) return null;
+        }
+        for (T line : added) {
+            final T next = lines.getNext(line);
+            if (next != null && !addedLines.contains(next) && !entries.containsKey(next)) return null;
+        }
+
+        final Set<T> changed = new HashSet<>();
+        final Set<String> touchedKeys = new HashSet<>();
+        final Set<T> touchedLines = new HashSet<>();
+        boolean invertNextChanged = false;
+
+        for (T line : removed) {
+            final Entry<T> entry = entries.remove(line);
+            invertNextChanged |= entry.type == 1 || lines.isInvertNext(line);
+            if (entry.type > 6) metaCount--;
+            if (entry != none) {
+                unregister(line, entry, touchedKeys);
+                if (problems.remove(line)) {
+                    changed.add(line);
+                }
+            }
+        }
+
+        for (T line : added) {
+            add(line, touchedKeys);
+            touchedLines.add(line);
+            invertNextChanged |= lines.getType(line) == 1 || lines.isInvertNext(line);
+        }
+
+        // A reference behind the change may get (or lose) its INVERTNEXT
+        for (T line : invertNextChanged ? added : Collections.<T>emptyList()) {
+            final T next = lines.getNext(line);
+            if (next != null && !addedLines.contains(next)) {
+                T ref = next;
+                while (ref != null && lines.getType(ref) != 1 && !lines.isInvertNext(ref)) {
+                    ref = lines.getNext(ref);
+                }
+                final Entry<T> entry = ref == null ? none : entries.getOrDefault(ref, none);
+                if (entry != none && !entry.key.equals(referenceKey(ref))) {
+                    entries.remove(ref);
+                    unregister(ref, entry, touchedKeys);
+                    add(ref, touchedKeys);
+                    touchedLines.add(ref);
+                }
+            }
+        }
+
+        for (String key : touchedKeys) {
+            final List<T> list = owners.get(key);
+            if (list != null) {
+                touchedLines.addAll(list);
+            }
+        }
+
+        // Check the geometry first, meta commands depend on it
+        final List<T> metaLines = new ArrayList<>();
+        for (T line : touchedLines) {
+            final Entry<T> entry = entries.get(line);
+            if (entry == none) continue;
+            if (entry.type > 6) {
+                metaLines.add(line);
+                continue;
+            }
+            final boolean resets = entry.resets;
+            if (evaluate(line, entry)) {
+                changed.add(line);
+            }
+            if (resets != entry.resets && !addedLines.contains(line)) {
+                metaLines.add(line);
+            }
+        }
+        metaLines.addAll(added);
+        for (T line : metaCount > 0 ? metaLines : Collections.<T>emptyList()) {
+            final Entry<T> entry = entries.get(line);
+            if (entry.type > 6 && evaluate(line, entry)) {
+                changed.add(line);
+            }
+            // The next meta command depends on this line
+            for (T next = lines.getNext(line); next != null; next = lines.getNext(next)) {
+                final Entry<T> nextEntry = entries.getOrDefault(next, none);
+                if (nextEntry == none) continue;
+                if (nextEntry.type > 6) {
+                    if (evaluate(next, nextEntry)) {
+                        changed.add(next);
+                    }
+                    break;
+                }
+                if (nextEntry.resets) break;
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * @return {@link #NO_PROBLEM}, {@link #INVISIBLE} or the line number of
+     *         the line which is duplicated by this line
+     */
+    public int getProblem(T line) {
+        if (!problems.contains(line)) {
+            return NO_PROBLEM;
+        }
+        final Entry<T> entry = entries.get(line);
+        if (entry.reference == null) {
+            return INVISIBLE;
+        }
+        return referencedLine(line, entry);
+    }
+
+    /**
+     * @return all lines with a problem
+     */
+    public Set<T> getProblems() {
+        return Collections.unmodifiableSet(problems);
+    }
+
+    /**
+     * @return the number of indexed lines
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void add(T line, Set<String> touchedKeys) {
+        final Entry<T> entry = createEntry(line);
+        entries.put(line, entry);
+        if (entry.type > 6) metaCount++;
+        if (entry.hasOwners()) {
+            insert(entry.key, line);
+            touchedKeys.add(entry.key);
+            if (entry.textKey != null) {
+                insert(entry.textKey, line);
+                touchedKeys.add(entry.textKey);
+            }
+        }
+    }
+
+    private void unregister(T line, Entry<T> entry, Set<String> touchedKeys) {
+        if (entry.hasOwners()) {
+            remove(entry.key, line);
+            touchedKeys.add(entry.key);
+            if (entry.textKey != null) {
+                remove(entry.textKey, line);
+                touchedKeys.add(entry.textKey);
+            }
+        }
+    }
+
+    private int lineNumber(T line) {
+        if (buildLineNumbers != null) {
+            return buildLineNumbers.getOrDefault(line, 0);
+        }
+        return lines.getLineNumber(line);
+    }
+
+    private void insert(String key, T line) {
+        final List<T> list = owners.computeIfAbsent(key, k -> new ArrayList<>(1));
+        final int lineNumber = lineNumber(line);
+        int low = 0;
+        int high = list.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (lineNumber(list.get(mid)) < lineNumber) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        list.add(low, line);
+    }
+
+    private void remove(String key, T line) {
+        final List<T> list = owners.get(key);
+        if (list != null) {
+            list.remove(line);
+            if (list.isEmpty()) {
+                owners.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the problem state of a line.
+     *
+     * @return {@code true} if the state has changed
+     */
+    private boolean evaluate(T line, Entry<T> entry) {
+        final T oldReference = entry.reference;
+        final boolean hadProblem = problems.contains(line);
+        entry.reference = null;
+        if (entry.type > 6) {
+            entry.reference = previousMetaDuplicate(line, entry);
+        } else if (entry.key == null) {
+            // Invisible condline
+            return problems.add(line);
+        } else if (entry.degenerated) {
+            entry.reference = line;
+        } else {
+            final int lineNumber = lineNumber(line);
+            final T first = firstOther(entry.key, line);
+            if (first != null && lineNumber(first) < lineNumber) {
+                final T firstText = entry.textKey == null ? null : firstOther(entry.textKey, line);
+                if (firstText != null && lineNumber(firstText) < lineNumber) {
+                    entry.reference = firstText;
+                } else {
+                    entry.reference = first;
+                }
+            }
+        }
+        entry.resets = entry.type <= 6 && (entry.reference == null || entry.type == 1 && entry.key.startsWith("IV")); //$NON-NLS-1$
+        if (entry.reference == null) {
+            problems.remove(line);
+            return hadProblem;
+        }
+        problems.add(line);
+        return !hadProblem || oldReference != entry.reference;
+    }
+
+    private int referencedLine(T line, Entry<T> entry) {
+        if (entry.type > 6) {
+            // The message for meta commands always refers to the line above
+            return lineNumber(line) - 1;
+        }
+        return lineNumber(entry.reference);
+    }
+
+    private T firstOther(String key, T line) {
+        final List<T> list = owners.get(key);
+        if (list == null) return null;
+        for (T other : list) {
+            if (other != line) return other;
+        }
+        return null;
+    }
+
+    private T previousMetaDuplicate(T line, Entry<T> entry) {
+        for (T before = lines.getBefore(line); before != null; before = lines.getBefore(before)) {
+            final Entry<T> beforeEntry = entries.getOrDefault(before, none);
+            if (beforeEntry == none) continue;
+            if (beforeEntry.type > 6) {
+                return beforeEntry.key.equals(entry.key) ? before : null;
+            }
+            if (beforeEntry.resets) break;
+        }
+        return null;
+    }
+
+    private Entry<T> createEntry(T line) {
+        final int type = lines.getType(line);
+        switch (type) {
+        case 0, 6:
+            return none;
+        case 1:
+            return new Entry<>(1, referenceKey(line), null, false);
+        case 2, 3, 4:
+        {
+            final String text = lines.getText(line).trim();
+            final String[] segments = text.split("\\s+"); //$NON-NLS-1$
+            return createGeometryEntry(type, segments, type, text);
+        }
+        case 5:
+        {
+            if (lines.isInvisibleCondline(line)) {
+                return new Entry<>(5, null, null, false);
+            }
+            final String[] segments = lines.getText(line).trim().split("\\s+"); //$NON-NLS-1$
+            return createGeometryEntry(5, segments, 2, null);
+        }
+        default:
+        {
+            final String text = lines.getText(line).trim();
+            if (text.isEmpty()) return none;
+            return new Entry<>(type, withoutColour(text.split("\\s+")), null, false); //$NON-NLS-1$
+        }
+        }
+    }
+
+    /**
+     * The key is the smallest rotation of the vertices. A line or condline can
+     * also be reversed, which is the same as a rotation for two vertices.
+     */
+    private Entry<T> createGeometryEntry(int type, String[] segments, int vertexCount, String textKey) {
+        final String[] rotations = new String[vertexCount];
+        for (int r = 0; r < vertexCount; r++) {
+            final StringBuilder sb = new StringBuilder();
+            sb.append(segments[0]);
+            for (int v = 0; v < vertexCount; v++) {
+                final int o = 2 + (r + v) % vertexCount * 3;
+                sb.append(' ');
+                sb.append(segments[o]);
+                sb.append(' ');
+                sb.append(segments[o + 1]);
+                sb.append(' ');
+                sb.append(segments[o + 2]);
+            }
+            rotations[r] = sb.toString();
+        }
+        String key = rotations[0];
+        boolean degenerated = false;
+        for (int r = 1; r < vertexCount; r++) {
+            final int cmp = rotations[r].compareTo(key);
+            if (cmp < 0) {
+                key = rotations[r];
+            }
+            for (int s = 0; s < r; s++) {
+                degenerated |= rotations[r].equals(rotations[s]);
+            }
+        }
+        return new Entry<>(type, key, textKey, degenerated);
+    }
+
+    private String referenceKey(T line) {
+        T invertNext = lines.getBefore(line);
+        while (invertNext != null && lines.getType(invertNext) != 1 && !lines.isInvertNext(invertNext)) {
+            invertNext = lines.getBefore(invertNext);
+        }
+        final String normalized = withoutColour(lines.getText(line).trim().split("\\s+")) + lines.getShortName(line); //$NON-NLS-1$
+        if (invertNext != null && lines.getType(invertNext) != 1) {
+            return "IV" + normalized; //$NON-NLS-1$
+        }
+        return "NIV" + normalized; //$NON-NLS-1$
+    }
+
+    private static String withoutColour(String[] segments) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < segments.length; i++) {
+            if (i != 1) {
+                if (sb.length() > 0) sb.append(' ');
+                sb.append(segments[i]);
+            }
+        }
+        return sb.toString();
+    }
+}
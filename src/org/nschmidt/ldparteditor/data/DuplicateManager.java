@@ -16,9 +16,8 @@ ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEAL
 package org.nschmidt.ldparteditor.data;
 
 import java.text.MessageFormat;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -44,12 +43,22 @@ public class DuplicateManager {
 
     private volatile Queue<GData> workQueue = new ConcurrentLinkedQueue<>();
 
+    private final DuplicateIndex.Lines<GData> lines = new GDataLines();
+    /** The index of the last full check ({@code null} while a full check is pending) */
+    private DuplicateIndex<GData> index = null;
+    /** Counts the requests for a full check */
+    private int generation = 0;
+
     DuplicateManager(DatFile df) {
         this.df = df;
     }
 
     public void pushDuplicateCheck(GData data) {
         if (df.isReadOnly()) return;
+        synchronized (this) {
+            index = null;
+            generation++;
+        }
         if (hasNoThread || !worker.isAlive()) {
             hasNoThread = false;
             worker = new Thread(this::detectDuplicates);
@@ -66,6 +75,30 @@ public class DuplicateManager {
         }
     }
 
+    /**
+     * Updates the duplicate check after a text change. Only the changed lines
+     * and the lines which share a key with them are checked again. A full
+     * check is started if there is no (valid) index.
+     *
+     * @param removed
+     *            the data of the old lines
+     * @param added
+     *            the data of the new lines
+     */
+    void updateDuplicateCheck(List<GData> removed, List<GData> added) {
+        if (df.isReadOnly()) return;
+        synchronized (this) {
+            final Set<GData> changed = index == null ? null : index.update(removed, added);
+            if (changed != null) {
+                for (GData gd : changed) {
+                    publish(index, gd);
+                }
+                return;
+            }
+        }
+        pushDuplicateCheck(df.getDrawChainStart());
+    }
+
     void deleteDuplicateInfo() {
         isRunning.set(false);
     }
@@ -79,498 +112,34 @@ public class DuplicateManager {
             try {
                 GData newEntry = workQueue.poll();
                 if (newEntry != null) {
+                    // Only the latest request is relevant
+                    GData nextEntry;
+                    while ((nextEntry = workQueue.poll()) != null) {
+                        newEntry = nextEntry;
+                    }
                     NLogger.debug(getClass(), "Started duplicate check..."); //$NON-NLS-1$
 
-                    final Set<GData> allKeys = new HashSet<>();
-                    String lastCommentLine = null;
-                    final Map<String, Integer> lines = new HashMap<>();
-
-                    allKeys.addAll(GData.CACHE_duplicates.threadsafeKeySet());
-                    GData gd = newEntry;
-                    int lineNumber = 1;
-                    while ((gd = gd.next) != null) {
-                        boolean[] registered = new boolean[]{false};
-                        int type = gd.type();
-                        String trimmedLine = gd.toString().trim();
-                        String[] dataSegments = trimmedLine.split("\\s+"); //$NON-NLS-1$
-
-                        // Remove double spaces (essential for complex types)
-                        String normalizedLine;
-                        if (type > 6 || type < 2) {
-                            StringBuilder normalized = new StringBuilder();
-                            int i = 0;
-                            for (String string : dataSegments) {
-                                if (i != 1) {
-                                    normalized.append(string);
-                                    normalized.append(" "); //$NON-NLS-1$
-                                }
-                                i++;
-                            }
-                            normalizedLine = normalized.toString().trim();
-                        } else {
-                            normalizedLine = trimmedLine;
-                        }
-
-                        switch (type) {
-                        case 0:
-                            break;
-                        case 1:
-
-                            GData invertNextData = gd.getBefore();
-                            normalizedLine = normalizedLine + ((GData1) gd).shortName;
-                            // Check if a INVERTNEXT is present
-                            while (invertNextData != null && invertNextData.type() != 1 && (invertNextData.type() != 6 || ((GDataBFC) invertNextData).type != BFC.INVERTNEXT)) {
-                                invertNextData = invertNextData.getBefore();
-                            }
-                            if (invertNextData != null && invertNextData.type() == 6) {
-                                normalizedLine = "IV" + normalizedLine; //$NON-NLS-1$
-                                if (lines.containsKey(normalizedLine)) {
-                                    lastCommentLine = "0 BFC INVERTNEXT"; //$NON-NLS-1$
-                                    registerDuplicate(gd, lines.get(normalizedLine), registered);
-                                } else {
-                                    lastCommentLine = null;
-                                    lines.put(normalizedLine, lineNumber);
-                                }
-                            } else {
-                                normalizedLine = "NIV" + normalizedLine; //$NON-NLS-1$
-                                if (lines.containsKey(normalizedLine)) {
-                                    registerDuplicate(gd, lines.get(normalizedLine), registered);
-                                } else {
-                                    lastCommentLine = null;
-                                    lines.put(normalizedLine, lineNumber);
-                                }
-                            }
-                            break;
-                        case 2:
-                        {
-                            if (!((GData2) gd).isLine) {
-                                break;
-                            }
-                            if (lines.containsKey(normalizedLine)) {
-                                registerDuplicate(gd, lines.get(normalizedLine), registered);
-                            } else {
-                                lines.put(normalizedLine, lineNumber);
-                                StringBuilder normalized1 = new StringBuilder();
-
-                                normalized1.append(dataSegments[0]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[2]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[3]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[4]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[5]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[6]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[7]);
-
-                                String normalizedLine1 = normalized1.toString().trim();
-
-                                if (lines.containsKey(normalizedLine1)) {
-                                    registerDuplicate(gd, lines.get(normalizedLine1), registered);
-                                } else {
-                                    lines.put(normalizedLine1, lineNumber);
-                                    lastCommentLine = null;
-
-                                    StringBuilder normalized2 = new StringBuilder();
-                                    normalized2.append(dataSegments[0]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[5]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[6]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[7]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[2]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[3]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[4]);
-
-                                    String normalizedLine2 = normalized2.toString().trim();
-
-                                    if (lines.containsKey(normalizedLine2)) {
-                                        registerDuplicate(gd, lines.get(normalizedLine2), registered);
-                                    } else {
-                                        lines.put(normalizedLine2, lineNumber);
-                                        lastCommentLine = null;
-                                    }
-                                }
-                            }
-                        }
-                        break;
-                        case 3:
-                        {
-                            if (!((GData3) gd).isTriangle) {
-                                break;
-                            }
-                            if (lines.containsKey(normalizedLine)) {
-                                registerDuplicate(gd, lines.get(normalizedLine), registered);
-                            } else {
-                                lines.put(normalizedLine, lineNumber);
-                                StringBuilder normalized1 = new StringBuilder();
-
-                                normalized1.append(dataSegments[0]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[2]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[3]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[4]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[5]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[6]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[7]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[8]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[9]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[10]);
-
-                                String normalizedLine1 = normalized1.toString().trim();
-
-                                if (lines.containsKey(normalizedLine1)) {
-                                    registerDuplicate(gd, lines.get(normalizedLine1), registered);
-                                } else {
-                                    lines.put(normalizedLine1, lineNumber);
-                                    StringBuilder normalized2 = new StringBuilder();
-
-                                    normalized2.append(dataSegments[0]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[8]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[9]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[10]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[2]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[3]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[4]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[5]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[6]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[7]);
-
-                                    String normalizedLine2 = normalized2.toString().trim();
-
-                                    if (lines.containsKey(normalizedLine2)) {
-                                        registerDuplicate(gd, lines.get(normalizedLine2), registered);
-                                    } else {
-                                        lines.put(normalizedLine2, lineNumber);
-                                        StringBuilder normalized3 = new StringBuilder();
-
-                                        normalized3.append(dataSegments[0]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-
-                                        normalized3.append(dataSegments[5]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[6]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[7]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-
-                                        normalized3.append(dataSegments[8]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[9]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[10]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-
-                                        normalized3.append(dataSegments[2]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[3]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[4]);
-
-                                        String normalizedLine3 = normalized3.toString().trim();
-                                        if (lines.containsKey(normalizedLine3)) {
-                                            registerDuplicate(gd, lines.get(normalizedLine3), registered);
-                                        } else {
-                                            lines.put(normalizedLine3, lineNumber);
-                                            lastCommentLine = null;
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                        break;
-                        case 4:
-                        {
-                            if (lines.containsKey(normalizedLine)) {
-                                registerDuplicate(gd, lineNumber, registered);
-                            } else {
-                                lines.put(normalizedLine, lineNumber);
-                                StringBuilder normalized1 = new StringBuilder();
-
-                                normalized1.append(dataSegments[0]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[2]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[3]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[4]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[5]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[6]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[7]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[8]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[9]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[10]);
-                                normalized1.append(" "); //$NON-NLS-1$
-
-                                normalized1.append(dataSegments[11]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[12]);
-                                normalized1.append(" "); //$NON-NLS-1$
-                                normalized1.append(dataSegments[13]);
-
-                                String normalizedLine1 = normalized1.toString().trim();
-
-                                if (lines.containsKey(normalizedLine1)) {
-                                    registerDuplicate(gd, lines.get(normalizedLine1), registered);
-                                } else {
-                                    lines.put(normalizedLine1, lineNumber);
-                                    StringBuilder normalized2 = new StringBuilder();
-
-                                    normalized2.append(dataSegments[0]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[11]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[12]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[13]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[2]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[3]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[4]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[5]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[6]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[7]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[8]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[9]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[10]);
-
-                                    String normalizedLine2 = normalized2.toString().trim();
-
-                                    if (lines.containsKey(normalizedLine2)) {
-                                        registerDuplicate(gd, lines.get(normalizedLine2), registered);
-                                    } else {
-                                        lines.put(normalizedLine2, lineNumber);
-                                        StringBuilder normalized3 = new StringBuilder();
-
-                                        normalized3.append(dataSegments[0]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-
-                                        normalized3.append(dataSegments[8]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[9]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[10]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-
-                                        normalized3.append(dataSegments[11]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[12]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[13]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-
-                                        normalized3.append(dataSegments[2]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[3]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[4]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-
-                                        normalized3.append(dataSegments[5]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[6]);
-                                        normalized3.append(" "); //$NON-NLS-1$
-                                        normalized3.append(dataSegments[7]);
-
-                                        String normalizedLine3 = normalized3.toString().trim();
-                                        if (lines.containsKey(normalizedLine3)) {
-                                            registerDuplicate(gd, lines.get(normalizedLine3), registered);
-                                        } else {
-                                            lines.put(normalizedLine3, lineNumber);
-                                            StringBuilder normalized4 = new StringBuilder();
-
-                                            normalized4.append(dataSegments[0]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-
-                                            normalized4.append(dataSegments[5]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[6]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[7]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-
-                                            normalized4.append(dataSegments[8]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[9]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[10]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-
-                                            normalized4.append(dataSegments[11]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[12]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[13]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-
-                                            normalized4.append(dataSegments[2]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[3]);
-                                            normalized4.append(" "); //$NON-NLS-1$
-                                            normalized4.append(dataSegments[4]);
-
-                                            String normalizedLine4 = normalized4.toString().trim();
-                                            if (lines.containsKey(normalizedLine4)) {
-                                                registerDuplicate(gd, lines.get(normalizedLine4), registered);
-                                            } else {
-                                                lines.put(normalizedLine4, lineNumber);
-                                                lastCommentLine = null;
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                        break;
-                        case 5:
-                        {
-                            GData5 gd5 = (GData5) gd;
-
-                            Vector4f p1 = MathHelper.getNearestPointToLine(gd5.x1, gd5.y1, gd5.z1, gd5.x2, gd5.y2, gd5.z2, gd5.x3, gd5.y3, gd5.z3);
-                            Vector4f p2 = MathHelper.getNearestPointToLine(gd5.x1, gd5.y1, gd5.z1, gd5.x2, gd5.y2, gd5.z2, gd5.x4, gd5.y4, gd5.z4);
-
-                            Vector3f pa1 = Vector3f.sub(new Vector3f(gd5.x3, gd5.y3, gd5.z3), new Vector3f(p1.x, p1.y, p1.z), null);
-                            Vector3f pa2 = Vector3f.sub(new Vector3f(gd5.x4, gd5.y4, gd5.z4), new Vector3f(p2.x, p2.y, p2.z), null);
-
-                            float a = (float) (Vector3f.angle(pa1, pa2) / Math.PI * 180.0);
-
-
-                            if (a > Threshold.CONDLINE_ANGLE_MAXIMUM) {
-                                registerInvisibleCondline(gd, registered);
-                            } else {
-                                StringBuilder normalized3 = new StringBuilder();
-
-                                normalized3.append(dataSegments[0]);
-                                normalized3.append(" "); //$NON-NLS-1$
-
-                                normalized3.append(dataSegments[2]);
-                                normalized3.append(" "); //$NON-NLS-1$
-                                normalized3.append(dataSegments[3]);
-                                normalized3.append(" "); //$NON-NLS-1$
-                                normalized3.append(dataSegments[4]);
-                                normalized3.append(" "); //$NON-NLS-1$
-
-                                normalized3.append(dataSegments[5]);
-                                normalized3.append(" "); //$NON-NLS-1$
-                                normalized3.append(dataSegments[6]);
-                                normalized3.append(" "); //$NON-NLS-1$
-                                normalized3.append(dataSegments[7]);
-                                normalized3.append(" "); //$NON-NLS-1$
-
-                                String normalizedLine3 = normalized3.toString().trim();
-
-                                if (lines.containsKey(normalizedLine3)) {
-                                    registerDuplicate(gd, lines.get(normalizedLine3), registered);
-                                } else {
-                                    lines.put(normalizedLine3, lineNumber);
-                                    StringBuilder normalized2 = new StringBuilder();
-
-                                    normalized2.append(dataSegments[0]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[5]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[6]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[7]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    normalized2.append(dataSegments[2]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[3]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-                                    normalized2.append(dataSegments[4]);
-                                    normalized2.append(" "); //$NON-NLS-1$
-
-                                    String normalizedLine2 = normalized2.toString().trim();
-
-                                    if (lines.containsKey(normalizedLine2)) {
-                                        registerDuplicate(gd, lines.get(normalizedLine2), registered);
-                                    } else {
-                                        lines.put(normalizedLine2, lineNumber);
-                                        lastCommentLine = null;
-                                    }
-                                }
+                    final int requestGeneration;
+                    synchronized (this) {
+                        requestGeneration = generation;
+                    }
+                    final DuplicateIndex<GData> newIndex = new DuplicateIndex<>(lines);
+                    newIndex.build(newEntry.next);
+
+                    synchronized (this) {
+                        // The result is outdated if there was another request in the meantime
+                        if (requestGeneration == generation) {
+                            index = newIndex;
+                            final Set<GData> allKeys = new HashSet<>(GData.CACHE_duplicates.threadsafeKeySet());
+                            for (GData gd : newIndex.getProblems()) {
+                                publish(newIndex, gd);
+                                allKeys.remove(gd);
                             }
-                        }
-                        break;
-                        case 6:
-                            break;
-                        default:
-                            if (!trimmedLine.isEmpty()) {
-                                if (lastCommentLine != null && lastCommentLine.equals(normalizedLine)) {
-                                    registerDuplicate(gd, lineNumber - 1, registered);
-                                } else {
-                                    lastCommentLine = normalizedLine;
-                                }
+                            for (GData gd : allKeys) {
+                                GData.CACHE_duplicates.remove(gd);
                             }
-                            break;
-                        }
-                        if (registered[0]) {
-                            allKeys.remove(gd);
                         }
-                        lineNumber += 1;
                     }
-
-                    for (GData gd2 : allKeys) {
-                        GData.CACHE_duplicates.remove(gd2);
-                    }
-
                 }
                 if (workQueue.isEmpty()) Thread.sleep(100);
             } catch (InterruptedException ie) {
@@ -585,17 +154,107 @@ public class DuplicateManager {
         }
     }
 
-    private void registerDuplicate(GData gd, int lineNumber, boolean[] registered) {
-        registered[0] = true;
-        Object[] messageArguments = {lineNumber};
-        MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-        formatter.setLocale(MyLanguage.getLocale());
-        formatter.applyPattern(I18n.DATPARSER_DUPLICATED_LINES);
-        GData.CACHE_duplicates.put(gd, new ParsingResult(formatter.format(messageArguments), "[E01] " + I18n.DATPARSER_LOGIC_ERROR, ResultType.ERROR)); //$NON-NLS-1$
+    private void publish(DuplicateIndex<GData> index, GData gd) {
+        final int problem = index.getProblem(gd);
+        if (problem == DuplicateIndex.NO_PROBLEM) {
+            GData.CACHE_duplicates.remove(gd);
+        } else if (problem == DuplicateIndex.INVISIBLE) {
+            registerInvisibleCondline(gd);
+        } else {
+            GData.CACHE_duplicates.put(gd, new DuplicateResult(index, gd));
+        }
     }
 
-    private void registerInvisibleCondline(GData gd, boolean[] registered) {
-        registered[0] = true;
+    private void registerInvisibleCondline(GData gd) {
         GData.CACHE_duplicates.put(gd, new ParsingResult(I18n.DATPARSER_INVISIBLE_LINE, "[E01] " + I18n.DATPARSER_LOGIC_ERROR, ResultType.ERROR)); //$NON-NLS-1$
     }
+
+    /**
+     * The message of a duplicate refers to the current line number of the
+     * duplicated line. It is formatted on demand, since the line number
+     * changes when lines are added or removed above it.
+     */
+    private static final class DuplicateResult extends ParsingResult {
+
+        private final DuplicateIndex<GData> index;
+        private final GData gd;
+        private int formattedLine = -1;
+
+        DuplicateResult(DuplicateIndex<GData> index, GData gd) {
+            super(null, "[E01] " + I18n.DATPARSER_LOGIC_ERROR, ResultType.ERROR); //$NON-NLS-1$
+            this.index = index;
+            this.gd = gd;
+        }
+
+        @Override
+        public String getMessage() {
+            final int lineNumber = index.getProblem(gd);
+            if (lineNumber > 0 && lineNumber != formattedLine) {
+                formattedLine = lineNumber;
+                Object[] messageArguments = {lineNumber};
+                MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
+                formatter.setLocale(MyLanguage.getLocale());
+                formatter.applyPattern(I18n.DATPARSER_DUPLICATED_LINES);
+                setMessage(formatter.format(messageArguments));
+            }
+            return super.getMessage();
+        }
+    }
+
+    private class GDataLines implements DuplicateIndex.Lines<GData> {
+
+        @Override
+        public GData getNext(GData line) {
+            return line.next;
+        }
+
+        @Override
+        public GData getBefore(GData line) {
+            return line.getBefore();
+        }
+
+        @Override
+        public int getLineNumber(GData line) {
+            final Integer lineNumber = df.getDrawPerLineNoClone().getKey(line);
+            return lineNumber == null ? 0 : lineNumber;
+        }
+
+        @Override
+        public int getType(GData line) {
+            final int type = line.type();
+            if (type == 2 && !((GData2) line).isLine || type == 3 && !((GData3) line).isTriangle) {
+                return 0;
+            }
+            return type;
+        }
+
+        @Override
+        public boolean isInvertNext(GData line) {
+            return line.type() == 6 && ((GDataBFC) line).type == BFC.INVERTNEXT;
+        }
+
+        @Override
+        public boolean isInvisibleCondline(GData line) {
+            GData5 gd5 = (GData5) line;
+
+            Vector4f p1 = MathHelper.getNearestPointToLine(gd5.x1, gd5.y1, gd5.z1, gd5.x2, gd5.y2, gd5.z2, gd5.x3, gd5.y3, gd5.z3);
+            Vector4f p2 = MathHelper.getNearestPointToLine(gd5.x1, gd5.y1, gd5.z1, gd5.x2, gd5.y2, gd5.z2, gd5.x4, gd5.y4, gd5.z4);
+
+            Vector3f pa1 = Vector3f.sub(new Vector3f(gd5.x3, gd5.y3, gd5.z3), new Vector3f(p1.x, p1.y, p1.z), null);
+            Vector3f pa2 = Vector3f.sub(new Vector3f(gd5.x4, gd5.y4, gd5.z4), new Vector3f(p2.x, p2.y, p2.z), null);
+
+            float a = (float) (Vector3f.angle(pa1, pa2) / Math.PI * 180.0);
+            return a > Threshold.CONDLINE_ANGLE_MAXIMUM;
+        }
+
+        @Override
+        public String getText(GData line) {
+            return line.toString();
+        }
+
+        @Override
+        public String getShortName(GData line) {
+            return ((GData1) line).getShortName();
+        }
+    }
 }
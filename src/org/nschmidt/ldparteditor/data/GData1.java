@@ -39,6 +39,7 @@ import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.composite3d.PerspectiveCalculator;
 import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
 import org.nschmidt.ldparteditor.helper.compositetext.Inliner;
+import org.nschmidt.ldparteditor.helper.math.Frustum;
 import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeHashMap;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeSortedMap;
@@ -415,6 +416,27 @@ public final class GData1 extends GData {
         return shortName;
     }
 
+    String getName() {
+        return name;
+    }
+
+    Matrix4f getLocalMatrix() {
+        return localMatrix;
+    }
+
+    boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * @return {@code false} if the content of this subfile is completely
+     *         outside of the view frustum
+     */
+    boolean isInFrustum(Frustum frustum) {
+        // The bounding box is unknown if there is no content
+        return boundingBoxMin.x == Float.MAX_VALUE || frustum.intersects(boundingBoxMin.x, boundingBoxMin.y, boundingBoxMin.z, boundingBoxMax.x, boundingBoxMax.y, boundingBoxMax.z);
+    }
+
     private boolean isNotBlank(String str) {
         int strLen;
         if (str == null || (strLen = str.length()) == 0) {
@@ -1047,31 +1047,15 @@ public final class GData5 extends GData {
         return lineBuilder.toString();
     }
 
-    void isShown(Matrix4f viewport, ThreadsafeHashMap<GData1, Matrix4f> cacheViewByProjection, float zoom) {
-
-        if (wasShown) {
-            return;
-        }
-
-        final Matrix4f m2 = cacheViewByProjection.get(parent);
-        if (m2 == null) {
-            Matrix4f.mul(viewport, parent.productMatrix, m);
-            cacheViewByProjection.put(parent, m);
-        } else {
-            m = m2;
+    /**
+     * @param viewByProjection
+     *            the view matrix of the parent (viewport times product
+     *            matrix)
+     */
+    void isShown(Matrix4f viewByProjection, float zoom) {
+        if (!wasShown) {
+            wasShown = MathHelper.isCondlineShown(viewByProjection, sA2, sB2, sC2, sD2, zoom);
         }
-
-        // Calculate the real coordinates
-        Matrix4f.transform(m, sA2, sA);
-        Matrix4f.transform(m, sB2, sB);
-        Matrix4f.transform(m, sC2, sC);
-        Matrix4f.transform(m, sD2, sD);
-
-        n.x = sA.y - sB.y;
-        n.y = sB.x - sA.x;
-        n.z = 0f;
-        n.w = 1f;
-        wasShown = zoom / Vector4f.dot(n, Vector4f.sub(sC, sA, null)) * Vector4f.dot(n, Vector4f.sub(sD, sA, null)) > -1e-20f;
     }
 
     boolean wasShown() {
@@ -65,6 +65,7 @@ import org.nschmidt.ldparteditor.helper.composite3d.PathTruderSettings;
 import org.nschmidt.ldparteditor.helper.composite3d.PerspectiveCalculator;
 import org.nschmidt.ldparteditor.helper.compositetext.Inliner;
 import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.helper.math.PowerRay;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeHashMap;
@@ -1076,7 +1077,7 @@ public final class GDataCSG extends GData {
     private static Integer selectCSGhelper(Composite3D c3d, Event event) {
         final PowerRay powerRay = new PowerRay();
         final DatFile df = c3d.getLockableDatFileReference();
-        final HashBiMap<Integer, GData> dpl = df.getDrawPerLineNoClone();
+        final LineIndex<GData> dpl = df.getDrawPerLineNoClone();
         registeredData.putIfAbsent(df, new HashSet<>());
 
         PerspectiveCalculator perspective = c3d.getPerspectiveCalculator();
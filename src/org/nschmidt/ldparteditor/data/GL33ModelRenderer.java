@@ -29,9 +29,7 @@ import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -49,6 +47,8 @@ import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.LDPartEditorException;
 import org.nschmidt.ldparteditor.helper.Manipulator;
 import org.nschmidt.ldparteditor.helper.StudLogo;
+import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
+import org.nschmidt.ldparteditor.helper.math.Frustum;
 import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeHashMap;
 import org.nschmidt.ldparteditor.logger.NLogger;
@@ -57,6 +57,7 @@ import org.nschmidt.ldparteditor.opengl.GLShader;
 import org.nschmidt.ldparteditor.opengl.OpenGLRenderer;
 import org.nschmidt.ldparteditor.opengl.OpenGLRenderer33;
 import org.nschmidt.ldparteditor.shell.editor3d.toolitem.MiscToggleToolItem;
+import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 
 /**
  * New OpenGL 3.3 high performance render function for the model (VAO accelerated)
@@ -77,10 +78,12 @@ public class GL33ModelRenderer {
 
     private final Composite3D c3d;
     private final OpenGLRenderer33 renderer;
+    private final PrimitiveVariants primitiveVariants;
 
     public GL33ModelRenderer(Composite3D c3d, OpenGLRenderer33 renderer) {
         this.c3d = c3d;
         this.renderer = renderer;
+        this.primitiveVariants = new PrimitiveVariants(c3d, renderer);
     }
 
     // FIXME needs concept implementation!
@@ -119,10 +122,6 @@ public class GL33ModelRenderer {
 
     private volatile Lock lock = new ReentrantLock();
     private static volatile Lock staticLock = new ReentrantLock();
-    private static volatile AtomicInteger idGen = new AtomicInteger(0);
-    private static volatile AtomicInteger idCount = new AtomicInteger(0);
-
-    private static volatile CopyOnWriteArrayList<Integer> idList = new CopyOnWriteArrayList<>();
     private volatile AtomicBoolean calculateCSG = new AtomicBoolean(true);
 
     private volatile AtomicBoolean calculateCondlineControlPoints = new AtomicBoolean(true);
@@ -318,34 +317,23 @@ public class GL33ModelRenderer {
         final Map<GData, Vertex[]> vertexMap = new HashMap<>();
         final Map<GData, Vertex[]> vertexMap2 = new HashMap<>();
         final Map<GData, float[]> normalMap = new HashMap<>();
-        final ThreadsafeHashMap<GData1, Matrix4f> cacheViewByProjection = new ThreadsafeHashMap<>(1000);
+        final Map<GData1, Matrix4f> cacheViewByProjection = new HashMap<>(1000);
+        final TransparencySorter transparencySorter = new TransparencySorter();
         final Map<GData1, Matrix4f> matrixMap = new HashMap<>();
-        final Integer myID = idGen.getAndIncrement();
         matrixMap.put(View.DUMMY_REFERENCE, View.ID);
-        idList.add(myID);
+        long generation = -1L;
         while (isRunning.get()) {
 
-            boolean myTurn;
+            // Wait until something has changed
             try {
-                myTurn = myID.equals(idList.get(idCount.get()));
-            } catch (IndexOutOfBoundsException iob) {
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new LDPartEditorException(ie);
-                }
-                continue;
+                generation = ViewIdleManager.frameScheduler.awaitChange(renderer, generation);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new LDPartEditorException(ie);
             }
 
-            if (!myTurn) {
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new LDPartEditorException(ie);
-                }
-                continue;
+            if (!isRunning.get()) {
+                break;
             }
 
             final int renderMode = c3d.getRenderMode();
@@ -389,8 +377,12 @@ public class GL33ModelRenderer {
                                 }
                             }
                         }
+                        final boolean changed = !tmpPureCondlineControlPoints.equals(pureCondlineControlPoints);
                         pureCondlineControlPoints = tmpPureCondlineControlPoints;
                         calculateCondlineControlPoints.set(true);
+                        if (changed) {
+                            ViewIdleManager.frameScheduler.invalidate(renderer);
+                        }
                     });
                 }
 
@@ -421,10 +413,22 @@ public class GL33ModelRenderer {
                 hiddenSet.clear();
                 cacheViewByProjection.clear();
 
+                // Skip subfiles outside of the view (but not while the manipulator moves the selection)
+                final boolean isManipulating = c3d.getManipulator().isModified();
+                final Frustum frustum = isManipulating ? null : renderer.getFrustum();
+                if (isManipulating) {
+                    // Cull the data again as soon as the manipulation is over
+                    ViewIdleManager.frameScheduler.invalidateLater(renderer, Manipulator.MODIFIED_TIMEOUT);
+                }
+
+                // Primitives can be rendered with another resolution (but not while the manipulator moves the selection)
+                primitiveVariants.begin(df, c3d.getZoom(), !isManipulating && WorkbenchManager.getUserSettingState().isPrimitiveLevelOfDetail(),
+                        mainFileContent, selectedData);
                 usesCSG = loadBFCinfo(
-                        dataInOrder, csgData, vertexMap, matrixMap, df,
+                        dataInOrder, csgData, vertexMap, matrixMap, frustum, df,
                         lines, triangles, quads, condlines, drawStudLogo,
                         pngImages, tmpDistanceMeters, tmpProtractors);
+                primitiveVariants.end();
 
                 final boolean smoothShading = c3d.isSmoothShading() && !drawWireframe;
                 final Map<GData, Vector3f[]> vertexNormals;
@@ -657,6 +661,7 @@ public class GL33ModelRenderer {
                             transparentCSGoffset = csgIndex;
                             transparentCSGsize = csgTransVertexCount;
                             lock.unlock();
+                            ViewIdleManager.frameScheduler.requestFrame(renderer);
                         } catch (Exception ex) {
                             NLogger.error(getClass(), ex);
                         } finally {
@@ -763,10 +768,18 @@ public class GL33ModelRenderer {
                 // Only do "heavy" CPU condline computing with the special condline mode
                 // (if the condline was not shown before)
                 if (condlineMode) {
+                    // The view matrices are calculated first, so that the parallel part only reads the map
+                    for (GDataAndWinding gw : dataInOrder) {
+                        final GData gd = gw.data;
+                        if (gd.type() == 5 && !((GData5) gd).wasShown()) {
+                            cacheViewByProjection.computeIfAbsent(((GData5) gd).parent, parent -> Matrix4f.mul(viewport, parent.productMatrix, null));
+                        }
+                    }
                     dataInOrder.parallelStream().forEach((GDataAndWinding gw) -> {
                         GData gd = gw.data;
                         if (gd.type() == 5) {
-                            ((GData5) gd).isShown(viewport, cacheViewByProjection, zoom);
+                            final GData5 gd5 = (GData5) gd;
+                            gd5.isShown(cacheViewByProjection.get(gd5.parent), zoom);
                         }
                     });
                 }
@@ -2138,6 +2151,9 @@ public class GL33ModelRenderer {
                     }
                 }
 
+                // Transparent triangles are drawn from back to front
+                transparencySorter.sort(triangleData, triangleVertexCount, transparentTriangleVertexCount, viewport);
+
                 if (drawStudLogo) {
                     lock.lock();
                     stud1MatricesResult = stud1Matrices;
@@ -2182,17 +2198,13 @@ public class GL33ModelRenderer {
             } finally {
                 staticLock.unlock();
             }
-            if (idCount.incrementAndGet() >= idList.size()) {
-                idCount.set(0);
-            }
+            ViewIdleManager.frameScheduler.requestFrame(renderer);
         }
-        idCount.set(0);
-        idList.remove(myID);
-        idCount.set(0);
     }
 
     public void dispose() {
         isRunning.set(false);
+        ViewIdleManager.frameScheduler.remove(renderer);
         GL30.glDeleteVertexArrays(vao);
         GL15.glDeleteBuffers(vbo);
         GL30.glDeleteVertexArrays(vaoVertices);
@@ -2610,7 +2622,8 @@ public class GL33ModelRenderer {
             final List<GDataAndWinding> dataInOrder,
             final List<GDataCSG> csgData,
             final Map<GData, Vertex[]> vertexMap,
-            final Map<GData1, Matrix4f> matrixMap, final DatFile df,
+            final Map<GData1, Matrix4f> matrixMap,
+            final Frustum frustum, final DatFile df,
             final ThreadsafeHashMap<GData2, Vertex[]> lines,
             final ThreadsafeHashMap<GData3, Vertex[]> triangles,
             final ThreadsafeHashMap<GData4, Vertex[]> quads,
@@ -2658,7 +2671,17 @@ public class GL33ModelRenderer {
             backup = gd;
             switch (gd.type()) {
             case 1:
-                final GData1 gd1 = (GData1) gd;
+                final GData1 reference = (GData1) gd;
+                if (frustum != null && !reference.isInFrustum(frustum)) {
+                    // The subfile is outside of the view frustum, but a BFC INVERTNEXT for it must not apply to the next one
+                    if (globalInvertNextFound) {
+                        globalInvertNext = !globalInvertNext;
+                        globalInvertNextFound = false;
+                    }
+                    continue;
+                }
+                // Primitives can be rendered with another resolution
+                final GData1 gd1 = primitiveVariants.select(reference);
                 final Matrix4f rotation = new Matrix4f(gd1.productMatrix);
                 rotation.m30 = 0f;
                 rotation.m31 = 0f;
@@ -2742,6 +2765,9 @@ public class GL33ModelRenderer {
             case 2:
                 GData2 gd2 = (GData2) gd;
                 verts = lines.get(gd2);
+                if (verts == null) {
+                    verts = primitiveVariants.getVertices(gd2);
+                }
                 if (verts != null) {
                     if (!gd2.isLine) {
                         tmpDistanceMeters.add(gd2);
@@ -2753,6 +2779,9 @@ public class GL33ModelRenderer {
             case 3:
                 GData3 gd3 = (GData3) gd;
                 verts = triangles.get(gd3);
+                if (verts == null) {
+                    verts = primitiveVariants.getVertices(gd3);
+                }
                 if (verts != null) {
                     if (!gd3.isTriangle) {
                         tmpProtractors.add(gd3);
@@ -2763,6 +2792,9 @@ public class GL33ModelRenderer {
                 continue;
             case 4:
                 verts = quads.get(gd);
+                if (verts == null) {
+                    verts = primitiveVariants.getVertices(gd);
+                }
                 if (verts != null) {
                     vertexMap.put(gd, verts);
                     dataInOrder.add(new GDataAndWinding(gd, localWinding, globalNegativeDeterminant, globalInvertNext, accumClip));
@@ -2770,6 +2802,9 @@ public class GL33ModelRenderer {
                 continue;
             case 5:
                 verts = condlines.get(gd);
+                if (verts == null) {
+                    verts = primitiveVariants.getVertices(gd);
+                }
                 if (verts != null) {
                     vertexMap.put(gd, verts);
                     dataInOrder.add(new GDataAndWinding(gd, localWinding, globalNegativeDeterminant, globalInvertNext, accumClip));
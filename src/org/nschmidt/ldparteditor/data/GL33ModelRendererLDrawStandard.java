@@ -26,9 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -44,11 +42,14 @@ import org.nschmidt.ldparteditor.enumtype.LDConfig;
 import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.LDPartEditorException;
 import org.nschmidt.ldparteditor.helper.StudLogo;
+import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
+import org.nschmidt.ldparteditor.helper.math.Frustum;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeHashMap;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.opengl.GLMatrixStack;
 import org.nschmidt.ldparteditor.opengl.GLShader;
 import org.nschmidt.ldparteditor.opengl.OpenGLRenderer33;
+import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 
 /**
  * New OpenGL 3.3 high performance render function for the LDraw standard render mode
@@ -74,10 +75,12 @@ public class GL33ModelRendererLDrawStandard {
 
     private final Composite3D c3d;
     private final OpenGLRenderer33 renderer;
+    private final PrimitiveVariants primitiveVariants;
 
     public GL33ModelRendererLDrawStandard(Composite3D c3d, OpenGLRenderer33 renderer) {
         this.c3d = c3d;
         this.renderer = renderer;
+        this.primitiveVariants = new PrimitiveVariants(c3d, renderer);
     }
 
     private int vao;
@@ -97,10 +100,6 @@ public class GL33ModelRendererLDrawStandard {
 
     private volatile Lock lock = new ReentrantLock();
     private static volatile Lock staticLock = new ReentrantLock();
-    private static volatile AtomicInteger idGen = new AtomicInteger(0);
-    private static volatile AtomicInteger idCount = new AtomicInteger(0);
-
-    private static volatile CopyOnWriteArrayList<Integer> idList = new CopyOnWriteArrayList<>();
 
     private volatile float[] dataTriangles = null;
     private volatile float[] dataLines = new float[]{0f};
@@ -224,32 +223,20 @@ public class GL33ModelRendererLDrawStandard {
         final Map<GData, float[]> normalMap = new HashMap<>();
         final ThreadsafeHashMap<GData1, Matrix4f> cacheViewByProjection = new ThreadsafeHashMap<>(1000);
         final Map<GData1, Matrix4f> matrixMap = new HashMap<>();
-        final Integer myID = idGen.getAndIncrement();
         matrixMap.put(View.DUMMY_REFERENCE, View.ID);
-        idList.add(myID);
+        long generation = -1L;
         while (isRunning.get()) {
 
-            boolean myTurn;
+            // Wait until something has changed
             try {
-                myTurn = myID.equals(idList.get(idCount.get()));
-            } catch (IndexOutOfBoundsException iob) {
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new LDPartEditorException(ie);
-                }
-                continue;
+                generation = ViewIdleManager.frameScheduler.awaitChange(renderer, generation);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new LDPartEditorException(ie);
             }
 
-            if (!myTurn) {
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new LDPartEditorException(ie);
-                }
-                continue;
+            if (!isRunning.get()) {
+                break;
             }
 
             final int renderMode = c3d.getRenderMode();
@@ -283,9 +270,14 @@ public class GL33ModelRendererLDrawStandard {
                 cacheViewByProjection.clear();
 
                 {
+                    // Skip subfiles outside of the view
+                    final Frustum frustum = renderer.getFrustum();
+                    primitiveVariants.begin(df, c3d.getZoom(), WorkbenchManager.getUserSettingState().isPrimitiveLevelOfDetail(),
+                            vm.lineLinkedToVertices.keySet(), vm.selectedData);
                     usesTEXMAP = loadBFCandTEXMAPinfo(
-                            dataInOrder, texmapDataInOrder, vertexMap, matrixMap, df, lines,
+                            dataInOrder, texmapDataInOrder, vertexMap, matrixMap, frustum, df, lines,
                             triangles, quads, condlines, drawStudLogo);
+                    primitiveVariants.end();
                     Set<GData> allData = new HashSet<>();
                     if (usesTEXMAP) {
 
@@ -1228,17 +1220,13 @@ public class GL33ModelRendererLDrawStandard {
             } finally {
                 staticLock.unlock();
             }
-            if (idCount.incrementAndGet() >= idList.size()) {
-                idCount.set(0);
-            }
+            ViewIdleManager.frameScheduler.requestFrame(renderer);
         }
-        idCount.set(0);
-        idList.remove(myID);
-        idCount.set(0);
     }
 
     public void dispose() {
         isRunning.set(false);
+        ViewIdleManager.frameScheduler.remove(renderer);
         GL30.glDeleteVertexArrays(vao);
         GL15.glDeleteBuffers(vbo);
         GL30.glDeleteVertexArrays(vaoLines);
@@ -1435,6 +1423,7 @@ public class GL33ModelRendererLDrawStandard {
             final List<GDataAndTexture> texmapDataInOrder,
             final Map<GData, Vertex[]> vertexMap,
             final Map<GData1, Matrix4f> matrixMap,
+            final Frustum frustum,
             final DatFile df, final ThreadsafeHashMap<GData2, Vertex[]> lines,
             final ThreadsafeHashMap<GData3, Vertex[]> triangles,
             final ThreadsafeHashMap<GData4, Vertex[]> quads,
@@ -1503,10 +1492,21 @@ public class GL33ModelRendererLDrawStandard {
             }
             switch (gd.type()) {
             case 1:
+                final GData1 reference = (GData1) gd;
+                // TEXMAP needs the whole content of its subfiles
+                if (!texmap && frustum != null && !reference.isInFrustum(frustum)) {
+                    // The subfile is outside of the view frustum, but a BFC INVERTNEXT for it must not apply to the next one
+                    if (globalInvertNextFound) {
+                        globalInvertNext = !globalInvertNext;
+                        globalInvertNextFound = false;
+                    }
+                    continue;
+                }
+                // Primitives can be rendered with another resolution (not within TEXMAP)
+                final GData1 gd1 = texmap ? reference : primitiveVariants.select(reference);
                 if (texmap && !parseTexmapSubfile) {
                     firstTexmapObject = backup;
                 }
-                final GData1 gd1 = (GData1) gd;
                 final Matrix4f rotation = new Matrix4f(gd1.productMatrix);
                 rotation.m30 = 0f;
                 rotation.m31 = 0f;
@@ -1594,6 +1594,9 @@ public class GL33ModelRendererLDrawStandard {
                 }
                 GData2 gd2 = (GData2) gd;
                 verts = lines.get(gd2);
+                if (verts == null) {
+                    verts = primitiveVariants.getVertices(gd2);
+                }
                 if (verts != null) {
                     vertexMap.put(gd, verts);
                     dataInOrder.add(new GDataAndWinding(gd, localWinding, globalNegativeDeterminant, globalInvertNext, accumClip));
@@ -1623,6 +1626,9 @@ public class GL33ModelRendererLDrawStandard {
                     }
                 } else {
                     verts = triangles.get(gd3);
+                    if (verts == null) {
+                        verts = primitiveVariants.getVertices(gd3);
+                    }
                     if (verts != null) {
                         vertexMap.put(gd, verts);
                         dataInOrder.add(new GDataAndWinding(gd, localWinding, globalNegativeDeterminant, globalInvertNext, accumClip));
@@ -1653,6 +1659,9 @@ public class GL33ModelRendererLDrawStandard {
                     }
                 } else {
                     verts = quads.get(gd);
+                    if (verts == null) {
+                        verts = primitiveVariants.getVertices(gd);
+                    }
                     if (verts != null) {
                         vertexMap.put(gd, verts);
                         dataInOrder.add(new GDataAndWinding(gd, localWinding, globalNegativeDeterminant, globalInvertNext, accumClip));
@@ -1665,6 +1674,9 @@ public class GL33ModelRendererLDrawStandard {
                     texmapNext = false;
                 }
                 verts = condlines.get(gd);
+                if (verts == null) {
+                    verts = primitiveVariants.getVertices(gd);
+                }
                 if (verts != null) {
                     vertexMap.put(gd, verts);
                     dataInOrder.add(new GDataAndWinding(gd, localWinding, globalNegativeDeterminant, globalInvertNext, accumClip));
@@ -17,13 +17,11 @@ package org.nschmidt.ldparteditor.data;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -38,6 +36,7 @@ import org.lwjgl.opengl.GL20;
 import org.lwjgl.util.vector.Matrix4f;
 import org.lwjgl.util.vector.Vector3f;
 import org.lwjgl.util.vector.Vector4f;
+import org.nschmidt.ldparteditor.data.DecodedImageCache.DecodedImage;
 import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.FileHelper;
 import org.nschmidt.ldparteditor.logger.NLogger;
@@ -48,8 +47,6 @@ import org.nschmidt.ldparteditor.project.Project;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
 import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 
-import de.matthiasmann.twl.util.PNGDecoder;
-import de.matthiasmann.twl.util.PNGDecoder.Format;
 
 public class GTexture {
 
@@ -64,6 +61,7 @@ public class GTexture {
     private Map<OpenGLRenderer, Integer> openGlIdCubemapMetal = new HashMap<>();
     private Map<OpenGLRenderer, Integer> openGlIdCubemapPearl = new HashMap<>();
     private Map<OpenGLRenderer, Boolean> openGlDisposed = new HashMap<>();
+    private Map<OpenGLRenderer, List<PendingUpload>> pendingUploads = new HashMap<>();
 
     private String texture = ""; //$NON-NLS-1$
     private String glossmap = ""; //$NON-NLS-1$
@@ -104,6 +102,18 @@ public class GTexture {
         this.glossmap = glossmap;
     }
 
+    private static final class PendingUpload {
+        private final int texId;
+        private final int textureUnit;
+        private final File file;
+
+        private PendingUpload(int texId, int textureUnit, File file) {
+            this.texId = texId;
+            this.textureUnit = textureUnit;
+            this.file = file;
+        }
+    }
+
     private class UV {
         private final float[] uv = new float[8];
 
@@ -460,6 +470,7 @@ public class GTexture {
                     if (idCubemapMatte != -1) GL11.glDeleteTextures(idCubemapMatte);
                     if (isCubemapMetal != -1) GL11.glDeleteTextures(isCubemapMetal);
                 }
+                pendingUploads.remove(renderer);
                 openGlDisposed.put(renderer, true);
                 openGlId.put(renderer, -1);
                 openGlIdGlossmap.put(renderer, -1);
@@ -507,22 +518,22 @@ public class GTexture {
 
             DatFile df = renderer.getC3D().getLockableDatFileReference();
 
-            id = loadPNGTexture(texture, GL13.GL_TEXTURE0, df);
+            id = loadPNGTexture(texture, GL13.GL_TEXTURE0, df, renderer);
             if (glossy)
-                idGlossmap = loadPNGTexture(glossmap, GL13.GL_TEXTURE1, df);
+                idGlossmap = loadPNGTexture(glossmap, GL13.GL_TEXTURE1, df, renderer);
             if (cubeMapIndex > 0) {
                 switch (cubeMapIndex) {
                 case 1:
-                    idCubemap = loadPNGTexture("cmap.png", GL13.GL_TEXTURE2, df ); //$NON-NLS-1$
+                    idCubemap = loadPNGTexture("cmap.png", GL13.GL_TEXTURE2, df, renderer); //$NON-NLS-1$
                     break;
                 case 2:
-                    idCubemapMatte = loadPNGTexture("matte_metal.png", GL13.GL_TEXTURE3, df); //$NON-NLS-1$
+                    idCubemapMatte = loadPNGTexture("matte_metal.png", GL13.GL_TEXTURE3, df, renderer); //$NON-NLS-1$
                     break;
                 case 3:
-                    idCubemapMetal = loadPNGTexture("metal.png", GL13.GL_TEXTURE4, df); //$NON-NLS-1$
+                    idCubemapMetal = loadPNGTexture("metal.png", GL13.GL_TEXTURE4, df, renderer); //$NON-NLS-1$
                     break;
                 case 4:
-                    idCubemapPearl = loadPNGTexture("pearl.png", GL13.GL_TEXTURE4, df); //$NON-NLS-1$
+                    idCubemapPearl = loadPNGTexture("pearl.png", GL13.GL_TEXTURE4, df, renderer); //$NON-NLS-1$
                     break;
                 default:
                     break;
@@ -538,6 +549,7 @@ public class GTexture {
             openGlIdCubemapPearl.put(renderer, idCubemapPearl);
         } else if (id != -1) {
             accessTime = System.currentTimeMillis();
+            uploadPendingImages(renderer);
             GL13.glActiveTexture(GL13.GL_TEXTURE0 + 0);
             GL11.glBindTexture(GL11.GL_TEXTURE_2D, id);
             GL20.glUniform1f(renderer.getAlphaSwitchLoc(), drawSolidMaterials ? 1f : 0f); // Draw transparent
@@ -610,20 +622,20 @@ public class GTexture {
 
             DatFile df = renderer.getC3D().getLockableDatFileReference();
 
-            id = loadPNGTexture(texture, GL13.GL_TEXTURE0, df);
+            id = loadPNGTexture(texture, GL13.GL_TEXTURE0, df, renderer);
             if (cubeMapIndex > 0) {
                 switch (cubeMapIndex) {
                 case 1:
-                    idCubemap = loadPNGTexture("cmap.png", GL13.GL_TEXTURE2, df ); //$NON-NLS-1$
+                    idCubemap = loadPNGTexture("cmap.png", GL13.GL_TEXTURE2, df, renderer); //$NON-NLS-1$
                     break;
                 case 2:
-                    idCubemapMatte = loadPNGTexture("matte_metal.png", GL13.GL_TEXTURE3, df); //$NON-NLS-1$
+                    idCubemapMatte = loadPNGTexture("matte_metal.png", GL13.GL_TEXTURE3, df, renderer); //$NON-NLS-1$
                     break;
                 case 3:
-                    idCubemapMetal = loadPNGTexture("metal.png", GL13.GL_TEXTURE4, df); //$NON-NLS-1$
+                    idCubemapMetal = loadPNGTexture("metal.png", GL13.GL_TEXTURE4, df, renderer); //$NON-NLS-1$
                     break;
                 case 4:
-                    idCubemapPearl = loadPNGTexture("pearl.png", GL13.GL_TEXTURE4, df); //$NON-NLS-1$
+                    idCubemapPearl = loadPNGTexture("pearl.png", GL13.GL_TEXTURE4, df, renderer); //$NON-NLS-1$
                     break;
                 default:
                     break;
@@ -639,6 +651,7 @@ public class GTexture {
             openGlIdCubemapPearl.put(renderer, idCubemapPearl);
         } else if (id != -1) {
             accessTime = System.currentTimeMillis();
+            uploadPendingImages(renderer);
             GL13.glActiveTexture(GL13.GL_TEXTURE0 + 0);
             GL11.glBindTexture(GL11.GL_TEXTURE_2D, id);
             GL20.glUniform1i(shader.getUniformLocation("ldpePngSampler"), 0); // Texture unit 0 is for base images. //$NON-NLS-1$
@@ -683,22 +696,13 @@ public class GTexture {
      *            e.g. GL13.GL_TEXTURE0
      * @return
      */
-    private int loadPNGTexture(String filename, int textureUnit, DatFile datFile) {
+    private int loadPNGTexture(String filename, int textureUnit, DatFile datFile, OpenGLRenderer renderer) {
 
-        int max = GL11.glGetInteger(GL11.GL_MAX_TEXTURE_SIZE);
+        DecodedImage image = null;
+        File fileToOpen = null;
 
-        ByteBuffer buf = null;
-        int tWidth = 1;
-        int tHeight = 1;
-
-        if ("".equals(filename)) { //$NON-NLS-1$
-            buf = ByteBuffer.allocateDirect(4);
-            final byte[] bytes = new byte[] { 0, 0, 0, -1 };
-            buf.put(bytes);
-            buf.flip();
-        } else {
+        if (!"".equals(filename)) { //$NON-NLS-1$
             // Check folders
-            File fileToOpen;
             String oTex = WorkbenchManager.getUserSettingState().getLdrawFolderPath() + File.separator + filename;
             String oTexU = WorkbenchManager.getUserSettingState().getLdrawFolderPath() + File.separator + "TEXTURES" + File.separator + filename; //$NON-NLS-1$
             String oTexL = WorkbenchManager.getUserSettingState().getLdrawFolderPath() + File.separator + "textures" + File.separator + filename; //$NON-NLS-1$
@@ -753,170 +757,141 @@ public class GTexture {
                     || (fileToOpen = FileHelper.exist(textureFile)) != null)
                     && fileToOpen.isFile();
 
+            image = decodePNGTexture(filename, datFile, fileExists ? fileToOpen : null);
+            if (image == DecodedImage.UNREADABLE) {
+                return -1;
+            }
+        }
+
+        // Create a new texture object in memory and bind it
+        int texId = GL11.glGenTextures();
+        uploadPNGTexture(texId, textureUnit, image);
+
+        if (image == DecodedImage.PENDING) {
+            // The placeholder will be replaced as soon as the image was decoded
+            pendingUploads.computeIfAbsent(renderer, r -> new ArrayList<>()).add(new PendingUpload(texId, textureUnit, fileToOpen));
+        }
+
+        return texId;
+    }
+
+    private DecodedImage decodePNGTexture(String filename, DatFile datFile, File fileToOpen) {
+        // Try to download the png file from the parts tracker if part review mode is enabled
+        if (Editor3DWindow.getWindow().isReviewingAPart()) {
             InputStream in = null;
             try {
-                // Try to download the png file from the parts tracker if part review mode is enabled
-                if (Editor3DWindow.getWindow().isReviewingAPart()) {
-                    try {
-                        final URL url = new URI("https://library.ldraw.org/library/unofficial/parts/textures/" + filename).toURL(); //$NON-NLS-1$
-                        in = url.openStream();
-                    } catch (IOException | URISyntaxException ioe) {
-                        NLogger.debug(GTexture.class, ioe);
-                    }
-                }
-
-                if (in == null) {
-                    if (datFile.getBinaryData().hasFile(filename)) {
-                        final byte[] source = datFile.getBinaryData().getFileBytes(filename);
-                        in = new ByteArrayInputStream(source);
-                    } else if (fileExists) {
-                        // Open the PNG file as an FileInputStream
-                        filename = fileToOpen.getAbsolutePath();
-                        in = new FileInputStream(filename);
-                    } else {
-                        // Try to get PNG file from org.nschmidt.ldparteditor.opengl
-                        in = GLShader.class.getResourceAsStream(filename);
-
-                        if (in == null) {
-                            return -1;
-                        }
-                    }
-                }
+                final URL url = new URI("https://library.ldraw.org/library/unofficial/parts/textures/" + filename).toURL(); //$NON-NLS-1$
+                in = url.openStream();
+            } catch (IOException | URISyntaxException ioe) {
+                NLogger.debug(GTexture.class, ioe);
+            }
+            if (in != null) {
+                final InputStream stream = in;
+                return DecodedImageCache.SHARED.decode(() -> stream);
+            }
+        }
 
-                // Link the PNG decoder to this stream
-                PNGDecoder decoder = new PNGDecoder(in);
+        if (datFile.getBinaryData().hasFile(filename)) {
+            final byte[] source = datFile.getBinaryData().getFileBytes(filename);
+            return DecodedImageCache.SHARED.decode(() -> new ByteArrayInputStream(source));
+        } else if (fileToOpen != null) {
+            // Decode the PNG file in the background, it is shared with all other renderers
+            return DecodedImageCache.SHARED.request(fileToOpen);
+        } else {
+            // Try to get PNG file from org.nschmidt.ldparteditor.opengl
+            return DecodedImageCache.SHARED.load("resource:" + filename, 0L, () -> GLShader.class.getResourceAsStream(filename)); //$NON-NLS-1$
+        }
+    }
 
-                // Get the width and height of the texture
-                tWidth = decoder.getWidth();
-                tHeight = decoder.getHeight();
+    private void uploadPendingImages(OpenGLRenderer renderer) {
+        final List<PendingUpload> uploads = pendingUploads.get(renderer);
+        if (uploads == null) {
+            return;
+        }
+        uploads.removeIf(upload -> {
+            final DecodedImage image = DecodedImageCache.SHARED.request(upload.file);
+            if (image == DecodedImage.PENDING) {
+                return false;
+            }
+            if (image.isReady()) {
+                uploadPNGTexture(upload.texId, upload.textureUnit, image);
+            }
+            return true;
+        });
+        if (uploads.isEmpty()) {
+            pendingUploads.remove(renderer);
+        }
+    }
 
-                this.width = tWidth;
-                this.height = tHeight;
+    /**
+     * Uploads the image to the texture object. A {@code null} image creates an
+     * opaque black 1x1 texture.
+     */
+    private void uploadPNGTexture(int texId, int textureUnit, DecodedImage image) {
 
-                if (tWidth > max)
-                    throw new OutOfMemoryError();
-                if (tHeight > max)
-                    throw new OutOfMemoryError();
+        ByteBuffer buf;
+        int tWidth = 1;
+        int tHeight = 1;
 
-                // Decode the PNG file in a ByteBuffer
-                buf = ByteBuffer.allocateDirect(4 * tWidth * tHeight);
-                decoder.decode(buf, tWidth * 4, Format.RGBA);
-                buf.flip();
+        if (image == null || image == DecodedImage.PENDING) {
+            buf = ByteBuffer.allocateDirect(4);
+            buf.put(image == null ? new byte[] { 0, 0, 0, -1 } : image.getRGBA());
+            buf.flip();
+        } else {
+            final int max = GL11.glGetInteger(GL11.GL_MAX_TEXTURE_SIZE);
+            tWidth = image.getWidth();
+            tHeight = image.getHeight();
 
-                final List<Byte> bytes;
-                {
-                    final byte[] tbytes = new byte[buf.remaining()];
-                    buf.get(tbytes);
-                    bytes = new ArrayList<>(tbytes.length);
-                    for (final byte bt : tbytes) {
-                        bytes.add(bt);
-                    }
-                }
+            this.width = tWidth;
+            this.height = tHeight;
 
-                // TODO angle dependent adjustment (alpha fill)
-                if (textureUnit != GL13.GL_TEXTURE2 && textureUnit != GL13.GL_TEXTURE3 && textureUnit != GL13.GL_TEXTURE4 && (type == TexType.CYLINDRICAL || type == TexType.SPHERICAL)) {
+            byte[] bytes = image.getRGBA();
+            boolean valid = tWidth <= max && tHeight <= max;
 
-                    int delta = (int) (tWidth * (Math.PI / a - 1f) / 2f);
-                    if (tWidth + delta > max || delta / a > max)
-                        throw new OutOfMemoryError();
+            // TODO angle dependent adjustment (alpha fill)
+            if (valid && textureUnit != GL13.GL_TEXTURE2 && textureUnit != GL13.GL_TEXTURE3 && textureUnit != GL13.GL_TEXTURE4 && (type == TexType.CYLINDRICAL || type == TexType.SPHERICAL)) {
 
-                    List<Byte> stride = new ArrayList<>(tWidth);
-                    final int strideLength = tWidth * 4;
-                    for (int j = 0; j < delta; j++) {
-                        stride.add((byte) 0x00);
-                        stride.add((byte) 0x00);
-                        stride.add((byte) 0x00);
-                        stride.add((byte) 0x00);
-                    }
-                    final int strideLength2 = stride.size();
-                    int index = 0;
-                    for (int i = 0; i < tHeight && index + 1 <= bytes.size(); i++) {
-                        bytes.addAll(index, stride);
-                        index += strideLength + strideLength2;
-                        if (index + 1 > bytes.size()) {
-                            if (index == bytes.size()) {
-                                bytes.addAll(stride);
-                            } else {
-                                break;
-                            }
-                        } else {
-                            bytes.addAll(index, stride);
-                        }
-                        index += strideLength2;
-                    }
+                final int delta = (int) (tWidth * (Math.PI / a - 1f) / 2f);
+                valid = delta >= 0 && tWidth + delta <= max && delta / a <= max;
+                if (valid && delta > 0) {
+                    bytes = padImage(bytes, tWidth, tHeight, delta, 0);
                     tWidth = tWidth + delta * 2;
-                    if (type == TexType.SPHERICAL) {
-                        int delta2 = (int) (tHeight * (Math.PI / (b * 2f) - 1f) / 2f);
-                        if (tHeight + delta2 > max || delta2 / b > max)
-                            throw new OutOfMemoryError();
-                        stride.clear();
-                        for (int j = 0; j < tWidth; j++) {
-                            stride.add((byte) 0x00);
-                            stride.add((byte) 0x00);
-                            stride.add((byte) 0x00);
-                            stride.add((byte) 0x00);
-                        }
-                        for (int i = 0; i < delta2; i++) {
-                            bytes.addAll(0, stride);
-                            bytes.addAll(stride);
-                        }
+                }
+                if (valid && type == TexType.SPHERICAL) {
+                    final int delta2 = (int) (tHeight * (Math.PI / (b * 2f) - 1f) / 2f);
+                    valid = delta2 >= 0 && tHeight + delta2 <= max && delta2 / b <= max;
+                    if (valid && delta2 > 0) {
+                        bytes = padImage(bytes, tWidth, tHeight, 0, delta2);
                         tHeight = tHeight + delta2 * 2;
                     }
                 }
+            }
 
-                int c = 0;
-                final int as = bytes.size();
+            if (valid) {
+                buf = ByteBuffer.allocateDirect(4 * tWidth * tHeight);
+                final byte[] tmp = bytes == image.getRGBA() ? new byte[bytes.length] : bytes;
+                final int as = bytes.length;
                 for (int i = 0; i < as; i++) {
-                    c++;
-                    byte bt = bytes.get(i);
-                    if (c < 4) {
+                    byte bt = bytes[i];
+                    if ((i & 3) != 3) {
                         if (bt == (byte) 0xFF)
-                            bytes.set(i, (byte) 0xFE);
-                        if (bt == (byte) 0x01)
-                            bytes.set(i, (byte) 0x02);
-                        if (bt == (byte) 0x00)
-                            bytes.set(i, (byte) 0x02);
-                    } else {
-                        c = 0;
-                    }
-                }
-                {
-                    byte[] tmp = new byte[bytes.size()];
-                    c = 0;
-                    for (final byte bt : bytes) {
-                        tmp[c] = bt;
-                        c++;
+                            bt = (byte) 0xFE;
+                        else if (bt == (byte) 0x01 || bt == (byte) 0x00)
+                            bt = (byte) 0x02;
                     }
-                    buf = ByteBuffer.allocateDirect(4 * tWidth * tHeight);
-                    buf.put(tmp);
-                    buf.flip();
+                    tmp[i] = bt;
                 }
-
-                in.close();
-            } catch (OutOfMemoryError | BufferOverflowException e) {
+                buf.put(tmp);
+                buf.flip();
+            } else {
                 tWidth = 1;
                 tHeight = 1;
                 buf = ByteBuffer.allocateDirect(4);
-                final byte[] bytes = new byte[] { 0, 0, 0, -1 };
-                buf.put(bytes);
+                buf.put(new byte[] { 0, 0, 0, -1 });
                 buf.flip();
-                try {
-                    in.close();
-                } catch (Exception consumed) {
-                    NLogger.debug(GTexture.class, consumed);
-                }
-            } catch (IOException e) {
-                try {
-                    in.close();
-                } catch (Exception consumed) {
-                    NLogger.debug(GTexture.class, consumed);
-                }
-                return -1;
             }
         }
 
-        // Create a new texture object in memory and bind it
-        int texId = GL11.glGenTextures();
         GL13.glActiveTexture(textureUnit);
         GL11.glBindTexture(GL11.GL_TEXTURE_2D, texId);
 
@@ -933,8 +908,22 @@ public class GTexture {
         // Setup what to do when the texture has to be scaled
         GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
         GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
+    }
 
-        return texId;
+    /**
+     * Adds transparent columns (left and right) and rows (top and bottom) to an
+     * RGBA image.
+     */
+    private static byte[] padImage(byte[] bytes, int tWidth, int tHeight, int columns, int rows) {
+        final int rowLength = tWidth * 4;
+        final int newRowLength = rowLength + columns * 8;
+        final byte[] result = new byte[newRowLength * (tHeight + rows * 2)];
+        int offset = rows * newRowLength + columns * 4;
+        for (int i = 0; i < tHeight; i++) {
+            System.arraycopy(bytes, i * rowLength, result, offset, rowLength);
+            offset += newRowLength;
+        }
+        return result;
     }
 
     public float getWidth() {
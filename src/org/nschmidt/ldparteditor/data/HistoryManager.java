@@ -18,7 +18,6 @@ package org.nschmidt.ldparteditor.data;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -58,7 +57,7 @@ class HistoryManager {
     }
 
 
-    void pushHistory(String text, int selectionStart, int selectionEnd, GData[] data, Map<String, List<Boolean>> selectedData, Map<String, List<Boolean>> hiddenData, Vertex[] selectedVertices, Vertex[] hiddenVertices, int topIndex) {
+    void pushHistory(String text, int selectionStart, int selectionEnd, GData[] data, LineFlags selectedData, LineFlags hiddenData, Vertex[] selectedVertices, Vertex[] hiddenVertices, int topIndex) {
         if (df.isReadOnly()) return;
         if (hasNoThread) {
             hasNoThread = false;
@@ -88,8 +87,8 @@ class HistoryManager {
         final List<Integer> historyTopIndex = new ArrayList<>();
         final List<String> historyFullText = new ArrayList<>();
         final List<String[]> historyText = new ArrayList<>();
-        final List<Map<String, List<Boolean>>> historySelectedData = new ArrayList<>();
-        final List<Map<String, List<Boolean>>> historyHiddenData = new ArrayList<>();
+        final List<LineFlags> historySelectedData = new ArrayList<>();
+        final List<LineFlags> historyHiddenData = new ArrayList<>();
         final List<Vertex[]> historySelectedVertices = new ArrayList<>();
         final List<Vertex[]> historyHiddenVertices = new ArrayList<>();
 
@@ -176,10 +175,10 @@ class HistoryManager {
 
                     historySelectionStart.add((Integer) newEntry[1]);
                     historySelectionEnd.add((Integer) newEntry[2]);
-                    historySelectedData.add((Map<String, List<Boolean>>) newEntry[4]);
+                    historySelectedData.add((LineFlags) newEntry[4]);
                     historySelectedVertices.add((Vertex[]) newEntry[5]);
                     historyTopIndex.add((Integer) newEntry[6]);
-                    historyHiddenData.add((Map<String, List<Boolean>>) newEntry[7]);
+                    historyHiddenData.add((LineFlags) newEntry[7]);
                     historyHiddenVertices.add((Vertex[]) newEntry[8]);
                     historyText.add(result);
                     historyFullText.add(resultFullText);
@@ -275,8 +274,8 @@ class HistoryManager {
                             final int topIndex = historyTopIndex.get(pointer);
                             final String fullText = historyFullText.get(pointer);
                             final String[] lines = historyText.get(pointer);
-                            Map<String, List<Boolean>> selection = historySelectedData.get(pointer);
-                            Map<String, List<Boolean>> hiddenSelection = historyHiddenData.get(pointer);
+                            LineFlags selection = historySelectedData.get(pointer);
+                            LineFlags hiddenSelection = historyHiddenData.get(pointer);
                             final Vertex[] verts = historySelectedVertices.get(pointer);
                             final Vertex[] verts2 = historyHiddenVertices.get(pointer);
                             while (!answerQueue.offer(new Object[]{
@@ -387,8 +386,8 @@ class HistoryManager {
         int topIndex = -1;
         String fullText = null;
         String[] lines = null;
-        Map<String, List<Boolean>> selection = null;
-        Map<String, List<Boolean>> hiddenSelection = null;
+        LineFlags selection = null;
+        LineFlags hiddenSelection = null;
         Vertex[] verts = null;
         Vertex[] verts2 = null;
         while (true) {
@@ -404,8 +403,8 @@ class HistoryManager {
                 topIndex = (int) newEntry[3];
                 fullText = (String) newEntry[4];
                 lines = (String[]) newEntry[5];
-                selection = (Map<String, List<Boolean>>) newEntry[6];
-                hiddenSelection = (Map<String, List<Boolean>>) newEntry[7];
+                selection = (LineFlags) newEntry[6];
+                hiddenSelection = (LineFlags) newEntry[7];
                 verts = (Vertex[]) newEntry[8];
                 verts2 = (Vertex[]) newEntry[9];
                 break;
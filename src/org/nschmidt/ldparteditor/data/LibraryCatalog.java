@@ -0,0 +1,309 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.nschmidt.ldparteditor.helper.ParallelFor;
+import org.nschmidt.ldparteditor.logger.NLogger;
+import org.nschmidt.ldparteditor.text.LDParsingException;
+import org.nschmidt.ldparteditor.text.UTF8BufferedReader;
+
+/**
+ * Caches the name, description and type of the DAT files in the library
+ * folders. A file is only read again when its modification time or its size
+ * changed. The files which have to be read are read in parallel.<br>
+ * <br>
+ * For read-only folders (the official and the unofficial library) the
+ * modification time of the folder itself can be trusted. The folder is not
+ * listed again as long as this time did not change.
+ */
+public final class LibraryCatalog {
+
+    /** Identifies the file format (and its version) */
+    private static final int MAGIC = 0x4C430001;
+
+    private final Map<String, Folder> folders = new HashMap<>();
+
+    private boolean modified = false;
+
+    /**
+     * Loads a catalog from a file. An empty catalog is returned if the file
+     * does not exist or can't be read.
+     *
+     * @param path
+     *            the path of the catalog file
+     * @return the catalog
+     */
+    public static LibraryCatalog load(String path) {
+        final LibraryCatalog result = new LibraryCatalog();
+        final File file = new File(path);
+        if (!file.isFile()) {
+            return result;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != MAGIC) {
+                return result;
+            }
+            final DatType[] types = DatType.values();
+            final int folderCount = in.readInt();
+            for (int i = 0; i < folderCount; i++) {
+                final String folderPath = in.readUTF();
+                final long folderLastModified = in.readLong();
+                final int entryCount = in.readInt();
+                final List<Entry> entries = new ArrayList<>(entryCount);
+                for (int j = 0; j < entryCount; j++) {
+                    final String name = in.readUTF();
+                    final String description = in.readUTF();
+                    final int type = in.readByte();
+                    final long lastModified = in.readLong();
+                    final long size = in.readLong();
+                    entries.add(new Entry(name, description, type < 0 || type >= types.length ? null : types[type], lastModified, size));
+                }
+                result.folders.put(folderPath, new Folder(folderLastModified, entries));
+            }
+        } catch (IOException ioe) {
+            NLogger.debug(LibraryCatalog.class, ioe);
+            result.folders.clear();
+        }
+        return result;
+    }
+
+    /**
+     * Saves the catalog to a file (only if it was modified since it was
+     * loaded)
+     *
+     * @param path
+     *            the path of the catalog file
+     */
+    public synchronized void save(String path) {
+        if (!modified) {
+            return;
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(path))))) {
+            // Folders which were deleted (or renamed) are dropped
+            folders.keySet().removeIf(folderPath -> !new File(folderPath).isDirectory());
+            out.writeInt(MAGIC);
+            out.writeInt(folders.size());
+            for (Map.Entry<String, Folder> folder : folders.entrySet()) {
+                out.writeUTF(folder.getKey());
+                out.writeLong(folder.getValue().lastModified);
+                out.writeInt(folder.getValue().entries.size());
+                for (Entry entry : folder.getValue().entries) {
+                    out.writeUTF(entry.getName());
+                    out.writeUTF(entry.getDescription());
+                    out.writeByte(entry.getType() == null ? -1 : entry.getType().ordinal());
+                    out.writeLong(entry.lastModified);
+                    out.writeLong(entry.size);
+                }
+            }
+            modified = false;
+        } catch (IOException ioe) {
+            NLogger.error(LibraryCatalog.class, ioe);
+        }
+    }
+
+    /**
+     * Lists the DAT files of a folder
+     *
+     * @param folder
+     *            the folder to scan
+     * @param trustFolderTimestamp
+     *            {@code true} if the folder does not need to be listed again
+     *            when its modification time is unchanged. This is only safe
+     *            for folders whose files are never edited in place.
+     * @return the DAT files of the folder (in no particular order)
+     */
+    public synchronized List<Entry> scan(File folder, boolean trustFolderTimestamp) {
+        final String folderPath = folder.getAbsolutePath();
+        final long folderLastModified = folder.lastModified();
+        final Folder cached = folders.get(folderPath);
+        if (trustFolderTimestamp && cached != null && cached.lastModified == folderLastModified) {
+            return Collections.unmodifiableList(cached.entries);
+        }
+
+        final File[] files = folder.listFiles();
+        if (files == null) {
+            NLogger.error(LibraryCatalog.class, "scan: Can't open directory " + folderPath); //$NON-NLS-1$
+            return Collections.emptyList();
+        }
+
+        final Map<String, Entry> cachedEntries = new HashMap<>();
+        if (cached != null) {
+            for (Entry entry : cached.entries) {
+                cachedEntries.put(entry.getName(), entry);
+            }
+        }
+
+        // Only the new and the changed files have to be read
+        final List<Entry> entries = new ArrayList<>(files.length);
+        final List<File> filesToRead = new ArrayList<>();
+        for (File f : files) {
+            final String name = f.getName();
+            if (!isDatFileName(name) || !f.isFile()) {
+                continue;
+            }
+            final Entry entry = cachedEntries.get(name);
+            if (entry != null && entry.lastModified == f.lastModified() && entry.size == f.length()) {
+                entries.add(entry);
+            } else {
+                filesToRead.add(f);
+            }
+        }
+
+        entries.addAll(ParallelFor.run(filesToRead.size(), () -> false, (done, total) -> {}, (i, results) -> results.add(readEntry(filesToRead.get(i)))));
+
+        if (cached == null || cached.lastModified != folderLastModified || !filesToRead.isEmpty() || cached.entries.size() != entries.size()) {
+            folders.put(folderPath, new Folder(folderLastModified, entries));
+            modified = true;
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * @return the number of cached files (of all folders)
+     */
+    public synchronized int size() {
+        int result = 0;
+        for (Folder folder : folders.values()) {
+            result += folder.entries.size();
+        }
+        return result;
+    }
+
+    /**
+     * Checks the file name like the former pattern {@code ".*.dat"} did
+     * (without the overhead of a regular expression)
+     */
+    static boolean isDatFileName(String name) {
+        return name.length() > 3 && name.endsWith("dat"); //$NON-NLS-1$
+    }
+
+    private static Entry readEntry(File f) {
+        // Both values have to be read before the file is opened
+        final long lastModified = f.lastModified();
+        final long size = f.length();
+        final StringBuilder titleSb = new StringBuilder();
+        DatType type = null;
+        try (UTF8BufferedReader reader = new UTF8BufferedReader(f.getAbsolutePath())) {
+            String title = reader.readLine();
+            if (title != null) {
+                title = title.trim();
+                if (title.length() > 0) {
+                    titleSb.append(" -"); //$NON-NLS-1$
+                    titleSb.append(title.substring(1));
+                }
+            }
+            // Detect type
+            String typ;
+            while ((typ = reader.readLine()) != null) {
+                typ = typ.trim();
+                if (!typ.startsWith("0")) { //$NON-NLS-1$
+                    break;
+                }
+                type = detectType(typ);
+                if (type != null) {
+                    break;
+                }
+            }
+        } catch (LDParsingException | FileNotFoundException e) {
+            NLogger.error(LibraryCatalog.class, e);
+        }
+        return new Entry(f.getName(), titleSb.toString(), type, lastModified, size);
+    }
+
+    private static DatType detectType(String line) {
+        final int i1 = line.indexOf("!LDRAW_ORG"); //$NON-NLS-1$
+        if (i1 == -1) {
+            return null;
+        }
+        if (line.indexOf("Subpart") > i1) { //$NON-NLS-1$
+            return DatType.SUBPART;
+        }
+        if (line.indexOf("Part") > i1) { //$NON-NLS-1$
+            return DatType.PART;
+        }
+        if (line.indexOf("48_Primitive") > i1) { //$NON-NLS-1$
+            return DatType.PRIMITIVE48;
+        }
+        if (line.indexOf("8_Primitive") > i1) { //$NON-NLS-1$
+            return DatType.PRIMITIVE8;
+        }
+        if (line.indexOf("Primitive") > i1) { //$NON-NLS-1$
+            return DatType.PRIMITIVE;
+        }
+        return null;
+    }
+
+    private record Folder(long lastModified, List<Entry> entries) {}
+
+    /**
+     * A cached DAT file
+     */
+    public static final class Entry {
+        private final String name;
+        private final String description;
+        private final DatType type;
+        private final long lastModified;
+        private final long size;
+
+        private Entry(String name, String description, DatType type, long lastModified, long size) {
+            this.name = name;
+            this.description = description;
+            this.type = type;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        /**
+         * @return the file name (e.g. 3001.dat)
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the title of the file (e.g. " - Brick  2 x  4") or an empty
+         *         string
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * @return the type from the {@code !LDRAW_ORG} meta command or
+         *         {@code null} if the file has no such meta command
+         */
+        public DatType getType() {
+            return type;
+        }
+    }
+}
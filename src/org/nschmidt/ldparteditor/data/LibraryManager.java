@@ -16,7 +16,6 @@ ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEAL
 package org.nschmidt.ldparteditor.data;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -25,7 +24,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 import org.eclipse.swt.custom.CTabItem;
 import org.nschmidt.ldparteditor.composite.Composite3D;
@@ -35,9 +33,8 @@ import org.nschmidt.ldparteditor.opengl.OpenGLRenderer;
 import org.nschmidt.ldparteditor.project.Project;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
 import org.nschmidt.ldparteditor.shell.editortext.EditorTextWindow;
-import org.nschmidt.ldparteditor.text.LDParsingException;
-import org.nschmidt.ldparteditor.text.UTF8BufferedReader;
 import org.nschmidt.ldparteditor.widget.TreeItem;
+import org.nschmidt.ldparteditor.win32appdata.AppData;
 import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 
 /**
@@ -52,6 +49,12 @@ import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 public enum LibraryManager {
     INSTANCE;
 
+    /** The path of the library catalog file */
+    public static final String CATALOG_GZ = AppData.getPath() + "catalog.gz"; //$NON-NLS-1$
+
+    /** Caches the names, descriptions and types of all DAT files */
+    private static final LibraryCatalog catalog = LibraryCatalog.load(CATALOG_GZ);
+
     // TODO Needs error handling!
 
     /**
@@ -381,6 +384,8 @@ public enum LibraryManager {
 
     /**
      * This is a helper class, which provides a comparator for DAT file names.
+     * The sort keys are computed once, since a name is compared many times
+     * while the library is sorted.
      */
     private static class DatFileName implements Comparable<DatFileName> {
         /** The DAT file name to compare */
@@ -388,6 +393,10 @@ public enum LibraryManager {
         private final String fullname;
         private final String description;
         private final boolean comparePrimitives;
+        /** The sort key of the name (without the file extension) */
+        private final SortKey key;
+        /** The sort key without the leading "u" or "s" of unknown parts and stickers */
+        private final SortKey keyWithoutPrefix;
 
         /**
          * Creates a DAT file name object
@@ -396,10 +405,7 @@ public enum LibraryManager {
          *            the DAT file name (e.g. 973p7u.dat)
          */
         public DatFileName(String name, String description, boolean comparePrimitives) {
-            this.name = name;
-            this.fullname = ""; //$NON-NLS-1$
-            this.description = description;
-            this.comparePrimitives = comparePrimitives;
+            this("", name, description, comparePrimitives); //$NON-NLS-1$
         }
 
         public DatFileName(String fullname, String name, String description, boolean comparePrimitives) {
@@ -407,6 +413,10 @@ public enum LibraryManager {
             this.fullname = fullname;
             this.description = description;
             this.comparePrimitives = comparePrimitives;
+            final int dot = name.indexOf('.');
+            final String stem = dot == -1 ? name : name.substring(0, dot);
+            this.key = new SortKey(stem);
+            this.keyWithoutPrefix = key.first == 'u' || key.first == 's' ? new SortKey(stem.substring(1)) : key;
         }
 
         public String getName() {
@@ -424,117 +434,44 @@ public enum LibraryManager {
         @Override
         public int compareTo(DatFileName other) {
 
-            String[] segsThis = this.name.split(Pattern.quote(".")); //$NON-NLS-1$
-            String[] segsOther = other.name.split(Pattern.quote(".")); //$NON-NLS-1$
+            SortKey keyThis = this.key;
+            SortKey keyOther = other.key;
 
             // Special cases: unknown parts numbers "u[Number]" and unknown
             // stickers "s[Number]"
-            if (segsThis[0].charAt(0) == 'u' && segsOther[0].charAt(0) == 'u' || segsThis[0].charAt(0) == 's' && segsOther[0].charAt(0) == 's') {
-                segsThis[0] = segsThis[0].substring(1, segsThis[0].length());
-                segsOther[0] = segsOther[0].substring(1, segsOther[0].length());
+            if (keyThis.first == keyOther.first && keyThis != keyWithoutPrefix) {
+                keyThis = this.keyWithoutPrefix;
+                keyOther = other.keyWithoutPrefix;
             }
 
             // Special cases: Primitive fractions
             if (this.comparePrimitives && other.comparePrimitives
-                    && segsThis[0].length() > 2 && segsOther[0].length() > 2
-                    && (segsThis[0].charAt(1) == '-' || segsThis[0].charAt(2) == '-')
-                    && (segsOther[0].charAt(1) == '-' || segsOther[0].charAt(2) == '-')) {
-                StringBuilder upperThis = new StringBuilder();
-                StringBuilder upperOther = new StringBuilder();
-                StringBuilder lowerThis = new StringBuilder();
-                StringBuilder lowerOther = new StringBuilder();
-                String suffixThis = ""; //$NON-NLS-1$
-                String suffixOther = ""; //$NON-NLS-1$
-                boolean readUpper = true;
-                int charCount = 0;
-                char[] charsThis = segsThis[0].toCharArray();
-                for (char c : charsThis) {
-                    if (Character.isDigit(c)) {
-                        if (readUpper) {
-                            upperThis.append(c);
-                        } else {
-                            lowerThis.append(c);
-                        }
-                    } else {
-                        if (readUpper) {
-                            readUpper = false;
-                        } else {
-                            suffixThis = segsThis[0].substring(charCount, segsThis[0].length());
-                            break;
-                        }
-                    }
-                    charCount++;
-                }
-                readUpper = true;
-                charCount = 0;
-                char[] charsOther = segsOther[0].toCharArray();
-                for (char c : charsOther) {
-                    if (Character.isDigit(c)) {
-                        if (readUpper) {
-                            upperOther.append(c);
-                        } else {
-                            lowerOther.append(c);
-                        }
-                    } else {
-                        if (readUpper) {
-                            readUpper = false;
-                        } else {
-                            suffixOther = segsOther[0].substring(charCount, segsOther[0].length());
-                            break;
-                        }
-                    }
-                    charCount++;
-                }
-                try {
-
-                    float fractionThis = Float.parseFloat(upperThis.toString()) / Float.parseFloat(lowerThis.toString());
-                    float fractionOther = Float.parseFloat(upperOther.toString()) / Float.parseFloat(lowerOther.toString());
-
-                    if (!suffixThis.equals(suffixOther)) {
-                        return suffixThis.compareTo(suffixOther);
+                    && keyThis.isFraction && keyOther.isFraction) {
+                if (!keyThis.suffix.equals(keyOther.suffix)) {
+                    return keyThis.suffix.compareTo(keyOther.suffix);
+                } else {
+                    if (keyThis.fraction > keyOther.fraction) {
+                        return 1;
                     } else {
-                        if (fractionThis > fractionOther) {
-                            return 1;
-                        } else {
-                            return -1;
-                        }
+                        return -1;
                     }
-                } catch (NumberFormatException consumed) {
-                    NLogger.debug(LibraryManager.class, consumed);
                 }
             }
 
-            StringBuilder numThis = new StringBuilder();
-            StringBuilder numOther = new StringBuilder();
-            char[] charsThis = segsThis[0].toCharArray();
-            for (char c : charsThis) {
-                if (Character.isDigit(c)) {
-                    numThis.append(c);
-                } else {
-                    break;
-                }
-            }
-            char[] charsOther = segsOther[0].toCharArray();
-            for (char c : charsOther) {
-                if (Character.isDigit(c)) {
-                    numOther.append(c);
-                } else {
-                    break;
-                }
-            }
-            if (numThis.length() == 0 || numOther.length() == 0 || numThis.toString().equals(numOther.toString())) {
+            if (keyThis.number.isEmpty() || keyOther.number.isEmpty() || keyThis.number.equals(keyOther.number)) {
                 return this.name.compareTo(other.name);
             } else {
-                int intThis = Integer.parseInt(numThis.toString(), 10);
-                int intOther = Integer.parseInt(numOther.toString(), 10);
-                if (intThis == intOther) {
+                // Compares the numbers without parsing them (they can be longer than an int)
+                final int lengthThis = keyThis.number.length() - keyThis.leadingZeros;
+                final int lengthOther = keyOther.number.length() - keyOther.leadingZeros;
+                if (lengthThis != lengthOther) {
+                    return lengthThis > lengthOther ? 1 : -1;
+                }
+                final int cmp = keyThis.number.substring(keyThis.leadingZeros).compareTo(keyOther.number.substring(keyOther.leadingZeros));
+                if (cmp == 0) {
                     return 0;
                 } else {
-                    if (intThis > intOther) {
-                        return 1;
-                    } else {
-                        return -1;
-                    }
+                    return cmp > 0 ? 1 : -1;
                 }
             }
         }
@@ -571,6 +508,72 @@ public enum LibraryManager {
         }
     }
 
+    /**
+     * The precomputed parts of a DAT file name which are used for sorting
+     */
+    private static class SortKey {
+        /** The first character or {@code 0} if the name is empty */
+        private final char first;
+        /** The leading digits of the name (can be empty) */
+        private final String number;
+        private final int leadingZeros;
+        /** {@code true} if the name is a primitive fraction like "4-4cyli" */
+        private final boolean isFraction;
+        private final float fraction;
+        private final String suffix;
+
+        SortKey(String stem) {
+            first = stem.isEmpty() ? 0 : stem.charAt(0);
+
+            int digits = 0;
+            while (digits < stem.length() && Character.isDigit(stem.charAt(digits))) {
+                digits++;
+            }
+            number = stem.substring(0, digits);
+            int zeros = 0;
+            while (zeros < digits && stem.charAt(zeros) == '0') {
+                zeros++;
+            }
+            leadingZeros = zeros;
+
+            boolean fractionFound = false;
+            float fractionValue = 0f;
+            String suffixValue = ""; //$NON-NLS-1$
+            if (stem.length() > 2 && (stem.charAt(1) == '-' || stem.charAt(2) == '-')) {
+                StringBuilder upper = new StringBuilder();
+                StringBuilder lower = new StringBuilder();
+                boolean readUpper = true;
+                int charCount = 0;
+                for (char c : stem.toCharArray()) {
+                    if (Character.isDigit(c)) {
+                        if (readUpper) {
+                            upper.append(c);
+                        } else {
+                            lower.append(c);
+                        }
+                    } else {
+                        if (readUpper) {
+                            readUpper = false;
+                        } else {
+                            suffixValue = stem.substring(charCount);
+                            break;
+                        }
+                    }
+                    charCount++;
+                }
+                try {
+                    fractionValue = Float.parseFloat(upper.toString()) / Float.parseFloat(lower.toString());
+                    fractionFound = true;
+                } catch (NumberFormatException consumed) {
+                    NLogger.debug(LibraryManager.class, consumed);
+                }
+            }
+            isFraction = fractionFound;
+            fraction = fractionValue;
+            suffix = suffixValue;
+        }
+    }
+
     /**
      * Reads the contents (DAT files) from the folder case insensitive and sorts
      * the entries alphabetically and by number
@@ -596,92 +599,12 @@ public enum LibraryManager {
             Map<DatFileName, DatType> typeMap = new HashMap<>();
             List<DatFileName> datFiles = new ArrayList<>();
             File libFolder = new File(folderPathSb.toString());
-            StringBuilder titleSb = new StringBuilder();
-            File[] files = libFolder.listFiles();
-            if (files != null) {
-                for (File f : files) {
-                    if (f.isFile() && f.getName().matches(".*.dat")) { //$NON-NLS-1$
-                        titleSb.setLength(0);
-                        try (UTF8BufferedReader reader = new UTF8BufferedReader(f.getAbsolutePath())) {
-                            String title = reader.readLine();
-                            if (title != null) {
-                                title = title.trim();
-                                if (title.length() > 0) {
-                                    titleSb.append(" -"); //$NON-NLS-1$
-                                    titleSb.append(title.substring(1));
-                                }
-                            }
-                            // Detect type
-                            while (true) {
-                                String typ = reader.readLine();
-                                if (typ != null) {
-                                    typ = typ.trim();
-                                    if (!typ.startsWith("0")) { //$NON-NLS-1$
-                                        break;
-                                    } else {
-                                        int i1 = typ.indexOf("!LDRAW_ORG"); //$NON-NLS-1$
-                                        if (i1 > -1) {
-                                            int i2;
-                                            i2 = typ.indexOf("Subpart"); //$NON-NLS-1$
-                                            if (i2 > -1 && i1 < i2) {
-                                                type = DatType.SUBPART;
-                                                break;
-                                            }
-                                            i2 = typ.indexOf("Part"); //$NON-NLS-1$
-                                            if (i2 > -1 && i1 < i2) {
-                                                type = DatType.PART;
-                                                break;
-                                            }
-                                            i2 = typ.indexOf("48_Primitive"); //$NON-NLS-1$
-                                            if (i2 > -1 && i1 < i2) {
-                                                type = DatType.PRIMITIVE48;
-                                                break;
-                                            }
-                                            i2 = typ.indexOf("8_Primitive"); //$NON-NLS-1$
-                                            if (i2 > -1 && i1 < i2) {
-                                                type = DatType.PRIMITIVE8;
-                                                break;
-                                            }
-                                            i2 = typ.indexOf("Primitive"); //$NON-NLS-1$
-                                            if (i2 > -1 && i1 < i2) {
-                                                type = DatType.PRIMITIVE;
-                                                break;
-                                            }
-                                        }
-                                    }
-                                } else {
-                                    break;
-                                }
-                            }
-
-                            // Change treeItem according to type
-                            switch (type) {
-                            case PART:
-                                treeItem = Editor3DWindow.getWindow().getProjectParts();
-                                break;
-                            case SUBPART:
-                                treeItem = Editor3DWindow.getWindow().getProjectSubparts();
-                                break;
-                            case PRIMITIVE:
-                                treeItem = Editor3DWindow.getWindow().getProjectPrimitives();
-                                break;
-                            case PRIMITIVE48:
-                                treeItem = Editor3DWindow.getWindow().getProjectPrimitives48();
-                                break;
-                            default:
-                                break;
-                            }
-                        } catch (LDParsingException | FileNotFoundException e) {
-                            NLogger.error(LibraryManager.class, e);
-                        }
-                        DatFileName name = new DatFileName(f.getName(), titleSb.toString(), type == DatType.PRIMITIVE || type == DatType.PRIMITIVE48  || type == DatType.PRIMITIVE8);
-                        datFiles.add(name);
-                        parentMap.put(name, treeItem);
-                        typeMap.put(name, type);
-                    }
-                }
-            } else {
-                NLogger.error(LibraryManager.class, "readLibraryFolder: Can't open directory" + folderPathSb);  //$NON-NLS-1$
+            for (LibraryCatalog.Entry entry : catalog.scan(libFolder, isReadOnlyFolder)) {
+                final DatType fileType = entry.getType() == null ? type : entry.getType();
+                DatFileName name = new DatFileName(entry.getName(), entry.getDescription(), fileType == DatType.PRIMITIVE || fileType == DatType.PRIMITIVE48  || fileType == DatType.PRIMITIVE8);
+                datFiles.add(name);
+                parentMap.put(name, getProjectTreeItem(fileType));
+                typeMap.put(name, fileType);
             }
             // Sort the file list
             Collections.sort(datFiles);
@@ -731,13 +654,8 @@ public enum LibraryManager {
                         // Do the search for DAT files
                         List<DatFileName> datFiles = new ArrayList<>();
                         File libFolder = new File(folderPathSb.toString());
-                        final File[] libFolderFiles = libFolder.listFiles();
-                        if (libFolderFiles != null) {
-                            for (File f : libFolderFiles) {
-                                if (f.isFile() && f.getName().matches(".*.dat")) { //$NON-NLS-1$
-                                    datFiles.add(new DatFileName(f.getName(), "", isPrimitiveFolder)); //$NON-NLS-1$
-                                }
-                            }
+                        for (LibraryCatalog.Entry entry : catalog.scan(libFolder, isReadOnlyFolder)) {
+                            datFiles.add(new DatFileName(entry.getName(), entry.getDescription(), isPrimitiveFolder));
                         }
 
                         // Sort the file list
@@ -746,16 +664,15 @@ public enum LibraryManager {
                         for (DatFileName dat : datFiles) {
                             TreeItem finding = new TreeItem(treeItem);
                             // Save the path
-                            DatFile path = new DatFile(folderPathSb.toString() + File.separator + dat.getName(), "", isReadOnlyFolder, type); //$NON-NLS-1$
+                            DatFile path = new DatFile(folderPathSb.toString() + File.separator + dat.getName(), dat.getDescription(), isReadOnlyFolder, type);
                             finding.setData(path);
                             // Set the filename
                             if (Project.getUnsavedFiles().contains(path)) {
                                 // Insert asterisk if the file was modified
-                                finding.setText("* " + dat.getName()); //$NON-NLS-1$
+                                finding.setText("* " + dat.getName() + dat.getDescription()); //$NON-NLS-1$
                             } else {
-                                finding.setText(dat.getName());
+                                finding.setText(dat.getName() + dat.getDescription());
                             }
-                            DescriptionManager.registerDescription(finding);
                         }
                     }
                     break;
@@ -1089,107 +1006,22 @@ public enum LibraryManager {
         final File baseFolder = new File(basePath);
 
         if (prefix1.isEmpty() && prefix2.isEmpty()) {
-            StringBuilder titleSb = new StringBuilder();
-            File[] files = baseFolder.listFiles();
-            if (files != null) {
-                for (File f : files) {
-                    if (f.isFile() && f.getName().matches(".*.dat")) { //$NON-NLS-1$
-                        final String path = f.getAbsolutePath();
-                        if (locked.contains(path)) {
-                            // File is locked by LPE, so don't parse it twice
-                            result[2] = result[2] + 1;
-                            continue;
-                        }
-                        if (!loaded.contains(path)) {
-                            // The file is new
-                            result[0] = result[0] + 1;
-                        }
-                        titleSb.setLength(0);
-                        TreeItem treeItem2 = Editor3DWindow.getWindow().getProjectParts();
-                        try (UTF8BufferedReader reader = new UTF8BufferedReader(path)) {
-                            String title = reader.readLine();
-                            if (title != null) {
-                                title = title.trim();
-                                if (title.length() > 0) {
-                                    titleSb.append(" -"); //$NON-NLS-1$
-                                    titleSb.append(title.substring(1));
-                                }
-                            }
-                            // Detect type
-                            while (true) {
-                                String typ = reader.readLine();
-                                if (typ != null) {
-                                    typ = typ.trim();
-                                    if (!typ.startsWith("0")) { //$NON-NLS-1$
-                                        break;
-                                    } else {
-                                        int i1 = typ.indexOf("!LDRAW_ORG"); //$NON-NLS-1$
-                                        if (i1 > -1) {
-                                            int i2;
-                                            i2 = typ.indexOf("Subpart"); //$NON-NLS-1$
-                                            if (i2 > -1 && i1 < i2) {
-                                                type = DatType.SUBPART;
-                                                break;
-                                            }
-                                            i2 = typ.indexOf("Part"); //$NON-NLS-1$
-                                            if (i2 > -1 && i1 < i2) {
-                                                type = DatType.PART;
-                                                break;
-                                            }
-                                            i2 = typ.indexOf("48_Primitive"); //$NON-NLS-1$
-                                            if (i2 > -1 && i1 < i2) {
-                                                type = DatType.PRIMITIVE48;
-                                                break;
-                                            }
-                                            i2 = typ.indexOf("8_Primitive"); //$NON-NLS-1$
-                                            if (i2 > -1 && i1 < i2) {
-                                                type = DatType.PRIMITIVE8;
-                                                break;
-                                            }
-                                            i2 = typ.indexOf("Primitive"); //$NON-NLS-1$
-                                            if (i2 > -1 && i1 < i2) {
-                                                type = DatType.PRIMITIVE;
-                                                break;
-                                            }
-                                        }
-                                    }
-                                } else {
-                                    break;
-                                }
-                            }
-
-                            // Change treeItem according to type
-                            switch (type) {
-                            case PART:
-                                treeItem2 = Editor3DWindow.getWindow().getProjectParts();
-                                break;
-                            case SUBPART:
-                                treeItem2 = Editor3DWindow.getWindow().getProjectSubparts();
-                                break;
-                            case PRIMITIVE:
-                                treeItem2 = Editor3DWindow.getWindow().getProjectPrimitives();
-                                break;
-                            case PRIMITIVE48:
-                                treeItem2 = Editor3DWindow.getWindow().getProjectPrimitives48();
-                                break;
-                            case PRIMITIVE8:
-                                treeItem2 = Editor3DWindow.getWindow().getProjectPrimitives8();
-                                break;
-                            default:
-                                break;
-                            }
-                        } catch (LDParsingException | FileNotFoundException e) {
-                            NLogger.error(LibraryManager.class, e);
-                        }
-
-                        newDfnMap.put(path, new DatFileName(path, f.getName(), titleSb.toString(), type == DatType.PRIMITIVE || type == DatType.PRIMITIVE48 || type == DatType.PRIMITIVE8));
-                        newParentMap.put(path, treeItem2);
-                        newTypeMap.put(path, type);
-                        readOnly.put(path, isReadOnlyFolder);
-                    }
+            for (LibraryCatalog.Entry entry : catalog.scan(baseFolder, false)) {
+                final String path = new File(baseFolder, entry.getName()).getAbsolutePath();
+                if (locked.contains(path)) {
+                    // File is locked by LPE, so don't parse it twice
+                    result[2] = result[2] + 1;
+                    continue;
                 }
-            } else {
-                NLogger.error(LibraryManager.class, "readActualDataFromFolder: Can't open directory" + basePath);  //$NON-NLS-1$
+                if (!loaded.contains(path)) {
+                    // The file is new
+                    result[0] = result[0] + 1;
+                }
+                final DatType fileType = entry.getType() == null ? type : entry.getType();
+                newDfnMap.put(path, new DatFileName(path, entry.getName(), entry.getDescription(), fileType == DatType.PRIMITIVE || fileType == DatType.PRIMITIVE48 || fileType == DatType.PRIMITIVE8));
+                newParentMap.put(path, getProjectTreeItem(fileType));
+                newTypeMap.put(path, fileType);
+                readOnly.put(path, isReadOnlyFolder);
             }
         } else {
             boolean canSearch = true;
@@ -1224,43 +1056,21 @@ public enum LibraryManager {
                     if (canSearch) {
                         // Do the search for DAT files
                         File libFolder = new File(folderPathSb.toString());
-                        StringBuilder titleSb = new StringBuilder();
-                        final File[] files = libFolder.listFiles();
-                        if (files == null) {
-                            break;
-                        }
-
-                        for (File f : files) {
-                            if (f.isFile() && f.getName().matches(".*.dat")) { //$NON-NLS-1$
-                                final String path = f.getAbsolutePath();
-                                if (locked.contains(path)) {
-                                    // File is locked by LPE, so don't parse it twice
-                                    result[2] = result[2] + 1;
-                                    continue;
-                                }
-                                if (!loaded.contains(path)) {
-                                    // The file is new
-                                    result[0] = result[0] + 1;
-                                }
-                                titleSb.setLength(0);
-                                try (UTF8BufferedReader reader = new UTF8BufferedReader(f.getAbsolutePath())) {
-                                    String title = reader.readLine();
-                                    if (title != null) {
-                                        title = title.trim();
-                                        if (title.length() > 0) {
-                                            titleSb.append(" -"); //$NON-NLS-1$
-                                            titleSb.append(title.substring(1));
-                                        }
-                                    }
-                                } catch (LDParsingException | FileNotFoundException e) {
-                                    NLogger.error(LibraryManager.class, e);
-                                }
-
-                                newDfnMap.put(path, new DatFileName(path,f.getName(), titleSb.toString(), isPrimitiveFolder));
-                                newParentMap.put(path, treeItem);
-                                newTypeMap.put(path, type);
-                                readOnly.put(path, isReadOnlyFolder);
+                        for (LibraryCatalog.Entry entry : catalog.scan(libFolder, false)) {
+                            final String path = new File(libFolder, entry.getName()).getAbsolutePath();
+                            if (locked.contains(path)) {
+                                // File is locked by LPE, so don't parse it twice
+                                result[2] = result[2] + 1;
+                                continue;
                             }
+                            if (!loaded.contains(path)) {
+                                // The file is new
+                                result[0] = result[0] + 1;
+                            }
+                            newDfnMap.put(path, new DatFileName(path, entry.getName(), entry.getDescription(), isPrimitiveFolder));
+                            newParentMap.put(path, treeItem);
+                            newTypeMap.put(path, type);
+                            readOnly.put(path, isReadOnlyFolder);
                         }
                     }
                     break;
@@ -1268,4 +1078,32 @@ public enum LibraryManager {
             }
         }
     }
+
+    /**
+     * @param type
+     *            the type of a DAT file from the project root
+     * @return the project tree item for the type
+     */
+    private static TreeItem getProjectTreeItem(DatType type) {
+        switch (type) {
+        case SUBPART:
+            return Editor3DWindow.getWindow().getProjectSubparts();
+        case PRIMITIVE:
+            return Editor3DWindow.getWindow().getProjectPrimitives();
+        case PRIMITIVE48:
+            return Editor3DWindow.getWindow().getProjectPrimitives48();
+        case PRIMITIVE8:
+            return Editor3DWindow.getWindow().getProjectPrimitives8();
+        default:
+            return Editor3DWindow.getWindow().getProjectParts();
+        }
+    }
+
+    /**
+     * Saves the library catalog, so that the next start does not need to read
+     * all DAT files again
+     */
+    public static void saveCatalog() {
+        catalog.save(CATALOG_GZ);
+    }
 }
@@ -0,0 +1,266 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * An immutable snapshot of one flag (e.g. hidden or selected) for each line
+ * of a file and its subfiles. The snapshot is a tree along the subfile
+ * structure. Each node stores the flags of one file as packed bits, and has
+ * only children for the subfile lines which contain set flags. Nodes without
+ * changes are shared with the previous snapshot.
+ * <br>
+ * The first entry (index {@code 0}) of a file is the start of its draw chain,
+ * the following entries are its lines (index = line number).
+ */
+public final class LineFlags {
+
+    /**
+     * Accesses the structure of the data.
+     *
+     * @param <T>
+     *            the type of the entries
+     */
+    public interface Structure<T> {
+        T getNext(T entry);
+
+        /**
+         * @return {@code true} if the entry is a line with a line number
+         */
+        boolean isLine(T entry);
+
+        /**
+         * @return the start of the content of a subfile line or {@code null}
+         */
+        T getContent(T line);
+    }
+
+    /**
+     * Receives the flag of each entry while a snapshot is restored.
+     *
+     * @param <T>
+     *            the type of the entries
+     */
+    public interface Receiver<T> {
+        void accept(T entry, boolean flag);
+    }
+
+    /** No snapshot (nothing to restore) */
+    public static final LineFlags EMPTY = new LineFlags(new long[0], new int[0], new LineFlags[0]);
+
+    private final long[] bits;
+    /** The ascending line numbers of the children */
+    private final int[] childLines;
+    private final LineFlags[] children;
+
+    private LineFlags(long[] bits, int[] childLines, LineFlags[] children) {
+        this.bits = bits;
+        this.childLines = childLines;
+        this.children = children;
+    }
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param first
+     *            the start of the data
+     * @param structure
+     *            the structure of the data
+     * @param flag
+     *            the flag of an entry
+     * @param previous
+     *            the previous snapshot (its unchanged nodes are re-used), can
+     *            be {@code null}
+     * @return the snapshot (never {@link #EMPTY})
+     */
+    public static <T> LineFlags create(T first, Structure<T> structure, Predicate<T> flag, LineFlags previous) {
+        return create(first, structure, flag, line -> true, previous);
+    }
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param first
+     *            the start of the data
+     * @param structure
+     *            the structure of the data
+     * @param flag
+     *            the flag of an entry
+     * @param descend
+     *            {@code false} if the content of a subfile line contains no
+     *            set flags (and can be skipped)
+     * @param previous
+     *            the previous snapshot (its unchanged nodes are re-used), can
+     *            be {@code null}
+     * @return the snapshot (never {@link #EMPTY})
+     */
+    public static <T> LineFlags create(T first, Structure<T> structure, Predicate<T> flag, Predicate<T> descend, LineFlags previous) {
+        final LineFlags result = createNode(first, structure, flag, descend, previous == EMPTY ? null : previous);
+        if (result != null) return result;
+        if (previous != null && previous != EMPTY && previous.bits.length == 0 && previous.children.length == 0) return previous;
+        return new LineFlags(new long[0], new int[0], new LineFlags[0]);
+    }
+
+    private static <T> LineFlags createNode(T entry, Structure<T> structure, Predicate<T> flag, Predicate<T> descend, LineFlags previous) {
+        long[] bits = null;
+        int[] childLines = null;
+        LineFlags[] children = null;
+        int childCount = 0;
+        int index = 0;
+        while (entry != null) {
+            if (index == 0 || structure.isLine(entry)) {
+                if (flag.test(entry)) {
+                    if (bits == null) {
+                        bits = new long[(index >> 6) + 1];
+                    } else if ((index >> 6) >= bits.length) {
+                        bits = Arrays.copyOf(bits, Math.max(bits.length * 2, (index >> 6) + 1));
+                    }
+                    bits[index >> 6] |= 1L << index;
+                }
+                final T content = index == 0 ? null : structure.getContent(entry);
+                if (content != null && descend.test(entry)) {
+                    final LineFlags child = createNode(content, structure, flag, descend, previous == null ? null : previous.getChild(index));
+                    if (child != null) {
+                        if (children == null) {
+                            childLines = new int[4];
+                            children = new LineFlags[4];
+                        } else if (childCount == children.length) {
+                            childLines = Arrays.copyOf(childLines, childCount * 2);
+                            children = Arrays.copyOf(children, childCount * 2);
+                        }
+                        childLines[childCount] = index;
+                        children[childCount] = child;
+                        childCount++;
+                    }
+                }
+                index++;
+            }
+            entry = structure.getNext(entry);
+        }
+        if (bits == null && childCount == 0) return null;
+
+        int length = 0;
+        if (bits != null) {
+            length = bits.length;
+            while (length > 0 && bits[length - 1] == 0L) length--;
+        }
+        final LineFlags result = new LineFlags(
+                bits == null ? new long[0] : Arrays.copyOf(bits, length),
+                childCount == 0 ? new int[0] : Arrays.copyOf(childLines, childCount),
+                childCount == 0 ? new LineFlags[0] : Arrays.copyOf(children, childCount));
+        return result.isSameAs(previous) ? previous : result;
+    }
+
+    /**
+     * @return {@code true} if this is {@link #EMPTY}
+     */
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    /**
+     * Restores the flag of every entry. Entries which were not part of the
+     * snapshot get an unset flag.
+     */
+    public <T> void restore(T first, Structure<T> structure, Receiver<T> receiver) {
+        restore(this, first, structure, receiver);
+    }
+
+    private static <T> void restore(LineFlags node, T entry, Structure<T> structure, Receiver<T> receiver) {
+        int index = 0;
+        while (entry != null) {
+            if (index == 0 || structure.isLine(entry)) {
+                receiver.accept(entry, node != null && node.get(index));
+                final T content = index == 0 ? null : structure.getContent(entry);
+                if (content != null) {
+                    restore(node == null ? null : node.getChild(index), content, structure, receiver);
+                }
+                index++;
+            }
+            entry = structure.getNext(entry);
+        }
+    }
+
+    /**
+     * Passes all entries with a set flag to the receiver. Subfiles without
+     * set flags are skipped.
+     */
+    public <T> void forEachSet(T first, Structure<T> structure, Receiver<T> receiver) {
+        if (this != EMPTY) forEachSet(this, first, structure, receiver);
+    }
+
+    private static <T> void forEachSet(LineFlags node, T entry, Structure<T> structure, Receiver<T> receiver) {
+        final int lastBit = node.bits.length * 64 - 1;
+        final int lastChild = node.childLines.length == 0 ? -1 : node.childLines[node.childLines.length - 1];
+        final int last = Math.max(lastBit, lastChild);
+        int childIndex = 0;
+        int index = 0;
+        while (entry != null && index <= last) {
+            if (index == 0 || structure.isLine(entry)) {
+                if (node.get(index)) receiver.accept(entry, true);
+                if (childIndex < node.childLines.length && node.childLines[childIndex] == index) {
+                    final T content = structure.getContent(entry);
+                    if (content != null) {
+                        forEachSet(node.children[childIndex], content, structure, receiver);
+                    }
+                    childIndex++;
+                }
+                index++;
+            }
+            entry = structure.getNext(entry);
+        }
+    }
+
+    /**
+     * @return the flag of the entry with the given index (of this file)
+     */
+    public boolean get(int index) {
+        final int word = index >> 6;
+        return word < bits.length && (bits[word] & 1L << index) != 0L;
+    }
+
+    /**
+     * @return the snapshot of the subfile on the given line or {@code null}
+     *         if it contains no set flags
+     */
+    public LineFlags getChild(int lineNumber) {
+        final int i = Arrays.binarySearch(childLines, lineNumber);
+        return i < 0 ? null : children[i];
+    }
+
+    /**
+     * @return the approximate memory use of the nodes in bytes (shared nodes
+     *         are counted each time)
+     */
+    public long estimateSize() {
+        long result = 16L + 3 * 4L + 16L + bits.length * 8L + 16L + childLines.length * 4L + 16L + children.length * 4L;
+        for (LineFlags child : children) {
+            result += child.estimateSize();
+        }
+        return result;
+    }
+
+    private boolean isSameAs(LineFlags other) {
+        if (other == null || !Arrays.equals(bits, other.bits) || !Arrays.equals(childLines, other.childLines)) return false;
+        for (int i = 0; i < children.length; i++) {
+            // Equal children were already replaced by the previous ones
+            if (children[i] != other.children[i]) return false;
+        }
+        return true;
+    }
+}
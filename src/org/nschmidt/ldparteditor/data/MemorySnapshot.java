@@ -23,15 +23,16 @@ import org.nschmidt.ldparteditor.logger.NLogger;
 public class MemorySnapshot {
 
     private final String creation;
-    private final String[] backup;
+    private final SnapshotStore.Content backup;
 
-    MemorySnapshot(DatFile df) {
+    MemorySnapshot(DatFile df, SnapshotStore store) {
         Date date = new Date();
         SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yyyy h:mm:ss a"); //$NON-NLS-1$
         String formattedDate = sdf.format(date);
         final int objCount = df.getDrawPerLineNoClone().size();
         creation =  formattedDate + " (" + objCount + " Objects)"; //$NON-NLS-1$ //$NON-NLS-2$
-        String[] backupArray = new String[objCount];
+        // The lines are added to the store one by one, the file is never copied as a whole
+        SnapshotStore.Builder backupBuilder = store.newContent();
         int count = 0;
         GData data2draw = df.getDrawChainStart();
         while (count < objCount && data2draw != null) {
@@ -41,18 +42,11 @@ public class MemorySnapshot {
                 break;
             }
 
-            backupArray[count] = data2draw.toString();
+            backupBuilder.addLine(data2draw.toString());
             count++;
         }
 
-        if (count < objCount) {
-            String[] smallerBackup = new String[count];
-            System.arraycopy(backupArray, 0, smallerBackup, 0, count);
-
-            backupArray = smallerBackup;
-        }
-
-        this.backup = backupArray;
+        this.backup = backupBuilder.build();
     }
 
     @Override
@@ -61,7 +55,13 @@ public class MemorySnapshot {
     }
 
     public String[] getBackup() {
-        return backup;
+        return backup.getLines();
     }
 
+    /**
+     * @return the text of the snapshot (decompressed on demand)
+     */
+    public String getText() {
+        return backup.getText();
+    }
 }
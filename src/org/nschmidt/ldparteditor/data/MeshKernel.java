@@ -0,0 +1,306 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * A compact mesh representation for the smoothing and subdivision tools. The
+ * vertices are stored as {@code double} coordinates and the neighbours of
+ * each vertex are stored as index lists in one array (compressed sparse
+ * rows). A neighbour can occur more than once in a list, then it has a higher
+ * weight. The kernel is built once per invocation, the iterations run in
+ * parallel chunks on the arrays.
+ */
+public final class MeshKernel {
+
+    /** Small meshes are not worth the parallel overhead */
+    private static final int CHUNK_SIZE = 1024;
+
+    private final Vertex[] vertices;
+    private final int[] neighbourStart;
+    private final int[] neighbours;
+    private final BitSet fixed;
+
+    private double[] x;
+    private double[] y;
+    private double[] z;
+
+    private final boolean[] moved;
+    private boolean movedX = false;
+    private boolean movedY = false;
+    private boolean movedZ = false;
+
+    private MeshKernel(List<Vertex> vertices, int[] neighbourStart, int[] neighbours, BitSet fixed) {
+        final int size = vertices.size();
+        this.vertices = vertices.toArray(new Vertex[size]);
+        this.neighbourStart = neighbourStart;
+        this.neighbours = neighbours;
+        this.fixed = fixed;
+        this.moved = new boolean[size];
+        x = new double[size];
+        y = new double[size];
+        z = new double[size];
+        for (int i = 0; i < size; i++) {
+            final Vertex v = this.vertices[i];
+            x[i] = v.xp.doubleValue();
+            y[i] = v.yp.doubleValue();
+            z[i] = v.zp.doubleValue();
+        }
+    }
+
+    public int size() {
+        return vertices.length;
+    }
+
+    public int getNeighbourCount(int vertex) {
+        return neighbourStart[vertex + 1] - neighbourStart[vertex];
+    }
+
+    public int getNeighbour(int vertex, int n) {
+        return neighbours[neighbourStart[vertex] + n];
+    }
+
+    /**
+     * @param vertex
+     *            the index of the vertex
+     * @return the original vertex if it was not moved, or a new vertex with
+     *         the current position. Coordinates on axes which were not
+     *         changed keep their exact value.
+     */
+    public Vertex getVertex(int vertex) {
+        final Vertex v = vertices[vertex];
+        if (!moved[vertex]) {
+            return v;
+        }
+        return new Vertex(
+                movedX ? BigDecimal.valueOf(x[vertex]) : v.xp,
+                movedY ? BigDecimal.valueOf(y[vertex]) : v.yp,
+                movedZ ? BigDecimal.valueOf(z[vertex]) : v.zp);
+    }
+
+    /**
+     * Moves each vertex with neighbours towards the average of its neighbours
+     * (Laplacian smoothing). All vertices are updated at once per iteration.
+     *
+     * @param factor
+     *            the weight of the neighbour average (the old position has the
+     *            weight {@code 1 - factor})
+     * @param iterations
+     *            the number of iterations
+     * @param isX
+     *            {@code true} if the X coordinate should be smoothed
+     * @param isY
+     *            {@code true} if the Y coordinate should be smoothed
+     * @param isZ
+     *            {@code true} if the Z coordinate should be smoothed
+     */
+    public void smooth(double factor, int iterations, boolean isX, boolean isY, boolean isZ) {
+        final double oneMinusFactor = 1.0 - factor;
+        movedX |= isX;
+        movedY |= isY;
+        movedZ |= isZ;
+        for (int j = 0; j < iterations; j++) {
+            final double[] nx = x.clone();
+            final double[] ny = y.clone();
+            final double[] nz = z.clone();
+            forEachChunk((start, end) -> {
+                for (int i = start; i < end; i++) {
+                    final int from = neighbourStart[i];
+                    final int to = neighbourStart[i + 1];
+                    if (from == to || fixed.get(i)) continue;
+                    double sx = 0.0;
+                    double sy = 0.0;
+                    double sz = 0.0;
+                    for (int k = from; k < to; k++) {
+                        final int n = neighbours[k];
+                        sx += x[n];
+                        sy += y[n];
+                        sz += z[n];
+                    }
+                    final int count = to - from;
+                    if (isX) nx[i] = sx / count * factor + x[i] * oneMinusFactor;
+                    if (isY) ny[i] = sy / count * factor + y[i] * oneMinusFactor;
+                    if (isZ) nz[i] = sz / count * factor + z[i] * oneMinusFactor;
+                    moved[i] = true;
+                }
+            });
+            x = nx;
+            y = ny;
+            z = nz;
+        }
+    }
+
+    /**
+     * Moves each vertex with neighbours to the average of the mid-points of
+     * its edges (the vertex rule of the Catmull-Clark subdivision, as the
+     * editor applies it).
+     */
+    public void applyCatmullClarkVertexRule() {
+        applyVertexRule((i, count, sx, sy, sz, result) -> {
+            final double c = 2.0 * count;
+            result[0] = (x[i] * count + sx) / c;
+            result[1] = (y[i] * count + sy) / c;
+            result[2] = (z[i] * count + sz) / c;
+        });
+    }
+
+    /**
+     * Moves each vertex with neighbours to the weighted average of itself and
+     * its neighbours (the vertex rule of the Loop subdivision, as the editor
+     * applies it).
+     */
+    public void applyLoopVertexRule() {
+        applyVertexRule((i, count, sx, sy, sz, result) -> {
+            final double n = count + 1.0;
+            final double t = 3.0 / 8.0 + 1.0 / 4.0 * Math.cos(Math.PI * 2.0 / n);
+            final double alphaN = 3.0 / 8.0 + t * t;
+            final double oneMinusAlphaDivN = (1.0 - alphaN) / n;
+            result[0] = x[i] * alphaN + sx * oneMinusAlphaDivN;
+            result[1] = y[i] * alphaN + sy * oneMinusAlphaDivN;
+            result[2] = z[i] * alphaN + sz * oneMinusAlphaDivN;
+        });
+    }
+
+    private void applyVertexRule(VertexRule rule) {
+        movedX = true;
+        movedY = true;
+        movedZ = true;
+        final double[] nx = x.clone();
+        final double[] ny = y.clone();
+        final double[] nz = z.clone();
+        forEachChunk((start, end) -> {
+            final double[] result = new double[3];
+            for (int i = start; i < end; i++) {
+                final int from = neighbourStart[i];
+                final int to = neighbourStart[i + 1];
+                if (from == to || fixed.get(i)) continue;
+                double sx = 0.0;
+                double sy = 0.0;
+                double sz = 0.0;
+                for (int k = from; k < to; k++) {
+                    final int n = neighbours[k];
+                    sx += x[n];
+                    sy += y[n];
+                    sz += z[n];
+                }
+                rule.apply(i, to - from, sx, sy, sz, result);
+                nx[i] = result[0];
+                ny[i] = result[1];
+                nz[i] = result[2];
+                moved[i] = true;
+            }
+        });
+        x = nx;
+        y = ny;
+        z = nz;
+    }
+
+    private void forEachChunk(Chunk chunk) {
+        final int size = vertices.length;
+        final int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (chunks > 1) {
+            IntStream.range(0, chunks).parallel().forEach(c -> chunk.process(c * CHUNK_SIZE, Math.min(size, c * CHUNK_SIZE + CHUNK_SIZE)));
+        } else {
+            chunk.process(0, size);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Chunk {
+        void process(int start, int end);
+    }
+
+    @FunctionalInterface
+    private interface VertexRule {
+        void apply(int vertex, int count, double sx, double sy, double sz, double[] result);
+    }
+
+    /**
+     * Collects the vertices and neighbour relations of a mesh. Equal vertices
+     * get the same index.
+     */
+    public static final class Builder {
+
+        private final SortedMap<Vertex, Integer> index = new TreeMap<>();
+        private final List<Vertex> vertices = new ArrayList<>();
+        private final BitSet fixed = new BitSet();
+
+        private int[] from = new int[64];
+        private int[] to = new int[64];
+        private int relationCount = 0;
+
+        /**
+         * @param vertex
+         *            the vertex to add
+         * @return the index of the vertex
+         */
+        public int addVertex(Vertex vertex) {
+            Integer result = index.get(vertex);
+            if (result == null) {
+                result = vertices.size();
+                index.put(vertex, result);
+                vertices.add(vertex);
+            }
+            return result;
+        }
+
+        /**
+         * Adds a neighbour to the list of a vertex. The relation is not
+         * symmetric.
+         */
+        public void addNeighbour(int vertex, int neighbour) {
+            if (relationCount == from.length) {
+                from = Arrays.copyOf(from, relationCount * 2);
+                to = Arrays.copyOf(to, relationCount * 2);
+            }
+            from[relationCount] = vertex;
+            to[relationCount] = neighbour;
+            relationCount++;
+        }
+
+        /**
+         * Marks a vertex which must not be moved.
+         */
+        public void setFixed(int vertex) {
+            fixed.set(vertex);
+        }
+
+        public MeshKernel build() {
+            final int size = vertices.size();
+            final int[] start = new int[size + 1];
+            for (int i = 0; i < relationCount; i++) {
+                start[from[i] + 1]++;
+            }
+            for (int i = 0; i < size; i++) {
+                start[i + 1] += start[i];
+            }
+            final int[] fill = Arrays.copyOf(start, size);
+            final int[] neighbours = new int[relationCount];
+            for (int i = 0; i < relationCount; i++) {
+                neighbours[fill[from[i]]++] = to[i];
+            }
+            return new MeshKernel(vertices, start, neighbours, fixed);
+        }
+    }
+}
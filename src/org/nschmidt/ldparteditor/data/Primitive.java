@@ -39,6 +39,10 @@ public class Primitive implements Comparable<Primitive> {
     private boolean extended = false;
     private boolean category = false;
     private float zoom = 1f;
+    /** The cached result of {@link #toString()} (the text which is searched) */
+    private String text = null;
+    /** The cached sort key of the name */
+    private SortKey sortKey = null;
 
     private static Pattern numberAndMinus = Pattern.compile("[\\d|\\-\\\\]+"); //$NON-NLS-1$
 
@@ -214,14 +218,20 @@ public class Primitive implements Comparable<Primitive> {
 
     public void setName(String name) {
         this.name = name;
+        this.text = null;
+        this.sortKey = null;
     }
 
-    public void search(Pattern pattern, List<Primitive> results) {
+    /**
+     * Adds all primitives of this category (and its sub-categories) to the
+     * list. They are added in the order of the primitive tree.
+     */
+    public void collectPrimitives(List<Primitive> results) {
         if (isCategory()) {
             for (Primitive p : primitivesExtended) {
-                p.search(pattern, results);
+                p.collectPrimitives(results);
             }
-        } else if (pattern.matcher(toString()).matches()) {
+        } else {
             results.add(this);
         }
     }
@@ -252,9 +262,7 @@ public class Primitive implements Comparable<Primitive> {
                     if (o1 == me) return 1;
                     if (o2 == me) return -1;
                     if (o1 == o2) return 0;
-                    String nameO1 = o1.name;
-                    String nameO2 = o2.name;
-                    return numberAndMinus.matcher(nameO1).replaceAll("").compareToIgnoreCase(numberAndMinus.matcher(nameO2).replaceAll("")); //$NON-NLS-1$ //$NON-NLS-2$
+                    return o1.getSortKey().nameWithoutNumbers.compareToIgnoreCase(o2.getSortKey().nameWithoutNumbers);
                 });
                 break;
             case FILENAME_ORDER_BY_FRACTION:
@@ -263,85 +271,17 @@ public class Primitive implements Comparable<Primitive> {
                     if (o2 == me) return -1;
                     if (o1 == o2) return 0;
 
-                    float fractionThis = 0f;
-                    float fractionOther = 0f;
-                    String suffixThis = ""; //$NON-NLS-1$
-                    String suffixOther = ""; //$NON-NLS-1$
-
-                    try {
-                        String nameO1 = o1.name;
-                        if (nameO1.startsWith("48\\")) nameO1 = nameO1.substring(3); //$NON-NLS-1$
-                        StringBuilder upperThis = new StringBuilder();
-                        StringBuilder lowerThis = new StringBuilder();
-                        if (nameO1.charAt(1) == '-' || nameO1.charAt(2) == '-') {
-                            boolean readUpper = true;
-                            int charCount = 0;
-                            char[] charsThis = nameO1.toCharArray();
-                            for (char c : charsThis) {
-                                if (Character.isDigit(c)) {
-                                    if (readUpper) {
-                                        upperThis.append(c);
-                                    } else {
-                                        lowerThis.append(c);
-                                    }
-                                } else {
-                                    if (readUpper) {
-                                        readUpper = false;
-                                    } else {
-                                        suffixThis = nameO1.substring(charCount, nameO1.length());
-                                        break;
-                                    }
-                                }
-                                charCount++;
-                            }
-                            fractionThis = Float.parseFloat(upperThis.toString()) / Float.parseFloat(lowerThis.toString());
-                        } else {
-                            return 1;
-                        }
-                    } catch (Exception ex) {
-                        return 1;
-                    }
-
-                    try {
-                        String nameO2 = o2.name;
-                        if (nameO2.startsWith("48\\")) nameO2 = nameO2.substring(3); //$NON-NLS-1$
-                        StringBuilder upperOther = new StringBuilder();
-                        StringBuilder lowerOther = new StringBuilder();
-                        if (nameO2.charAt(1) == '-' || nameO2.charAt(2) == '-') {
-                            boolean readUpper = true;
-                            int charCount = 0;
-                            char[] charsOther = nameO2.toCharArray();
-                            for (char c : charsOther) {
-                                if (Character.isDigit(c)) {
-                                    if (readUpper) {
-                                        upperOther.append(c);
-                                    } else {
-                                        lowerOther.append(c);
-                                    }
-                                } else {
-                                    if (readUpper) {
-                                        readUpper = false;
-                                    } else {
-                                        suffixOther = nameO2.substring(charCount, nameO2.length());
-                                        break;
-                                    }
-                                }
-                                charCount++;
-                            }
-                            fractionOther = Float.parseFloat(upperOther.toString()) / Float.parseFloat(lowerOther.toString());
-                        } else {
-                            return -1;
-                        }
-                    } catch (Exception ex) {
-                        return -1;
-                    }
+                    final SortKey keyThis = o1.getSortKey();
+                    final SortKey keyOther = o2.getSortKey();
+                    if (!keyThis.isFraction) return 1;
+                    if (!keyOther.isFraction) return -1;
 
-                    if (!suffixThis.equals(suffixOther)) {
-                        return suffixThis.compareTo(suffixOther);
+                    if (!keyThis.suffix.equals(keyOther.suffix)) {
+                        return keyThis.suffix.compareTo(keyOther.suffix);
                     } else {
-                        if (fractionThis < fractionOther) {
+                        if (keyThis.fraction < keyOther.fraction) {
                             return 1;
-                        } else if (fractionThis > fractionOther) {
+                        } else if (keyThis.fraction > keyOther.fraction) {
                             return -1;
                         }
                     }
@@ -353,63 +293,7 @@ public class Primitive implements Comparable<Primitive> {
                     if (o1 == me) return 1;
                     if (o2 == me) return -1;
                     if (o1 == o2) return 0;
-                    String nameO1 = o1.name;
-                    String nameO2 = o2.name;
-                    char[] charsThis = nameO1.toCharArray();
-                    char[] charsOther = nameO2.toCharArray();
-                    StringBuilder numberThis = new StringBuilder();
-                    StringBuilder numberOther = new StringBuilder();
-                    StringBuilder prefixThis = new StringBuilder();
-                    StringBuilder prefixOther = new StringBuilder();
-                    try {
-                        boolean readDigit = false;
-                        for (int i = charsThis.length - 1; i > 0 ; i--) {
-                            char c = charsThis[i];
-                            if (Character.isDigit(c)) {
-                                numberThis.insert(0, c);
-                                readDigit = true;
-                            } else if (readDigit) {
-                                for (int j = 0; j < i + 1; j++) {
-                                    if (!Character.isDigit(charsThis[j])) prefixThis.append(charsThis[j]);
-                                }
-                                break;
-                            } else if (i < charsThis.length - 5) {
-                                break;
-                            }
-                        }
-                        if (!readDigit) {
-                            numberThis.setLength(0);
-                            numberThis.append('0');
-                        }
-                    } catch (Exception ex) {
-                        numberThis.setLength(0);
-                        numberThis.append('0');
-                    }
-                    try {
-                        boolean readDigit = false;
-                        for (int i = charsOther.length - 1; i > 0 ; i--) {
-                            char c = charsOther[i];
-                            if (Character.isDigit(c)) {
-                                numberOther.insert(0, c);
-                                readDigit = true;
-                            } else if (readDigit) {
-                                for (int j = 0; j < i + 1; j++) {
-                                    if (!Character.isDigit(charsOther[j])) prefixOther.append(charsOther[j]);
-                                }
-                                break;
-                            } else if (i < charsOther.length - 5) {
-                                break;
-                            }
-                        }
-                        if (!readDigit) {
-                            numberOther.setLength(0);
-                            numberOther.append('0');
-                        }
-                    } catch (Exception ex) {
-                        numberOther.setLength(0);
-                        numberOther.append('0');
-                    }
-                    return Integer.compare(Integer.parseInt(numberThis.toString()), Integer.parseInt(numberOther.toString()));
+                    return Long.compare(o1.getSortKey().lastNumber, o2.getSortKey().lastNumber);
                 });
                 break;
             default:
@@ -421,11 +305,16 @@ public class Primitive implements Comparable<Primitive> {
 
     @Override
     public String toString() {
-        if (description.isEmpty()) {
-            return name;
-        } else {
-            return name + " - " + description; //$NON-NLS-1$
+        String result = text;
+        if (result == null) {
+            if (description.isEmpty()) {
+                result = name;
+            } else {
+                result = name + " - " + description; //$NON-NLS-1$
+            }
+            text = result;
         }
+        return result;
     }
 
     public String getDescription() {
@@ -434,6 +323,7 @@ public class Primitive implements Comparable<Primitive> {
 
     public void setDescription(String description) {
         this.description = description;
+        this.text = null;
     }
 
     public float getZoom() {
@@ -639,4 +529,88 @@ public class Primitive implements Comparable<Primitive> {
         Primitive other = (Primitive) obj;
         return this.compareTo(other) == 0;
     }
+
+    private SortKey getSortKey() {
+        SortKey result = sortKey;
+        if (result == null) {
+            result = new SortKey(name);
+            sortKey = result;
+        }
+        return result;
+    }
+
+    /**
+     * The parts of the file name which are compared by the special sort
+     * orders. They are computed once per name (and not per comparison).
+     */
+    private static final class SortKey {
+        /** The name without digits and minus signs (for "alphabetical without numbers") */
+        private final String nameWithoutNumbers;
+        /** {@code true} if the name starts with a fraction like "1-4" */
+        private final boolean isFraction;
+        private final float fraction;
+        private final String suffix;
+        /** The last number within the last five characters (or zero) */
+        private final long lastNumber;
+
+        SortKey(String name) {
+            nameWithoutNumbers = numberAndMinus.matcher(name).replaceAll(""); //$NON-NLS-1$
+
+            boolean fractionFound = false;
+            float fractionValue = 0f;
+            String suffixValue = ""; //$NON-NLS-1$
+            try {
+                final String fractionName = name.startsWith("48\\") ? name.substring(3) : name; //$NON-NLS-1$
+                if (fractionName.charAt(1) == '-' || fractionName.charAt(2) == '-') {
+                    StringBuilder upper = new StringBuilder();
+                    StringBuilder lower = new StringBuilder();
+                    boolean readUpper = true;
+                    int charCount = 0;
+                    for (char c : fractionName.toCharArray()) {
+                        if (Character.isDigit(c)) {
+                            if (readUpper) {
+                                upper.append(c);
+                            } else {
+                                lower.append(c);
+                            }
+                        } else {
+                            if (readUpper) {
+                                readUpper = false;
+                            } else {
+                                suffixValue = fractionName.substring(charCount);
+                                break;
+                            }
+                        }
+                        charCount++;
+                    }
+                    fractionValue = Float.parseFloat(upper.toString()) / Float.parseFloat(lower.toString());
+                    fractionFound = true;
+                }
+            } catch (IndexOutOfBoundsException | NumberFormatException ex) {
+                fractionFound = false;
+            }
+            isFraction = fractionFound;
+            fraction = fractionValue;
+            suffix = suffixValue;
+
+            StringBuilder number = new StringBuilder();
+            for (int i = name.length() - 1; i > 0 ; i--) {
+                final char c = name.charAt(i);
+                if (Character.isDigit(c)) {
+                    number.insert(0, c);
+                } else if (number.length() > 0 || i < name.length() - 5) {
+                    break;
+                }
+            }
+            long numberValue = 0L;
+            if (number.length() > 0) {
+                try {
+                    numberValue = Long.parseLong(number.toString());
+                } catch (NumberFormatException nfe) {
+                    numberValue = Long.MAX_VALUE;
+                }
+            }
+            lastNumber = numberValue;
+        }
+    }
 }
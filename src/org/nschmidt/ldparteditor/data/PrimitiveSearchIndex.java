@@ -0,0 +1,63 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.nschmidt.ldparteditor.helper.TrigramIndex;
+
+/**
+ * Indexes the primitives of the category tree for the primitive search. The
+ * results are in the order of the primitive tree.
+ */
+public final class PrimitiveSearchIndex {
+
+    private final List<Primitive> primitives = new ArrayList<>();
+    private final TrigramIndex index;
+
+    /**
+     * Creates the index
+     *
+     * @param roots
+     *            the top level primitives and categories
+     */
+    public PrimitiveSearchIndex(List<Primitive> roots) {
+        for (Primitive p : roots) {
+            p.collectPrimitives(primitives);
+        }
+        final List<String> texts = new ArrayList<>(primitives.size());
+        for (Primitive p : primitives) {
+            texts.add(p.toString());
+        }
+        index = new TrigramIndex(texts);
+    }
+
+    /**
+     * @param word
+     *            the search word (see {@link TrigramIndex#search(String)})
+     * @return all primitives which match the word
+     */
+    public List<Primitive> search(String word) {
+        final BitSet matches = index.search(word);
+        final List<Primitive> results = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            results.add(primitives.get(i));
+        }
+        return results;
+    }
+}
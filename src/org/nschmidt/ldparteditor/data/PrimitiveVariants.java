@@ -0,0 +1,372 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.lwjgl.util.vector.Matrix4f;
+import org.nschmidt.ldparteditor.composite.Composite3D;
+import org.nschmidt.ldparteditor.enumtype.LevelOfDetail;
+import org.nschmidt.ldparteditor.enumtype.View;
+import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
+import org.nschmidt.ldparteditor.logger.NLogger;
+import org.nschmidt.ldparteditor.opengl.OpenGLRenderer33;
+import org.nschmidt.ldparteditor.text.LDParsingException;
+import org.nschmidt.ldparteditor.text.UTF8BufferedReader;
+
+/**
+ * Replaces primitives with their low or high resolution variant ("8\" and
+ * "48\" primitives) for the rendering. The file content is not changed. The
+ * level of each primitive depends on its size on the screen and is kept per
+ * instance, so that it does not change back and forth while zooming.
+ * <br>
+ * The variants are parsed on the UI thread (the parser is not thread-safe),
+ * a few at a time. A primitive is drawn with its original resolution until the
+ * variant is available.
+ * <br>
+ * The data of unused variants stays in the vertex manager of the variant file
+ * (the data of different variants can not be separated there). The remaining
+ * variants are parsed again into a new file when most of the data is unused.
+ */
+final class PrimitiveVariants {
+
+    /** The maximum number of variants (further primitives keep their original resolution) */
+    private static final int MAX_VARIANTS = 20000;
+    /** The maximum number of variants which are parsed by one task on the UI thread */
+    private static final int MAX_VARIANTS_PER_BATCH = 50;
+    /** The minimum amount of unused data (lines, triangles, quads and condlines) before the variants are parsed again */
+    private static final int MIN_UNUSED_DATA = 10000;
+
+    private static final Primitive NO_PRIMITIVE = new Primitive(null, null, null);
+
+    /** Runs the parsing tasks on the UI thread */
+    private final Executor uiThread;
+    /** Requests a new frame */
+    private final Runnable repaint;
+
+    /** The level of each primitive instance (render thread only) */
+    private final Map<GData1, LevelOfDetail> levels = new HashMap<>();
+    /** The primitive info for each file name (render thread only) */
+    private final Map<String, Primitive> primitives = new HashMap<>();
+    /** The variants of the primitive instances (the instance itself, if there is no variant) */
+    private final Map<Variant, ParsedVariant> variants = new ConcurrentHashMap<>();
+    /** The variants which have to be parsed, with their file */
+    private final Map<Variant, File> pending = new ConcurrentHashMap<>();
+    /** Caches the existence of the variant files (UI thread only) */
+    private final Map<File, Boolean> existingFiles = new HashMap<>();
+    private final AtomicBoolean parsing = new AtomicBoolean(false);
+
+    /** Holds the data of the variants */
+    private DatFile variantFile = null;
+    /** The amount of data in the variant file which belongs to the current variants */
+    private int usedData = 0;
+    private int generation = 0;
+
+    private DatFile df = null;
+    private Set<GData> mainFileContent = Set.of();
+    private Set<GData> selectedData = Set.of();
+    private float pixelPerUnit = 0f;
+    private boolean enabled = false;
+
+    PrimitiveVariants(Composite3D c3d, OpenGLRenderer33 renderer) {
+        this(task -> {
+            if (!c3d.isDisposed()) {
+                c3d.getDisplay().asyncExec(task);
+            }
+        }, () -> ViewIdleManager.frameScheduler.invalidate(renderer));
+    }
+
+    /**
+     * @param uiThread
+     *            runs the parsing tasks on the UI thread
+     * @param repaint
+     *            requests a new frame when new variants are available
+     */
+    PrimitiveVariants(Executor uiThread, Runnable repaint) {
+        this.uiThread = uiThread;
+        this.repaint = repaint;
+    }
+
+    /**
+     * Starts the selection of the variants for a new frame.
+     *
+     * @param df
+     *            the rendered file
+     * @param zoom
+     *            the zoom of the view
+     * @param enabled
+     *            {@code true} if primitives can be replaced
+     * @param mainFileContent
+     *            the content of the rendered file
+     * @param selectedData
+     *            the selected data (selected subfiles keep their primitives)
+     */
+    void begin(DatFile df, float zoom, boolean enabled, Set<GData> mainFileContent, Set<GData> selectedData) {
+        synchronized (this) {
+            if (this.df != df) {
+                this.df = df;
+                clear();
+            }
+        }
+        this.mainFileContent = mainFileContent;
+        this.selectedData = selectedData;
+        this.pixelPerUnit = zoom * View.PIXEL_PER_LDU;
+        this.enabled = enabled && pixelPerUnit > 0f;
+    }
+
+    /**
+     * @param reference
+     *            the reference to a subfile
+     * @return the reference which should be rendered instead (the reference
+     *         itself if it should not or can not be replaced)
+     */
+    GData1 select(GData1 reference) {
+        // Only the read-only content of subfiles is replaced
+        if (!enabled || reference.depth < 2 || reference.boundingBoxMin.x == Float.MAX_VALUE
+                || !reference.firstRef.visible || selectedData.contains(reference.firstRef)) {
+            return reference;
+        }
+
+        final Primitive primitive = primitives.computeIfAbsent(reference.getName(), PrimitiveVariants::getPrimitive);
+        if (primitive == NO_PRIMITIVE) {
+            return reference;
+        }
+
+        final float size = Math.max(reference.boundingBoxMax.x - reference.boundingBoxMin.x,
+                Math.max(reference.boundingBoxMax.y - reference.boundingBoxMin.y, reference.boundingBoxMax.z - reference.boundingBoxMin.z));
+        final LevelOfDetail level = LevelOfDetail.select(size * pixelPerUnit, levels.get(reference));
+        levels.put(reference, level);
+        if (level == primitive.level()) {
+            return reference;
+        }
+
+        final Variant key = new Variant(reference, level);
+        final ParsedVariant result = variants.get(key);
+        if (result == null) {
+            if (variants.size() + pending.size() < MAX_VARIANTS) {
+                pending.putIfAbsent(key, primitive.getFile(level));
+            }
+            return reference;
+        }
+
+        return result.data();
+    }
+
+    /**
+     * Finishes the selection of the variants. Missing variants will be parsed
+     * later.
+     */
+    void end() {
+        levels.keySet().removeIf(gd1 -> !mainFileContent.contains(gd1.firstRef));
+        synchronized (this) {
+            for (Iterator<Map.Entry<Variant, ParsedVariant>> it = variants.entrySet().iterator(); it.hasNext();) {
+                final Map.Entry<Variant, ParsedVariant> entry = it.next();
+                if (!levels.containsKey(entry.getKey().reference())) {
+                    usedData -= entry.getValue().dataSize();
+                    it.remove();
+                }
+            }
+            pending.keySet().removeIf(key -> !levels.containsKey(key.reference()));
+            if (variants.isEmpty() && pending.isEmpty()) {
+                // No variant is used anymore, so their data can be discarded
+                generation++;
+                variantFile = null;
+                usedData = 0;
+            } else if (variantFile != null) {
+                final int unusedData = dataSize(variantFile) - usedData;
+                if (unusedData > MIN_UNUSED_DATA && unusedData > usedData) {
+                    // The variants are parsed again into a new file (they keep their original resolution until then)
+                    generation++;
+                    variantFile = null;
+                    usedData = 0;
+                    variants.forEach((key, variant) -> pending.put(key, variant.file()));
+                    variants.clear();
+                }
+            }
+        }
+        scheduleParsing();
+    }
+
+    private void scheduleParsing() {
+        if (!pending.isEmpty() && parsing.compareAndSet(false, true)) {
+            uiThread.execute(this::parseVariants);
+        }
+    }
+
+    /**
+     * @return the vertices of a line, triangle, quad or condline of a
+     *         variant, or {@code null} if the data is not part of a variant
+     */
+    Vertex[] getVertices(GData gd) {
+        final DatFile file;
+        synchronized (this) {
+            file = variantFile;
+        }
+        if (file == null) {
+            return null;
+        }
+        final VertexManager vm = file.getVertexManager();
+        return switch (gd.type()) {
+        case 2 -> vm.lines.get(gd);
+        case 3 -> vm.triangles.get(gd);
+        case 4 -> vm.quads.get(gd);
+        case 5 -> vm.condlines.get(gd);
+        default -> null;
+        };
+    }
+
+    /**
+     * Discards all variants
+     */
+    synchronized void clear() {
+        generation++;
+        variantFile = null;
+        usedData = 0;
+        levels.clear();
+        variants.clear();
+        pending.clear();
+    }
+
+    private void parseVariants() {
+        parsing.set(false);
+        boolean added = false;
+        int count = 0;
+        for (Map.Entry<Variant, File> entry : new ArrayList<>(pending.entrySet())) {
+            // The other variants are parsed by the next task (so that the UI stays responsive)
+            if (count == MAX_VARIANTS_PER_BATCH) {
+                break;
+            }
+            count++;
+            final Variant key = entry.getKey();
+            final GData1 reference = key.reference();
+            final File file = entry.getValue();
+            final DatFile targetFile;
+            final int targetGeneration;
+            synchronized (this) {
+                if (variantFile == null) {
+                    variantFile = new DatFile(reference.getName(), "Primitive Variants", true, DatType.PRIMITIVE); //$NON-NLS-1$
+                }
+                targetFile = variantFile;
+                targetGeneration = generation;
+            }
+
+            final GData1 variant;
+            final int dataBefore = dataSize(targetFile);
+            if (existingFiles.computeIfAbsent(file, File::isFile)) {
+                final String name = file.getAbsolutePath();
+                final String folder = key.level().getFolder();
+                final String shortName = folder == null ? file.getName() : folder + "\\" + file.getName(); //$NON-NLS-1$
+                variant = new GData1(reference.colourNumber, reference.r, reference.g, reference.b, reference.a,
+                        new Matrix4f(reference.getLocalMatrix()), reference.accurateLocalMatrix, readLines(name), name, shortName,
+                        reference.depth - 1, reference.negativeDeterminant, new Matrix4f(reference.productMatrix), reference.accurateProductMatrix,
+                        targetFile, reference.firstRef, false, false, new HashSet<>(), reference.parent);
+            } else {
+                variant = reference;
+            }
+
+            synchronized (this) {
+                // The variant is discarded if it was removed or cleared in the meantime
+                if (targetGeneration == generation && pending.remove(key) != null) {
+                    final ParsedVariant parsed = new ParsedVariant(variant, file, dataSize(targetFile) - dataBefore);
+                    variants.put(key, parsed);
+                    usedData += parsed.dataSize();
+                    added = true;
+                }
+            }
+        }
+
+        // Only new variants need a new frame (which can not request the same variants again)
+        if (added) {
+            repaint.run();
+        }
+        scheduleParsing();
+    }
+
+    /**
+     * @return the amount of lines, triangles, quads and condlines in the file
+     */
+    private static int dataSize(DatFile file) {
+        final VertexManager vm = file.getVertexManager();
+        return vm.lines.size() + vm.triangles.size() + vm.quads.size() + vm.condlines.size();
+    }
+
+    private static List<String> readLines(String fileName) {
+        final List<String> cachedLines = GData.CACHE_parsedFilesSource.get(fileName);
+        if (cachedLines != null) {
+            return cachedLines;
+        }
+        final List<String> lines = new ArrayList<>();
+        try (UTF8BufferedReader reader = new UTF8BufferedReader(fileName)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (FileNotFoundException | LDParsingException ex) {
+            NLogger.debug(PrimitiveVariants.class, ex);
+        }
+        return lines;
+    }
+
+    private static Primitive getPrimitive(String fileName) {
+        if (fileName == null) {
+            return NO_PRIMITIVE;
+        }
+        final File file = new File(fileName);
+        File folder = file.getParentFile();
+        if (folder == null) {
+            return NO_PRIMITIVE;
+        }
+        LevelOfDetail level = LevelOfDetail.fromFolder(folder.getName());
+        if (level == null) {
+            level = LevelOfDetail.STANDARD;
+        } else {
+            folder = folder.getParentFile();
+        }
+        if (folder == null || !"p".equalsIgnoreCase(folder.getName())) { //$NON-NLS-1$
+            return NO_PRIMITIVE;
+        }
+        return new Primitive(folder, file.getName(), level);
+    }
+
+    /**
+     * A primitive file in the "p" folder (or in one of its resolution folders)
+     */
+    private record Primitive(File folder, String fileName, LevelOfDetail level) {
+        File getFile(LevelOfDetail target) {
+            final String subFolder = target.getFolder();
+            return new File(subFolder == null ? folder : new File(folder, subFolder), fileName);
+        }
+    }
+
+    private record Variant(GData1 reference, LevelOfDetail level) {}
+
+    /**
+     * A parsed variant with its file and the amount of its data in the variant
+     * file
+     */
+    private record ParsedVariant(GData1 data, File file, int dataSize) {}
+}
@@ -23,7 +23,7 @@ import org.eclipse.swt.graphics.Point;
 import org.nschmidt.ldparteditor.composite.compositetab.CompositeTab;
 import org.nschmidt.ldparteditor.helper.composite3d.RectifierSettings;
 import org.nschmidt.ldparteditor.helper.compositetext.Text2SelectionConverter;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.project.Project;
 import org.nschmidt.ldparteditor.shell.editortext.EditorTextWindow;
 
@@ -46,7 +46,7 @@ public enum QuadMerger {
         Text2SelectionConverter.convert(st, lineStart, lineEnd, datFile);
 
         final Set<GData> sd = datFile.getVertexManager().getSelectedData();
-        HashBiMap<Integer, GData> dpl = datFile.getDrawPerLineNoClone();
+        LineIndex<GData> dpl = datFile.getDrawPerLineNoClone();
 
         lineEnd += 1;
         for (int line = lineStart; line < lineEnd; line++) {
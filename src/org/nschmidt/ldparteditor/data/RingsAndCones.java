@@ -24,11 +24,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Random;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -37,6 +32,7 @@ import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.MessageBox;
 import org.eclipse.swt.widgets.Shell;
+import org.nschmidt.ldparteditor.data.tool.RingsAndConesSolver;
 import org.nschmidt.ldparteditor.enumtype.LDConfig;
 import org.nschmidt.ldparteditor.enumtype.MyLanguage;
 import org.nschmidt.ldparteditor.enumtype.Threshold;
@@ -65,7 +61,7 @@ public enum RingsAndCones {
 
         vm.clearSelection2();
 
-        final BigDecimal factor = new BigDecimal(100000000L);
+        final BigDecimal factor = new BigDecimal(RingsAndConesSolver.FACTOR);
 
         long radMin = rs.getRadius1().multiply(factor).longValue();
         long radMax = rs.getRadius2().multiply(factor).longValue();
@@ -93,10 +89,17 @@ public enum RingsAndCones {
                 initExistanceMap(rs.isUsingCones(), rs.isUsingHiRes());
             }
 
-            final int[] solutionAmount = new int[]{0};
-            final long[] solution = new long[50];
-            final long[] solutionR = new long[50];
-            final long[] solutionR2 = new long[50];
+            final long[] radii;
+            if (rs.isUsingExistingPrimitives()) {
+                radii = existanceMap.keySet().stream().filter(r -> primitiveExists(r, angle)).mapToLong(Integer::longValue).toArray();
+            } else {
+                radii = new long[99];
+                for (int r = 1; r < 100; r++) {
+                    radii[r - 1] = r;
+                }
+            }
+
+            final RingsAndConesSolver.Solution[] solution = new RingsAndConesSolver.Solution[1];
 
             try
             {
@@ -107,195 +110,18 @@ public enum RingsAndCones {
                     {
                         m.beginTask(I18n.RCONES_TASK, IProgressMonitor.UNKNOWN);
 
-                        // We need two different solvers here.
-
-                        // Solver 1: A specialised version, which uses only existing primitives
-                        // Solver 2: A general solver, which is not bound to use only existing primitives
-
-                        {
-                            final AtomicInteger minAmountA = new AtomicInteger(Integer.MAX_VALUE);
-                            final AtomicLong minDeltaA = new AtomicLong(Long.MAX_VALUE);
-                            final AtomicInteger minDigitsA = new AtomicInteger(Integer.MAX_VALUE);
-
-                            final Lock tlock = new ReentrantLock();
-
-                            final int chunks = View.NUM_CORES;
-                            final Thread[] threads = new Thread[chunks];
-                            for (int j = 0; j < chunks; ++j) {
-                                final long num = j;
-                                threads[j] = new Thread(() -> {
-                                    {
-                                        final java.text.DecimalFormat numberFormat4f = new java.text.DecimalFormat(View.NUMBER_FORMAT4F, new DecimalFormatSymbols(MyLanguage.getLocale()));
-                                        int amount = 0;
-                                        final long min_r = 1;
-                                        long maxR = 100;
-
-                                        int minAmount;
-                                        long minDelta;
-                                        int minDigits;
-
-                                        long current = radi_min;
-
-                                        Random rnd = new Random(1238426235L * num);
-
-                                        final long[] tsolution = new long[50];
-                                        final long[] tsolutionR = new long[50];
-                                        final long[] tsolutionR2 = new long[50];
-
-                                        final long width = maxR - min_r;
-
-                                        final long[] rndSet;
-                                        final int size = existanceMap.keySet().size();
-                                        if (size == 0 && rs.isUsingExistingPrimitives()) {
-                                            return;
-                                        }
-                                        {
-                                            int i = 0;
-                                            rndSet  = new long[size];
-                                            for(int in : existanceMap.keySet())
-                                            {
-                                                rndSet[i] = in;
-                                                i = i + 1;
-                                            }
-                                        }
-                                        long start = System.currentTimeMillis();
-                                        while (!m.isCanceled()) {
-                                            long s;
-                                            long r;
-                                            // MARK Solver 1
-                                            if (rs.isUsingExistingPrimitives()) {
-                                                r = rndSet[rnd.nextInt(size)];
-                                                if (!primitiveExists((int) r, angle)) {
-                                                    continue;
-                                                }
-                                            } else {
-                                                // MARK Solver 2
-                                                r = (long) (width * rnd.nextDouble() + min_r);
-                                            }
-
-                                            s = current / r;
-                                            if (s < 10000000L) {
-                                                continue;
-                                            }
-
-                                            amount++;
-                                            if (amount < 47) {
-                                                tsolution[amount] = s;
-                                                tsolutionR[amount] = r;
-                                                tsolutionR2[amount] = current;
-                                            } else {
-                                                current = radi_min;
-                                                amount = 0;
-                                                continue;
-                                            }
-                                            long sum = s + current;
-
-                                            minAmount = minAmountA.get();
-                                            minDelta = minDeltaA.get();
-                                            minDigits = minDigitsA.get();
-
-                                            if (sum >= radi_max || amount > minAmount) {
-                                                if (amount <= minAmount && amount < 47) {
-                                                    long delta = Math.abs(sum - radi_max);
-                                                    if (100000L >= delta) {
-                                                        if (amount != minAmount) {
-                                                            minDelta = Long.MAX_VALUE;
-                                                        } else if (delta < minDelta) {
-                                                            minDelta = delta;
-                                                            minDigits = Integer.MAX_VALUE;
-                                                        } else if (delta > minDelta) {
-                                                            current = radi_min;
-                                                            amount = 0;
-                                                            continue;
-                                                        } else {
-                                                            int digits = getDigits(tsolution[amount]);
-                                                            for(int i = 1; i < amount; i++) {
-                                                                digits += getDigits(tsolution[i]);
-                                                            }
-                                                            if (digits < minDigits) {
-                                                                minDigits = digits;
-                                                            } else {
-                                                                current = radi_min;
-                                                                amount = 0;
-                                                                continue;
-                                                            }
-                                                        }
-                                                        minAmount = amount;
-                                                        if (minDigits == Integer.MAX_VALUE) {
-                                                            m.subTask("Best Solution - " + minAmount + " Primitives, with " + numberFormat4f.format(new BigDecimal(delta).divide(factor, Threshold.MC).doubleValue()) + " deviation."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-                                                        } else {
-                                                            m.subTask("Best Solution - " + minAmount + " Primitives, with " + numberFormat4f.format(new BigDecimal(delta).divide(factor, Threshold.MC).doubleValue()) + " deviation and " + minDigits + " digits."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-                                                        }
-                                                        tlock.lock();
-                                                        if (minAmount < minAmountA.get()  || minAmount == minAmountA.get() && minDelta <= minDeltaA.get()) {
-                                                            for(int i = 1; i < amount; i++) {
-                                                                solution[i] = tsolution[i];
-                                                                solutionR[i] = tsolutionR[i];
-                                                                solutionR2[i] = tsolutionR2[i];
-                                                            }
-                                                            solution[amount] = tsolution[amount];
-                                                            solutionR[amount] = tsolutionR[amount];
-                                                            solutionR2[amount] = tsolutionR2[amount];
-                                                            solutionR2[amount + 1] = sum;
-                                                            solutionAmount[0] = amount;
-                                                            minAmountA.set(minAmount);
-                                                            minDeltaA.set(minDelta);
-                                                            minDigitsA.set(minDigits);
-                                                        }
-                                                        tlock.unlock();
-                                                        start = System.currentTimeMillis();
-                                                    }
-                                                }
-                                                if (num == 0 && System.currentTimeMillis() - start > Math.max(40000 / chunks, 6000)) {
-                                                    minAmount--;
-                                                    minAmountA.set(minAmount);
-                                                    start = System.currentTimeMillis();
-                                                }
-                                                if (minAmount < 1) break;
-                                                current = radi_min;
-                                                amount = 0;
-                                            } else {
-                                                current = sum;
-                                            }
-                                        }
-                                    }
-                                });
-                                threads[j].start();
-                            }
-                            boolean isRunning = true;
-                            while (isRunning) {
-                                try {
-                                    Thread.sleep(100);
-                                } catch (InterruptedException ie) {
-                                    Thread.currentThread().interrupt();
-                                    throw new LDPartEditorException(ie);
-                                }
-                                isRunning = false;
-                                for (Thread thread : threads) {
-                                    if (thread.isAlive())
-                                        isRunning = true;
-                                }
-                            }
-                        }
-
+                        // The radii are restricted to existing primitives (if requested).
+                        // The exact solver is deterministic and stops when it has found the optimal solution.
+                        // The random solver runs until it gets cancelled or until it runs out of time.
 
-                    }
-
-                    private int getDigits(long l) {
-                        if (l < 1) return 1;
-                        int result = 0;
-                        while (100000000L > l) {
-                            l *= 10L;
-                            result++;
-                        }
-                        char[] ca = Long.toString(l, 10).toCharArray();
-                        final int start = ca.length - 1;
-                        for (int i = start; i > 0; i--) {
-                            if (ca[i] != '0') {
-                                return result + ca.length - (start - i);
-                            }
+                        if (rs.isUsingExactSolver()) {
+                            solution[0] = RingsAndConesSolver.solve(radi_min, radi_max, radii, m::isCanceled);
+                        } else {
+                            final java.text.DecimalFormat numberFormat4f = new java.text.DecimalFormat(View.NUMBER_FORMAT4F, new DecimalFormatSymbols(MyLanguage.getLocale()));
+                            solution[0] = RingsAndConesSolver.solveRandom(radi_min, radi_max, radii, View.NUM_CORES, m::isCanceled, sol ->
+                                m.subTask("Best Solution - " + sol.getAmount() + " Primitives, with " + numberFormat4f.format(new BigDecimal(sol.getDelta()).divide(factor, Threshold.MC).doubleValue()) + " deviation and " + sol.getDigits() + " digits.") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                            );
                         }
-                        return result + ca.length;
                     }
                 });
             } catch (InterruptedException ie) {
@@ -307,7 +133,7 @@ public enum RingsAndCones {
 
 
             // The solution needs to be evaluated here
-            if (solutionAmount[0] == 0) {
+            if (solution[0] == null) {
                 if (!rs.isCreatingNothingOnNoSolution()) {
 
                     // We have to generate the shape here:
@@ -400,19 +226,20 @@ public enum RingsAndCones {
                 BigDecimal height = BigDecimal.ZERO;
                 BigDecimal step = BigDecimal.ONE;
 
-                BigDecimal width =  new BigDecimal(solutionR2[solutionAmount[0] + 1] - solutionR2[1]);
+                final int solutionAmount = solution[0].getAmount();
+                BigDecimal width =  new BigDecimal(solution[0].getStart(solutionAmount + 1) - solution[0].getStart(1));
 
                 if (rs.isUsingCones()) {
                     height = BigDecimal.ZERO;
                 }
-                for(int i = 1; i <= solutionAmount[0]; i++) {
-                    BigDecimal sf = new BigDecimal(solution[i]).divide(factor, Threshold.MC);
+                for(int i = 1; i <= solutionAmount; i++) {
+                    BigDecimal sf = new BigDecimal(solution[0].getScale(i)).divide(factor, Threshold.MC);
                     String sfs = bigDecimalToString(sf);
-                    String radiusSuffix = "" + solutionR[i]; //$NON-NLS-1$
+                    String radiusSuffix = "" + solution[0].getRadius(i); //$NON-NLS-1$
 
                     String middle;
                     if (rs.isUsingCones()) {
-                        step = new BigDecimal(solutionR2[i + 1] - solutionR2[i]).divide(width, Threshold.MC).multiply(rs.getHeight());
+                        step = new BigDecimal(solution[0].getStart(i + 1) - solution[0].getStart(i)).divide(width, Threshold.MC).multiply(rs.getHeight());
                         middle = "con"; //$NON-NLS-1$
                         height = height.add(step);
                     } else {
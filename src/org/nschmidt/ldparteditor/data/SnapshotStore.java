@@ -0,0 +1,230 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.nschmidt.ldparteditor.helper.LDPartEditorException;
+
+/**
+ * Stores the lines of memory snapshots as compressed chunks. A chunk is
+ * addressed by the hash of its content, so identical chunks are stored only
+ * once (across all snapshots of the store). The chunk boundaries depend on
+ * the content of the lines (and not on their position), which means that
+ * the unchanged parts of a file still share their chunks after lines were
+ * added or removed.
+ */
+public final class SnapshotStore {
+
+    /** A chunk ends after a line with these hash bits set to zero (64 lines on average) */
+    private static final int BOUNDARY_MASK = 63;
+    /** The maximum number of lines per chunk */
+    private static final int MAX_CHUNK_LINES = 1024;
+
+    private final Map<ByteBuffer, Chunk> chunks = new HashMap<>();
+    private long storedBytes = 0L;
+
+    /**
+     * @return a new builder which adds the content of a snapshot to this
+     *         store
+     */
+    public Builder newContent() {
+        return new Builder();
+    }
+
+    /**
+     * @return the number of different chunks in this store
+     */
+    public synchronized int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * @return the size of all compressed chunks in bytes
+     */
+    public synchronized long getStoredBytes() {
+        return storedBytes;
+    }
+
+    private synchronized Chunk store(StringBuilder text, int lineCount) {
+        final byte[] raw = text.toString().getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer key;
+        try {
+            key = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(raw)); //$NON-NLS-1$
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new LDPartEditorException(nsae);
+        }
+        Chunk chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = new Chunk(compress(raw), raw.length, lineCount);
+            chunks.put(key, chunk);
+            storedBytes += chunk.data.length;
+        }
+        return chunk;
+    }
+
+    private static byte[] compress(byte[] raw) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, raw.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    final byte[] newBuffer = new byte[buffer.length * 2];
+                    System.arraycopy(buffer, 0, newBuffer, 0, length);
+                    buffer = newBuffer;
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            final byte[] result = new byte[length];
+            System.arraycopy(buffer, 0, result, 0, length);
+            return result;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static final class Chunk {
+
+        private final byte[] data;
+        private final int rawLength;
+        private final int lineCount;
+
+        private Chunk(byte[] data, int rawLength, int lineCount) {
+            this.data = data;
+            this.rawLength = rawLength;
+            this.lineCount = lineCount;
+        }
+
+        private String inflate() {
+            final Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(data);
+                final byte[] raw = new byte[rawLength];
+                int length = 0;
+                while (length < rawLength && !inflater.finished()) {
+                    length += inflater.inflate(raw, length, rawLength - length);
+                }
+                return new String(raw, StandardCharsets.UTF_8);
+            } catch (DataFormatException dfe) {
+                throw new LDPartEditorException(dfe);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    /**
+     * Adds the lines of a snapshot to the store, one chunk at a time.
+     */
+    public final class Builder {
+
+        private final List<Chunk> contentChunks = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+        private int chunkLines = 0;
+        private int lineCount = 0;
+
+        private Builder() {
+        }
+
+        public void addLine(String line) {
+            if (chunkLines > 0) {
+                text.append('\n');
+            }
+            text.append(line);
+            chunkLines++;
+            lineCount++;
+            if ((line.hashCode() & BOUNDARY_MASK) == 0 || chunkLines == MAX_CHUNK_LINES) {
+                flush();
+            }
+        }
+
+        public Content build() {
+            flush();
+            return new Content(contentChunks.toArray(new Chunk[0]), lineCount);
+        }
+
+        private void flush() {
+            if (chunkLines > 0) {
+                contentChunks.add(store(text, chunkLines));
+                text.setLength(0);
+                chunkLines = 0;
+            }
+        }
+    }
+
+    /**
+     * The stored lines of a snapshot. They are only decompressed on demand.
+     */
+    public static final class Content {
+
+        private final Chunk[] contentChunks;
+        private final int lineCount;
+
+        private Content(Chunk[] contentChunks, int lineCount) {
+            this.contentChunks = contentChunks;
+            this.lineCount = lineCount;
+        }
+
+        public int getLineCount() {
+            return lineCount;
+        }
+
+        /**
+         * @return all lines, separated by a line break
+         */
+        public String getText() {
+            final StringBuilder sb = new StringBuilder();
+            boolean first = true;
+            for (Chunk chunk : contentChunks) {
+                if (!first) {
+                    sb.append('\n');
+                }
+                sb.append(chunk.inflate());
+                first = false;
+            }
+            return sb.toString();
+        }
+
+        public String[] getLines() {
+            final String[] result = new String[lineCount];
+            int i = 0;
+            for (Chunk chunk : contentChunks) {
+                final String text = chunk.inflate();
+                int start = 0;
+                for (int l = 1; l < chunk.lineCount; l++) {
+                    final int end = text.indexOf('\n', start);
+                    result[i++] = text.substring(start, end);
+                    start = end + 1;
+                }
+                result[i++] = text.substring(start);
+            }
+            return result;
+        }
+    }
+}
@@ -22,7 +22,7 @@ import java.util.List;
 import org.eclipse.swt.custom.CTabItem;
 import org.eclipse.swt.graphics.Point;
 import org.nschmidt.ldparteditor.composite.compositetab.CompositeTab;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.project.Project;
 import org.nschmidt.ldparteditor.shell.editortext.EditorTextWindow;
@@ -544,7 +544,7 @@ public enum Sorter {
             }
         }
 
-        HashBiMap<Integer, GData> dpl = datFile.getDrawPerLineNoClone();
+        LineIndex<GData> dpl = datFile.getDrawPerLineNoClone();
 
         final int size = sortedData.size() + 1;
 
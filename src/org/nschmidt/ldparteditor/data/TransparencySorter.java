@@ -0,0 +1,265 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.lwjgl.util.vector.Matrix4f;
+
+/**
+ * Sorts the transparent triangles of a vertex buffer from back to front. The
+ * triangles are sorted by the depth of their centre with a parallel radix sort
+ * on quantised keys, so the time is linear in the number of triangles. The
+ * order is not computed again as long as the triangles are the same and the
+ * view direction did not change by more than {@link #ANGLE_THRESHOLD} (the
+ * last order is re-used instead). The sorter can be re-used for each frame.
+ */
+public final class TransparencySorter {
+
+    /** The number of floats per vertex (position, normal and colour) */
+    public static final int VERTEX_SIZE = 10;
+    /** The minimum change of the view direction [degree] which needs a new order */
+    public static final double ANGLE_THRESHOLD = 1.0;
+
+    private static final int TRIANGLE_SIZE = 3 * VERTEX_SIZE;
+    private static final float MIN_COS = (float) Math.cos(Math.toRadians(ANGLE_THRESHOLD));
+
+    /** The bits per radix pass (two passes) */
+    private static final int RADIX_BITS = 11;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int KEY_MAX = (1 << 2 * RADIX_BITS) - 1;
+    /** Small buffers are not worth the parallel overhead */
+    private static final int CHUNK_SIZE = 16384;
+
+    private float[] depth = new float[0];
+    private int[] keys = new int[0];
+    private int[] order = new int[0];
+    private int[] tmpOrder = new int[0];
+    private float[] tmpData = new float[0];
+
+    private int lastCount = -1;
+    private long lastSignature = 0L;
+    private float lastX = 0f;
+    private float lastY = 0f;
+    private float lastZ = 0f;
+
+    private int sortCount = 0;
+
+    /**
+     * Sorts the triangles in the given range from back to front.
+     *
+     * @param data
+     *            the vertex data ({@link #VERTEX_SIZE} floats per vertex)
+     * @param vertexOffset
+     *            the first vertex of the transparent triangles
+     * @param vertexCount
+     *            the number of vertices of the transparent triangles
+     * @param viewport
+     *            the view matrix
+     */
+    public void sort(float[] data, int vertexOffset, int vertexCount, Matrix4f viewport) {
+        final int count = vertexCount / 3;
+        if (count < 2) {
+            return;
+        }
+        final int base = vertexOffset * VERTEX_SIZE;
+
+        // The depth is the z-coordinate in view space (the offset and the scale do not change the order)
+        float dx = viewport.m02;
+        float dy = viewport.m12;
+        float dz = viewport.m22;
+        final float length = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (length == 0f) {
+            return;
+        }
+        dx /= length;
+        dy /= length;
+        dz /= length;
+
+        final long signature = signature(data, base, count);
+        if (count != lastCount || signature != lastSignature || dx * lastX + dy * lastY + dz * lastZ < MIN_COS) {
+            ensureCapacity(count);
+            calculateKeys(data, base, count, dx, dy, dz);
+            radixSort(count);
+            lastCount = count;
+            lastSignature = signature;
+            lastX = dx;
+            lastY = dy;
+            lastZ = dz;
+            sortCount++;
+        }
+
+        reorder(data, base, count);
+    }
+
+    /**
+     * @return how often the order was calculated (and not re-used)
+     */
+    public int getSortCount() {
+        return sortCount;
+    }
+
+    /**
+     * Forgets the last order.
+     */
+    public void reset() {
+        lastCount = -1;
+    }
+
+    private void ensureCapacity(int count) {
+        if (keys.length < count) {
+            final int capacity = Math.max(count, keys.length * 2);
+            depth = new float[capacity];
+            keys = new int[capacity];
+            order = new int[capacity];
+            tmpOrder = new int[capacity];
+        }
+    }
+
+    private void calculateKeys(float[] data, int base, int count, float dx, float dy, float dz) {
+        parallel(count, (from, to) -> {
+            for (int t = from; t < to; t++) {
+                final int o = base + t * TRIANGLE_SIZE;
+                final float x = data[o] + data[o + VERTEX_SIZE] + data[o + 2 * VERTEX_SIZE];
+                final float y = data[o + 1] + data[o + VERTEX_SIZE + 1] + data[o + 2 * VERTEX_SIZE + 1];
+                final float z = data[o + 2] + data[o + VERTEX_SIZE + 2] + data[o + 2 * VERTEX_SIZE + 2];
+                depth[t] = dx * x + dy * y + dz * z;
+            }
+        });
+
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (int t = 0; t < count; t++) {
+            final float d = depth[t];
+            if (d < min) min = d;
+            if (d > max) max = d;
+        }
+
+        // Quantise the depth (the most distant triangle gets the smallest key)
+        final float range = max - min;
+        final float scale = range > 0f && Float.isFinite(range) ? KEY_MAX / range : 0f;
+        final float minDepth = min;
+        parallel(count, (from, to) -> {
+            for (int t = from; t < to; t++) {
+                final int key = (int) ((depth[t] - minDepth) * scale);
+                keys[t] = Math.max(0, Math.min(KEY_MAX, key));
+                order[t] = t;
+            }
+        });
+    }
+
+    /**
+     * A stable LSD radix sort of {@link #order} by {@link #keys}. Each chunk
+     * counts its digits, and the prefix sums over all digits and chunks tell
+     * every chunk where to put its elements.
+     */
+    private void radixSort(int count) {
+        final int chunks = chunkCount(count);
+        final int[] offsets = new int[chunks * RADIX];
+        int[] src = order;
+        int[] dst = tmpOrder;
+        for (int shift = 0; shift < 2 * RADIX_BITS; shift += RADIX_BITS) {
+            final int s = shift;
+            final int[] from = src;
+            final int[] to = dst;
+            Arrays.fill(offsets, 0);
+            chunks(count, chunks, (c, start, end) -> {
+                final int o = c * RADIX;
+                for (int i = start; i < end; i++) {
+                    offsets[o + (keys[from[i]] >>> s & RADIX - 1)]++;
+                }
+            });
+            int sum = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                for (int c = 0; c < chunks; c++) {
+                    final int i = c * RADIX + digit;
+                    final int n = offsets[i];
+                    offsets[i] = sum;
+                    sum += n;
+                }
+            }
+            chunks(count, chunks, (c, start, end) -> {
+                final int o = c * RADIX;
+                for (int i = start; i < end; i++) {
+                    final int t = from[i];
+                    to[offsets[o + (keys[t] >>> s & RADIX - 1)]++] = t;
+                }
+            });
+            src = to;
+            dst = from;
+        }
+        // Two passes: the result is in "order" again
+    }
+
+    private void reorder(float[] data, int base, int count) {
+        final int size = count * TRIANGLE_SIZE;
+        if (tmpData.length < size) {
+            tmpData = new float[Math.max(size, tmpData.length * 2)];
+        }
+        final float[] tmp = tmpData;
+        parallel(count, (from, to) -> {
+            for (int t = from; t < to; t++) {
+                System.arraycopy(data, base + order[t] * TRIANGLE_SIZE, tmp, t * TRIANGLE_SIZE, TRIANGLE_SIZE);
+            }
+        });
+        System.arraycopy(tmp, 0, data, base, size);
+    }
+
+    /**
+     * @return a hash of the positions and colours of the triangles (in their
+     *         original order)
+     */
+    private static long signature(float[] data, int base, int count) {
+        long hash = count;
+        final int end = base + count * TRIANGLE_SIZE;
+        for (int i = base; i < end; i += VERTEX_SIZE) {
+            hash = hash * 31L + Float.floatToIntBits(data[i]);
+            hash = hash * 31L + Float.floatToIntBits(data[i + 1]);
+            hash = hash * 31L + Float.floatToIntBits(data[i + 2]);
+            hash = hash * 31L + Float.floatToIntBits(data[i + 9]);
+        }
+        return hash;
+    }
+
+    private static int chunkCount(int count) {
+        final int workers = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        return Math.max(1, Math.min(workers * 4, count / CHUNK_SIZE));
+    }
+
+    private static void parallel(int count, Range range) {
+        chunks(count, chunkCount(count), (c, start, end) -> range.process(start, end));
+    }
+
+    private static void chunks(int count, int chunks, Chunk chunk) {
+        if (chunks > 1) {
+            IntStream.range(0, chunks).parallel().forEach(c -> chunk.process(c, (int) ((long) count * c / chunks), (int) ((long) count * (c + 1) / chunks)));
+        } else {
+            chunk.process(0, 0, count);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Range {
+        void process(int from, int to);
+    }
+
+    @FunctionalInterface
+    private interface Chunk {
+        void process(int chunk, int from, int to);
+    }
+}
@@ -22,9 +22,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -46,7 +48,10 @@ import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.LDPartEditorException;
 import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
 import org.nschmidt.ldparteditor.helper.compositetext.SubfileCompiler;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.DenseIndex;
+import org.nschmidt.ldparteditor.helper.math.IndexedSet;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
+import org.nschmidt.ldparteditor.helper.math.LineIndexView;
 import org.nschmidt.ldparteditor.helper.math.PowerRay;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeHashMap;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeSortedMap;
@@ -59,6 +64,7 @@ import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 class VM00Base {
 
     protected final List<MemorySnapshot> snapshots = new ArrayList<>();
+    protected final SnapshotStore snapshotStore = new SnapshotStore();
 
     // 1 Vertex kann an mehreren Stellen (GData2-5 + position) manifestiert sein
     /**
@@ -94,23 +100,30 @@ class VM00Base {
     protected final Vertex[] vArray = new Vertex[4];
     protected final VertexManifestation[] vdArray = new VertexManifestation[4];
 
+    /**
+     * The dense indices of the subfiles, lines, triangles, quads and condlines
+     * (the category is the line type). The selection and the hidden data are
+     * stored as bits of this index.
+     */
+    protected final DenseIndex<GData> dataIndex = new DenseIndex<>(6);
+
     protected final Set<Vertex> selectedVertices = Collections.newSetFromMap(new ThreadsafeSortedMap<>());
 
-    protected final Set<GData> selectedData = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData1> selectedSubfiles = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData2> selectedLines = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData3> selectedTriangles = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData4> selectedQuads = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData5> selectedCondlines = Collections.newSetFromMap(new ThreadsafeHashMap<>());
+    protected final IndexedSet<GData> selectedData = new IndexedSet<>(dataIndex);
+    protected final IndexedSet<GData1> selectedSubfiles = new IndexedSet<>(dataIndex);
+    protected final IndexedSet<GData2> selectedLines = new IndexedSet<>(dataIndex);
+    protected final IndexedSet<GData3> selectedTriangles = new IndexedSet<>(dataIndex);
+    protected final IndexedSet<GData4> selectedQuads = new IndexedSet<>(dataIndex);
+    protected final IndexedSet<GData5> selectedCondlines = new IndexedSet<>(dataIndex);
 
     protected final Set<Vertex> backupSelectedVertices = Collections.newSetFromMap(new ThreadsafeSortedMap<>());
 
-    protected final Set<GData> backupSelectedData = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData1> backupSelectedSubfiles = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData2> backupSelectedLines = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData3> backupSelectedTriangles = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData4> backupSelectedQuads = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-    protected final Set<GData5> backupSelectedCondlines = Collections.newSetFromMap(new ThreadsafeHashMap<>());
+    protected final IndexedSet<GData> backupSelectedData = new IndexedSet<>(dataIndex);
+    protected final IndexedSet<GData1> backupSelectedSubfiles = new IndexedSet<>(dataIndex);
+    protected final IndexedSet<GData2> backupSelectedLines = new IndexedSet<>(dataIndex);
+    protected final IndexedSet<GData3> backupSelectedTriangles = new IndexedSet<>(dataIndex);
+    protected final IndexedSet<GData4> backupSelectedQuads = new IndexedSet<>(dataIndex);
+    protected final IndexedSet<GData5> backupSelectedCondlines = new IndexedSet<>(dataIndex);
 
     protected final Set<GData> newSelectedData = Collections.newSetFromMap(new ThreadsafeHashMap<>());
 
@@ -142,7 +155,7 @@ class VM00Base {
     protected Vertex lastSelectedVertex = null;
 
     protected final Set<Vertex> hiddenVertices = Collections.newSetFromMap(new ThreadsafeSortedMap<>());
-    protected final Set<GData> hiddenData = Collections.newSetFromMap(new ThreadsafeHashMap<>());
+    protected final IndexedSet<GData> hiddenData = new IndexedSet<>(dataIndex);
 
     protected final Map<GData, BFC> bfcMap = new HashMap<>();
 
@@ -155,6 +168,11 @@ class VM00Base {
 
     protected VM00Base(DatFile linkedDatFile) {
         this.linkedDatFile = linkedDatFile;
+        // Each change of the selection or of the hidden data has to be shown by the views of the file
+        final Runnable invalidateViews = () -> ViewIdleManager.invalidate(linkedDatFile);
+        for (IndexedSet<?> set : List.of(selectedData, selectedSubfiles, selectedLines, selectedTriangles, selectedQuads, selectedCondlines, hiddenData)) {
+            set.setChangeListener(invalidateViews);
+        }
     }
 
     public final synchronized void setUpdated(boolean updated) {
@@ -162,6 +180,7 @@ class VM00Base {
         if (updated) {
             ViewIdleManager.renderLDrawStandard[0].set(true);
         }
+        ViewIdleManager.invalidate(linkedDatFile);
     }
 
     public final synchronized void setModifiedNoSync() {
@@ -462,7 +481,7 @@ class VM00Base {
         }
 
         // Validate Render Chain
-        HashBiMap<Integer, GData> lineMap = linkedDatFile.getDrawPerLine();
+        LineIndexView<GData> lineMap = linkedDatFile.getDrawPerLine();
 
         verticesInUse.clear();
 
@@ -692,6 +711,7 @@ class VM00Base {
                     break;
                 case 2:
                     lines.remove(linkedData);
+                    dataIndex.release(linkedData);
                     if (vd != null) {
                         vd.remove(new VertexManifestation(0, linkedData));
                         vd.remove(new VertexManifestation(1, linkedData));
@@ -701,6 +721,7 @@ class VM00Base {
                     break;
                 case 3:
                     triangles.remove(linkedData);
+                    dataIndex.release(linkedData);
                     if (vd != null) {
                         vd.remove(new VertexManifestation(0, linkedData));
                         vd.remove(new VertexManifestation(1, linkedData));
@@ -711,6 +732,7 @@ class VM00Base {
                     break;
                 case 4:
                     quads.remove(linkedData);
+                    dataIndex.release(linkedData);
                     if (vd != null) {
                         vd.remove(new VertexManifestation(0, linkedData));
                         vd.remove(new VertexManifestation(1, linkedData));
@@ -722,6 +744,7 @@ class VM00Base {
                     break;
                 case 5:
                     condlines.remove(linkedData);
+                    dataIndex.release(linkedData);
                     if (vd != null) {
                         vd.remove(new VertexManifestation(0, linkedData));
                         vd.remove(new VertexManifestation(1, linkedData));
@@ -809,6 +832,7 @@ class VM00Base {
             break;
         }
         getManifestationLock().unlock();
+        dataIndex.release(gdata);
         gdata.derefer();
         boolean tailRemoved = gdata.equals(linkedDatFile.getDrawChainTail());
         if (tailRemoved) linkedDatFile.setDrawChainTail(null);
@@ -825,12 +849,12 @@ class VM00Base {
      * @return
      */
     public final synchronized boolean changeVertexDirect(Vertex oldVertex, Vertex newVertex, boolean modifyVertexMetaCommands) {
-        HashBiMap<Integer, GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
+        LineIndex<GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
         SortedSet<Integer> keys = new TreeSet<>(drawPerLine.keySet());
         Set<GData> dataToRemove = new HashSet<>();
         boolean foundVertexDuplicate = false;
         for (Integer key : keys) {
-            GData vm = linkedDatFile.getDrawPerLine().getValue(key);
+            GData vm = drawPerLine.getValue(key);
             switch (vm.type()) {
             case 0:
                 Vertex[] va = declaredVertices.get(vm);
@@ -1011,7 +1035,7 @@ class VM00Base {
             return false;
         Set<VertexManifestation> manis = new HashSet<>(manis2);
 
-        HashBiMap<Integer, GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
+        LineIndex<GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
 
         for (VertexManifestation mani : manis) {
             GData oldData = mani.gdata();
@@ -1165,6 +1189,120 @@ class VM00Base {
     }
 
 
+    /**
+     * Moves many vertices at once. Each affected line is rebuilt only once,
+     * with all of its vertices replaced.
+     *
+     * @param oldToNewVertex
+     *            maps the old vertices to their new positions
+     * @param moveAdjacentData
+     *            {@code true} if unselected data should be changed, too
+     * @return {@code true} if data was changed
+     */
+    public final synchronized boolean changeVerticesDirectFast(SortedMap<Vertex, Vertex> oldToNewVertex, boolean moveAdjacentData) {
+
+        // Collect the data to modify
+        Set<GData> dataToModify = new LinkedHashSet<>();
+        for (Vertex oldVertex : oldToNewVertex.keySet()) {
+            Set<VertexManifestation> manis = vertexLinkedToPositionInFile.get(oldVertex);
+            if (manis == null)
+                continue;
+            for (VertexManifestation mani : manis) {
+                dataToModify.add(mani.gdata());
+            }
+        }
+
+        GData tail = linkedDatFile.getDrawChainTail();
+        LineIndex<GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
+        boolean modified = false;
+
+        for (GData oldData : dataToModify) {
+            if (!lineLinkedToVertices.containsKey(oldData))
+                continue;
+            GData newData;
+            Vertex[] verts;
+            switch (oldData.type()) {
+            case 0:
+                verts = declaredVertices.get(oldData);
+                if (verts == null || !moveAdjacentData && !selectedVertices.contains(verts[0]))
+                    continue;
+                newData = addVertex(newVertex(verts[0], oldToNewVertex));
+                break;
+            case 2:
+                GData2 oldLin = (GData2) oldData;
+                verts = lines.get(oldLin);
+                if (verts == null || !moveAdjacentData && !selectedLines.contains(oldLin))
+                    continue;
+                newData = new GData2(oldLin.colourNumber, oldLin.r, oldLin.g, oldLin.b, oldLin.a, newVertex(verts[0], oldToNewVertex), newVertex(verts[1], oldToNewVertex),
+                        oldLin.parent, linkedDatFile, oldLin.isLine);
+                if (selectedLines.contains(oldLin))
+                    selectedLines.add((GData2) newData);
+                break;
+            case 3:
+                GData3 oldTri = (GData3) oldData;
+                verts = triangles.get(oldTri);
+                if (verts == null || !moveAdjacentData && !selectedTriangles.contains(oldTri))
+                    continue;
+                newData = new GData3(oldTri.colourNumber, oldTri.r, oldTri.g, oldTri.b, oldTri.a, newVertex(verts[0], oldToNewVertex), newVertex(verts[1], oldToNewVertex),
+                        newVertex(verts[2], oldToNewVertex), oldTri.parent, linkedDatFile, oldTri.isTriangle);
+                if (selectedTriangles.contains(oldTri))
+                    selectedTriangles.add((GData3) newData);
+                break;
+            case 4:
+                GData4 oldQuad = (GData4) oldData;
+                verts = quads.get(oldQuad);
+                if (verts == null || !moveAdjacentData && !selectedQuads.contains(oldQuad))
+                    continue;
+                newData = new GData4(oldQuad.colourNumber, oldQuad.r, oldQuad.g, oldQuad.b, oldQuad.a, newVertex(verts[0], oldToNewVertex), newVertex(verts[1], oldToNewVertex),
+                        newVertex(verts[2], oldToNewVertex), newVertex(verts[3], oldToNewVertex), oldQuad.parent, linkedDatFile);
+                if (selectedQuads.contains(oldQuad))
+                    selectedQuads.add((GData4) newData);
+                break;
+            case 5:
+                GData5 oldCLin = (GData5) oldData;
+                verts = condlines.get(oldCLin);
+                if (verts == null || !moveAdjacentData && !selectedCondlines.contains(oldCLin))
+                    continue;
+                newData = new GData5(oldCLin.colourNumber, oldCLin.r, oldCLin.g, oldCLin.b, oldCLin.a, newVertex(verts[0], oldToNewVertex), newVertex(verts[1], oldToNewVertex),
+                        newVertex(verts[2], oldToNewVertex), newVertex(verts[3], oldToNewVertex), oldCLin.parent, linkedDatFile);
+                if (selectedCondlines.contains(oldCLin))
+                    selectedCondlines.add((GData5) newData);
+                break;
+            default:
+                NLogger.error(VM00Base.class, "Unsupported vertex change on instance: " + oldData + " type: " + oldData.type()); //$NON-NLS-1$ //$NON-NLS-2$
+                continue;
+            }
+
+            if (oldData.equals(tail))
+                linkedDatFile.setDrawChainTail(newData);
+
+            GData oldNext = oldData.getNext();
+            GData oldBefore = oldData.getBefore();
+            oldBefore.setNext(newData);
+            newData.setNext(oldNext);
+            Integer oldNumber = drawPerLine.getKey(oldData);
+            if (oldNumber != null)
+                drawPerLine.put(oldNumber, newData);
+            remove(oldData);
+            modified = true;
+        }
+
+        if (modified) {
+            for (Map.Entry<Vertex, Vertex> entry : oldToNewVertex.entrySet()) {
+                if (selectedVertices.remove(entry.getKey())) {
+                    selectedVertices.add(entry.getValue());
+                }
+            }
+        }
+
+        return modified;
+    }
+
+    private static Vertex newVertex(Vertex oldVertex, SortedMap<Vertex, Vertex> oldToNewVertex) {
+        final Vertex result = oldToNewVertex.get(oldVertex);
+        return result == null ? oldVertex : result;
+    }
+
     public final synchronized GData changeVertexDirectFast(Vertex oldVertex, Vertex newVertex, boolean moveAdjacentData, GData og) {
 
         GData tail = linkedDatFile.getDrawChainTail();
@@ -1175,7 +1313,7 @@ class VM00Base {
             return og;
         Set<VertexManifestation> manis = new HashSet<>(manis2);
 
-        HashBiMap<Integer, GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
+        LineIndex<GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
 
         for (VertexManifestation mani : manis) {
             GData oldData = mani.gdata();
@@ -1603,7 +1741,7 @@ class VM00Base {
                 setModifiedNoSync();
             if (!effSelectedCondlines.isEmpty())
                 setModifiedNoSync();
-            final HashBiMap<Integer, GData> dpl = linkedDatFile.getDrawPerLineNoClone();
+            final LineIndex<GData> dpl = linkedDatFile.getDrawPerLineNoClone();
             for (GData0 gd : effSelectedVertices) {
                 dpl.removeByValue(gd);
                 gd.getBefore().setNext(gd.getNext());
@@ -1686,18 +1824,8 @@ class VM00Base {
 
                 // Update Draw per line
 
-                SortedSet<Integer> ts = new TreeSet<>();
-                ts.addAll(dpl.keySet());
-
-                int counter = 1;
-                GData tail = null;
-                for (Integer k : ts) {
-                    GData gdata = dpl.getValue(k);
-                    dpl.removeByKey(k);
-                    dpl.put(counter, gdata);
-                    counter++;
-                    tail = gdata;
-                }
+                dpl.renumber();
+                GData tail = dpl.getValue(dpl.size());
                 if (tail != null) {
                     linkedDatFile.setDrawChainTail(tail);
                 } else {
@@ -1719,7 +1847,7 @@ class VM00Base {
      * @param newData
      */
     protected final void linker(GData oldData, GData newData) {
-        HashBiMap<Integer, GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
+        LineIndex<GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
         if (oldData.equals(linkedDatFile.getDrawChainTail()))
             linkedDatFile.setDrawChainTail(newData);
         GData oldNext = oldData.getNext();
@@ -1789,6 +1917,7 @@ class VM00Base {
         triangles.clear();
         quads.clear();
         condlines.clear();
+        dataIndex.releaseAll();
         selectedItemIndex = -1;
         win.disableSelectionTab();
         selectedData.clear();
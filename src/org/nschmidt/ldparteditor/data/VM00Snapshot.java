@@ -33,7 +33,7 @@ class VM00Snapshot extends VM00Base {
 
     public void addSnapshot() {
         if (NLogger.debugging) {
-            MemorySnapshot snapshot = new MemorySnapshot(linkedDatFile);
+            MemorySnapshot snapshot = new MemorySnapshot(linkedDatFile, snapshotStore);
             getSnapshots().add(snapshot);
             NLogger.debug(getClass(), "CREATED SNAPSHOT ON {0} ", snapshot.toString()); //$NON-NLS-1$
         }
@@ -47,13 +47,7 @@ class VM00Snapshot extends VM00Base {
             linkedDatFile.getDrawChainStart().setNext(emptyLine);
             linkedDatFile.getDrawPerLineNoClone().put(1, emptyLine);
             setModified(true, false);
-            StringBuilder sb = new StringBuilder();
-            for (String line : s.getBackup()) {
-                sb.append("\n"); //$NON-NLS-1$
-                sb.append(line);
-            }
-            sb.deleteCharAt(0);
-            linkedDatFile.setText(sb.toString());
+            linkedDatFile.setText(s.getText());
             SubfileCompiler.compile(linkedDatFile, false, true);
         }
     }
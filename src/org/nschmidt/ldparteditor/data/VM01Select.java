@@ -27,7 +27,8 @@ import org.nschmidt.ldparteditor.enumtype.LDConfig;
 import org.nschmidt.ldparteditor.enumtype.Threshold;
 import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.composite3d.SelectorSettings;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.IndexedSet;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
 import org.nschmidt.ldparteditor.text.DatParser;
@@ -93,13 +94,13 @@ class VM01Select extends VM00Snapshot {
 
             if (ss.isVertices()) selectedVertices.addAll(vertexLinkedToPositionInFile.keySet());
 
-            if (ss.isLines()) selectedLines.addAll(lines.keySet());
-            if (ss.isTriangles()) selectedTriangles.addAll(triangles.keySet());
-            if (ss.isQuads()) selectedQuads.addAll(quads.keySet());
-            if (ss.isCondlines()) selectedCondlines.addAll(condlines.keySet());
+            if (ss.isLines()) selectedLines.copyFromCategory(2);
+            if (ss.isTriangles()) selectedTriangles.copyFromCategory(3);
+            if (ss.isQuads()) selectedQuads.copyFromCategory(4);
+            if (ss.isCondlines()) selectedCondlines.copyFromCategory(5);
 
             if (ss.isVertices() && ss.isLines() && ss.isTriangles() && ss.isQuads() && ss.isCondlines()) {
-                selectedSubfiles.addAll(vertexCountInSubfile.keySet());
+                selectedSubfiles.copyFromCategory(1);
             }
 
         } else {
@@ -110,30 +111,12 @@ class VM01Select extends VM00Snapshot {
                 }
             }
             if (ss.isVertices() && ss.isLines() && ss.isTriangles() && ss.isQuads() && ss.isCondlines()) {
-                for (GData1 g : vertexCountInSubfile.keySet()) {
-                    if (!hiddenData.contains(g)) selectedSubfiles.add(g);
-                }
-            }
-            if (ss.isLines()) {
-                for (GData2 g : lines.keySet()) {
-                    if (!hiddenData.contains(g)) selectedLines.add(g);
-                }
-            }
-            if (ss.isTriangles()) {
-                for (GData3 g : triangles.keySet()) {
-                    if (!hiddenData.contains(g)) selectedTriangles.add(g);
-                }
-            }
-            if (ss.isQuads()) {
-                for (GData4 g : quads.keySet()) {
-                    if (!hiddenData.contains(g)) selectedQuads.add(g);
-                }
-            }
-            if (ss.isCondlines()) {
-                for (GData5 g : condlines.keySet()) {
-                    if (!hiddenData.contains(g)) selectedCondlines.add(g);
-                }
+                selectedSubfiles.copyFromCategory(1, hiddenData);
             }
+            if (ss.isLines()) selectedLines.copyFromCategory(2, hiddenData);
+            if (ss.isTriangles()) selectedTriangles.copyFromCategory(3, hiddenData);
+            if (ss.isQuads()) selectedQuads.copyFromCategory(4, hiddenData);
+            if (ss.isCondlines()) selectedCondlines.copyFromCategory(5, hiddenData);
         }
 
         selectedData.addAll(selectedLines);
@@ -149,11 +132,11 @@ class VM01Select extends VM00Snapshot {
 
         final Set<GColour> allColours = new HashSet<>();
 
-        final Set<GData1> effSelectedSubfiles = new HashSet<>();
-        final Set<GData2> effSelectedLines = new HashSet<>();
-        final Set<GData3> effSelectedTriangles = new HashSet<>();
-        final Set<GData4> effSelectedQuads = new HashSet<>();
-        final Set<GData5> effSelectedCondlines = new HashSet<>();
+        final IndexedSet<GData1> effSelectedSubfiles = new IndexedSet<>(dataIndex);
+        final IndexedSet<GData2> effSelectedLines = new IndexedSet<>(dataIndex);
+        final IndexedSet<GData3> effSelectedTriangles = new IndexedSet<>(dataIndex);
+        final IndexedSet<GData4> effSelectedQuads = new IndexedSet<>(dataIndex);
+        final IndexedSet<GData5> effSelectedCondlines = new IndexedSet<>(dataIndex);
 
         for (GData1 g : selectedSubfiles) {
             allColours.add(new GColour(g.colourNumber, g.r, g.g, g.b, g.a));
@@ -261,12 +244,12 @@ class VM01Select extends VM00Snapshot {
 
     public void backupSelection() {
         backupSelectionClear();
-        backupSelectedCondlines.addAll(selectedCondlines);
-        backupSelectedData.addAll(selectedData);
-        backupSelectedLines.addAll(selectedLines);
-        backupSelectedQuads.addAll(selectedQuads);
-        backupSelectedSubfiles.addAll(selectedSubfiles);
-        backupSelectedTriangles.addAll(selectedTriangles);
+        backupSelectedCondlines.copyFrom(selectedCondlines);
+        backupSelectedData.copyFrom(selectedData);
+        backupSelectedLines.copyFrom(selectedLines);
+        backupSelectedQuads.copyFrom(selectedQuads);
+        backupSelectedSubfiles.copyFrom(selectedSubfiles);
+        backupSelectedTriangles.copyFrom(selectedTriangles);
         backupSelectedVertices.addAll(selectedVertices);
         GDataCSG.backupSelection(linkedDatFile);
     }
@@ -284,12 +267,12 @@ class VM01Select extends VM00Snapshot {
 
     public void restoreSelection() {
         clearSelection3();
-        selectedCondlines.addAll(backupSelectedCondlines);
-        selectedData.addAll(backupSelectedData);
-        selectedLines.addAll(backupSelectedLines);
-        selectedQuads.addAll(backupSelectedQuads);
-        selectedSubfiles.addAll(backupSelectedSubfiles);
-        selectedTriangles.addAll(backupSelectedTriangles);
+        selectedCondlines.copyFrom(backupSelectedCondlines);
+        selectedData.copyFrom(backupSelectedData);
+        selectedLines.copyFrom(backupSelectedLines);
+        selectedQuads.copyFrom(backupSelectedQuads);
+        selectedSubfiles.copyFrom(backupSelectedSubfiles);
+        selectedTriangles.copyFrom(backupSelectedTriangles);
         selectedVertices.addAll(backupSelectedVertices);
         GDataCSG.restoreSelection(linkedDatFile);
         backupSelectionClear();
@@ -348,7 +331,7 @@ class VM01Select extends VM00Snapshot {
 
                 final GData before = selectedLine.getBefore();
                 final GData next = selectedLine.getNext();
-                final HashBiMap<Integer, GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
+                final LineIndex<GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
                 final GColour col16 = LDConfig.getColour16();
 
                 GData newData = null;
@@ -461,7 +444,7 @@ class VM01Select extends VM00Snapshot {
             } else {
                 final GData before = selectedLine.getBefore();
                 final GData next = selectedLine.getNext();
-                final HashBiMap<Integer, GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
+                final LineIndex<GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
                 GData newData = null;
                 switch (selectedLine.type()) {
                 case 2:
@@ -556,18 +539,14 @@ class VM01Select extends VM00Snapshot {
     public void selectInverse(SelectorSettings sels) {
 
         final Set<Vertex> lastSelectedVertices = new TreeSet<>();
-        final Set<GData1> lastSelectedSubfiles = new HashSet<>();
-        final Set<GData2> lastSelectedLines = new HashSet<>();
-        final Set<GData3> lastSelectedTriangles = new HashSet<>();
-        final Set<GData4> lastSelectedQuads = new HashSet<>();
-        final Set<GData5> lastSelectedCondlines = new HashSet<>();
+        final IndexedSet<GData> lastSelectedData = new IndexedSet<>(dataIndex);
 
         lastSelectedVertices.addAll(selectedVertices);
-        lastSelectedSubfiles.addAll(selectedSubfiles);
-        lastSelectedLines.addAll(selectedLines);
-        lastSelectedTriangles.addAll(selectedTriangles);
-        lastSelectedQuads.addAll(selectedQuads);
-        lastSelectedCondlines.addAll(selectedCondlines);
+        lastSelectedData.addAll(selectedSubfiles);
+        lastSelectedData.addAll(selectedLines);
+        lastSelectedData.addAll(selectedTriangles);
+        lastSelectedData.addAll(selectedQuads);
+        lastSelectedData.addAll(selectedCondlines);
 
         clearSelection();
 
@@ -577,30 +556,12 @@ class VM01Select extends VM00Snapshot {
             }
         }
         if (sels.isVertices() && sels.isLines() && sels.isTriangles() && sels.isQuads() && sels.isCondlines()) {
-            for (GData1 g : vertexCountInSubfile.keySet()) {
-                if (!hiddenData.contains(g) && !lastSelectedSubfiles.contains(g)) selectedSubfiles.add(g);
-            }
-        }
-        if (sels.isLines()) {
-            for (GData2 g : lines.keySet()) {
-                if (!hiddenData.contains(g) && !lastSelectedLines.contains(g)) selectedLines.add(g);
-            }
-        }
-        if (sels.isTriangles()) {
-            for (GData3 g : triangles.keySet()) {
-                if (!hiddenData.contains(g) && !lastSelectedTriangles.contains(g)) selectedTriangles.add(g);
-            }
-        }
-        if (sels.isQuads()) {
-            for (GData4 g : quads.keySet()) {
-                if (!hiddenData.contains(g) && !lastSelectedQuads.contains(g)) selectedQuads.add(g);
-            }
-        }
-        if (sels.isCondlines()) {
-            for (GData5 g : condlines.keySet()) {
-                if (!hiddenData.contains(g) && !lastSelectedCondlines.contains(g)) selectedCondlines.add(g);
-            }
+            selectedSubfiles.copyFromCategory(1, hiddenData, lastSelectedData);
         }
+        if (sels.isLines()) selectedLines.copyFromCategory(2, hiddenData, lastSelectedData);
+        if (sels.isTriangles()) selectedTriangles.copyFromCategory(3, hiddenData, lastSelectedData);
+        if (sels.isQuads()) selectedQuads.copyFromCategory(4, hiddenData, lastSelectedData);
+        if (sels.isCondlines()) selectedCondlines.copyFromCategory(5, hiddenData, lastSelectedData);
 
         selectedData.addAll(selectedLines);
         selectedData.addAll(selectedTriangles);
@@ -28,6 +28,11 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -43,9 +48,10 @@ import org.nschmidt.ldparteditor.enumtype.Threshold;
 import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.Cocoa;
 import org.nschmidt.ldparteditor.helper.LDPartEditorException;
+import org.nschmidt.ldparteditor.helper.ParallelFor;
 import org.nschmidt.ldparteditor.helper.composite3d.PerspectiveCalculator;
 import org.nschmidt.ldparteditor.helper.composite3d.SelectorSettings;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.helper.math.PowerRay;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeSortedMap;
@@ -110,106 +116,17 @@ class VM01SelectHelper extends VM01Select {
                 }
             } else { // Multithreaded selection for many faces
                 backupSelection();
-                final int chunks = View.NUM_CORES;
-                final Thread[] threads = new Thread[chunks];
-                final AtomicBoolean dialogCanceled = new AtomicBoolean(false);
                 final Vertex[] verts = vertexLinkedToPositionInFile.keySet().toArray(new Vertex[0]);
-                final int iterations = verts.length;
-                int lastend = 0;
-                for (int j = 0; j < chunks; ++j) {
-                    final int[] i = new int[1];
-                    final int[] start = new int[] { lastend };
-                    lastend = iterations / chunks * (j + 1);
-                    final int[] end = new int[] { lastend };
-                    if (j == chunks - 1) {
-                        end[0] = iterations;
-                    }
-                    i[0] = j;
-                    threads[j] = new Thread(() -> {
-                        final PowerRay powerRay = new PowerRay();
-                        int s = start[0];
-                        int e = end[0];
-                        Vector4f result = new Vector4f();
-                        for (int k = s; k < e; k++) {
-                            Vertex vertex = verts[k];
-                            if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
-                                continue;
-                            MathHelper.crossProduct(selectionDepth, Vector4f.sub(vertex.toVector4f(), selectionStart, null), result);
-                            if (result.x * result.x + result.y * result.y + result.z * result.z < discr) {
-                                if (dialogCanceled.get()) return;
-                                selectVerticesHelper(c3d, vertex, selectionDepth, powerRay, noTrans, needRayTest);
-                            }
-                        }
-                    });
-                    threads[j].start();
-                }
-                boolean isRunning = true;
-                int counter = 0;
-                while (isRunning) {
-                    try {
-                        this.wait(100);
-                        counter++;
-                        if (counter == 50) break;
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
-                    }
-                    isRunning = false;
-                    for (Thread thread : threads) {
-                        if (thread.isAlive())
-                            isRunning = true;
-                    }
-                }
-                if (counter == 50) {
-                    linkedDatFile.setDrawSelection(false);
-                    try
-                    {
-                        new ProgressMonitorDialog(Editor3DWindow.getWindow().getShell()).run(true, true, new IRunnableWithProgress()
-                        {
-                            @Override
-                            public void run(final IProgressMonitor m) throws InvocationTargetException, InterruptedException
-                            {
-                                try
-                                {
-                                    m.beginTask(I18n.VM_SELECTING, IProgressMonitor.UNKNOWN);
-                                    boolean isRunning = true;
-                                    while (isRunning) {
-                                        try {
-                                            Thread.sleep(100);
-                                        } catch (InterruptedException ie) {
-                                            Thread.currentThread().interrupt();
-                                            throw new LDPartEditorException(ie);
-                                        }
-                                        isRunning = false;
-                                        for (Thread thread : threads) {
-                                            if (thread.isAlive()) {
-                                                isRunning = true;
-                                            }
-                                        }
-                                        if (m.isCanceled()) {
-                                            dialogCanceled.set(true);
-                                        }
-                                    }
-                                }
-                                finally
-                                {
-                                    if (m.isCanceled()) {
-                                        restoreSelection();
-                                    } else {
-                                        backupSelectionClear();
-                                    }
-                                    m.done();
-                                }
-                            }
-                        });
-                    } catch (InvocationTargetException ite) {
-                        NLogger.error(VM01SelectHelper.class, ite);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
+                selectInParallel(verts.length, this::restoreSelection, this::backupSelectionClear, (k, results) -> {
+                    Vertex vertex = verts[k];
+                    if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
+                        return;
+                    Vector4f result = new Vector4f();
+                    MathHelper.crossProduct(selectionDepth, Vector4f.sub(vertex.toVector4f(), selectionStart, null), result);
+                    if (result.x * result.x + result.y * result.y + result.z * result.z < discr) {
+                        selectVerticesHelper(c3d, vertex, selectionDepth, new PowerRay(), noTrans, needRayTest);
                     }
-                    linkedDatFile.setDrawSelection(true);
-                }
+                });
             }
         } else {
             selectionDepth = new Vector4f();
@@ -250,121 +167,33 @@ class VM01SelectHelper extends VM01Select {
                 }
             } else { // Multithreaded selection for many, many faces
                 backupSelection();
-                final int chunks = View.NUM_CORES;
-                final Thread[] threads = new Thread[chunks];
-                final AtomicBoolean dialogCanceled = new AtomicBoolean(false);
                 final Vertex[] verts = vertexLinkedToPositionInFile.keySet().toArray(new Vertex[0]);
-                final int iterations = verts.length;
-                int lastend = 0;
-                for (int j = 0; j < chunks; ++j) {
-                    final int[] i = new int[1];
-                    final int[] start = new int[] { lastend };
-                    lastend = iterations / chunks * (j + 1);
-                    final int[] end = new int[] { lastend };
-                    if (j == chunks - 1) {
-                        end[0] = iterations;
-                    }
-                    i[0] = j;
-                    threads[j] = new Thread(() -> {
-                        final PowerRay powerRay = new PowerRay();
-                        int s = start[0];
-                        int e = end[0];
-                        float[][] a = new float[3][3];
-                        float[] b = new float[3];
-                        for (int k = s; k < e; k++) {
-                            Vertex vertex = verts[k];
-                            if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
-                                continue;
-                            a[0][0] = selectionWidth.x;
-                            a[1][0] = selectionWidth.y;
-                            a[2][0] = selectionWidth.z;
-
-                            a[0][1] = selectionHeight.x;
-                            a[1][1] = selectionHeight.y;
-                            a[2][1] = selectionHeight.z;
-
-                            a[0][2] = selectionDepth.x;
-                            a[1][2] = selectionDepth.y;
-                            a[2][2] = selectionDepth.z;
-
-                            b[0] = vertex.x - selectionStart.x;
-                            b[1] = vertex.y - selectionStart.y;
-                            b[2] = vertex.z - selectionStart.z;
-                            float[] c = MathHelper.gaussianElimination(a, b);
-                            if (c.length > 1 && c[0] <= 1f && c[0] >= 0f && c[1] >= 0f && c[1] <= 1f) {
-                                if (dialogCanceled.get()) return;
-                                selectVerticesHelper(c3d, vertex, selectionDepth, powerRay, noTrans, needRayTest);
-                            }
-                        }
-                    });
-                    threads[j].start();
-                }
-                boolean isRunning = true;
-                int counter = 0;
-                while (isRunning) {
-                    try {
-                        this.wait(100);
-                        counter++;
-                        if (counter == 50) break;
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
-                    }
-                    isRunning = false;
-                    for (Thread thread : threads) {
-                        if (thread.isAlive())
-                            isRunning = true;
-                    }
-                }
-                if (counter == 50) {
-                    linkedDatFile.setDrawSelection(false);
-                    try
-                    {
-                        new ProgressMonitorDialog(Editor3DWindow.getWindow().getShell()).run(true, true, new IRunnableWithProgress()
-                        {
-                            @Override
-                            public void run(final IProgressMonitor m) throws InvocationTargetException, InterruptedException
-                            {
-                                try
-                                {
-                                    m.beginTask(I18n.VM_SELECTING, IProgressMonitor.UNKNOWN);
-                                    boolean isRunning = true;
-                                    while (isRunning) {
-                                        try {
-                                            Thread.sleep(100);
-                                        } catch (InterruptedException ie) {
-                                            Thread.currentThread().interrupt();
-                                            throw new LDPartEditorException(ie);
-                                        }
-                                        isRunning = false;
-                                        for (Thread thread : threads) {
-                                            if (thread.isAlive())
-                                                isRunning = true;
-                                        }
-                                        if (m.isCanceled()) {
-                                            dialogCanceled.set(true);
-                                        }
-                                    }
-                                }
-                                finally
-                                {
-                                    if (m.isCanceled()) {
-                                        restoreSelection();
-                                    } else {
-                                        backupSelectionClear();
-                                    }
-                                    m.done();
-                                }
-                            }
-                        });
-                    } catch (InvocationTargetException ite) {
-                        NLogger.error(VM01SelectHelper.class, ite);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
+                selectInParallel(verts.length, this::restoreSelection, this::backupSelectionClear, (k, results) -> {
+                    Vertex vertex = verts[k];
+                    if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
+                        return;
+                    float[][] a = new float[3][3];
+                    float[] b = new float[3];
+                    a[0][0] = selectionWidth.x;
+                    a[1][0] = selectionWidth.y;
+                    a[2][0] = selectionWidth.z;
+
+                    a[0][1] = selectionHeight.x;
+                    a[1][1] = selectionHeight.y;
+                    a[2][1] = selectionHeight.z;
+
+                    a[0][2] = selectionDepth.x;
+                    a[1][2] = selectionDepth.y;
+                    a[2][2] = selectionDepth.z;
+
+                    b[0] = vertex.x - selectionStart.x;
+                    b[1] = vertex.y - selectionStart.y;
+                    b[2] = vertex.z - selectionStart.z;
+                    float[] c = MathHelper.gaussianElimination(a, b);
+                    if (c.length > 1 && c[0] <= 1f && c[0] >= 0f && c[1] >= 0f && c[1] <= 1f) {
+                        selectVerticesHelper(c3d, vertex, selectionDepth, new PowerRay(), noTrans, needRayTest);
                     }
-                    linkedDatFile.setDrawSelection(true);
-                }
+                });
             }
         }
         if (addSomething) {
@@ -527,103 +356,17 @@ class VM01SelectHelper extends VM01Select {
                     }
                 }
             } else { // Multithreaded selection for many faces
-                final int chunks = View.NUM_CORES;
-                final Thread[] threads = new Thread[chunks];
-                final AtomicBoolean dialogCanceled = new AtomicBoolean(false);
                 final Vertex[] verts = vertexLinkedToPositionInFile.keySet().toArray(new Vertex[0]);
-                final int iterations = verts.length;
-                int lastend = 0;
-                for (int j = 0; j < chunks; ++j) {
-                    final int[] i = new int[1];
-                    final int[] start = new int[] { lastend };
-                    lastend = iterations / chunks * (j + 1);
-                    final int[] end = new int[] { lastend };
-                    if (j == chunks - 1) {
-                        end[0] = iterations;
-                    }
-                    i[0] = j;
-                    threads[j] = new Thread(() -> {
-                        final PowerRay powerRay = new PowerRay();
-                        int s = start[0];
-                        int e = end[0];
-                        Vector4f result = new Vector4f();
-                        for (int k = s; k < e; k++) {
-                            Vertex vertex = verts[k];
-                            if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
-                                continue;
-                            MathHelper.crossProduct(selectionDepth, Vector4f.sub(vertex.toVector4f(), selectionStart, null), result);
-                            if (result.x * result.x + result.y * result.y + result.z * result.z < discr) {
-                                if (dialogCanceled.get()) return;
-                                selectVertices2Helper(c3d, vertex, selectionDepth, powerRay, noTrans);
-                            }
-                        }
-                    });
-                    threads[j].start();
-                }
-                boolean isRunning = true;
-                int counter = 0;
-                while (isRunning) {
-                    try {
-                        this.wait(100);
-                        counter++;
-                        if (counter == 50) break;
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
-                    }
-                    isRunning = false;
-                    for (Thread thread : threads) {
-                        if (thread.isAlive())
-                            isRunning = true;
-                    }
-                }
-                if (counter == 50) {
-                    linkedDatFile.setDrawSelection(false);
-                    try
-                    {
-                        new ProgressMonitorDialog(Editor3DWindow.getWindow().getShell()).run(true, true, new IRunnableWithProgress()
-                        {
-                            @Override
-                            public void run(final IProgressMonitor m) throws InvocationTargetException, InterruptedException
-                            {
-                                try
-                                {
-                                    m.beginTask(I18n.VM_SELECTING, IProgressMonitor.UNKNOWN);
-                                    boolean isRunning = true;
-                                    while (isRunning) {
-                                        try {
-                                            Thread.sleep(100);
-                                        } catch (InterruptedException ie) {
-                                            Thread.currentThread().interrupt();
-                                            throw new LDPartEditorException(ie);
-                                        }
-                                        isRunning = false;
-                                        for (Thread thread : threads) {
-                                            if (thread.isAlive())
-                                                isRunning = true;
-                                        }
-                                        if (m.isCanceled()) {
-                                            dialogCanceled.set(true);
-                                        }
-                                    }
-                                }
-                                finally
-                                {
-                                    if (m.isCanceled()) {
-                                        clearSelection2();
-                                    }
-                                    m.done();
-                                }
-                            }
-                        });
-                    } catch (InvocationTargetException ite) {
-                        NLogger.error(VM01SelectHelper.class, ite);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
+                selectInParallel(verts.length, this::clearSelection2, () -> {}, (k, results) -> {
+                    Vertex vertex = verts[k];
+                    if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
+                        return;
+                    Vector4f result = new Vector4f();
+                    MathHelper.crossProduct(selectionDepth, Vector4f.sub(vertex.toVector4f(), selectionStart, null), result);
+                    if (result.x * result.x + result.y * result.y + result.z * result.z < discr) {
+                        selectVertices2Helper(c3d, vertex, selectionDepth, new PowerRay(), noTrans);
                     }
-                    linkedDatFile.setDrawSelection(true);
-                }
+                });
             }
         } else {
             selectionDepth = new Vector4f();
@@ -664,122 +407,108 @@ class VM01SelectHelper extends VM01Select {
                 }
             } else { // Multithreaded selection for many faces
                 backupSelection();
-                final int chunks = View.NUM_CORES;
-                final Thread[] threads = new Thread[chunks];
-                final AtomicBoolean dialogCanceled = new AtomicBoolean(false);
                 final Vertex[] verts = vertexLinkedToPositionInFile.keySet().toArray(new Vertex[0]);
-                final int iterations = verts.length;
-                int lastend = 0;
-                for (int j = 0; j < chunks; ++j) {
-                    final int[] i = new int[1];
-                    final int[] start = new int[] { lastend };
-                    lastend = iterations / chunks * (j + 1);
-                    final int[] end = new int[] { lastend };
-                    if (j == chunks - 1) {
-                        end[0] = iterations;
+                selectInParallel(verts.length, this::restoreSelection, this::backupSelectionClear, (k, results) -> {
+                    Vertex vertex = verts[k];
+                    if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
+                        return;
+                    float[][] a = new float[3][3];
+                    float[] b = new float[3];
+                    a[0][0] = selectionWidth.x;
+                    a[1][0] = selectionWidth.y;
+                    a[2][0] = selectionWidth.z;
+
+                    a[0][1] = selectionHeight.x;
+                    a[1][1] = selectionHeight.y;
+                    a[2][1] = selectionHeight.z;
+
+                    a[0][2] = selectionDepth.x;
+                    a[1][2] = selectionDepth.y;
+                    a[2][2] = selectionDepth.z;
+
+                    b[0] = vertex.x - selectionStart.x;
+                    b[1] = vertex.y - selectionStart.y;
+                    b[2] = vertex.z - selectionStart.z;
+                    float[] c = MathHelper.gaussianElimination(a, b);
+                    if (c.length > 1 && c[0] <= 1f && c[0] >= 0f && c[1] >= 0f && c[1] <= 1f) {
+                        selectVertices2Helper(c3d, vertex, selectionDepth, new PowerRay(), noTrans);
                     }
-                    i[0] = j;
-                    threads[j] = new Thread(() -> {
-                        final PowerRay powerRay = new PowerRay();
-                        int s = start[0];
-                        int e = end[0];
-                        float[][] a = new float[3][3];
-                        float[] b = new float[3];
-                        for (int k = s; k < e; k++) {
-                            Vertex vertex = verts[k];
-                            if (hiddenVertices.contains(vertex) || noCondlineVerts && isPureCondlineControlPoint(vertex))
-                                continue;
-                            a[0][0] = selectionWidth.x;
-                            a[1][0] = selectionWidth.y;
-                            a[2][0] = selectionWidth.z;
-
-                            a[0][1] = selectionHeight.x;
-                            a[1][1] = selectionHeight.y;
-                            a[2][1] = selectionHeight.z;
-
-                            a[0][2] = selectionDepth.x;
-                            a[1][2] = selectionDepth.y;
-                            a[2][2] = selectionDepth.z;
-
-                            b[0] = vertex.x - selectionStart.x;
-                            b[1] = vertex.y - selectionStart.y;
-                            b[2] = vertex.z - selectionStart.z;
-                            float[] c = MathHelper.gaussianElimination(a, b);
-                            if (c.length > 1 && c[0] <= 1f && c[0] >= 0f && c[1] >= 0f && c[1] <= 1f) {
-                                if (dialogCanceled.get()) return;
-                                selectVertices2Helper(c3d, vertex, selectionDepth, powerRay, noTrans);
+                });
+            }
+        }
+    }
+
+    /**
+     * Runs the selection of many vertices in parallel. A progress dialog is
+     * shown when the selection takes more than five seconds, so that it can be
+     * cancelled.
+     *
+     * @param iterations
+     *            the number of vertices to test
+     * @param cancelled
+     *            is called when the dialog was cancelled
+     * @param finished
+     *            is called when the dialog was not cancelled
+     * @param body
+     *            tests and selects a single vertex
+     */
+    private void selectInParallel(final int iterations, final Runnable cancelled, final Runnable finished, final ParallelFor.Body<Void> body) {
+        final AtomicBoolean dialogCanceled = new AtomicBoolean(false);
+        final CompletableFuture<List<Void>> selection = CompletableFuture.supplyAsync(() -> ParallelFor.run(iterations, dialogCanceled::get, (done, total) -> {}, body));
+        if (awaitSelection(selection, 5000)) {
+            return;
+        }
+        linkedDatFile.setDrawSelection(false);
+        try
+        {
+            new ProgressMonitorDialog(Editor3DWindow.getWindow().getShell()).run(true, true, new IRunnableWithProgress()
+            {
+                @Override
+                public void run(final IProgressMonitor m) throws InvocationTargetException, InterruptedException
+                {
+                    try
+                    {
+                        m.beginTask(I18n.VM_SELECTING, IProgressMonitor.UNKNOWN);
+                        while (!awaitSelection(selection, 100)) {
+                            if (m.isCanceled()) {
+                                dialogCanceled.set(true);
                             }
                         }
-                    });
-                    threads[j].start();
-                }
-                boolean isRunning = true;
-                int counter = 0;
-                while (isRunning) {
-                    try {
-                        this.wait(100);
-                        counter++;
-                        if (counter == 50) break;
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
-                    }
-                    isRunning = false;
-                    for (Thread thread : threads) {
-                        if (thread.isAlive())
-                            isRunning = true;
                     }
-                }
-                if (counter == 50) {
-                    linkedDatFile.setDrawSelection(false);
-                    try
+                    finally
                     {
-                        new ProgressMonitorDialog(Editor3DWindow.getWindow().getShell()).run(true, true, new IRunnableWithProgress()
-                        {
-                            @Override
-                            public void run(final IProgressMonitor m) throws InvocationTargetException, InterruptedException
-                            {
-                                try
-                                {
-                                    m.beginTask(I18n.VM_SELECTING, IProgressMonitor.UNKNOWN);
-                                    boolean isRunning = true;
-                                    while (isRunning) {
-                                        try {
-                                            Thread.sleep(100);
-                                        } catch (InterruptedException ie) {
-                                            Thread.currentThread().interrupt();
-                                            throw new LDPartEditorException(ie);
-                                        }
-                                        isRunning = false;
-                                        for (Thread thread : threads) {
-                                            if (thread.isAlive())
-                                                isRunning = true;
-                                        }
-                                        if (m.isCanceled()) {
-                                            dialogCanceled.set(true);
-                                        }
-                                    }
-                                }
-                                finally
-                                {
-                                    if (m.isCanceled()) {
-                                        restoreSelection();
-                                    } else {
-                                        backupSelectionClear();
-                                    }
-                                    m.done();
-                                }
-                            }
-                        });
-                    }catch (InvocationTargetException ite) {
-                        NLogger.error(VM01SelectHelper.class, ite);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new LDPartEditorException(ie);
+                        if (m.isCanceled()) {
+                            cancelled.run();
+                        } else {
+                            finished.run();
+                        }
+                        m.done();
                     }
-                    linkedDatFile.setDrawSelection(true);
                 }
-            }
+            });
+        } catch (InvocationTargetException ite) {
+            NLogger.error(VM01SelectHelper.class, ite);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new LDPartEditorException(ie);
+        }
+        linkedDatFile.setDrawSelection(true);
+    }
+
+    /**
+     * @return {@code true} if the selection is done
+     */
+    private static boolean awaitSelection(Future<?> selection, long timeoutMillis) {
+        try {
+            selection.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException te) {
+            return false;
+        } catch (ExecutionException ee) {
+            throw new LDPartEditorException(ee);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new LDPartEditorException(ie);
         }
     }
 
@@ -1884,7 +1613,7 @@ class VM01SelectHelper extends VM01Select {
         boolean firstToken = true;
         final String token2 = token.substring(0, 4);
         final GColour col16 = LDConfig.getColour16();
-        HashBiMap<Integer, GData> dpl = linkedDatFile.getDrawPerLineNoClone();
+        LineIndex<GData> dpl = linkedDatFile.getDrawPerLineNoClone();
         for (GData g : selectedData) {
             final GData b = g.getBefore();
             final GData n = g.getNext();
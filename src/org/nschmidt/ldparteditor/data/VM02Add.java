@@ -72,6 +72,7 @@ class VM02Add extends VM01SelectHelper {
         vertexinfos.add(new VertexInfo(vertex, vertexCount, vertexTag));
         declaredVertices.put(vertexTag, new Vertex[] { vertex });
         vertexCountInSubfile.put(subfile, vertexCount);
+        dataIndex.register(subfile, 1);
         Set<GData1> subfiles = vertexLinkedToSubfile.computeIfAbsent(vertex, v -> Collections.newSetFromMap(new ThreadsafeHashMap<>()));
         subfiles.add(subfile);
         return vertexTag;
@@ -115,6 +116,7 @@ class VM02Add extends VM01SelectHelper {
                 }
             }
             lines.put(gd2, Arrays.copyOf(vArray, 2));
+            dataIndex.register(gd2, 2);
             max = 2;
             break;
         case 3: // Triangle
@@ -156,6 +158,7 @@ class VM02Add extends VM01SelectHelper {
                 }
             }
             triangles.put(gd3, Arrays.copyOf(vArray, 3));
+            dataIndex.register(gd3, 3);
             max = 3;
             break;
         case 4: // Quad
@@ -204,6 +207,7 @@ class VM02Add extends VM01SelectHelper {
                 }
             }
             quads.put(gd4, Arrays.copyOf(vArray, 4));
+            dataIndex.register(gd4, 4);
             max = 4;
             break;
         case 5: // Optional Line
@@ -252,6 +256,7 @@ class VM02Add extends VM01SelectHelper {
                 }
             }
             condlines.put(gd5, Arrays.copyOf(vArray, 4));
+            dataIndex.register(gd5, 5);
             max = 4;
             break;
         default:
@@ -288,6 +293,7 @@ class VM02Add extends VM01SelectHelper {
                 lineLinkedToVertices.get(gdata).add(new VertexInfo(vArray[i], vertexCount, originalData));
             }
             vertexCountInSubfile.put((GData1) gdata, vertexCount);
+            dataIndex.register(gdata, 1);
         } else {
             for (int i = 0; i < max; i++) {
                 if (!vertexLinkedToPositionInFile.containsKey(vArray[i])) {
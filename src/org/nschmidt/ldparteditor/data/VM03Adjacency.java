@@ -32,7 +32,7 @@ import java.util.TreeSet;
 import org.nschmidt.csg.CSGType;
 import org.nschmidt.ldparteditor.enumtype.LDConfig;
 import org.nschmidt.ldparteditor.enumtype.View;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeSortedMap;
 import org.nschmidt.ldparteditor.text.DatParser;
 
@@ -832,7 +832,7 @@ class VM03Adjacency extends VM02Add {
 
             // 4. Subfile Based Rounding & Selection
             if (!selectedSubfiles.isEmpty()) {
-                HashBiMap<Integer, GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
+                LineIndex<GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
                 Set<GData1> newSubfiles = new HashSet<>();
                 for (GData1 subf : selectedSubfiles) {
                     String roundedString = subf.getRoundedString(coordsDecimalPlaces, matrixDecimalPlaces, onX, onY, onZ);
@@ -892,7 +892,7 @@ class VM03Adjacency extends VM02Add {
 
             if (GDataCSG.hasSelectionCSG(linkedDatFile)) {
                 Set<GDataCSG> newCSGSelection = new HashSet<>();
-                HashBiMap<Integer, GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
+                LineIndex<GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
                 for (GDataCSG csg : GDataCSG.getSelection(linkedDatFile)) {
                     if (csg.type == CSGType.COMPILE || csg.type == CSGType.QUALITY || csg.type == CSGType.UNION || csg.type == CSGType.DIFFERENCE || csg.type == CSGType.INTERSECTION  || csg.type == CSGType.EPSILON || csg.type == CSGType.TJUNCTION || csg.type == CSGType.COLLAPSE || csg.type == CSGType.DONTOPTIMIZE || csg.type == CSGType.EXTRUDE_CFG) {
                         continue;
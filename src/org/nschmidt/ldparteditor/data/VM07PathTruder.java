@@ -258,8 +258,8 @@ class VM07PathTruder extends VM06Edger2 {
                             monitor.beginTask(I18n.VM_PATH_TRUDER, IProgressMonitor.UNKNOWN);
 
                             final GColour col16 = LDConfig.getColour16();
-                            final Thread[] threads = new Thread[1];
-                            threads[0] = new Thread(() -> {
+                            // The progress dialog already runs this outside of the UI thread
+                            final Runnable extrusion = () -> {
 
                                 if (monitor.isCanceled()) {
                                     return;
@@ -840,20 +840,8 @@ class VM07PathTruder extends VM06Edger2 {
                                         }
                                     }
                                 }
-                            });
-                            threads[0].start();
-                            boolean isRunning = true;
-                            while (isRunning) {
-                                try {
-                                    Thread.sleep(100);
-                                } catch (InterruptedException ie) {
-                                    Thread.currentThread().interrupt();
-                                    throw new LDPartEditorException(ie);
-                                }
-                                isRunning = false;
-                                if (threads[0].isAlive())
-                                    isRunning = true;
-                            }
+                            };
+                            extrusion.run();
                             if (monitor.isCanceled()) {
                                 selectedLines.addAll(originalSelection);
                                 selectedData.addAll(originalSelection);
@@ -872,8 +860,7 @@ class VM07PathTruder extends VM06Edger2 {
             }
         } else {
             final GColour col16 = LDConfig.getColour16();
-            final Thread[] threads = new Thread[1];
-            threads[0] = new Thread(() -> {
+            final Runnable extrusion = () -> {
 
                 final GColour bodyColour = DatParser.validateColour(16, col16.getR(), col16.getG(), col16.getB(), 1f).createClone();
 
@@ -1422,20 +1409,8 @@ class VM07PathTruder extends VM06Edger2 {
                         }
                     }
                 }
-            });
-            threads[0].start();
-            boolean isRunning = true;
-            while (isRunning) {
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new LDPartEditorException(ie);
-                }
-                isRunning = false;
-                if (threads[0].isAlive())
-                    isRunning = true;
-            }
+            };
+            extrusion.run();
         }
 
         if (!syncWithEditor) {
@@ -17,16 +17,12 @@ package org.nschmidt.ldparteditor.data;
 
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.NavigableSet;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
 
 import org.nschmidt.ldparteditor.enumtype.LDConfig;
 import org.nschmidt.ldparteditor.enumtype.View;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.text.DatParser;
 
@@ -155,7 +151,7 @@ class VM09WindingChange extends VM08SlicerPro {
         if (!selectedSubfiles.isEmpty()) {
 
 
-            final HashBiMap<Integer, GData> dpl = linkedDatFile.getDrawPerLineNoClone();
+            final LineIndex<GData> dpl = linkedDatFile.getDrawPerLineNoClone();
             Set<GData1> newSubfiles = new HashSet<>();
             for (GData1 subf : selectedSubfiles) {
                 GData1 untransformedSubfile;
@@ -239,16 +235,7 @@ class VM09WindingChange extends VM08SlicerPro {
                     // Add Invert Next
                     GData before = subf.getBefore();
                     int lineToInsert = dpl.getKey(before);
-                    NavigableSet<Integer> ts = new TreeSet<>();
-                    ts.addAll(dpl.keySet());
-                    for (Iterator<Integer> dsi = ts.descendingIterator(); dsi.hasNext();) {
-                        Integer k = dsi.next();
-                        if (k > lineToInsert) {
-                            GData gdata = dpl.getValue(k);
-                            dpl.removeByKey(k);
-                            dpl.put(k + 1, gdata);
-                        }
-                    }
+                    dpl.shiftKeys(lineToInsert + 1, 1);
                     GDataBFC newInvNext = new GDataBFC(BFC.INVERTNEXT, View.DUMMY_REFERENCE);
                     dpl.put(lineToInsert + 1, newInvNext);
                     before.setNext(newInvNext);
@@ -259,18 +246,8 @@ class VM09WindingChange extends VM08SlicerPro {
 
                     // Update Draw per line
 
-                    SortedSet<Integer> ts = new TreeSet<>();
-                    ts.addAll(dpl.keySet());
-
-                    int counter = 1;
-                    GData tail = null;
-                    for (Integer k : ts) {
-                        GData gdata = dpl.getValue(k);
-                        dpl.removeByKey(k);
-                        dpl.put(counter, gdata);
-                        counter++;
-                        tail = gdata;
-                    }
+                    dpl.renumber();
+                    GData tail = dpl.getValue(dpl.size());
                     if (tail != null) {
                         linkedDatFile.setDrawChainTail(tail);
                     } else {
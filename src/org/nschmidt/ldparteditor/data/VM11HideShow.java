@@ -15,15 +15,18 @@ FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TOR
 ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
 package org.nschmidt.ldparteditor.data;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.HashSet;
 import java.util.Set;
 
 class VM11HideShow extends VM10Selector {
 
-    private Map<String, List<Boolean>> state = new HashMap<>();
+    private static final LineFlags.Structure<GData> STRUCTURE = new GDataStructure();
+
+    /** The hide/show state which is restored by {@link #restoreHideShowState()} */
+    private LineFlags state = LineFlags.EMPTY;
+    /** The last snapshots (they share unchanged nodes with the next ones) */
+    private LineFlags lastHideShowState = null;
+    private LineFlags lastSelectedDataState = null;
 
     protected VM11HideShow(DatFile linkedDatFile) {
         super(linkedDatFile);
@@ -36,6 +39,17 @@ class VM11HideShow extends VM10Selector {
         dataToHide.clear();
     }
 
+    /**
+     * Hides visible data until {@link #showHidden()} is called (at the end of
+     * the frame). The data is not part of the hide/show state.
+     */
+    protected void hideTemporarily(GData gdata) {
+        if (gdata.visible) {
+            dataToHide.add(gdata);
+            gdata.hide();
+        }
+    }
+
     public void hideSelection() {
         for (GData1 data : selectedSubfiles) {
             hide(data);
@@ -118,143 +132,72 @@ class VM11HideShow extends VM10Selector {
         hiddenData.clear();
     }
 
-    public Map<String, List<Boolean>> backupHideShowState() {
-        state.clear();
-        if (!hiddenData.isEmpty()) {
-            backup(linkedDatFile.getDrawChainStart(), state, ""); //$NON-NLS-1$
-            return state;
-        }
-        return new HashMap<>();
+    public LineFlags backupHideShowState() {
+        state = snapshotHideShowState();
+        return state;
     }
 
-    public Map<String, List<Boolean>> backupHideShowState(Map<String, List<Boolean>> s) {
+    /**
+     * @return a snapshot of the hidden data or {@link LineFlags#EMPTY} if
+     *         nothing is hidden
+     */
+    public LineFlags snapshotHideShowState() {
         if (!hiddenData.isEmpty()) {
-            backup(linkedDatFile.getDrawChainStart(), s, ""); //$NON-NLS-1$
-            return s;
-        }
-        return new HashMap<>();
-    }
-
-    private void backup(GData g, Map<String, List<Boolean>> s, String key) {
-        final List<Boolean> st = new ArrayList<>();
-        int lineNumber = 1;
-        s.put(key, st);
-        st.add(g.visible);
-        while ((g = g.getNext()) != null) {
-            final int type = g.type();
-            if (type > 0 && type < 6) {
-                st.add(g.visible);
-                if (type == 1) {
-                    backup(((GData1) g).myGData, s, key + "|" + lineNumber); //$NON-NLS-1$
-                }
-                lineNumber++;
-            }
+            // Only the subfiles which contain hidden data are visited
+            lastHideShowState = LineFlags.create(linkedDatFile.getDrawChainStart(), STRUCTURE, hiddenData::contains, getParents(hiddenData)::contains, lastHideShowState);
+            return lastHideShowState;
         }
+        return LineFlags.EMPTY;
     }
 
-    public Map<String, List<Boolean>> backupSelectedDataState(Map<String, List<Boolean>> s) {
+    /**
+     * @return a snapshot of the selected data or {@link LineFlags#EMPTY} if
+     *         nothing is selected
+     */
+    public LineFlags snapshotSelectedDataState() {
         if (!selectedData.isEmpty()) {
-            backup2(linkedDatFile.getDrawChainStart(), s, ""); //$NON-NLS-1$
-            return s;
-        }
-        return new HashMap<>();
-    }
-
-    private void backup2(GData g, Map<String, List<Boolean>> s, String key) {
-        final List<Boolean> st = new ArrayList<>();
-        int lineNumber = 1;
-        s.put(key, st);
-        st.add(selectedData.contains(g));
-        while ((g = g.getNext()) != null) {
-            final int type = g.type();
-            if (type > 0 && type < 6) {
-                st.add(selectedData.contains(g));
-                if (type == 1) {
-                    backup2(((GData1) g).myGData, s, key + "|" + lineNumber); //$NON-NLS-1$
-                }
-                lineNumber++;
-            }
-        }
-    }
-
-    public void backupHideShowAndSelectedState(Map<String, List<Boolean>> s1, Map<String, List<Boolean>> s2) {
-        backup3(linkedDatFile.getDrawChainStart(), s1, s2, ""); //$NON-NLS-1$
-    }
-
-    private void backup3(GData g, Map<String, List<Boolean>> s1, Map<String, List<Boolean>> s2, String key) {
-        final List<Boolean> st1 = new ArrayList<>();
-        final List<Boolean> st2 = new ArrayList<>();
-        int lineNumber = 1;
-        s1.put(key, st1);
-        s2.put(key, st2);
-        st1.add(g.visible);
-        st2.add(selectedData.contains(g));
-        while ((g = g.getNext()) != null) {
-            final int type = g.type();
-            if (type > 0 && type < 6) {
-                st1.add(g.visible);
-                st2.add(selectedData.contains(g));
-                if (type == 1) {
-                    backup3(((GData1) g).myGData, s1, s2, key + "|" + lineNumber); //$NON-NLS-1$
-                }
-                lineNumber++;
+            // Only the subfiles which contain selected data are visited
+            lastSelectedDataState = LineFlags.create(linkedDatFile.getDrawChainStart(), STRUCTURE, selectedData::contains, getParents(selectedData)::contains, lastSelectedDataState);
+            return lastSelectedDataState;
+        }
+        return LineFlags.EMPTY;
+    }
+
+    /**
+     * @return the subfile lines which contain the data (directly or in one
+     *         of their subfiles)
+     */
+    private static Set<GData> getParents(Set<GData> data) {
+        final Set<GData> result = new HashSet<>();
+        for (GData g : data) {
+            GData1 parent = g.parent;
+            while (parent != null && result.add(parent)) {
+                parent = parent.parent;
             }
         }
+        return result;
     }
 
     public void restoreHideShowState() {
-        if (state.size() > 0) {
-            restore(linkedDatFile.getDrawChainStart(), state, ""); //$NON-NLS-1$
-            state.clear();
-        }
-    }
-
-    public void restoreHideShowState(Map<String, List<Boolean>> s) {
-        state.clear();
-        state.putAll(s);
-        restoreHideShowState();
-    }
-
-    private void restore(GData g, Map<String, List<Boolean>> s, String key) {
-        int lineNumber = 1;
-        List<Boolean> nl = new ArrayList<>();
-        nl.add(true);
-        s.putIfAbsent(key, nl);
-        final List<Boolean> st = s.get(key);
-        final int size = st.size();
-        g.visible = st.get(0);
-        if (!g.visible) hiddenData.add(g);
-        while ((g = g.getNext()) != null) {
-            final int type = g.type();
-            if (type > 0 && type < 6) {
-                if (lineNumber < size) {
-                    g.visible = st.get(lineNumber);
+        if (!state.isEmpty()) {
+            state.restore(linkedDatFile.getDrawChainStart(), STRUCTURE, (g, hidden) -> {
+                if (hidden) {
+                    hide(g);
                 } else {
-                    g.visible = true;
-                }
-                if (!g.visible) hiddenData.add(g);
-                if (type  == 1) {
-                    restore(((GData1) g).myGData, s, key + "|" + lineNumber); //$NON-NLS-1$
+                    show(g);
                 }
-                lineNumber++;
-            }
+            });
+            state = LineFlags.EMPTY;
         }
     }
 
-    public void restoreSelectedDataState(Map<String, List<Boolean>> s) {
-        if (s.size() > 0) {
-            restore2(linkedDatFile.getDrawChainStart(), s, ""); //$NON-NLS-1$
-        }
+    public void restoreHideShowState(LineFlags s) {
+        state = s;
+        restoreHideShowState();
     }
 
-    private void restore2(GData g, Map<String, List<Boolean>> s, String key) {
-        int lineNumber = 1;
-        List<Boolean> nl = new ArrayList<>();
-        nl.add(true);
-        s.putIfAbsent(key, nl);
-        final List<Boolean> st = s.get(key);
-        final int size = st.size();
-        if (Boolean.TRUE.equals(st.get(0))) {
+    public void restoreSelectedDataState(LineFlags s) {
+        s.forEachSet(linkedDatFile.getDrawChainStart(), STRUCTURE, (g, selected) -> {
             selectedData.add(g);
             switch (g.type()) {
             case 1:
@@ -275,37 +218,25 @@ class VM11HideShow extends VM10Selector {
             default:
                 break;
             }
+        });
+    }
+
+    private static class GDataStructure implements LineFlags.Structure<GData> {
+
+        @Override
+        public GData getNext(GData entry) {
+            return entry.getNext();
         }
-        while ((g = g.getNext()) != null) {
-            final int type = g.type();
-            if (type > 0 && type < 6) {
-                if (lineNumber < size && Boolean.TRUE.equals(st.get(lineNumber))) {
-                    selectedData.add(g);
-                    switch (type) {
-                    case 1:
-                        selectedSubfiles.add((GData1) g);
-                        break;
-                    case 2:
-                        selectedLines.add((GData2) g);
-                        break;
-                    case 3:
-                        selectedTriangles.add((GData3) g);
-                        break;
-                    case 4:
-                        selectedQuads.add((GData4) g);
-                        break;
-                    case 5:
-                        selectedCondlines.add((GData5) g);
-                        break;
-                    default:
-                        break;
-                    }
-                }
-                if (type  == 1) {
-                    restore2(((GData1) g).myGData, s, key + "|" + lineNumber); //$NON-NLS-1$
-                }
-                lineNumber++;
-            }
+
+        @Override
+        public boolean isLine(GData entry) {
+            final int type = entry.type();
+            return type > 0 && type < 6;
+        }
+
+        @Override
+        public GData getContent(GData line) {
+            return line.type() == 1 ? ((GData1) line).myGData : null;
         }
     }
 }
@@ -22,7 +22,6 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -34,9 +33,6 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.dialogs.ProgressMonitorDialog;
@@ -49,9 +45,11 @@ import org.nschmidt.ldparteditor.enumtype.MyLanguage;
 import org.nschmidt.ldparteditor.enumtype.Threshold;
 import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.LDPartEditorException;
+import org.nschmidt.ldparteditor.helper.ParallelFor;
 import org.nschmidt.ldparteditor.helper.composite3d.IntersectorSettings;
 import org.nschmidt.ldparteditor.helper.composite3d.IsecalcSettings;
 import org.nschmidt.ldparteditor.helper.composite3d.SelectorSettings;
+import org.nschmidt.ldparteditor.helper.math.GeometricPredicates;
 import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeHashMap;
 import org.nschmidt.ldparteditor.helper.math.Vector3d;
@@ -63,10 +61,6 @@ import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
 
 class VM12IntersectorAndIsecalc extends VM11HideShow {
 
-    private static final BigDecimal TOLERANCE = BigDecimal.ZERO;
-    private static final BigDecimal ZEROT = BigDecimal.ZERO;
-    private static final BigDecimal ONET = BigDecimal.ONE;
-
     private static final BigDecimal TOLERANCER = new BigDecimal("0.00001"); //$NON-NLS-1$
     private static final BigDecimal ZEROTR = new BigDecimal("-0.00001"); //$NON-NLS-1$
     private static final BigDecimal ONETR = new BigDecimal("1.00001"); //$NON-NLS-1$
@@ -151,7 +145,6 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
             final int lineCount = newLines.size();
             final BigDecimal small = new BigDecimal("0.001"); //$NON-NLS-1$
             final BigDecimal smallangle = new BigDecimal("0.00001"); //$NON-NLS-1$
-            final Vector3d zero = new Vector3d();
 
             // Merge lines with same directions
             int[] colin = new int[lineCount];
@@ -167,11 +160,7 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
                         Vector3d p12 = new Vector3d(newLines.get(i).x2p, newLines.get(i).y2p, newLines.get(i).z2p);
                         Vector3d p21 = new Vector3d(newLines.get(j).x1p, newLines.get(j).y1p, newLines.get(j).z1p);
                         Vector3d p22 = new Vector3d(newLines.get(j).x2p, newLines.get(j).y2p, newLines.get(j).z2p);
-                        Vector3d line1 = Vector3d.sub(p12, p11);
-                        Vector3d line2 = Vector3d.sub(p22, p21);
-                        Vector3d temp = Vector3d.cross(line1, line2);
-                        BigDecimal angle = Vector3d.manhattan(temp, zero).divide(Vector3d.manhattan(p12, p11), Threshold.MC).divide(Vector3d.manhattan(p22, p21), Threshold.MC);
-                        if (angle.compareTo(smallangle) < 0)
+                        if (GeometricPredicates.isParallel(p11, p12, p21, p22, smallangle))
                         {
                             colin[i] = distline;
                             colin[j] = distline;
@@ -394,9 +383,9 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
             clearSelection();
 
             final List<IntersectionInfoWithColour> intersections = new ArrayList<>();
-            final Set<GData2> newLines =  Collections.newSetFromMap(new ThreadsafeHashMap<>());
-            final Set<GData3> newTriangles = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-            final Set<GData5> newCondlines =  Collections.newSetFromMap(new ThreadsafeHashMap<>());
+            final Set<GData2> newLines = new HashSet<>();
+            final Set<GData3> newTriangles = new HashSet<>();
+            final Set<GData5> newCondlines = new HashSet<>();
             try
             {
                 new ProgressMonitorDialog(Editor3DWindow.getWindow().getShell()).run(true, true, new IRunnableWithProgress()
@@ -410,72 +399,40 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
 
                             {
 
-                                final Set<IntersectionInfoWithColour> intersectionSet = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-
                                 final int iterations = originObjects.size();
-                                final int chunks = View.NUM_CORES;
-                                final Thread[] threads = new Thread[chunks];
-
                                 final String surfCount = "/" + iterations;//$NON-NLS-1$
-                                final AtomicInteger counter2 = new AtomicInteger(0);
-
-                                int lastend = 0;
-                                for (int j = 0; j < chunks; ++j) {
-                                    final int[] start = new int[] { lastend };
-                                    lastend = iterations / chunks * (j + 1);
-                                    final int[] end = new int[] { lastend };
-                                    if (j == chunks - 1) {
-                                        end[0] = iterations;
+
+                                final List<OriginIntersection> originIntersections = ParallelFor.run(iterations, monitor::isCanceled, (done, total) -> monitor.subTask(done + surfCount), (k, results) -> {
+                                    GData o = originObjects.get(k);
+                                    IntersectionInfoWithColour ii = getIntersectionInfo(o, targetSurfs, ins);
+                                    if (ii != null) {
+                                        results.add(new OriginIntersection(o, ii));
                                     }
-                                    threads[j] = new Thread(() -> {
-                                        for (int k = start[0]; k < end[0]; k++) {
-                                            monitor.subTask(counter2.toString() + surfCount);
-                                            GData o = originObjects.get(k);
-                                            /* Check if the monitor has been canceled */
-                                            if (monitor.isCanceled()) {
-                                                isCancelled[0] = 1;
-                                                return;
-                                            }
-                                            counter2.incrementAndGet();
-                                            IntersectionInfoWithColour ii = getIntersectionInfo(o, targetSurfs, ins);
-                                            if (ii != null) {
-                                                intersectionSet.add(ii);
-                                                switch (o.type()) {
-                                                case 2:
-                                                    linesToDelete.add((GData2) o);
-                                                    break;
-                                                case 3:
-                                                    trisToDelete.add((GData3) o);
-                                                    break;
-                                                case 4:
-                                                    quadsToDelete.add((GData4) o);
-                                                    break;
-                                                case 5:
-                                                    condlinesToDelete.add((GData5) o);
-                                                    break;
-                                                default:
-                                                    break;
-                                                }
-                                            }
-                                        }
-                                    });
-                                    threads[j].start();
+                                });
+                                if (monitor.isCanceled()) {
+                                    isCancelled[0] = 1;
                                 }
-                                boolean isRunning = true;
-                                while (isRunning) {
-                                    try {
-                                        Thread.sleep(100);
-                                    } catch (InterruptedException ie) {
-                                        Thread.currentThread().interrupt();
-                                        throw new LDPartEditorException(ie);
-                                    }
-                                    isRunning = false;
-                                    for (Thread thread : threads) {
-                                        if (thread.isAlive())
-                                            isRunning = true;
+
+                                for (OriginIntersection oi : originIntersections) {
+                                    intersections.add(oi.info());
+                                    GData o = oi.origin();
+                                    switch (o.type()) {
+                                    case 2:
+                                        linesToDelete.add((GData2) o);
+                                        break;
+                                    case 3:
+                                        trisToDelete.add((GData3) o);
+                                        break;
+                                    case 4:
+                                        quadsToDelete.add((GData4) o);
+                                        break;
+                                    case 5:
+                                        condlinesToDelete.add((GData5) o);
+                                        break;
+                                    default:
+                                        break;
                                     }
                                 }
-                                intersections.addAll(intersectionSet);
                             }
 
                             if (isCancelled[0] > 0) return;
@@ -497,60 +454,43 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
 
                             {
                                 final int iterations = intersections.size();
-                                final int chunks = View.NUM_CORES;
-                                final Thread[] threads = new Thread[chunks];
-                                
+
                                 if (NLogger.debugging) {
                                     for (IntersectionInfoWithColour intersection : intersections) {
                                         NLogger.debug(getClass(), "Intersection:\n" + intersection.toString()); //$NON-NLS-1$
                                     }
                                 }
 
-
                                 final String maxIterations = "/" + iterations;//$NON-NLS-1$
-                                final AtomicInteger counter2 = new AtomicInteger(0);
-
-                                int lastend = 0;
-                                for (int j = 0; j < chunks; ++j) {
-                                    final int[] start = new int[] { lastend };
-                                    lastend = iterations / chunks * (j + 1);
-                                    final int[] end = new int[] { lastend };
-                                    if (j == chunks - 1) {
-                                        end[0] = iterations;
-                                    }
-                                    threads[j] = new Thread(() -> {
-                                        for (int k = start[0]; k < end[0]; k++) {
-                                            monitor.subTask(counter2.toString() + maxIterations);
-                                            IntersectionInfoWithColour info = intersections.get(k);
-                                            if (monitor.isCanceled()) {
-                                                isCancelled[0] = 2;
-                                                return;
-                                            }
-                                            counter2.incrementAndGet();
 
-                                            final List<Vector3dd> av = info.getAllVertices();
-                                            final List<GColour> cols = info.getColours();
-                                            final List<Integer> ts = info.getIsLine();
+                                final List<GData> newData = ParallelFor.run(iterations, monitor::isCanceled, (done, total) -> monitor.subTask(done + maxIterations), (k, results) -> {
+                                    IntersectionInfoWithColour info = intersections.get(k);
 
-                                            newTriangles.addAll(MathHelper.triangulatePointGroups(cols, av, ts, View.DUMMY_REFERENCE, linkedDatFile));
-                                            newLines.addAll(MathHelper.triangulatePointGroups2(cols, av, ts, View.DUMMY_REFERENCE, linkedDatFile));
-                                            newCondlines.addAll(MathHelper.triangulatePointGroups5(cols, av, ts, View.DUMMY_REFERENCE, linkedDatFile));
-                                        }
-                                    });
-                                    threads[j].start();
+                                    final List<Vector3dd> av = info.getAllVertices();
+                                    final List<GColour> cols = info.getColours();
+                                    final List<Integer> ts = info.getIsLine();
+
+                                    results.addAll(MathHelper.triangulatePointGroups(cols, av, ts, View.DUMMY_REFERENCE, linkedDatFile));
+                                    results.addAll(MathHelper.triangulatePointGroups2(cols, av, ts, View.DUMMY_REFERENCE, linkedDatFile));
+                                    results.addAll(MathHelper.triangulatePointGroups5(cols, av, ts, View.DUMMY_REFERENCE, linkedDatFile));
+                                });
+                                if (monitor.isCanceled()) {
+                                    isCancelled[0] = 2;
                                 }
-                                boolean isRunning = true;
-                                while (isRunning) {
-                                    try {
-                                        Thread.sleep(100);
-                                    } catch (InterruptedException ie) {
-                                        Thread.currentThread().interrupt();
-                                        throw new LDPartEditorException(ie);
-                                    }
-                                    isRunning = false;
-                                    for (Thread thread : threads) {
-                                        if (thread.isAlive())
-                                            isRunning = true;
+
+                                for (GData gd : newData) {
+                                    switch (gd.type()) {
+                                    case 2:
+                                        newLines.add((GData2) gd);
+                                        break;
+                                    case 3:
+                                        newTriangles.add((GData3) gd);
+                                        break;
+                                    case 5:
+                                        newCondlines.add((GData5) gd);
+                                        break;
+                                    default:
+                                        break;
                                     }
                                 }
                             }
@@ -1600,51 +1540,11 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
      * @return
      */
     private boolean intersectLineTriangle(Vertex p, Vertex q, Vertex a, Vertex b, Vertex c, Vector3d r) {
-        final BigDecimal tolerance = new BigDecimal("0.00001"); //$NON-NLS-1$ .00001
-        final BigDecimal zerot = new BigDecimal("-0.00001"); //$NON-NLS-1$
-        final BigDecimal onet = new BigDecimal("1.00001"); //$NON-NLS-1$
-        BigDecimal diskr;
-        BigDecimal invDiskr;
-        Vector3d vert0 = new Vector3d(a);
-        Vector3d vert1 = new Vector3d(b);
-        Vector3d vert2 = new Vector3d(c);
-        Vector3d corner1 = Vector3d.sub(vert1, vert0);
-        Vector3d corner2 = Vector3d.sub(vert2, vert0);
-        Vector3d orig = new Vector3d(p);
-        Vector3d dir = Vector3d.sub(new Vector3d(q), orig);
-        BigDecimal len = dir.normalise(dir);
-        Vector3d pvec = Vector3d.cross(dir, corner2);
-        diskr = Vector3d.dotP(corner1, pvec);
-        if (diskr.abs().compareTo(tolerance) < 0)
-            return false;
-        invDiskr = BigDecimal.ONE.divide(diskr, Threshold.MC);
-        Vector3d tvec = Vector3d.sub(orig, vert0);
-        BigDecimal u = Vector3d.dotP(tvec, pvec).multiply(invDiskr);
-        if (u.compareTo(zerot) < 0 || u.compareTo(onet) > 0)
-            return false;
-        Vector3d qvec = Vector3d.cross(tvec, corner1);
-        BigDecimal v = Vector3d.dotP(dir, qvec).multiply(invDiskr);
-        if (v.compareTo(zerot) < 0 || u.add(v).compareTo(onet) > 0)
-            return false;
-        BigDecimal t = Vector3d.dotP(corner2, qvec).multiply(invDiskr);
-        if (t.compareTo(zerot) < 0 || t.compareTo(len.add(tolerance)) > 0)
-            return false;
-        r.setX(orig.x.add(dir.x.multiply(t)));
-        r.setY(orig.y.add(dir.y.multiply(t)));
-        r.setZ(orig.z.add(dir.z.multiply(t)));
-        return true;
+        return GeometricPredicates.intersectLineTriangle(p, q, a, b, c, r);
     }
 
     protected Vector3d intersectLineLineSegmentUnidirectional2(Vector3dd p, Vector3dd p2, Vector3dd q, Vector3dd q2) {
-
-
-        Vector3d sp = Vector3d.sub(p2, p);
-        Vector3d sq = Vector3d.sub(q2, q);
-        Vector3d c = Vector3d.add(Vector3d.cross(sp, sq), p);
-        Vector3d d = Vector3d.sub(p, Vector3d.cross(sp, sq));
-
-        return intersectLineTriangle(new Vertex(q), new Vertex(q2), new Vertex(d), new Vertex(p2), new Vertex(c), c) ? c : null;
-
+        return GeometricPredicates.intersectLineLine(p, p2, q, q2);
     }
 
     public void lines2pattern() {
@@ -1665,8 +1565,6 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
 
         final Map<List<Vector3dd>, GColour> colours = new HashMap<>();
 
-        final int chunks = View.NUM_CORES;
-
         originalSelectionLines.addAll(selectedLines);
         originalSelectionTriangles.addAll(selectedTriangles);
         originalSelectionQuads.addAll(selectedQuads);
@@ -1887,9 +1785,8 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
         final List<GColour> resultColours = new ArrayList<>();
         final List<Integer> resultIsLine = new ArrayList<>();
 
-        final Set<List<Vector3dd>> colourLines2 = Collections.newSetFromMap(new ThreadsafeHashMap<>());
-        final ThreadsafeHashMap<List<Vector3dd> , GColour> colours2 = new ThreadsafeHashMap<>();
-        final Thread[] colourThreads = new Thread[chunks];
+        final Set<List<Vector3dd>> colourLines2 = new HashSet<>();
+        final Map<List<Vector3dd>, GColour> colours2 = new HashMap<>();
 
         // Spread coloured lines
         {
@@ -1944,62 +1841,37 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
                                 final int vc = colourVertices.size();
                                 final int vc2 = fixedVertices.size();
 
-                                final AtomicInteger counter2 = new AtomicInteger(0);
-
-                                for (int j = 0; j < chunks; ++j) {
-                                    final int[] start = new int[] { j };
-                                    colourThreads[j] = new Thread(() -> {
-                                        int counter = start[0];
-                                        for (int i = 0; i < vc; i++) {
-                                            if (counter == 0) {
-                                                counter = chunks;
-                                                counter2.incrementAndGet();
-                                                if (monitor.isCanceled()) {
-                                                    return;
-                                                }
-                                                Vector3dd v1 = colourVertices.get(i);
-                                                for (int vi = 0; vi < vc2; vi++) {
-                                                    boolean intersect = false;
-                                                    Vector3dd v2 = fixedVertices.get(vi);
-                                                    Vector3d sp = Vector3d.sub(v2, v1);
-                                                    Vector3d dir = new Vector3d();
-                                                    BigDecimal len = sp.normalise(dir);
-                                                    int lc = fixedLinesToParse.size();
-                                                    for (int k = 0; k < lc; k++) {
-                                                        List<Vector3dd> l = fixedLinesToParse.get(k);
-                                                        Vector3dd v3 = l.get(0);
-                                                        Vector3dd v4 = l.get(1);
-                                                        if (!v1.equals(v3) && !v1.equals(v4) && !v2.equals(v3) && !v2.equals(v4) && intersectLineLineSegmentUnidirectionalFast(v1, sp, dir, len, v3, v4)) {
-                                                            intersect = true;
-                                                            break;
-                                                        }
-                                                    }
-                                                    if (intersect) {
-                                                        continue;
-                                                    } else {
-                                                        BigDecimal dist = Vector3d.manhattan(v1, v2);
-                                                        if (dist.compareTo(minDist) > 0) {
-                                                            if (vertexColour.containsKey(v1) && vertexColour.get(v1) != null) {
-                                                                List<Vector3dd> nl = new ArrayList<>();
-                                                                nl.add(v1);
-                                                                nl.add(v2);
-                                                                colours2.put(nl, vertexColour.get(v1));
-                                                                colourLines2.add(nl);
-                                                            } else if (vertexColour.containsKey(v2) && vertexColour.get(v2) != null) {
-                                                                List<Vector3dd> nl = new ArrayList<>();
-                                                                nl.add(v1);
-                                                                nl.add(v2);
-                                                                colours2.put(nl, vertexColour.get(v2));
-                                                                colourLines2.add(nl);
-                                                            }
-                                                        }
-                                                    }
-                                                }
+                                final List<List<Vector3dd>> newColourLines = ParallelFor.run(vc, monitor::isCanceled, (done, total) -> {}, (i, results) -> {
+                                    Vector3dd v1 = colourVertices.get(i);
+                                    for (int vi = 0; vi < vc2; vi++) {
+                                        boolean intersect = false;
+                                        Vector3dd v2 = fixedVertices.get(vi);
+                                        Vector3d sp = Vector3d.sub(v2, v1);
+                                        Vector3d dir = new Vector3d();
+                                        BigDecimal len = sp.normalise(dir);
+                                        int lc = fixedLinesToParse.size();
+                                        for (int k = 0; k < lc; k++) {
+                                            List<Vector3dd> l = fixedLinesToParse.get(k);
+                                            Vector3dd v3 = l.get(0);
+                                            Vector3dd v4 = l.get(1);
+                                            if (!v1.equals(v3) && !v1.equals(v4) && !v2.equals(v3) && !v2.equals(v4) && intersectLineLineSegmentUnidirectionalFast(v1, sp, dir, len, v3, v4)) {
+                                                intersect = true;
+                                                break;
                                             }
-                                            counter -= 1;
                                         }
-                                    });
-                                    colourThreads[j].start();
+                                        if (!intersect && Vector3d.manhattan(v1, v2).compareTo(minDist) > 0
+                                                && (vertexColour.get(v1) != null || vertexColour.get(v2) != null)) {
+                                            List<Vector3dd> nl = new ArrayList<>();
+                                            nl.add(v1);
+                                            nl.add(v2);
+                                            results.add(nl);
+                                        }
+                                    }
+                                });
+                                for (List<Vector3dd> nl : newColourLines) {
+                                    final GColour colour = vertexColour.get(nl.get(0));
+                                    colours2.put(nl, colour != null ? colour : vertexColour.get(nl.get(1)));
+                                    colourLines2.add(nl);
                                 }
                             }
                         } finally {
@@ -2042,8 +1914,6 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
                         {
                             monitor.beginTask(I18n.VM_LINES_2_PATTERN, IProgressMonitor.UNKNOWN);
 
-                            final Thread[] threads = new Thread[1];
-
                             {
                                 SortedMap<Vector3dd, Vector3dh> hashedRelation = new TreeMap<>();
                                 for (Vector3dd v : fixedVertices) {
@@ -2090,78 +1960,46 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
                             final int vc = fixedVertices2.size();
                             final String vertCount = "/" + vc + ")"; //$NON-NLS-1$ //$NON-NLS-2$
 
-                            threads[0] = new Thread(() -> {
+                            for (int i = 0; i < vc; i++) {
 
-                                for (int i = 0; i < vc; i++) {
+                                Object[] messageArguments = {i, vertCount};
+                                MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
+                                formatter.setLocale(MyLanguage.getLocale());
+                                formatter.applyPattern(I18n.VM_DETECT_NEW_EDGES);
 
-                                    Object[] messageArguments = {i, vertCount};
-                                    MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                                    formatter.setLocale(MyLanguage.getLocale());
-                                    formatter.applyPattern(I18n.VM_DETECT_NEW_EDGES);
+                                monitor.subTask(formatter.format(messageArguments));
 
-                                    monitor.subTask(formatter.format(messageArguments));
-
-                                    if (monitor.isCanceled()) {
-                                        break;
-                                    }
-
-                                    Vector3dh v1 = fixedVertices2.get(i);
-                                    for (int j = i + 1; j < vc; j++) {
-                                        boolean intersect = false;
-                                        Vector3dh v2 = fixedVertices2.get(j);
+                                if (monitor.isCanceled()) {
+                                    break;
+                                }
 
-                                        Vector3d sp = Vector3d.sub(v2, v1);
-                                        Vector3d dir = new Vector3d();
-                                        BigDecimal len = sp.normalise(dir);
-                                        Iterator<List<Vector3dh>> li = linesToParseHashed.iterator();
-                                        while (li.hasNext()) {
-                                            List<Vector3dh> l = li.next();
-                                            Vector3dh v3 = l.get(0);
-                                            Vector3dh v4 = l.get(1);
-                                            if (!v1.equals(v3) && !v1.equals(v4) && !v2.equals(v3) && !v2.equals(v4)
-                                                    && intersectLineLineSegmentUnidirectionalFast(v1, sp, dir, len, v3,  v4)) {
-                                                intersect = true;
-                                                break;
-                                            }
-                                        }
-                                        if (!intersect) {
-                                            BigDecimal dist = Vector3d.manhattan(v1, v2);
-                                            if (dist.compareTo(minDist) > 0) {
-                                                List<Vector3dh> nl = new ArrayList<>();
-                                                nl.add(v1);
-                                                nl.add(v2);
-                                                linesToParseHashed.add(nl);
-                                            }
+                                Vector3dh v1 = fixedVertices2.get(i);
+                                for (int j = i + 1; j < vc; j++) {
+                                    boolean intersect = false;
+                                    Vector3dh v2 = fixedVertices2.get(j);
+
+                                    Vector3d sp = Vector3d.sub(v2, v1);
+                                    Vector3d dir = new Vector3d();
+                                    BigDecimal len = sp.normalise(dir);
+                                    Iterator<List<Vector3dh>> li = linesToParseHashed.iterator();
+                                    while (li.hasNext()) {
+                                        List<Vector3dh> l = li.next();
+                                        Vector3dh v3 = l.get(0);
+                                        Vector3dh v4 = l.get(1);
+                                        if (!v1.equals(v3) && !v1.equals(v4) && !v2.equals(v3) && !v2.equals(v4)
+                                                && intersectLineLineSegmentUnidirectionalFast(v1, sp, dir, len, v3,  v4)) {
+                                            intersect = true;
+                                            break;
                                         }
                                     }
-                                }
-                            });
-                            threads[0].start();
-                            boolean isRunning = true;
-                            while (isRunning) {
-                                try {
-                                    Thread.sleep(100);
-                                } catch (InterruptedException ie) {
-                                    Thread.currentThread().interrupt();
-                                    throw new LDPartEditorException(ie);
-                                }
-                                isRunning = false;
-                                if (threads[0].isAlive())
-                                    isRunning = true;
-                            }
-                            if (!colourLines.isEmpty()) {
-                                isRunning = true;
-                                while (isRunning) {
-                                    try {
-                                        Thread.sleep(100);
-                                    } catch (InterruptedException ie) {
-                                        Thread.currentThread().interrupt();
-                                        throw new LDPartEditorException(ie);
-                                    }
-                                    isRunning = false;
-                                    for (Thread thread : colourThreads) {
-                                        if (thread.isAlive())
-                                            isRunning = true;
+                                    if (!intersect) {
+                                        BigDecimal dist = Vector3d.manhattan(v1, v2);
+                                        if (dist.compareTo(minDist) > 0) {
+                                            List<Vector3dh> nl = new ArrayList<>();
+                                            nl.add(v1);
+                                            nl.add(v2);
+                                            linesToParseHashed.add(nl);
+                                        }
                                     }
                                 }
                             }
@@ -2318,177 +2156,137 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
 
                             final int lc = linesToParseHashed.size();
 
-                            final Thread[] threads = new Thread[chunks];
-
                             final String vertCount = "/" + lc + ")"; //$NON-NLS-1$ //$NON-NLS-2$
-                            final AtomicInteger counter2 = new AtomicInteger(0);
-
-                            final Lock rlock = new ReentrantLock(true);
-
-                            for (int t = 0; t < chunks; ++t) {
-                                final int[] start = new int[] { t };
-                                threads[t] = new Thread(() -> {
-                                    int counter = start[0];
-                                    Set<Vector3dh> allVertices = new HashSet<>();
-                                    Vector3d normal = null;
-                                    for (int i = 0; i < lc; i++) {
-                                        if (counter == 0) {
-                                            counter = chunks;
-
-                                            Object[] messageArguments = {counter2.toString(), vertCount};
-                                            MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                                            formatter.setLocale(MyLanguage.getLocale());
-                                            formatter.applyPattern(I18n.VM_TRIANGULATE);
-
-                                            monitor.subTask(formatter.format(messageArguments));
-                                            counter2.incrementAndGet();
-                                            if (monitor.isCanceled()) {
-                                                return;
-                                            }
-                                            for (int j = i + 1; j < lc; j++) {
-                                                for (int k = j + 1; k < lc; k++) {
-                                                    for(int l = 0; l < 2; l++) {
-                                                        allVertices.add(linesToParseHashed.get(i).get(l));
-                                                        allVertices.add(linesToParseHashed.get(j).get(l));
-                                                        allVertices.add(linesToParseHashed.get(k).get(l));
-                                                    }
-                                                    if (allVertices.size() == 3) {
-                                                        Vector3dh[] triVerts = new Vector3dh[3];
-                                                        int l = 0;
-                                                        for (Vector3dh v : allVertices) {
-                                                            triVerts[l] = v;
-                                                            l++;
-                                                        }
-                                                        allVertices.clear();
-                                                        boolean isInsideTriangle = false;
-                                                        if (normal == null) {
-                                                            normal = Vector3d.cross(Vector3d.sub(triVerts[2], triVerts[0]), Vector3d.sub(triVerts[1], triVerts[0]));
-                                                            normal.normalise(normal);
-                                                        }
-                                                        for (Vector3dh fixed : fixedVertices2) {
-                                                            if (fixed.equals(triVerts[0])) continue;
-                                                            if (fixed.equals(triVerts[1])) continue;
-                                                            if (fixed.equals(triVerts[2])) continue;
-                                                            Set<Vector3dh> n1 = neighbours.get(triVerts[0]);
-                                                            Set<Vector3dh> n2 = neighbours.get(triVerts[1]);
-                                                            Set<Vector3dh> n3 = neighbours.get(triVerts[2]);
-                                                            int nc = 0;
-                                                            if (n1.contains(fixed)) nc += 1;
-                                                            if (n2.contains(fixed)) nc += 1;
-                                                            if (n3.contains(fixed)) nc += 1;
-                                                            if (nc > 1 && intersectRayTriangle(fixed, normal, triVerts[0], triVerts[1], triVerts[2])) {
-                                                                isInsideTriangle = true;
-                                                                break;
-                                                            }
-                                                        }
-                                                        if (isInsideTriangle) continue;
-
-                                                        // Check collinearity
-                                                        {
-                                                            double angle;
-                                                            Vector3d vertexA = new Vector3d(triVerts[0]);
-                                                            Vector3d vertexB = new Vector3d(triVerts[1]);
-                                                            Vector3d vertexC = new Vector3d(triVerts[2]);
-                                                            Vector3d a = new Vector3d();
-                                                            Vector3d b = new Vector3d();
-                                                            Vector3d c = new Vector3d();
-                                                            Vector3d.sub(vertexB, vertexA, a);
-                                                            Vector3d.sub(vertexC, vertexB, b);
-                                                            Vector3d.sub(vertexC, vertexA, c);
-
-                                                            angle = Vector3d.angle(a, c);
-                                                            double sumAngle = angle;
-                                                            if (angle < Threshold.COLLINEAR_ANGLE_MINIMUM || angle > Threshold.COLLINEAR_ANGLE_MAXIMUM) {
-                                                                continue;
-                                                            }
 
-                                                            a.negate();
-                                                            angle = Vector3d.angle(a, b);
-                                                            sumAngle = sumAngle + angle;
-                                                            if (angle < Threshold.COLLINEAR_ANGLE_MINIMUM || angle > Threshold.COLLINEAR_ANGLE_MAXIMUM) {
-                                                                continue;
-                                                            }
+                            final List<PatternTriangle> triangles = ParallelFor.run(lc, monitor::isCanceled, (done, total) -> {
+                                Object[] messageArguments = {done, vertCount};
+                                MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
+                                formatter.setLocale(MyLanguage.getLocale());
+                                formatter.applyPattern(I18n.VM_TRIANGULATE);
+                                monitor.subTask(formatter.format(messageArguments));
+                            }, (i, results) -> {
+                                Set<Vector3dh> allVertices = new HashSet<>();
+                                Vector3d normal = null;
+                                for (int j = i + 1; j < lc; j++) {
+                                    for (int k = j + 1; k < lc; k++) {
+                                        for(int l = 0; l < 2; l++) {
+                                            allVertices.add(linesToParseHashed.get(i).get(l));
+                                            allVertices.add(linesToParseHashed.get(j).get(l));
+                                            allVertices.add(linesToParseHashed.get(k).get(l));
+                                        }
+                                        if (allVertices.size() == 3) {
+                                            Vector3dh[] triVerts = new Vector3dh[3];
+                                            int l = 0;
+                                            for (Vector3dh v : allVertices) {
+                                                triVerts[l] = v;
+                                                l++;
+                                            }
+                                            allVertices.clear();
+                                            boolean isInsideTriangle = false;
+                                            if (normal == null) {
+                                                normal = Vector3d.cross(Vector3d.sub(triVerts[2], triVerts[0]), Vector3d.sub(triVerts[1], triVerts[0]));
+                                                normal.normalise(normal);
+                                            }
+                                            for (Vector3dh fixed : fixedVertices2) {
+                                                if (fixed.equals(triVerts[0])) continue;
+                                                if (fixed.equals(triVerts[1])) continue;
+                                                if (fixed.equals(triVerts[2])) continue;
+                                                Set<Vector3dh> n1 = neighbours.get(triVerts[0]);
+                                                Set<Vector3dh> n2 = neighbours.get(triVerts[1]);
+                                                Set<Vector3dh> n3 = neighbours.get(triVerts[2]);
+                                                int nc = 0;
+                                                if (n1.contains(fixed)) nc += 1;
+                                                if (n2.contains(fixed)) nc += 1;
+                                                if (n3.contains(fixed)) nc += 1;
+                                                if (nc > 1 && intersectRayTriangle(fixed, normal, triVerts[0], triVerts[1], triVerts[2])) {
+                                                    isInsideTriangle = true;
+                                                    break;
+                                                }
+                                            }
+                                            if (isInsideTriangle) continue;
+
+                                            // Check collinearity
+                                            {
+                                                double angle;
+                                                Vector3d vertexA = new Vector3d(triVerts[0]);
+                                                Vector3d vertexB = new Vector3d(triVerts[1]);
+                                                Vector3d vertexC = new Vector3d(triVerts[2]);
+                                                Vector3d a = new Vector3d();
+                                                Vector3d b = new Vector3d();
+                                                Vector3d c = new Vector3d();
+                                                Vector3d.sub(vertexB, vertexA, a);
+                                                Vector3d.sub(vertexC, vertexB, b);
+                                                Vector3d.sub(vertexC, vertexA, c);
+
+                                                angle = Vector3d.angle(a, c);
+                                                double sumAngle = angle;
+                                                if (angle < Threshold.COLLINEAR_ANGLE_MINIMUM || angle > Threshold.COLLINEAR_ANGLE_MAXIMUM) {
+                                                    continue;
+                                                }
 
-                                                            angle = 180.0 - sumAngle;
-                                                            if (angle < Threshold.COLLINEAR_ANGLE_MINIMUM || angle > Threshold.COLLINEAR_ANGLE_MAXIMUM) {
-                                                                continue;
-                                                            }
-                                                        }
+                                                a.negate();
+                                                angle = Vector3d.angle(a, b);
+                                                sumAngle = sumAngle + angle;
+                                                if (angle < Threshold.COLLINEAR_ANGLE_MINIMUM || angle > Threshold.COLLINEAR_ANGLE_MAXIMUM) {
+                                                    continue;
+                                                }
 
-                                                        {
-                                                            Set<List<Vector3dd>> threeLines = new HashSet<>();
-                                                            threeLines.add(linesToParse.get(i));
-                                                            threeLines.add(linesToParse.get(j));
-                                                            threeLines.add(linesToParse.get(k));
-                                                            List<Vector3dd> intersected = null;
-                                                            for (Iterator<List<Vector3dd>> iterator = threeLines.iterator(); iterator.hasNext();) {
-                                                                List<Vector3dd> line = iterator.next();
-                                                                Vector3dd v1 = line.get(0);
-                                                                Vector3dd v2 = line.get(1);
-                                                                Vector3d sp = Vector3d.sub(v2, v1);
-                                                                Vector3d dir = new Vector3d();
-                                                                BigDecimal len = sp.normalise(dir);
-                                                                for (List<Vector3dd> line2 : colourLines) {
-                                                                    if (line2 != line) {
-                                                                        SortedSet<Vector3dd> allVertices1 = new TreeSet<>();
-                                                                        for(int l1 = 0; l1 < 2; l1++) {
-                                                                            allVertices1.add(line.get(l1));
-                                                                            allVertices1.add(line2.get(l1));
-                                                                        }
-                                                                        if (allVertices1.size() == 4 && intersectLineLineSegmentUnidirectionalFast(v1, sp, dir, len, line2.get(0), line2.get(1))) {
-                                                                            intersected = line2;
-                                                                            break;
-                                                                        }
-                                                                    }
-                                                                }
-                                                                if (intersected != null) {
-                                                                    break;
-                                                                }
-                                                            }
+                                                angle = 180.0 - sumAngle;
+                                                if (angle < Threshold.COLLINEAR_ANGLE_MINIMUM || angle > Threshold.COLLINEAR_ANGLE_MAXIMUM) {
+                                                    continue;
+                                                }
+                                            }
 
-                                                            rlock.lock();
-                                                            if (MathHelper.directionOfVectors(Vector3d.cross(Vector3d.sub(triVerts[2], triVerts[0]), Vector3d.sub(triVerts[1], triVerts[0])), originalNormal) == 1) {
-                                                                resultVertices.add(triVerts[0]);
-                                                                resultVertices.add(triVerts[1]);
-                                                                resultVertices.add(triVerts[2]);
-                                                            } else {
-                                                                resultVertices.add(triVerts[0]);
-                                                                resultVertices.add(triVerts[2]);
-                                                                resultVertices.add(triVerts[1]);
+                                            {
+                                                Set<List<Vector3dd>> threeLines = new HashSet<>();
+                                                threeLines.add(linesToParse.get(i));
+                                                threeLines.add(linesToParse.get(j));
+                                                threeLines.add(linesToParse.get(k));
+                                                List<Vector3dd> intersected = null;
+                                                for (Iterator<List<Vector3dd>> iterator = threeLines.iterator(); iterator.hasNext();) {
+                                                    List<Vector3dd> line = iterator.next();
+                                                    Vector3dd v1 = line.get(0);
+                                                    Vector3dd v2 = line.get(1);
+                                                    Vector3d sp = Vector3d.sub(v2, v1);
+                                                    Vector3d dir = new Vector3d();
+                                                    BigDecimal len = sp.normalise(dir);
+                                                    for (List<Vector3dd> line2 : colourLines) {
+                                                        if (line2 != line) {
+                                                            SortedSet<Vector3dd> allVertices1 = new TreeSet<>();
+                                                            for(int l1 = 0; l1 < 2; l1++) {
+                                                                allVertices1.add(line.get(l1));
+                                                                allVertices1.add(line2.get(l1));
                                                             }
-
-                                                            if (intersected != null) {
-                                                                resultColours.add(colours.get(intersected) != null ? colours.get(intersected) : LDConfig.getColour16());
-                                                            } else {
-                                                                resultColours.add(LDConfig.getColour16());
+                                                            if (allVertices1.size() == 4 && intersectLineLineSegmentUnidirectionalFast(v1, sp, dir, len, line2.get(0), line2.get(1))) {
+                                                                intersected = line2;
+                                                                break;
                                                             }
-                                                            resultIsLine.add(0);
-                                                            rlock.unlock();
                                                         }
-                                                    } else {
-                                                        allVertices.clear();
                                                     }
+                                                    if (intersected != null) {
+                                                        break;
+                                                    }
+                                                }
+
+                                                final GColour colour = intersected != null && colours.get(intersected) != null ? colours.get(intersected) : LDConfig.getColour16();
+                                                if (MathHelper.directionOfVectors(Vector3d.cross(Vector3d.sub(triVerts[2], triVerts[0]), Vector3d.sub(triVerts[1], triVerts[0])), originalNormal) == 1) {
+                                                    results.add(new PatternTriangle(triVerts[0], triVerts[1], triVerts[2], colour));
+                                                } else {
+                                                    results.add(new PatternTriangle(triVerts[0], triVerts[2], triVerts[1], colour));
                                                 }
                                             }
+                                        } else {
+                                            allVertices.clear();
                                         }
-                                        counter -= 1;
                                     }
-                                });
-                                threads[t].start();
-                            }
-                            boolean isRunning = true;
-                            while (isRunning) {
-                                try {
-                                    Thread.sleep(100);
-                                } catch (InterruptedException ie) {
-                                    Thread.currentThread().interrupt();
-                                    throw new LDPartEditorException(ie);
-                                }
-                                isRunning = false;
-                                for (Thread thread : threads) {
-                                    if (thread.isAlive())
-                                        isRunning = true;
                                 }
+                            });
+                            for (PatternTriangle triangle : triangles) {
+                                resultVertices.add(triangle.v1());
+                                resultVertices.add(triangle.v2());
+                                resultVertices.add(triangle.v3());
+                                resultColours.add(triangle.colour());
+                                resultIsLine.add(0);
                             }
                             if (monitor.isCanceled()) {
                                 selectedLines.addAll(originalSelectionLines);
@@ -2681,47 +2479,14 @@ class VM12IntersectorAndIsecalc extends VM11HideShow {
     }
 
     private boolean intersectRayTriangle(Vector3dd orig, Vector3d dir, Vector3dd vert0, Vector3dd vert1, Vector3dd vert2) {
-        BigDecimal diskr;
-        BigDecimal invDiskr;
-        Vector3d corner1 = Vector3d.sub(vert1, vert0);
-        Vector3d corner2 = Vector3d.sub(vert2, vert0);
-        Vector3d pvec = Vector3d.cross(dir, corner2);
-        diskr = Vector3d.dotP(corner1, pvec);
-        if (diskr.abs().compareTo(TOLERANCER) < 0)
-            return false;
-        invDiskr = BigDecimal.ONE.divide(diskr, Threshold.MC);
-        Vector3d tvec = Vector3d.sub(orig, vert0);
-        BigDecimal u = Vector3d.dotP(tvec, pvec).multiply(invDiskr);
-        if (u.compareTo(ZEROTR) < 0 || u.compareTo(ONETR) > 0)
-            return false;
-        Vector3d qvec = Vector3d.cross(tvec, corner1);
-        BigDecimal v = Vector3d.dotP(dir, qvec).multiply(invDiskr);
-        return !(v.compareTo(ZEROTR) < 0 || u.add(v).compareTo(ONETR) > 0);
+        return GeometricPredicates.intersectRayTriangle(orig, dir, vert0, vert1, vert2, TOLERANCER, ZEROTR, ONETR);
     }
 
     private boolean intersectLineTriangleSuperFast(Vector3dd q, Vector3d d, Vector3dd p2, Vector3d c, Vector3d dir, BigDecimal len) {
-        BigDecimal diskr;
-        BigDecimal invDiskr;
-        Vector3d vert0 = d;
-        Vector3d vert1 = p2;
-        Vector3d vert2 = c;
-        Vector3d corner1 = Vector3d.sub(vert1, vert0);
-        Vector3d corner2 = Vector3d.sub(vert2, vert0);
-        Vector3d orig = q;
-        Vector3d pvec = Vector3d.cross(dir, corner2);
-        diskr = Vector3d.dotP(corner1, pvec);
-        if (diskr.abs().compareTo(TOLERANCE) <= 0)
-            return false;
-        invDiskr = BigDecimal.ONE.divide(diskr, Threshold.MC);
-        Vector3d tvec = Vector3d.sub(orig, vert0);
-        BigDecimal u = Vector3d.dotP(tvec, pvec).multiply(invDiskr);
-        if (u.compareTo(ZEROT) < 0 || u.compareTo(ONET) > 0)
-            return false;
-        Vector3d qvec = Vector3d.cross(tvec, corner1);
-        BigDecimal v = Vector3d.dotP(dir, qvec).multiply(invDiskr);
-        if (v.compareTo(ZEROT) < 0 || u.add(v).compareTo(ONET) > 0)
-            return false;
-        BigDecimal t = Vector3d.dotP(corner2, qvec).multiply(invDiskr);
-        return !(t.compareTo(ZEROT) < 0 || t.compareTo(len.add(TOLERANCE)) > 0);
+        return GeometricPredicates.intersectSegmentTriangle(q, dir, len, d, p2, c);
     }
+
+    private record OriginIntersection(GData origin, IntersectionInfoWithColour info) {}
+
+    private record PatternTriangle(Vector3dh v1, Vector3dh v2, Vector3dh v3, GColour colour) {}
 }
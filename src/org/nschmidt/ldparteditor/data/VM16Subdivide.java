@@ -18,7 +18,6 @@ package org.nschmidt.ldparteditor.data;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
@@ -93,59 +92,12 @@ class VM16Subdivide extends VM15Flipper {
         selectedData.addAll(selectedCondlines);
         delete(false, false);
 
-        SortedMap<Vertex, Vertex> newPoints = new TreeMap<>();
-
         // Calculate new points
-        for (Entry<Vertex, Set<VertexManifestation>> entry : vertexLinkedToPositionInFile.entrySet()) {
-            Vertex v = entry.getKey();
-            Set<VertexManifestation> manis = entry.getValue();
-            Set<Vector3d> midEdge = new HashSet<>();
-            boolean keepIt = false;
-            for (VertexManifestation m : manis) {
-                GData gd = m.gdata();
-                switch (gd.type()) {
-                case 0:
-                    continue;
-                case 2:
-                    keepIt = true;
-                    break;
-                case 3:
-                {
-                    int p = m.position();
-                    Vertex[] verts = triangles.get(gd);
-                    Vector3d vt = new Vector3d(v);
-                    midEdge.add(Vector3d.add(vt, new Vector3d(verts[(p + 1) % 3])));
-                    midEdge.add(Vector3d.add(vt, new Vector3d(verts[(p + 2) % 3])));
-                }
-                break;
-                case 4:
-                {
-                    int p = m.position();
-                    Vertex[] verts = quads.get(gd);
-                    Vector3d vt = new Vector3d(v);
-                    midEdge.add(Vector3d.add(vt, new Vector3d(verts[(p + 1) % 4])));
-                    midEdge.add(Vector3d.add(vt, new Vector3d(verts[(p + 3) % 4])));
-                }
-                break;
-                default:
-                    continue;
-                }
-                if (keepIt) break;
-            }
-            if (keepIt) {
-                newPoints.put(v, v);
-            } else {
-                BigDecimal c = new BigDecimal(Math.max(midEdge.size() * 2, 1));
-                Vector3d np = new Vector3d();
-                for (Vector3d vd : midEdge) {
-                    np = Vector3d.add(np, vd);
-                }
-                np.setX(np.x.divide(c, Threshold.MC));
-                np.setY(np.y.divide(c, Threshold.MC));
-                np.setZ(np.z.divide(c, Threshold.MC));
-                newPoints.put(v, new Vertex(np));
-            }
+        SortedSet<Vertex> verticesToMove = new TreeSet<>();
+        for (GData gd : surfsToParse) {
+            verticesToMove.addAll(Arrays.asList(gd.type() == 3 ? triangles.get(gd) : quads.get(gd)));
         }
+        SortedMap<Vertex, Vertex> newPoints = calculateNewPoints(verticesToMove, true);
 
         for (GData gd : surfsToParse) {
             Vertex[] originalVerts;
@@ -225,7 +177,6 @@ class VM16Subdivide extends VM15Flipper {
 
     }
 
-    @SuppressWarnings("java:S2111")
     public void subdivideLoop(boolean showDialog) {
 
         if (linkedDatFile.isReadOnly()) return;
@@ -280,8 +231,6 @@ class VM16Subdivide extends VM15Flipper {
         selectedData.addAll(selectedCondlines);
         delete(false, false);
 
-        SortedMap<Vertex, Vertex> newPoints = new TreeMap<>();
-
         for (GData3 g3 : surfsToParse) {
             Vertex[] originalVerts;
             int colourNumber;
@@ -343,62 +292,11 @@ class VM16Subdivide extends VM15Flipper {
         clearSelection();
 
         // Calculate new points, based on Loop's Algorithm
-        for (Entry<Vertex, Set<VertexManifestation>> entry : vertexLinkedToPositionInFile.entrySet()) {
-            Vertex v = entry.getKey();
-            Set<VertexManifestation> manis = entry.getValue();
-            Set<Vector3d> midEdge = new HashSet<>();
-            boolean keepIt = false;
-            for (VertexManifestation m : manis) {
-                GData gd = m.gdata();
-                switch (gd.type()) {
-                case 0:
-                    continue;
-                case 2:
-                    keepIt = true;
-                    break;
-                case 3:
-                {
-                    int p = m.position();
-                    Vertex[] verts = triangles.get(gd);
-                    midEdge.add(new Vector3d(verts[(p + 1) % 3]));
-                    midEdge.add(new Vector3d(verts[(p + 2) % 3]));
-                }
-                break;
-                case 4:
-                {
-                    int p = m.position();
-                    Vertex[] verts = quads.get(gd);
-                    midEdge.add(new Vector3d(verts[(p + 1) % 4]));
-                    midEdge.add(new Vector3d(verts[(p + 3) % 4]));
-                }
-                break;
-                default:
-                    continue;
-                }
-                if (keepIt) break;
-            }
-            if (keepIt) {
-                newPoints.put(v, v);
-            } else {
-                double n = midEdge.size() + 1d;
-                double t = 3.0 / 8.0 + 1.0 / 4.0 * Math.cos(Math.PI * 2.0 / n);
-                double alphaN = 3.0 / 8.0 + t * t;
-                BigDecimal oneMinusAlphaDivN = new BigDecimal((1.0 - alphaN) / n);
-                BigDecimal alphaN2 = new BigDecimal(alphaN);
-                Vector3d np = new Vector3d();
-                for (Vector3d vd : midEdge) {
-                    np = Vector3d.add(np, vd);
-                }
-                np.setX(v.xp.multiply(alphaN2).add(np.x.multiply(oneMinusAlphaDivN, Threshold.MC)));
-                np.setY(v.yp.multiply(alphaN2).add(np.y.multiply(oneMinusAlphaDivN, Threshold.MC)));
-                np.setZ(v.zp.multiply(alphaN2).add(np.z.multiply(oneMinusAlphaDivN, Threshold.MC)));
-                newPoints.put(v, new Vertex(np));
-            }
-        }
+        SortedMap<Vertex, Vertex> newPoints = calculateNewPoints(verticesToMove, false);
+        newPoints.entrySet().removeIf(entry -> entry.getKey() == entry.getValue());
 
-        for (Vertex v : verticesToMove) {
-            changeVertexDirectFast(v, newPoints.get(v), true);
-        }
+        // All changed lines are rebuilt in one pass
+        changeVerticesDirectFast(newPoints, true);
 
         clearSelection();
 
@@ -424,4 +322,68 @@ class VM16Subdivide extends VM15Flipper {
         setModified(true, true);
         validateState();
     }
+
+    /**
+     * Calculates the new positions of the original vertices with the vertex
+     * rule of the subdivision. Vertices which are part of a line are kept.
+     *
+     * @param verticesToMove
+     *            the vertices to move
+     * @param catmullClark
+     *            {@code true} for the Catmull-Clark rule, {@code false} for
+     *            the Loop rule
+     * @return maps each vertex to its new position (or to itself, if the
+     *         vertex is kept)
+     */
+    private SortedMap<Vertex, Vertex> calculateNewPoints(SortedSet<Vertex> verticesToMove, boolean catmullClark) {
+        MeshKernel.Builder builder = new MeshKernel.Builder();
+        for (Vertex v : verticesToMove) {
+            builder.addVertex(v);
+        }
+        for (Vertex v : verticesToMove) {
+            final int index = builder.addVertex(v);
+            Set<VertexManifestation> manis = vertexLinkedToPositionInFile.get(v);
+            if (manis == null) continue;
+            for (VertexManifestation m : manis) {
+                GData gd = m.gdata();
+                int p = m.position();
+                switch (gd.type()) {
+                case 2:
+                    builder.setFixed(index);
+                    break;
+                case 3:
+                {
+                    Vertex[] verts = triangles.get(gd);
+                    builder.addNeighbour(index, builder.addVertex(verts[(p + 1) % 3]));
+                    builder.addNeighbour(index, builder.addVertex(verts[(p + 2) % 3]));
+                }
+                break;
+                case 4:
+                {
+                    Vertex[] verts = quads.get(gd);
+                    builder.addNeighbour(index, builder.addVertex(verts[(p + 1) % 4]));
+                    builder.addNeighbour(index, builder.addVertex(verts[(p + 3) % 4]));
+                }
+                break;
+                default:
+                    break;
+                }
+            }
+        }
+
+        MeshKernel kernel = builder.build();
+        if (catmullClark) {
+            kernel.applyCatmullClarkVertexRule();
+        } else {
+            kernel.applyLoopVertexRule();
+        }
+
+        SortedMap<Vertex, Vertex> result = new TreeMap<>();
+        int i = 0;
+        for (Vertex v : verticesToMove) {
+            result.put(v, kernel.getVertex(i));
+            i++;
+        }
+        return result;
+    }
 }
@@ -24,7 +24,7 @@ import java.util.Set;
 import org.nschmidt.ldparteditor.enumtype.Colour;
 import org.nschmidt.ldparteditor.enumtype.LDConfig;
 import org.nschmidt.ldparteditor.enumtype.View;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.text.DatParser;
 
@@ -182,7 +182,7 @@ class VM19ColourChanger extends VM18LineConverter {
             }
             String col = colourBuilder.toString();
             final boolean isRandomColour = a == 0f;
-            HashBiMap<Integer, GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
+            LineIndex<GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
             Set<GData1> newSubfiles = new HashSet<>();
             for (GData1 subf : selectedSubfiles) {
                 if (!drawPerLine.containsValue(subf)) {
@@ -39,7 +39,7 @@ import org.nschmidt.ldparteditor.enumtype.Threshold;
 import org.nschmidt.ldparteditor.enumtype.TransformationMode;
 import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.Manipulator;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeSortedMap;
 import org.nschmidt.ldparteditor.helper.math.Vector3d;
@@ -75,9 +75,10 @@ public class VM20Manipulator extends VM19ColourChanger {
         SortedMap<Vertex, Vertex> oldToNewVertex = new TreeMap<>();
         // Calculate the new vertex position
         if (newVertex == null) {
-            for (Vertex v : allVertices) {
-                BigDecimal[] temp = transformation.transform(v.xp, v.yp, v.zp);
-                oldToNewVertex.put(v, new Vertex(temp[0], temp[1], temp[2]));
+            final Vertex[] oldVertices = allVertices.toArray(new Vertex[0]);
+            final Vertex[] newVertices = BatchTransformer.transform(oldVertices, transformation);
+            for (int i = 0; i < oldVertices.length; i++) {
+                oldToNewVertex.put(oldVertices[i], newVertices[i]);
             }
         } else {
             for (Vertex v : allVertices) {
@@ -120,7 +121,19 @@ public class VM20Manipulator extends VM19ColourChanger {
             selectedQuads.clear();
             selectedCondlines.clear();
         }
-        Set<GData> allNewData = new HashSet<>();
+        rebuildTransformedData(allData, allData2, oldToNewVertex, verticesCountPerGData, transformedLPEvertices, updateSelection, moveAdjacentData);
+        if (updateSelection && moveAdjacentData) {
+            for (Vertex nv : oldToNewVertex.values()) {
+                if (nv != null && vertexLinkedToPositionInFile.containsKey(nv)) {
+                    selectedVertices.add(nv);
+                }
+            }
+        }
+    }
+
+    private void rebuildTransformedData(Set<GData> allData, Set<GData> allData2, SortedMap<Vertex, Vertex> oldToNewVertex, Map<GData, Integer> verticesCountPerGData,
+            SortedSet<Vertex> transformedLPEvertices, boolean updateSelection, boolean moveAdjacentData) {
+        boolean modifiedData = false;
         for (GData gd : allData2) {
             GData newData = null;
             final int type = gd.type();
@@ -276,9 +289,16 @@ public class VM20Manipulator extends VM19ColourChanger {
                 continue;
             }
             if (newData != null) {
-                linker(gd, newData);
-                allNewData.add(newData);
-                setModifiedNoSync();
+                // Only the exchange of the data is locked, the renderer can continue between the lines
+                synchronized (this) {
+                    getManifestationLock().lock();
+                    try {
+                        linker(gd, newData);
+                    } finally {
+                        getManifestationLock().unlock();
+                    }
+                }
+                modifiedData = true;
                 if (updateSelection) {
                     switch (newData.type()) {
                     case 2:
@@ -304,12 +324,8 @@ public class VM20Manipulator extends VM19ColourChanger {
                 }
             }
         }
-        if (updateSelection && moveAdjacentData) {
-            for (Vertex nv : oldToNewVertex.values()) {
-                if (nv != null && vertexLinkedToPositionInFile.containsKey(nv)) {
-                    selectedVertices.add(nv);
-                }
-            }
+        if (modifiedData) {
+            setModifiedNoSync();
         }
     }
 
@@ -529,7 +545,7 @@ public class VM20Manipulator extends VM19ColourChanger {
 
             // 4. Subfile Based Transformation & Selection
             if (!selectedSubfiles.isEmpty()) {
-                HashBiMap<Integer, GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
+                LineIndex<GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
                 Set<GData1> newSubfiles = new HashSet<>();
                 for (GData1 subf : selectedSubfiles) {
                     if (!drawPerLine.containsValue(subf)) {
@@ -785,7 +801,7 @@ public class VM20Manipulator extends VM19ColourChanger {
     }
 
     public void transformSubfile(GData1 g, Matrix m, boolean clearSelection, boolean syncWithTextEditor) {
-        HashBiMap<Integer, GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
+        LineIndex<GData> drawPerLine = linkedDatFile.getDrawPerLineNoClone();
         StringBuilder colourBuilder = new StringBuilder();
         final GColour col16 = LDConfig.getColour16();
         if (g.colourNumber == -1) {
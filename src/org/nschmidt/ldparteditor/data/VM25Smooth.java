@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
@@ -27,7 +28,6 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 
 import org.nschmidt.ldparteditor.dialog.smooth.SmoothDialog;
-import org.nschmidt.ldparteditor.enumtype.Threshold;
 
 class VM25Smooth extends VM24MeshReducer {
 
@@ -53,17 +53,22 @@ class VM25Smooth extends VM24MeshReducer {
         @SuppressWarnings("unchecked")
         List<Vertex> oldVerts = (List<Vertex>) obj[3];
 
+        SortedMap<Vertex, Vertex> oldToNewVertex = new TreeMap<>();
         int size = newVerts.size();
         for (int i = 0; i < size; i++) {
             Vertex v1 = oldVerts.get(i);
             Vertex v2 = newVerts.get(i);
 
             if (!v1.equals(v2)) {
-                changeVertexDirectFast(v1, v2, true);
-                selectedVertices.add(v2);
+                oldToNewVertex.put(v1, v2);
             }
         }
 
+        // All changed lines are rebuilt in one pass
+        if (changeVerticesDirectFast(oldToNewVertex, true)) {
+            selectedVertices.addAll(oldToNewVertex.values());
+        }
+
         if (!selectedVertices.isEmpty()) {
             setModifiedNoSync();
             linkedDatFile.getVertexManager().restoreHideShowState();
@@ -115,115 +120,43 @@ class VM25Smooth extends VM24MeshReducer {
         final boolean isY = SmoothDialog.isY();
         final boolean isZ = SmoothDialog.isZ();
 
-        List<Vertex> vertsToProcess = new ArrayList<>();
-        List<Vertex> originalVerts = new ArrayList<>();
-        List<Vertex> newPos = new ArrayList<>();
-
-        SortedSet<Vertex> origVerts = new TreeSet<>();
-        origVerts.addAll(verts);
-
-        {
-            SortedSet<Vertex> allVerts = new TreeSet<>();
-            for (Vertex vertex : verts) {
-                allVerts.add(vertex);
-                allVerts.addAll(Arrays.asList(getNeighbourVertices(vertex)));
-            }
-            vertsToProcess.addAll(allVerts);
-            originalVerts.addAll(vertsToProcess);
+        // The neighbours are only determined once
+        SortedMap<Vertex, Vertex[]> neighbourVertices = new TreeMap<>();
+        SortedSet<Vertex> allVerts = new TreeSet<>();
+        for (Vertex vertex : verts) {
+            Vertex[] neighbours = getNeighbourVertices(vertex);
+            neighbourVertices.put(vertex, neighbours);
+            allVerts.add(vertex);
+            allVerts.addAll(Arrays.asList(neighbours));
         }
 
-
-        SortedMap<Integer, List<Integer>> adjacency = new TreeMap<>();
-        SortedMap<Vertex, Integer> indmap = new TreeMap<>();
-
-        int i = 0;
-        for (Vertex vertex : vertsToProcess) {
-            indmap.put(vertex, i);
-            i++;
+        MeshKernel.Builder builder = new MeshKernel.Builder();
+        for (Vertex vertex : allVerts) {
+            builder.addVertex(vertex);
         }
 
-        for (Vertex vertex : origVerts) {
-            Integer key = indmap.get(vertex);
-            List<Integer> ad;
-            if (adjacency.containsKey(key)) {
-                ad = adjacency.get(key);
-            } else {
-                ad = new ArrayList<>();
-                adjacency.put(key, ad);
-            }
-            for (Vertex vertex2 : getNeighbourVertices(vertex)) {
-                ad.add(indmap.get(vertex2));
+        SortedMap<Integer, List<Integer>> adjacency = new TreeMap<>();
+        for (Entry<Vertex, Vertex[]> entry : neighbourVertices.entrySet()) {
+            int key = builder.addVertex(entry.getKey());
+            List<Integer> ad = adjacency.computeIfAbsent(key, k -> new ArrayList<>());
+            for (Vertex vertex2 : entry.getValue()) {
+                int neighbour = builder.addVertex(vertex2);
+                builder.addNeighbour(key, neighbour);
+                ad.add(neighbour);
             }
         }
 
-        final BigDecimal factor = SmoothDialog.getFactor();
-        final BigDecimal oneMinusFactor = BigDecimal.ONE.subtract(factor);
-        final int iterations = SmoothDialog.getIterations();
-        final int size = vertsToProcess.size();
-        for (int j = 0; j < iterations; j++) {
-            i = 0;
-            newPos.clear();
-            for (Vertex vertex : vertsToProcess) {
-                if (origVerts.contains(vertex)) {
-
-                    List<Integer> il = adjacency.get(indmap.get(vertex));
-
-                    if (!il.isEmpty()) {
-                        final BigDecimal ad = new BigDecimal(il.size());
-
-                        BigDecimal vx = BigDecimal.ZERO;
-                        BigDecimal vy = BigDecimal.ZERO;
-                        BigDecimal vz = BigDecimal.ZERO;
-
-                        for (Integer k : il) {
-                            if (isX) vx = vx.add(vertsToProcess.get(k).xp);
-                            if (isY) vy = vy.add(vertsToProcess.get(k).yp);
-                            if (isZ) vz = vz.add(vertsToProcess.get(k).zp);
-                        }
-
-                        if (isX) {
-                            vx = vx.divide(ad, Threshold.MC).multiply(factor).add(vertex.xp.multiply(oneMinusFactor));
-                        } else {
-                            vx = vertex.xp;
-                        }
-                        if (isY) {
-                            vy = vy.divide(ad, Threshold.MC).multiply(factor).add(vertex.yp.multiply(oneMinusFactor));
-                        } else {
-                            vy = vertex.yp;
-                        }
-                        if (isZ) {
-                            vz = vz.divide(ad, Threshold.MC).multiply(factor).add(vertex.zp.multiply(oneMinusFactor));
-                        } else {
-                            vz = vertex.zp;
-                        }
-
-                        newPos.add(new Vertex(vx, vy, vz));
-
-                    } else {
-                        newPos.add(vertex);
-                    }
-
-                } else {
-                    newPos.add(null);
-                }
-                i++;
-            }
-            origVerts.clear();
-            indmap.clear();
-            i = 0;
-
-            while (i < size) {
-                Vertex nv = newPos.get(i);
-                if (nv != null) {
-                    origVerts.add(nv);
-                    vertsToProcess.set(i, nv);
-                    indmap.put(nv, i);
-                } else {
-                    indmap.put(vertsToProcess.get(i), i);
-                }
-                i++;
-            }
+        MeshKernel kernel = builder.build();
+        kernel.smooth(SmoothDialog.getFactor().doubleValue(), SmoothDialog.getIterations(), isX, isY, isZ);
 
+        final int size = kernel.size();
+        List<Vertex> vertsToProcess = new ArrayList<>(size);
+        List<Vertex> originalVerts = new ArrayList<>(allVerts);
+        SortedMap<Vertex, Integer> indmap = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            Vertex vertex = kernel.getVertex(i);
+            vertsToProcess.add(vertex);
+            indmap.put(vertex, i);
         }
 
         return new Object[]{vertsToProcess, indmap, adjacency, originalVerts};
@@ -16,7 +16,6 @@ ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEAL
 package org.nschmidt.ldparteditor.data;
 
 import java.lang.reflect.InvocationTargetException;
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -29,8 +28,8 @@ import org.eclipse.jface.dialogs.ProgressMonitorDialog;
 import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.MessageBox;
-import org.nschmidt.ldparteditor.enumtype.Threshold;
 import org.nschmidt.ldparteditor.helper.LDPartEditorException;
+import org.nschmidt.ldparteditor.helper.math.GeometricPredicates;
 import org.nschmidt.ldparteditor.helper.math.Vector3d;
 import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.logger.NLogger;
@@ -207,38 +206,6 @@ class VM29LineSurfaceIntersector extends VM28SlantingMatrixProjector {
     }
 
     private boolean intersectLineTriangle(Vertex p, Vertex q, Vertex a, Vertex b, Vertex c, Vector3d r) {
-        final BigDecimal tolerance = new BigDecimal("0.00001"); //$NON-NLS-1$ .00001
-        final BigDecimal zerot = new BigDecimal("-0.00001"); //$NON-NLS-1$
-        final BigDecimal onet = new BigDecimal("1.00001"); //$NON-NLS-1$
-        BigDecimal diskr;
-        BigDecimal invDiskr;
-        Vector3d vert0 = new Vector3d(a);
-        Vector3d vert1 = new Vector3d(b);
-        Vector3d vert2 = new Vector3d(c);
-        Vector3d corner1 = Vector3d.sub(vert1, vert0);
-        Vector3d corner2 = Vector3d.sub(vert2, vert0);
-        Vector3d orig = new Vector3d(p);
-        Vector3d dir = Vector3d.sub(new Vector3d(q), orig);
-        BigDecimal len = dir.normalise(dir);
-        Vector3d pvec = Vector3d.cross(dir, corner2);
-        diskr = Vector3d.dotP(corner1, pvec);
-        if (diskr.abs().compareTo(tolerance) < 0)
-            return false;
-        invDiskr = BigDecimal.ONE.divide(diskr, Threshold.MC);
-        Vector3d tvec = Vector3d.sub(orig, vert0);
-        BigDecimal u = Vector3d.dotP(tvec, pvec).multiply(invDiskr);
-        if (u.compareTo(zerot) < 0 || u.compareTo(onet) > 0)
-            return false;
-        Vector3d qvec = Vector3d.cross(tvec, corner1);
-        BigDecimal v = Vector3d.dotP(dir, qvec).multiply(invDiskr);
-        if (v.compareTo(zerot) < 0 || u.add(v).compareTo(onet) > 0)
-            return false;
-        BigDecimal t = Vector3d.dotP(corner2, qvec).multiply(invDiskr);
-        if (t.compareTo(zerot) < 0 || t.compareTo(len.add(tolerance)) > 0)
-            return false;
-        r.setX(orig.x.add(dir.x.multiply(t)));
-        r.setY(orig.y.add(dir.y.multiply(t)));
-        r.setZ(orig.z.add(dir.z.multiply(t)));
-        return true;
+        return GeometricPredicates.intersectLineTriangle(p, q, a, b, c, r);
     }
 }
@@ -37,13 +37,12 @@ import org.eclipse.swt.dnd.TextTransfer;
 import org.eclipse.swt.dnd.Transfer;
 import org.eclipse.swt.widgets.Display;
 import org.nschmidt.ldparteditor.composite.Composite3D;
-import org.nschmidt.ldparteditor.enumtype.LDConfig;
 import org.nschmidt.ldparteditor.enumtype.ManipulatorScope;
 import org.nschmidt.ldparteditor.enumtype.Threshold;
 import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.composite3d.MouseActions;
 import org.nschmidt.ldparteditor.helper.composite3d.SelectorSettings;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeHashMap;
 import org.nschmidt.ldparteditor.helper.math.ThreadsafeSortedMap;
@@ -51,13 +50,14 @@ import org.nschmidt.ldparteditor.helper.math.Vector3d;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.shell.editor3d.toolitem.InsertAtCursorPositionToolItem;
 import org.nschmidt.ldparteditor.shell.editor3d.toolitem.ManipulatorScopeToolItem;
-import org.nschmidt.ldparteditor.text.DatParser;
 import org.nschmidt.ldparteditor.text.StringHelper;
 
 class VM99Clipboard extends VM29LineSurfaceIntersector {
 
     private static final List<GData> CLIPBOARD = new ArrayList<>();
     private static final Set<GData> CLIPBOARD_InvNext = Collections.newSetFromMap(new ThreadsafeHashMap<>());
+    /** The file from which the clipboard content was copied */
+    private static DatFile clipboardSource = null;
 
     protected VM99Clipboard(DatFile linkedDatFile) {
         super(linkedDatFile);
@@ -73,6 +73,7 @@ class VM99Clipboard extends VM29LineSurfaceIntersector {
 
         CLIPBOARD.clear();
         CLIPBOARD_InvNext.clear();
+        clipboardSource = linkedDatFile;
 
         final Set<Vertex> singleVertices = Collections.newSetFromMap(new ThreadsafeSortedMap<>());
 
@@ -336,7 +337,7 @@ class VM99Clipboard extends VM29LineSurfaceIntersector {
             }
             // Sort the clipboard content by linenumber (or ID if the linenumber is the same)
             {
-                final HashBiMap<Integer, GData> dpl = linkedDatFile.getDrawPerLineNoClone();
+                final LineIndex<GData> dpl = linkedDatFile.getDrawPerLineNoClone();
                 Collections.sort(CLIPBOARD, (o1, o2) -> {
                     try {
                         if (dpl.containsValue(o1)) {
@@ -490,7 +491,7 @@ class VM99Clipboard extends VM29LineSurfaceIntersector {
         final boolean insertTriangles = sels == null || sels.isTriangles();
         final boolean insertQuads = sels == null || sels.isQuads();
         final boolean insertCondlines = sels == null || sels.isCondlines();
-        final GColour col16 = LDConfig.getColour16();
+        final boolean sameFile = linkedDatFile.equals(clipboardSource);
         if (!CLIPBOARD.isEmpty()) {
             clearSelection();
             MouseActions.checkSyncEditMode(linkedDatFile.getVertexManager(), linkedDatFile);
@@ -503,16 +504,11 @@ class VM99Clipboard extends VM29LineSurfaceIntersector {
                     || !insertCondlines && g.type() == 5) {
                         continue;
                     }
-                    Set<String> alreadyParsed = new HashSet<>();
-                    alreadyParsed.add(linkedDatFile.getShortName());
                     if (CLIPBOARD_InvNext.contains(g)) {
                         GDataBFC invNext = new GDataBFC(BFC.INVERTNEXT, View.DUMMY_REFERENCE);
                         linkedDatFile.insertAfterCursor(invNext);
                     }
-                    List<ParsingResult> result = DatParser.parseLine(g.toString(), -1, 0, col16.getR(), col16.getG(), col16.getB(), 1.1f, View.DUMMY_REFERENCE, View.ID, View.ACCURATE_ID, linkedDatFile, false, alreadyParsed);
-                    GData pasted = result.get(0).getGraphicalData();
-                    if (pasted == null)
-                        pasted = new GData0(g.toString(), View.DUMMY_REFERENCE);
+                    final GData pasted = ClipboardCloner.paste(g, linkedDatFile, sameFile);
                     linkedDatFile.insertAfterCursor(pasted);
                     selectedData.add(pasted);
                     switch (pasted.type()) {
@@ -574,7 +570,7 @@ class VM99Clipboard extends VM29LineSurfaceIntersector {
                     }
                 }
             } else {
-                final HashBiMap<Integer, GData> dpl = linkedDatFile.getDrawPerLineNoClone();
+                final LineIndex<GData> dpl = linkedDatFile.getDrawPerLineNoClone();
                 int linecount = dpl.size();
                 GData before = linkedDatFile.getDrawChainTail();
                 GData tailData = null;
@@ -586,8 +582,6 @@ class VM99Clipboard extends VM29LineSurfaceIntersector {
                      || !insertCondlines && g.type() == 5) {
                         continue;
                     }
-                    Set<String> alreadyParsed = new HashSet<>();
-                    alreadyParsed.add(linkedDatFile.getShortName());
                     if (CLIPBOARD_InvNext.contains(g)) {
                         GDataBFC invNext = new GDataBFC(BFC.INVERTNEXT, View.DUMMY_REFERENCE);
                         before.setNext(invNext);
@@ -595,10 +589,7 @@ class VM99Clipboard extends VM29LineSurfaceIntersector {
                         linecount++;
                         dpl.put(linecount, invNext);
                     }
-                    List<ParsingResult> result = DatParser.parseLine(g.toString(), -1, 0, col16.getR(), col16.getG(), col16.getB(), 1.1f, View.DUMMY_REFERENCE, View.ID, View.ACCURATE_ID, linkedDatFile, false, alreadyParsed);
-                    GData pasted = result.get(0).getGraphicalData();
-                    if (pasted == null)
-                        pasted = new GData0(g.toString(), View.DUMMY_REFERENCE);
+                    final GData pasted = ClipboardCloner.paste(g, linkedDatFile, sameFile);
                     linecount++;
                     dpl.put(linecount, pasted);
                     selectedData.add(pasted);
@@ -675,27 +666,23 @@ class VM99Clipboard extends VM29LineSurfaceIntersector {
     public void pasteToJoin(GData g2) {
         if (linkedDatFile.isReadOnly())
             return;
-        final GColour col16 = LDConfig.getColour16();
+        final boolean sameFile = linkedDatFile.equals(clipboardSource);
         if (!CLIPBOARD.isEmpty()) {
             clearSelection();
-            final HashBiMap<Integer, GData> dpl = linkedDatFile.getDrawPerLineNoClone();
-            int linecount = dpl.size();
+            final LineIndex<GData> dpl = linkedDatFile.getDrawPerLineNoClone();
+            final Integer joinLine = dpl.getKey(g2);
+            final List<GData> insertedData = new ArrayList<>();
             final GData oldNext = g2.next;
             GData before = g2;
             for (GData g : CLIPBOARD) {
-                Set<String> alreadyParsed = new HashSet<>();
-                alreadyParsed.add(linkedDatFile.getShortName());
                 if (CLIPBOARD_InvNext.contains(g)) {
                     GDataBFC invNext = new GDataBFC(BFC.INVERTNEXT, View.DUMMY_REFERENCE);
                     before.setNext(invNext);
                     before = invNext;
-                    linecount++;
+                    insertedData.add(invNext);
                 }
-                List<ParsingResult> result = DatParser.parseLine(g.toString(), -1, 0, col16.getR(), col16.getG(), col16.getB(), 1.1f, View.DUMMY_REFERENCE, View.ID, View.ACCURATE_ID, linkedDatFile, false, alreadyParsed);
-                GData pasted = result.get(0).getGraphicalData();
-                if (pasted == null)
-                    pasted = new GData0(g.toString(), View.DUMMY_REFERENCE);
-                linecount++;
+                final GData pasted = ClipboardCloner.paste(g, linkedDatFile, sameFile);
+                insertedData.add(pasted);
                 selectedData.add(pasted);
                 switch (pasted.type()) {
                 case 0:
@@ -759,14 +746,15 @@ class VM99Clipboard extends VM29LineSurfaceIntersector {
             }
             before.setNext(oldNext);
 
-            dpl.clear();
-            g2 = linkedDatFile.getDrawChainStart();
-            for(int line = 1; line <= linecount; line++) {
-                g2 = g2.next;
-                dpl.put(line, g2);
+            // Only the line numbers after the joined line have to be moved
+            int line = joinLine == null ? 0 : joinLine;
+            dpl.shiftKeys(line + 1, insertedData.size());
+            for (GData inserted : insertedData) {
+                line++;
+                dpl.put(line, inserted);
             }
 
-            linkedDatFile.setDrawChainTail(dpl.getValue(linecount));
+            linkedDatFile.setDrawChainTail(dpl.getValue(dpl.size()));
         }
         setModified(true, true);
         updateUnsavedStatus();
@@ -829,7 +817,7 @@ class VM99Clipboard extends VM29LineSurfaceIntersector {
             }
         }
         if (cutExtension) {
-            final HashBiMap<Integer, GData> dpl = linkedDatFile.getDrawPerLineNoClone();
+            final LineIndex<GData> dpl = linkedDatFile.getDrawPerLineNoClone();
             java.util.ListIterator<GData> li = CLIPBOARD.listIterator(CLIPBOARD.size());
             while(li.hasPrevious()) {
                 GData g = li.previous();
@@ -889,6 +877,7 @@ class VM99Clipboard extends VM29LineSurfaceIntersector {
     protected static void copySingleVertexIntoClipboardContent(final Vertex vertex) {
         CLIPBOARD.clear();
         CLIPBOARD_InvNext.clear();
+        clipboardSource = null;
         final StringBuilder sb = new StringBuilder();
         sb.append("0 !LPE VERTEX "); //$NON-NLS-1$
         sb.append(MathHelper.bigDecimalToString(vertex.xp));
@@ -188,20 +188,14 @@ public final class VertexManager extends VM99Clipboard {
             float ny;
             float nz;
             for (GData2 g2 : selectedLines) {
-                if (g2.visible) {
-                    dataToHide.add(g2);
-                    g2.hide();
-                }
+                hideTemporarily(g2);
                 if ((verts = lines.get(g2)) != null) {
                     allVertices.add(verts[0]);
                     allVertices.add(verts[1]);
                 }
             }
             for (GData3 g3 : selectedTriangles) {
-                if (g3.visible) {
-                    dataToHide.add(g3);
-                    g3.hide();
-                }
+                hideTemporarily(g3);
                 if ((verts = triangles.get(g3)) != null) {
                     allVertices.add(verts[0]);
                     allVertices.add(verts[1]);
@@ -209,10 +203,7 @@ public final class VertexManager extends VM99Clipboard {
                 }
             }
             for (GData4 g4 : selectedQuads) {
-                if (g4.visible) {
-                    dataToHide.add(g4);
-                    g4.hide();
-                }
+                hideTemporarily(g4);
                 if ((verts = quads.get(g4)) != null) {
                     allVertices.add(verts[0]);
                     allVertices.add(verts[1]);
@@ -221,10 +212,7 @@ public final class VertexManager extends VM99Clipboard {
                 }
             }
             for (GData5 g5 : selectedCondlines) {
-                if (g5.visible) {
-                    dataToHide.add(g5);
-                    g5.hide();
-                }
+                hideTemporarily(g5);
                 if ((verts = condlines.get(g5)) != null) {
                     allVertices.add(verts[0]);
                     allVertices.add(verts[1]);
@@ -238,10 +226,7 @@ public final class VertexManager extends VM99Clipboard {
                     if (alreadyMoved.contains(gd)) continue;
                     alreadyMoved.add(gd);
                     if (selectedData.contains(gd)) {
-                        if (gd.visible) {
-                            dataToHide.add(gd);
-                            gd.hide();
-                        }
+                        hideTemporarily(gd);
                         switch (gd.type()) {
                         case 3:
                             GData3 gd3 = (GData3) gd;
@@ -323,10 +308,7 @@ public final class VertexManager extends VM99Clipboard {
                             break;
                         }
                     } else if (lineLinkedToVertices.containsKey(gd) && MiscToggleToolItem.isMovingAdjacentData()) {
-                        if (gd.visible) {
-                            dataToHide.add(gd);
-                            gd.hide();
-                        }
+                        hideTemporarily(gd);
                         switch (gd.type()) {
                         case 2:
                             final GData2 gd2 = (GData2) gd;
@@ -0,0 +1,415 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.data.tool;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.nschmidt.ldparteditor.helper.LDPartEditorException;
+
+/**
+ * Finds a sequence of ring (or cone) primitives which fills the gap between
+ * two radii. All values are fixed-point numbers (scaled by {@link #FACTOR}).
+ *
+ * A step with the primitive radius {@code r} at the current radius {@code c}
+ * uses the scale {@code s = c / r} and ends at {@code c + s}. The objective is
+ * the fewest primitives, then the smallest deviation from the outer radius and
+ * then the fewest digits of all scale factors.
+ */
+public enum RingsAndConesSolver {
+    INSTANCE;
+
+    /** The fixed-point factor for all radii */
+    public static final long FACTOR = 100000000L;
+    /** The minimum scale of a primitive (0.1) */
+    private static final long MIN_SCALE = 10000000L;
+    /** The maximum deviation from the outer radius (0.001) */
+    private static final long MAX_DELTA = 100000L;
+    /** The maximum number of primitives */
+    private static final int MAX_AMOUNT = 46;
+    /** Relative slack for the floating-point bounds of the search */
+    private static final double SLACK = 1e-9;
+
+    /**
+     * A solution for the rings and cones problem. The arrays are 1-based:
+     * the i-th primitive has the radius {@code radius[i]} and the scale
+     * {@code scale[i]}. It starts at {@code start[i]} and ends at
+     * {@code start[i + 1]}.
+     */
+    public static final class Solution {
+        private final int amount;
+        private final long delta;
+        private final int digits;
+        private final long[] scale;
+        private final long[] radius;
+        private final long[] start;
+
+        Solution(int amount, long delta, int digits, long[] scale, long[] radius, long[] start) {
+            this.amount = amount;
+            this.delta = delta;
+            this.digits = digits;
+            this.scale = scale;
+            this.radius = radius;
+            this.start = start;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+
+        public long getDelta() {
+            return delta;
+        }
+
+        public int getDigits() {
+            return digits;
+        }
+
+        public long getScale(int i) {
+            return scale[i];
+        }
+
+        public long getRadius(int i) {
+            return radius[i];
+        }
+
+        public long getStart(int i) {
+            return start[i];
+        }
+
+        /**
+         * @return {@code true} if this solution is better than the other
+         *         solution (or if there is no other solution)
+         */
+        public boolean isBetterThan(Solution other) {
+            if (other == null) return true;
+            if (amount != other.amount) return amount < other.amount;
+            if (delta != other.delta) return delta < other.delta;
+            return digits < other.digits;
+        }
+    }
+
+    /**
+     * Finds an optimal solution with a deterministic search. The search
+     * enumerates the multisets of primitive radii by increasing size (with
+     * bounds on the reachable radius) and evaluates all orders of a candidate
+     * multiset with exact integer arithmetic.
+     *
+     * @param radMin
+     *            the inner radius
+     * @param radMax
+     *            the outer radius
+     * @param radii
+     *            the allowed primitive radii
+     * @param isCanceled
+     *            stops the search (the best solution so far is returned)
+     * @return the optimal solution or {@code null} if there is no solution
+     */
+    public static Solution solve(long radMin, long radMax, long[] radii, BooleanSupplier isCanceled) {
+        if (radMin <= 0 || radMin >= radMax) {
+            return null;
+        }
+        // A primitive starts below the outer radius and needs at least the minimum scale
+        final long maxRadius = (radMax - 1) / MIN_SCALE;
+        final long[] sortedRadii = Arrays.stream(radii).filter(r -> r > 0 && r <= maxRadius).distinct().sorted().toArray();
+        if (sortedRadii.length == 0 || radMin / sortedRadii[0] < MIN_SCALE
+                || radMin * Math.pow(1.0 + 1.0 / sortedRadii[0], MAX_AMOUNT) * (1.0 + SLACK) < radMax) {
+            // The first primitive is too small or the primitives can not reach the outer radius
+            return null;
+        }
+        final ExactSearch search = new ExactSearch(radMin, radMax, sortedRadii, isCanceled);
+        for (int amount = 1; amount <= MAX_AMOUNT; amount++) {
+            search.searchMultisets(amount);
+            if (search.best != null || isCanceled.getAsBoolean()) {
+                break;
+            }
+        }
+        return search.best;
+    }
+
+    /**
+     * The previous random search. It samples primitive radii on multiple
+     * threads until {@code isCanceled} returns {@code true} or until it runs
+     * out of time.
+     *
+     * @param onImprovement
+     *            is called for every improved solution (from the worker
+     *            threads)
+     */
+    @SuppressWarnings("java:S3776")
+    public static Solution solveRandom(long radMin, long radMax, long[] radii, int chunks, BooleanSupplier isCanceled, Consumer<Solution> onImprovement) {
+        final long[] rndSet = radii.clone();
+        final int size = rndSet.length;
+        if (size == 0) {
+            return null;
+        }
+
+        final AtomicInteger minAmountA = new AtomicInteger(Integer.MAX_VALUE);
+        final AtomicLong minDeltaA = new AtomicLong(Long.MAX_VALUE);
+        final AtomicInteger minDigitsA = new AtomicInteger(Integer.MAX_VALUE);
+        final Solution[] bestSolution = new Solution[1];
+
+        final Lock tlock = new ReentrantLock();
+
+        final Thread[] threads = new Thread[chunks];
+        for (int j = 0; j < chunks; ++j) {
+            final long num = j;
+            threads[j] = new Thread(() -> {
+                int amount = 0;
+
+                int minAmount;
+                long minDelta;
+                int minDigits;
+
+                long current = radMin;
+
+                Random rnd = new Random(1238426235L * num);
+
+                final long[] tsolution = new long[50];
+                final long[] tsolutionR = new long[50];
+                final long[] tsolutionR2 = new long[50];
+
+                long start = System.currentTimeMillis();
+                while (!isCanceled.getAsBoolean()) {
+                    final long r = rndSet[rnd.nextInt(size)];
+                    final long s = current / r;
+                    if (s < MIN_SCALE) {
+                        continue;
+                    }
+
+                    amount++;
+                    if (amount <= MAX_AMOUNT) {
+                        tsolution[amount] = s;
+                        tsolutionR[amount] = r;
+                        tsolutionR2[amount] = current;
+                    } else {
+                        current = radMin;
+                        amount = 0;
+                        continue;
+                    }
+                    long sum = s + current;
+
+                    minAmount = minAmountA.get();
+                    minDelta = minDeltaA.get();
+                    minDigits = minDigitsA.get();
+
+                    if (sum >= radMax || amount > minAmount) {
+                        if (amount <= minAmount) {
+                            long delta = Math.abs(sum - radMax);
+                            if (MAX_DELTA >= delta) {
+                                if (amount != minAmount) {
+                                    minDelta = Long.MAX_VALUE;
+                                } else if (delta < minDelta) {
+                                    minDelta = delta;
+                                    minDigits = Integer.MAX_VALUE;
+                                } else if (delta > minDelta) {
+                                    current = radMin;
+                                    amount = 0;
+                                    continue;
+                                } else {
+                                    int digits = 0;
+                                    for (int i = 1; i <= amount; i++) {
+                                        digits += getDigits(tsolution[i]);
+                                    }
+                                    if (digits < minDigits) {
+                                        minDigits = digits;
+                                    } else {
+                                        current = radMin;
+                                        amount = 0;
+                                        continue;
+                                    }
+                                }
+                                minAmount = amount;
+                                tlock.lock();
+                                try {
+                                    if (minAmount < minAmountA.get()  || minAmount == minAmountA.get() && minDelta <= minDeltaA.get()) {
+                                        int digits = 0;
+                                        for (int i = 1; i <= amount; i++) {
+                                            digits += getDigits(tsolution[i]);
+                                        }
+                                        final long[] solutionR2 = Arrays.copyOf(tsolutionR2, amount + 2);
+                                        solutionR2[amount + 1] = sum;
+                                        bestSolution[0] = new Solution(amount, delta, digits,
+                                                Arrays.copyOf(tsolution, amount + 1), Arrays.copyOf(tsolutionR, amount + 1), solutionR2);
+                                        minAmountA.set(minAmount);
+                                        minDeltaA.set(minDelta);
+                                        minDigitsA.set(minDigits);
+                                        onImprovement.accept(bestSolution[0]);
+                                    }
+                                } finally {
+                                    tlock.unlock();
+                                }
+                                start = System.currentTimeMillis();
+                            }
+                        }
+                        if (num == 0 && System.currentTimeMillis() - start > Math.max(40000 / chunks, 6000)) {
+                            minAmount--;
+                            minAmountA.set(minAmount);
+                            start = System.currentTimeMillis();
+                        }
+                        if (minAmount < 1) break;
+                        current = radMin;
+                        amount = 0;
+                    } else {
+                        current = sum;
+                    }
+                }
+            });
+            threads[j].start();
+        }
+
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new LDPartEditorException(ie);
+            }
+        }
+
+        return bestSolution[0];
+    }
+
+    /**
+     * @return the number of significant digits of the scale factor
+     */
+    public static int getDigits(long l) {
+        if (l < 1) return 1;
+        int result = 0;
+        while (100000000L > l) {
+            l *= 10L;
+            result++;
+        }
+        char[] ca = Long.toString(l, 10).toCharArray();
+        final int start = ca.length - 1;
+        for (int i = start; i > 0; i--) {
+            if (ca[i] != '0') {
+                return result + ca.length - (start - i);
+            }
+        }
+        return result + ca.length;
+    }
+
+    private static final class ExactSearch {
+
+        private final long radMin;
+        private final long radMax;
+        private final long[] radii;
+        private final double[] growth;
+        private final BooleanSupplier isCanceled;
+
+        private final int[] multiset = new int[MAX_AMOUNT + 1];
+        private final int[] counts;
+        private final long[] sequence = new long[MAX_AMOUNT + 1];
+        private final long[] scales = new long[MAX_AMOUNT + 1];
+        private final long[] starts = new long[MAX_AMOUNT + 2];
+
+        private Solution best;
+        private int amount;
+
+        ExactSearch(long radMin, long radMax, long[] radii, BooleanSupplier isCanceled) {
+            this.radMin = radMin;
+            this.radMax = radMax;
+            this.radii = radii;
+            this.isCanceled = isCanceled;
+            this.counts = new int[radii.length];
+            this.growth = new double[radii.length];
+            for (int i = 0; i < radii.length; i++) {
+                // The ring r scaled by s = c / r ends at c + s = c * (1 + 1 / r)
+                growth[i] = 1.0 + 1.0 / radii[i];
+            }
+        }
+
+        void searchMultisets(int amount) {
+            this.amount = amount;
+            searchMultisets(0, 0, 1.0);
+        }
+
+        /**
+         * Enumerates the radii in ascending order (largest growth first).
+         */
+        private void searchMultisets(int pos, int minIndex, double product) {
+            if (isCanceled.getAsBoolean()) return;
+            final int remaining = amount - pos;
+            if (remaining == 0) {
+                // Every floor operation loses less than one unit, which grows with the following steps
+                final double upper = radMin * product * (1.0 + SLACK);
+                final double lower = radMin * product * (1.0 - SLACK) - amount * product - 1.0;
+                if (upper >= radMax && lower <= radMax + MAX_DELTA) {
+                    Arrays.fill(counts, 0);
+                    for (int i = 0; i < amount; i++) {
+                        counts[multiset[i]]++;
+                    }
+                    evaluateOrders(0, radMin, 0);
+                }
+                return;
+            }
+            final double smallestGrowth = growth[radii.length - 1];
+            for (int i = minIndex; i < radii.length; i++) {
+                // The first radius is the smallest one, which has to fit at the inner radius
+                if (pos == 0 && radMin / radii[i] < MIN_SCALE) {
+                    break;
+                }
+                final double newProduct = product * growth[i];
+                // All following radii have a smaller growth
+                if (radMin * newProduct * Math.pow(growth[i], remaining - 1.0) * (1.0 + SLACK) < radMax) {
+                    break;
+                }
+                if (radMin * newProduct * Math.pow(smallestGrowth, remaining - 1.0) * (1.0 - SLACK) - amount * newProduct * Math.pow(growth[i], remaining - 1.0) - 1.0 > radMax + MAX_DELTA) {
+                    continue;
+                }
+                multiset[pos] = i;
+                searchMultisets(pos + 1, i, newProduct);
+            }
+        }
+
+        /**
+         * Evaluates all distinct orders of the current multiset exactly.
+         */
+        private void evaluateOrders(int pos, long current, int digits) {
+            final boolean isLast = pos == amount - 1;
+            for (int i = 0; i < radii.length; i++) {
+                if (counts[i] == 0) continue;
+                final long r = radii[i];
+                final long s = current / r;
+                if (s < MIN_SCALE) continue;
+                final long sum = current + s;
+                final int newDigits = digits + getDigits(s);
+                sequence[pos + 1] = r;
+                scales[pos + 1] = s;
+                starts[pos + 1] = current;
+                if (isLast) {
+                    final long delta = sum - radMax;
+                    if (delta >= 0 && delta <= MAX_DELTA && (best == null || delta < best.delta || delta == best.delta && newDigits < best.digits)) {
+                        starts[pos + 2] = sum;
+                        best = new Solution(amount, delta, newDigits,
+                                Arrays.copyOf(scales, amount + 1), Arrays.copyOf(sequence, amount + 1), Arrays.copyOf(starts, amount + 2));
+                    }
+                } else if (sum < radMax) {
+                    counts[i]--;
+                    evaluateOrders(pos + 1, sum, newDigits);
+                    counts[i]++;
+                }
+            }
+        }
+    }
+}
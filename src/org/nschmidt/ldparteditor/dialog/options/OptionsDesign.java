@@ -85,6 +85,7 @@ class OptionsDesign extends ApplicationWindow {
 
     NButton[] btnAllowInvalidShapesPtr = new NButton[1];
     NButton[] btnTranslateViewByCursorPtr = new NButton[1];
+    NButton[] btnPrimitiveLevelOfDetailPtr = new NButton[1];
     NButton[] btnDisableMAD3DPtr = new NButton[1];
     NButton[] btnDisableMADtextPtr = new NButton[1];
     NButton[] btnInvertInvertWheelZoomDirectionPtr = new NButton[1];
@@ -199,6 +200,11 @@ class OptionsDesign extends ApplicationWindow {
                 btnTranslateViewByCursor.setText(I18n.OPTIONS_TRANSLATE_BY_CURSOR);
                 btnTranslateViewByCursor.setSelection(userSettings.isTranslatingViewByCursor());
 
+                NButton btnPrimitiveLevelOfDetail = new NButton(cmpContainer, SWT.CHECK);
+                this.btnPrimitiveLevelOfDetailPtr[0] = btnPrimitiveLevelOfDetail;
+                btnPrimitiveLevelOfDetail.setText(I18n.OPTIONS_PRIMITIVE_LOD);
+                btnPrimitiveLevelOfDetail.setSelection(userSettings.isPrimitiveLevelOfDetail());
+
                 NButton btnDisableMAD3D = new NButton(cmpContainer, SWT.CHECK);
                 this.btnDisableMAD3DPtr[0] = btnDisableMAD3D;
                 btnDisableMAD3D.setText(I18n.OPTIONS_MAD_1);
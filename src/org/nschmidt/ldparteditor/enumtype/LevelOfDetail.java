@@ -0,0 +1,98 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.enumtype;
+
+/**
+ * The resolutions of the LDraw primitives. Many circular primitives have a
+ * low resolution variant (in the "8" folder) and a high resolution variant (in
+ * the "48" folder). The renderer can choose one of them by the size of the
+ * primitive on the screen.
+ */
+public enum LevelOfDetail {
+    /** 8 segments per circle ("p/8") */
+    LOW("8"), //$NON-NLS-1$
+    /** 16 segments per circle ("p") */
+    STANDARD(null),
+    /** 48 segments per circle ("p/48") */
+    HIGH("48"); //$NON-NLS-1$
+
+    /** Below this size on the screen [pixel] the low resolution is sufficient */
+    public static final float LOW_MAX_SIZE = 32f;
+    /** Above this size on the screen [pixel] the high resolution is needed */
+    public static final float HIGH_MIN_SIZE = 320f;
+    /** The relative distance to a threshold which is needed to change the level again (to avoid flickering while zooming) */
+    public static final float HYSTERESIS = 0.25f;
+
+    private final String folder;
+
+    private LevelOfDetail(String folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * @return the name of the sub-folder of the primitive folder or
+     *         {@code null} for the standard resolution
+     */
+    public String getFolder() {
+        return folder;
+    }
+
+    /**
+     * @return the level of a primitive folder or {@code null} if there is no
+     *         level for this folder
+     */
+    public static LevelOfDetail fromFolder(String folder) {
+        for (LevelOfDetail level : values()) {
+            if (level.folder != null && level.folder.equals(folder)) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Chooses the level for a primitive. The thresholds are moved away from
+     * the current level, so that a primitive near a threshold does not change
+     * its level back and forth.
+     *
+     * @param screenSize
+     *            the size of the primitive on the screen [pixel]
+     * @param current
+     *            the current level of the primitive or {@code null} if it has
+     *            none yet
+     * @return the new level
+     */
+    public static LevelOfDetail select(float screenSize, LevelOfDetail current) {
+        float lowMax = LOW_MAX_SIZE;
+        float highMin = HIGH_MIN_SIZE;
+        if (current == LOW) {
+            lowMax *= 1f + HYSTERESIS;
+        } else if (current != null) {
+            lowMax *= 1f - HYSTERESIS;
+        }
+        if (current == HIGH) {
+            highMin *= 1f - HYSTERESIS;
+        } else if (current != null) {
+            highMin *= 1f + HYSTERESIS;
+        }
+        if (screenSize < lowMax) {
+            return LOW;
+        } else if (screenSize >= highMin) {
+            return HIGH;
+        }
+        return STANDARD;
+    }
+}
@@ -17,9 +17,11 @@ package org.nschmidt.ldparteditor.enumtype;
 
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.wb.swt.SWTResourceManager;
+import org.nschmidt.ldparteditor.text.LineStyleCache;
 
 /**
- * A colour "constants" provider for the EditorTextWindow class
+ * A colour "constants" provider for the EditorTextWindow class. Loading a
+ * colour invalidates the cached line styles.
  */
 public enum TextEditorColour {
     INSTANCE;
@@ -79,6 +81,7 @@ public enum TextEditorColour {
 
     public static void loadLineHighlightBackground(Color lineHighlightBackground) {
         TextEditorColour.lineHighlightBackground = lineHighlightBackground;
+        LineStyleCache.invalidateAll();
     }
 
     public static Color getLineHighlightSelectedBackground() {
@@ -87,6 +90,7 @@ public enum TextEditorColour {
 
     public static void loadLineHighlightSelectedBackground(Color lineHighlightSelectedBackground) {
         TextEditorColour.lineHighlightSelectedBackground = lineHighlightSelectedBackground;
+        LineStyleCache.invalidateAll();
     }
 
     public static Color getLineErrorUnderline() {
@@ -95,6 +99,7 @@ public enum TextEditorColour {
 
     public static void loadLineErrorUnderline(Color lineErrorUnderline) {
         TextEditorColour.lineErrorUnderline = lineErrorUnderline;
+        LineStyleCache.invalidateAll();
     }
 
     public static Color getLineWarningUnderline() {
@@ -103,6 +108,7 @@ public enum TextEditorColour {
 
     public static void loadLineWarningUnderline(Color lineWarningUnderline) {
         TextEditorColour.lineWarningUnderline = lineWarningUnderline;
+        LineStyleCache.invalidateAll();
     }
 
     public static Color getLineHintUnderline() {
@@ -111,6 +117,7 @@ public enum TextEditorColour {
 
     public static void loadLineHintUnderline(Color lineHintUnderline) {
         TextEditorColour.lineHintUnderline = lineHintUnderline;
+        LineStyleCache.invalidateAll();
     }
 
     public static Color getLineCommentFont() {
@@ -119,6 +126,7 @@ public enum TextEditorColour {
 
     public static void loadLineCommentFont(Color lineCommentFont) {
         TextEditorColour.lineCommentFont = lineCommentFont;
+        LineStyleCache.invalidateAll();
     }
 
     public static Color getLinePrimaryFont() {
@@ -127,6 +135,7 @@ public enum TextEditorColour {
 
     public static void loadLinePrimaryFont(Color linePrimaryFont) {
         TextEditorColour.linePrimaryFont = linePrimaryFont;
+        LineStyleCache.invalidateAll();
     }
 
     public static Color getLineSecondaryFont() {
@@ -135,6 +144,7 @@ public enum TextEditorColour {
 
     public static void loadLineSecondaryFont(Color lineSecondaryFont) {
         TextEditorColour.lineSecondaryFont = lineSecondaryFont;
+        LineStyleCache.invalidateAll();
     }
 
     public static Color getLineColourAttrFont() {
@@ -143,6 +153,7 @@ public enum TextEditorColour {
 
     public static void loadLineColourAttrFont(Color lineColourAttrFont) {
         TextEditorColour.lineColourAttrFont = lineColourAttrFont;
+        LineStyleCache.invalidateAll();
     }
 
     public static Color getLineQuadFont() {
@@ -151,6 +162,7 @@ public enum TextEditorColour {
 
     public static void loadLineQuadFont(Color lineQuadFont) {
         TextEditorColour.lineQuadFont = lineQuadFont;
+        LineStyleCache.invalidateAll();
     }
 
     public static Color getLineBoxFont() {
@@ -159,6 +171,7 @@ public enum TextEditorColour {
 
     public static void loadLineBoxFont(Color lineBoxFont) {
         TextEditorColour.lineBoxFont = lineBoxFont;
+        LineStyleCache.invalidateAll();
     }
 
     public static Color getTextBackground() {
@@ -167,6 +180,7 @@ public enum TextEditorColour {
 
     public static void loadTextBackground(Color textBackground) {
         TextEditorColour.textBackground = textBackground;
+        LineStyleCache.invalidateAll();
     }
 
     public static Color getTextForeground() {
@@ -175,6 +189,7 @@ public enum TextEditorColour {
 
     public static void loadTextForeground(Color textForeground) {
         TextEditorColour.textForeground = textForeground;
+        LineStyleCache.invalidateAll();
     }
 
     public static Color getTextForegroundHidden() {
@@ -183,5 +198,6 @@ public enum TextEditorColour {
 
     public static void loadTextForegroundHidden(Color textForegroundHidden) {
         TextEditorColour.textForegroundHidden = textForegroundHidden;
+        LineStyleCache.invalidateAll();
     }
 }
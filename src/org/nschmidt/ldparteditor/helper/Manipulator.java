@@ -77,6 +77,9 @@ public class Manipulator {
     private final FloatBuffer matrixInv = BufferUtils.createFloatBuffer(16);
     private volatile boolean modified = false;
 
+    /** The time (in milliseconds) the manipulator counts as modified after the last change */
+    public static final long MODIFIED_TIMEOUT = 1500L;
+
     private static float translateSize = 140f;
     private static float rotateSize = 100f;
     private static float rotateOuterSize = 120f;
@@ -294,7 +297,7 @@ public class Manipulator {
             timstampModified = System.nanoTime();
             return true;
         } else {
-            return System.nanoTime() - timstampModified < 1.5E9;
+            return System.nanoTime() - timstampModified < MODIFIED_TIMEOUT * 1000000L;
         }
     }
 
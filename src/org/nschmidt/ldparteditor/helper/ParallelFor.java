@@ -0,0 +1,98 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the loops of the mesh tools in parallel. The index range is split into
+ * more chunks than there are workers, so that idle workers can steal the
+ * remaining chunks of busy ones. Each chunk writes into its own result buffer
+ * and the buffers are merged in index order when all chunks are done. The
+ * calling thread returns as soon as the work is done.
+ */
+public enum ParallelFor {
+    INSTANCE;
+
+    /** The number of chunks per worker (to balance uneven work) */
+    private static final int CHUNKS_PER_WORKER = 8;
+
+    /** Processes a single index of the loop */
+    @FunctionalInterface
+    public interface Body<T> {
+        /**
+         * @param index
+         *            the index to process
+         * @param results
+         *            the result buffer of the current chunk (not shared with
+         *            other threads)
+         */
+        void process(int index, List<T> results);
+    }
+
+    /** Gets notified when an index was processed */
+    @FunctionalInterface
+    public interface Progress {
+        void update(int done, int total);
+    }
+
+    /**
+     * @param size
+     *            the number of indices to process
+     * @param isCancelled
+     *            stops the loop as soon as it returns {@code true}. The
+     *            remaining indices are skipped.
+     * @param progress
+     *            the progress callback (can be called from all workers)
+     * @param body
+     *            the loop body
+     * @return the results of all processed indices (in index order)
+     */
+    public static <T> List<T> run(int size, BooleanSupplier isCancelled, Progress progress, Body<T> body) {
+        final int workers = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        final int chunks = Math.min(size, workers * CHUNKS_PER_WORKER);
+        final List<List<T>> buffers = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            buffers.add(null);
+        }
+        final AtomicInteger done = new AtomicInteger();
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            final List<T> results = new ArrayList<>();
+            final int start = (int) ((long) size * c / chunks);
+            final int end = (int) ((long) size * (c + 1) / chunks);
+            for (int i = start; i < end; i++) {
+                if (isCancelled.getAsBoolean()) break;
+                body.process(i, results);
+                progress.update(done.incrementAndGet(), size);
+            }
+            buffers.set(c, results);
+        });
+        int resultSize = 0;
+        for (List<T> results : buffers) {
+            resultSize += results.size();
+        }
+        final List<T> result = new ArrayList<>(resultSize);
+        for (List<T> results : buffers) {
+            result.addAll(results);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,210 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.helper;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Finds the texts which contain a search word. Each text is indexed by its
+ * trigrams (all substrings with three characters), so that only the texts
+ * which contain all trigrams of the word have to be checked.<br>
+ * <br>
+ * The search word has the same meaning as in the pattern
+ * {@code ".*" + word + ".*"}. Words with regular expression operators (except
+ * the dot) are matched against all texts. An invalid expression matches
+ * everything.
+ */
+public final class TrigramIndex {
+
+    /** The characters which turn the search word into a "real" regular expression */
+    private static final String OPERATORS = "\\^$|?*+()[]{}"; //$NON-NLS-1$
+
+    private final String[] texts;
+    private final Map<Long, int[]> postings = new HashMap<>();
+
+    /** The last simple search word (to narrow the result while the user is typing) */
+    private String lastWord = null;
+    private int[] lastResult = null;
+
+    /**
+     * Creates the index
+     *
+     * @param texts
+     *            the texts to search in
+     */
+    public TrigramIndex(List<String> texts) {
+        this.texts = texts.toArray(new String[0]);
+        final Map<Long, Posting> lists = new HashMap<>();
+        for (int i = 0; i < this.texts.length; i++) {
+            final String text = this.texts[i];
+            for (int j = 0; j + 2 < text.length(); j++) {
+                lists.computeIfAbsent(trigram(text, j), k -> new Posting()).add(i);
+            }
+        }
+        for (Map.Entry<Long, Posting> entry : lists.entrySet()) {
+            final Posting posting = entry.getValue();
+            postings.put(entry.getKey(), Arrays.copyOf(posting.indices, posting.size));
+        }
+    }
+
+    /**
+     * @return the number of texts
+     */
+    public int size() {
+        return texts.length;
+    }
+
+    /**
+     * Searches for a word. The result of the last search is reused when the
+     * new word contains the last one (e.g. when the user types the next
+     * character).
+     *
+     * @param word
+     *            the search word
+     * @return the indices of all texts which match the word
+     */
+    public synchronized BitSet search(String word) {
+        final BitSet result = new BitSet(texts.length);
+        if (word.isEmpty()) {
+            result.set(0, texts.length);
+            return result;
+        }
+
+        if (!isSimple(word)) {
+            lastWord = null;
+            lastResult = null;
+            final Pattern pattern;
+            try {
+                pattern = Pattern.compile(".*" + word + ".*"); //$NON-NLS-1$ //$NON-NLS-2$
+            } catch (PatternSyntaxException pse) {
+                result.set(0, texts.length);
+                return result;
+            }
+            for (int i = 0; i < texts.length; i++) {
+                if (pattern.matcher(texts[i]).matches()) {
+                    result.set(i);
+                }
+            }
+            return result;
+        }
+
+        // Every text which matches the word has to match the last word, too
+        int[] candidates = lastWord != null && word.contains(lastWord) ? lastResult : null;
+        for (int j = 0; j + 2 < word.length(); j++) {
+            if (word.charAt(j) == '.' || word.charAt(j + 1) == '.' || word.charAt(j + 2) == '.') {
+                continue;
+            }
+            final int[] posting = postings.get(trigram(word, j));
+            if (posting == null) {
+                candidates = new int[0];
+                break;
+            }
+            if (candidates == null || posting.length < candidates.length) {
+                candidates = posting;
+            }
+        }
+
+        final boolean hasWildcard = word.indexOf('.') != -1;
+        int count = 0;
+        if (candidates == null) {
+            for (int i = 0; i < texts.length; i++) {
+                if (matches(texts[i], word, hasWildcard)) {
+                    result.set(i);
+                    count++;
+                }
+            }
+        } else {
+            for (int i : candidates) {
+                if (matches(texts[i], word, hasWildcard)) {
+                    result.set(i);
+                    count++;
+                }
+            }
+        }
+
+        final int[] matches = new int[count];
+        int k = 0;
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            matches[k++] = i;
+        }
+        lastWord = word;
+        lastResult = matches;
+        return result;
+    }
+
+    private static boolean isSimple(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (OPERATORS.indexOf(word.charAt(i)) != -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String text, String word, boolean hasWildcard) {
+        if (!hasWildcard) {
+            return text.contains(word);
+        }
+        final int length = word.length();
+        for (int start = 0; start + length <= text.length(); start++) {
+            int i = 0;
+            while (i < length) {
+                final char w = word.charAt(i);
+                final char c = text.charAt(start + i);
+                if (w == '.' ? isLineTerminator(c) : w != c) {
+                    break;
+                }
+                i++;
+            }
+            if (i == length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The dot of a regular expression does not match these characters */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static Long trigram(String text, int start) {
+        return (long) text.charAt(start) << 32 | (long) text.charAt(start + 1) << 16 | text.charAt(start + 2);
+    }
+
+    /** The growing list of texts which contain a trigram */
+    private static final class Posting {
+        private int[] indices = new int[4];
+        private int size = 0;
+
+        void add(int index) {
+            // The texts are added in order, so a repeated trigram of the same text is always the last entry
+            if (size > 0 && indices[size - 1] == index) {
+                return;
+            }
+            if (size == indices.length) {
+                indices = Arrays.copyOf(indices, size * 2);
+            }
+            indices[size++] = index;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.helper.composite3d;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Decides when a viewport has to be drawn. Instead of drawing all viewports in
+ * a fixed interval, the scheduler collects dirty signals (e.g. from the mouse,
+ * the keyboard, the manipulator or the model) and coalesces them into frames.
+ * <br>
+ * There are two kinds of signals:
+ * <ul>
+ * <li>{@link #invalidate(Object)} - the state which is shown by the viewport
+ * has changed. The render data has to be re-calculated (see
+ * {@link #awaitChange(Object, long)}) and the viewport needs a new
+ * frame.</li>
+ * <li>{@link #requestFrame(Object)} - new render data is available and the
+ * viewport needs a new frame.</li>
+ * </ul>
+ * A viewport without signals is not drawn at all. This class does not need an
+ * OpenGL context and works with any viewport type.
+ *
+ * @param <T>
+ *            the type of the viewport
+ */
+public final class FrameScheduler<T> {
+
+    /** The shortest time between two frames (in milliseconds) */
+    public static final long MIN_FRAME_INTERVAL = 10L;
+    /** The frame delay while no viewport is dirty (the frame loop sleeps) */
+    public static final long SLEEPING = -1L;
+
+    private static final class ViewportState {
+        private boolean dirty = true;
+        private long generation = 0L;
+        private long deadline = Long.MAX_VALUE;
+        private long frameCount = 0L;
+    }
+
+    private final LongSupplier clock;
+    private final Map<T, ViewportState> states = new HashMap<>();
+    private Runnable wakeUp = null;
+    private long frameCount = 0L;
+    private boolean sleeping = false;
+
+    public FrameScheduler() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock
+     *            the time source (in milliseconds)
+     */
+    public FrameScheduler(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Sets the action which wakes up the frame loop as soon as a viewport
+     * becomes dirty while the loop sleeps. The action can be called from any
+     * thread.
+     */
+    public synchronized void setWakeUp(Runnable wakeUp) {
+        this.wakeUp = wakeUp;
+    }
+
+    /**
+     * Marks the viewport as dirty and notifies its render thread that the data
+     * has to be re-calculated.
+     */
+    public void invalidate(T viewport) {
+        final Runnable action;
+        synchronized (this) {
+            final ViewportState state = states.get(viewport);
+            if (state == null) {
+                return;
+            }
+            state.generation++;
+            notifyAll();
+            action = markDirty(state);
+        }
+        if (action != null) action.run();
+    }
+
+    /**
+     * Marks all viewports which match the filter as dirty (e.g. all viewports
+     * which show the same file) and notifies their render threads that the
+     * data has to be re-calculated.
+     */
+    public void invalidate(Predicate<? super T> filter) {
+        Runnable action = null;
+        synchronized (this) {
+            for (Map.Entry<T, ViewportState> entry : states.entrySet()) {
+                if (filter.test(entry.getKey())) {
+                    final ViewportState state = entry.getValue();
+                    state.generation++;
+                    final Runnable a = markDirty(state);
+                    if (a != null) action = a;
+                }
+            }
+            notifyAll();
+        }
+        if (action != null) action.run();
+    }
+
+    /**
+     * Marks all known viewports as dirty (e.g. after a change of the global
+     * settings) and notifies their render threads that the data has to be
+     * re-calculated.
+     */
+    public void invalidateAll() {
+        invalidate(viewport -> true);
+    }
+
+    /**
+     * Invalidates the viewport after the delay (e.g. when the render data
+     * depends on the time since the last change). A pending delayed
+     * invalidation of the viewport is replaced.
+     *
+     * @param delay
+     *            the delay in milliseconds
+     */
+    public void invalidateLater(T viewport, long delay) {
+        final Runnable action;
+        synchronized (this) {
+            final ViewportState state = states.get(viewport);
+            if (state == null) {
+                return;
+            }
+            state.deadline = clock.getAsLong() + delay;
+            // The frame loop has to schedule a timer for the deadline
+            action = sleeping ? wakeUp : null;
+            sleeping = false;
+        }
+        if (action != null) action.run();
+    }
+
+    /**
+     * Marks the viewport as dirty without re-calculating its data (e.g. when
+     * the render thread has finished new data).
+     */
+    public void requestFrame(T viewport) {
+        final Runnable action;
+        synchronized (this) {
+            final ViewportState state = states.get(viewport);
+            action = state == null ? null : markDirty(state);
+        }
+        if (action != null) action.run();
+    }
+
+    /**
+     * Starts a new frame for the viewport, if it is dirty.
+     *
+     * @return {@code true} if the viewport has to be drawn now
+     */
+    public synchronized boolean beginFrame(T viewport) {
+        final ViewportState state = getState(viewport);
+        if (state.dirty) {
+            state.dirty = false;
+            state.frameCount++;
+            frameCount++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Calculates the time until the next frame is due and applies the delayed
+     * invalidations which are due. If there is no dirty viewport, the frame
+     * loop is considered as sleeping and will be woken up by the next dirty
+     * signal.
+     *
+     * @return the delay in milliseconds or {@link #SLEEPING} if the frame
+     *         loop has to wait for the next signal
+     */
+    public synchronized long getNextFrameDelay() {
+        final long now = clock.getAsLong();
+        long deadline = Long.MAX_VALUE;
+        boolean dirty = false;
+        for (ViewportState state : states.values()) {
+            if (state.deadline <= now) {
+                state.deadline = Long.MAX_VALUE;
+                state.generation++;
+                state.dirty = true;
+                notifyAll();
+            }
+            dirty |= state.dirty;
+            deadline = Math.min(deadline, state.deadline);
+        }
+        sleeping = !dirty;
+        if (dirty) {
+            return MIN_FRAME_INTERVAL;
+        }
+        return deadline == Long.MAX_VALUE ? SLEEPING : Math.max(MIN_FRAME_INTERVAL, deadline - now);
+    }
+
+    /**
+     * Waits until the viewport was invalidated or removed. This method is meant
+     * to be called by render threads.
+     *
+     * @param viewport
+     *            the viewport
+     * @param generation
+     *            the last generation which was processed by the caller
+     * @return the current generation of the viewport
+     * @throws InterruptedException
+     *             if the thread was interrupted while waiting
+     */
+    public synchronized long awaitChange(T viewport, long generation) throws InterruptedException {
+        final ViewportState state = getRenderState(viewport);
+        while (state.generation == generation && states.get(viewport) == state) {
+            wait();
+        }
+        return state.generation;
+    }
+
+    /**
+     * Waits until the viewport was invalidated or until the timeout has
+     * elapsed. This method is meant to be called by render threads.
+     *
+     * @param viewport
+     *            the viewport
+     * @param generation
+     *            the last generation which was processed by the caller
+     * @param timeout
+     *            the timeout in milliseconds
+     * @return the current generation of the viewport
+     * @throws InterruptedException
+     *             if the thread was interrupted while waiting
+     */
+    public synchronized long awaitChange(T viewport, long generation, long timeout) throws InterruptedException {
+        final ViewportState state = getRenderState(viewport);
+        final long deadline = System.nanoTime() + timeout * 1000000L;
+        long remaining = timeout;
+        while (state.generation == generation && remaining > 0L && states.get(viewport) == state) {
+            wait(remaining);
+            remaining = (deadline - System.nanoTime()) / 1000000L;
+        }
+        return state.generation;
+    }
+
+    /**
+     * Forgets all viewports which are not in the given collection.
+     */
+    public synchronized void retain(Collection<T> viewports) {
+        if (states.keySet().retainAll(viewports)) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Forgets everything about the viewport and wakes up its render thread.
+     */
+    public synchronized void remove(T viewport) {
+        states.remove(viewport);
+        notifyAll();
+    }
+
+    /**
+     * @return the number of frames which were drawn for the viewport
+     */
+    public synchronized long getFrameCount(T viewport) {
+        final ViewportState state = states.get(viewport);
+        return state == null ? 0L : state.frameCount;
+    }
+
+    /**
+     * @return the number of frames which were drawn for all viewports
+     */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    private ViewportState getState(T viewport) {
+        return states.computeIfAbsent(viewport, v -> new ViewportState());
+    }
+
+    private ViewportState getRenderState(T viewport) {
+        ViewportState state = states.get(viewport);
+        if (state == null) {
+            // The render thread was faster than the frame loop
+            state = getState(viewport);
+            state.dirty = false;
+        }
+        return state;
+    }
+
+    private Runnable markDirty(ViewportState state) {
+        if (state.dirty) {
+            return null;
+        }
+        state.dirty = true;
+        if (sleeping) {
+            sleeping = false;
+            return wakeUp;
+        }
+        return null;
+    }
+}
@@ -304,6 +304,8 @@ public class MouseActions {
                     c3d.getManipulator().getPosition().set(temp);
                     c3d.getManipulator().setAccuratePosition(new BigDecimal(temp.x / 1000f), new BigDecimal(temp.y / 1000f), new BigDecimal(temp.z / 1000f));
                 }
+                // The selection is transformed by the manipulator
+                ViewIdleManager.invalidate(c3d);
             }
             c3d.getVertexManager().getResetTimer().set(true);
             break;
@@ -1397,8 +1399,6 @@ public class MouseActions {
 
         vm.adjustRotationCenter(c3d, event);
 
-        ViewIdleManager.refresh(c3d.getCanvas(), c3d.getRenderer());
-
         if (vm.getSelectedSubfiles().size() == 1) {
             final GData1 subfile = vm.getSelectedSubfiles().iterator().next();
             if (c3d.getLockableDatFileReference().equals(Project.getFileToEdit())) {
@@ -173,7 +173,8 @@ public class PerspectiveCalculator {
     }
 
     /**
-     * Calculates the origin and grid for the actual viewport perspective
+     * Calculates the origin and grid for the actual viewport perspective and
+     * signals that the viewport has to be drawn again
      */
     public void calculateOriginData() {
         Matrix4f realViewport = getRealViewport();
@@ -181,6 +182,8 @@ public class PerspectiveCalculator {
         calculateGrid();
         c3d.setNegDeterminant(realViewport.determinant() < 0f);
         calculateViewGenerator();
+        // The camera has changed
+        ViewIdleManager.invalidate(c3d);
     }
 
     /**
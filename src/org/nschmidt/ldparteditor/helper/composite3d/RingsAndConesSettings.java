@@ -30,6 +30,7 @@ public class RingsAndConesSettings {
     private boolean usingHiRes = false;
     private boolean creatingNothingOnNoSolution = false;
     private boolean usingExistingPrimitives = true;
+    private boolean usingExactSolver = true;
     private BigDecimal height = BigDecimal.ONE;
     private BigDecimal radius1 = BigDecimal.ONE;
     private BigDecimal radius2 = BigDecimal.TEN;
@@ -46,6 +47,12 @@ public class RingsAndConesSettings {
     public void setUsingExistingPrimitives(boolean usingExistingPrimitives) {
         this.usingExistingPrimitives = usingExistingPrimitives;
     }
+    public boolean isUsingExactSolver() {
+        return usingExactSolver;
+    }
+    public void setUsingExactSolver(boolean usingExactSolver) {
+        this.usingExactSolver = usingExactSolver;
+    }
     public BigDecimal getRadius2() {
         return radius2;
     }
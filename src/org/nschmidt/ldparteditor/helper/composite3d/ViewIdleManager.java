@@ -19,6 +19,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.lwjgl.opengl.swt.GLCanvas;
 import org.nschmidt.ldparteditor.composite.Composite3D;
+import org.nschmidt.ldparteditor.data.DatFile;
 import org.nschmidt.ldparteditor.opengl.OpenGLRenderer;
 
 /**
@@ -33,12 +34,44 @@ public enum ViewIdleManager {
     public static final AtomicBoolean[] pause = new AtomicBoolean[] { new AtomicBoolean(false) };
     public static final AtomicBoolean[] renderLDrawStandard = new AtomicBoolean[] { new AtomicBoolean(false) };
 
+    /** Decides which {@linkplain Composite3D} has to be drawn next */
+    public static final FrameScheduler<OpenGLRenderer> frameScheduler = new FrameScheduler<>();
+
     /**
-     * Refreshes the {@linkplain Composite3D}
+     * Refreshes the {@linkplain Composite3D} (e.g. for the cursor) and draws
+     * it before all other views
      */
     public static void refresh(GLCanvas canvas, OpenGLRenderer renderer) {
         firstCanvas[0] = canvas;
         firstRender[0] = renderer;
+        frameScheduler.requestFrame(renderer);
+    }
+
+    /**
+     * Signals that the camera or an option of the {@linkplain Composite3D} has
+     * changed
+     */
+    public static void invalidate(Composite3D c3d) {
+        final OpenGLRenderer renderer = c3d.getRenderer();
+        if (renderer != null) {
+            frameScheduler.invalidate(renderer);
+        }
+    }
+
+    /**
+     * Signals that the content of all {@linkplain Composite3D} which show the
+     * file has changed
+     */
+    public static void invalidate(DatFile df) {
+        frameScheduler.invalidate(renderer -> renderer.getC3D().getLockableDatFileReference() == df);
+    }
+
+    /**
+     * Signals that the content of all {@linkplain Composite3D} has changed
+     * (e.g. after a change of the global settings)
+     */
+    public static void invalidateAll() {
+        frameScheduler.invalidateAll();
     }
 
 }
@@ -24,7 +24,7 @@ import org.nschmidt.ldparteditor.data.DatFile;
 import org.nschmidt.ldparteditor.data.GData;
 import org.nschmidt.ldparteditor.data.GDataCSG;
 import org.nschmidt.ldparteditor.data.VertexManager;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.project.Project;
 import org.nschmidt.ldparteditor.shell.editortext.EditorTextWindow;
@@ -54,7 +54,7 @@ public enum Annotator {
         vm.clearSelection();
 
         final Set<GData> sd = datFile.getVertexManager().getSelectedData();
-        HashBiMap<Integer, GData> dpl = datFile.getDrawPerLineNoClone();
+        LineIndex<GData> dpl = datFile.getDrawPerLineNoClone();
 
         GDataCSG.resetCSG(datFile, false);
         GDataCSG.forceRecompile(datFile);
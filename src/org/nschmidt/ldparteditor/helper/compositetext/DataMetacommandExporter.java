@@ -33,7 +33,7 @@ import org.nschmidt.ldparteditor.data.DatFile;
 import org.nschmidt.ldparteditor.data.GData;
 import org.nschmidt.ldparteditor.data.GDataBinary;
 import org.nschmidt.ldparteditor.enumtype.MyLanguage;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.project.Project;
@@ -58,7 +58,7 @@ public enum DataMetacommandExporter {
      * @param datFile
      */
     public static void export(int lineStart, int lineEnd, DatFile datFile, Shell shell) {
-        HashBiMap<Integer, GData> dpl = datFile.getDrawPerLineNoClone();
+        LineIndex<GData> dpl = datFile.getDrawPerLineNoClone();
         lineEnd++;
         
         boolean noSelection = true;
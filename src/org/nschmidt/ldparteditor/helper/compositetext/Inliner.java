@@ -30,7 +30,7 @@ import org.nschmidt.ldparteditor.data.DatFile;
 import org.nschmidt.ldparteditor.data.GData;
 import org.nschmidt.ldparteditor.data.GDataBFC;
 import org.nschmidt.ldparteditor.enumtype.LDConfig;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.text.StringHelper;
 
@@ -69,7 +69,7 @@ public enum Inliner {
         bfcStatusTarget = BFC.NOCERTIFY;
         hasINVERTNEXT = false;
 
-        HashBiMap<Integer, GData> dpl = datFile.getDrawPerLineNoClone();
+        LineIndex<GData> dpl = datFile.getDrawPerLineNoClone();
 
         Set<Integer> keys = dpl.keySet();
 
@@ -208,7 +208,7 @@ public enum Inliner {
         bfcStatusTarget = BFC.NOCERTIFY;
         hasINVERTNEXT = false;
 
-        HashBiMap<Integer, GData> dpl = datFile.getDrawPerLineNoClone();
+        LineIndex<GData> dpl = datFile.getDrawPerLineNoClone();
 
         Map<Integer, BFC> bfcStatusToLine = new HashMap<>();
 
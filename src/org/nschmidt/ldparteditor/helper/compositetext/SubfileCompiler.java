@@ -52,7 +52,7 @@ import org.nschmidt.ldparteditor.data.VertexManager;
 import org.nschmidt.ldparteditor.enumtype.MyLanguage;
 import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.LDPartEditorException;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.logger.NLogger;
@@ -130,7 +130,7 @@ public enum SubfileCompiler {
         Set<Vertex> selectedVertices = new HashSet<>();
         if (preserveSelection) {
             selectedVertices.addAll(vm.getSelectedVertices());
-            HashBiMap<Integer, GData> dpl = datFile.getDrawPerLineNoClone();
+            LineIndex<GData> dpl = datFile.getDrawPerLineNoClone();
             Set<Integer> keys = dpl.keySet();
             List<Integer> lineNumbers = new ArrayList<>();
             lineNumbers.addAll(keys);
@@ -154,7 +154,7 @@ public enum SubfileCompiler {
             datFile.parseForData(false);
         }
 
-        HashBiMap<Integer, GData> dpl = datFile.getDrawPerLineNoClone();
+        LineIndex<GData> dpl = datFile.getDrawPerLineNoClone();
 
         Set<Integer> keys = dpl.keySet();
         List<Integer> lineNumbers = new ArrayList<>();
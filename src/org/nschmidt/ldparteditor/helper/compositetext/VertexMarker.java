@@ -25,6 +25,7 @@ import org.nschmidt.ldparteditor.data.GData2;
 import org.nschmidt.ldparteditor.data.GData3;
 import org.nschmidt.ldparteditor.data.Vertex;
 import org.nschmidt.ldparteditor.data.VertexManager;
+import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.text.StringHelper;
 
@@ -131,6 +132,7 @@ public enum VertexMarker {
                         vm.setVertexToReplace(vertexToReplace);
                         vm.getSelectedVertices().clear();
                         vm.getSelectedVertices().add(vertexToReplace);
+                        ViewIdleManager.invalidate(datFile);
                     }
                 } catch (NumberFormatException nfe) {
                     if (NLogger.debugging) {
@@ -28,7 +28,7 @@ import org.nschmidt.ldparteditor.data.GData;
 import org.nschmidt.ldparteditor.enumtype.DatKeyword;
 import org.nschmidt.ldparteditor.enumtype.LDConfig;
 import org.nschmidt.ldparteditor.enumtype.Threshold;
-import org.nschmidt.ldparteditor.helper.math.HashBiMap;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
 import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.helper.math.Vector3d;
 import org.nschmidt.ldparteditor.logger.NLogger;
@@ -316,7 +316,7 @@ enum WarningFixer {
         // Delete the declaration
         text = QuickFixer.setLine(lineNumber + 1, "<rm>", text); //$NON-NLS-1$
         lineNumber++;
-        final HashBiMap<Integer, GData> dpl = datFile.getDrawPerLineNoClone();
+        final LineIndex<GData> dpl = datFile.getDrawPerLineNoClone();
         final Pattern whitespace = Pattern.compile("\\s+"); //$NON-NLS-1$
         final String valueInBrackets = "(" + value + ")"; //$NON-NLS-1$ //$NON-NLS-2$
         final StringBuilder sb = new StringBuilder();
@@ -0,0 +1,253 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.helper.math;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Assigns dense indices (0, 1, 2, ...) to objects. The {@link IndexedSet}s
+ * which share an index store their elements as bits, so that the operations
+ * on whole sets (union, difference, copy) work on 64 elements at once.
+ * <br>
+ * Registered objects belong to a category (e.g. the line type) until they
+ * are released. An index is re-used after the object was released and is no
+ * longer part of any set.
+ *
+ * @param <T>
+ *            the type of the indexed objects (with the identity of
+ *            {@link Object#equals(Object)})
+ */
+public final class DenseIndex<T> {
+
+    private final ReadWriteLock rwl = new ReentrantReadWriteLock();
+    final Lock rl = rwl.readLock();
+    final Lock wl = rwl.writeLock();
+
+    private final Map<Object, Integer> indexOf = new HashMap<>();
+    private Object[] elements = new Object[16];
+    /** All indices below this value were assigned at least once */
+    private int maxIndex = 0;
+    private int[] freeIndices = new int[16];
+    private int freeCount = 0;
+
+    /** The indices of all registered objects */
+    private final BitSet registered = new BitSet();
+    private final BitSet[] categories;
+    /** The sets of this index (temporary sets are removed after garbage collection) */
+    private final List<WeakReference<IndexedSet<?>>> sets = new ArrayList<>();
+
+    /** The number of indices which may be free since the last sweep */
+    private int unusedSinceSweep = 0;
+
+    /**
+     * @param categoryCount
+     *            the number of categories (a category is a number from
+     *            {@code 0} to {@code categoryCount - 1})
+     */
+    public DenseIndex(int categoryCount) {
+        categories = new BitSet[categoryCount];
+        for (int c = 0; c < categoryCount; c++) {
+            categories[c] = new BitSet();
+        }
+    }
+
+    /**
+     * Registers an object. It will be part of the category until it is
+     * released.
+     */
+    public void register(T element, int category) {
+        wl.lock();
+        try {
+            final int index = assign(element);
+            registered.set(index);
+            categories[category].set(index);
+        } finally {
+            wl.unlock();
+        }
+    }
+
+    /**
+     * Removes an object from its category. Its index is re-used when it is no
+     * longer part of any set.
+     */
+    public void release(Object element) {
+        wl.lock();
+        try {
+            final Integer index = indexOf.get(element);
+            if (index != null && registered.get(index)) {
+                registered.clear(index);
+                for (BitSet category : categories) {
+                    category.clear(index);
+                }
+                unusedSinceSweep++;
+                freeIfUnused(index);
+            }
+        } finally {
+            wl.unlock();
+        }
+    }
+
+    /**
+     * Releases all objects.
+     */
+    public void releaseAll() {
+        wl.lock();
+        try {
+            registered.clear();
+            for (BitSet category : categories) {
+                category.clear();
+            }
+            sweep();
+        } finally {
+            wl.unlock();
+        }
+    }
+
+    /**
+     * @return the number of indices which are currently in use
+     */
+    public int size() {
+        rl.lock();
+        try {
+            return indexOf.size();
+        } finally {
+            rl.unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if the object is registered in the category
+     */
+    public boolean isRegistered(Object element, int category) {
+        rl.lock();
+        try {
+            final Integer index = indexOf.get(element);
+            return index != null && categories[category].get(index);
+        } finally {
+            rl.unlock();
+        }
+    }
+
+    void attach(IndexedSet<?> set) {
+        wl.lock();
+        try {
+            for (Iterator<WeakReference<IndexedSet<?>>> it = sets.iterator(); it.hasNext();) {
+                if (it.next().get() == null) it.remove();
+            }
+            sets.add(new WeakReference<>(set));
+        } finally {
+            wl.unlock();
+        }
+    }
+
+    /** The caller must hold the read or write lock */
+    BitSet getCategory(int category) {
+        return categories[category];
+    }
+
+    /** The caller must hold the read or write lock */
+    int find(Object element) {
+        if (element == null) return -1;
+        final Integer index = indexOf.get(element);
+        return index == null ? -1 : index;
+    }
+
+    /** The caller must hold the write lock */
+    int findOrAssign(Object element) {
+        final Integer index = indexOf.get(element);
+        if (index != null) return index;
+        // The object is not registered, therefore its index may become unused
+        unusedSinceSweep++;
+        return assign(element);
+    }
+
+    /** The caller must hold the read or write lock */
+    Object get(int index) {
+        return elements[index];
+    }
+
+    /** The caller must hold the write lock */
+    void freeIfUnused(int index) {
+        if (registered.get(index)) return;
+        for (WeakReference<IndexedSet<?>> ref : sets) {
+            final IndexedSet<?> set = ref.get();
+            if (set != null && set.bits.get(index)) return;
+        }
+        free(index);
+    }
+
+    private int assign(Object element) {
+        final Integer existing = indexOf.get(element);
+        if (existing != null) return existing;
+        if (freeCount == 0 && unusedSinceSweep > (maxIndex >> 2) + 64) {
+            sweep();
+        }
+        final int index;
+        if (freeCount > 0) {
+            freeCount--;
+            index = freeIndices[freeCount];
+        } else {
+            if (maxIndex == elements.length) {
+                final Object[] newElements = new Object[elements.length + (elements.length >> 1)];
+                System.arraycopy(elements, 0, newElements, 0, maxIndex);
+                elements = newElements;
+            }
+            index = maxIndex;
+            maxIndex++;
+        }
+        elements[index] = element;
+        indexOf.put(element, index);
+        return index;
+    }
+
+    private void free(int index) {
+        indexOf.remove(elements[index]);
+        elements[index] = null;
+        if (freeCount == freeIndices.length) {
+            final int[] newFreeIndices = new int[freeIndices.length * 2];
+            System.arraycopy(freeIndices, 0, newFreeIndices, 0, freeCount);
+            freeIndices = newFreeIndices;
+        }
+        freeIndices[freeCount] = index;
+        freeCount++;
+    }
+
+    /**
+     * Frees all indices which are neither registered nor part of a set.
+     */
+    private void sweep() {
+        final BitSet used = (BitSet) registered.clone();
+        for (WeakReference<IndexedSet<?>> ref : sets) {
+            final IndexedSet<?> set = ref.get();
+            if (set != null) used.or(set.bits);
+        }
+        for (int index = used.nextClearBit(0); index < maxIndex; index = used.nextClearBit(index + 1)) {
+            if (elements[index] != null) {
+                free(index);
+            }
+        }
+        unusedSinceSweep = 0;
+    }
+}
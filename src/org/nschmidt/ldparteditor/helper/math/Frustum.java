@@ -0,0 +1,137 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.helper.math;
+
+import java.util.Arrays;
+
+import org.lwjgl.util.vector.Matrix4f;
+
+/**
+ * A view frustum for culling axis-aligned bounding boxes on the CPU. The
+ * planes are extracted from a clip matrix (the projection matrix times the
+ * view matrix). A point is inside if its distance to each plane is not
+ * negative. This class does not need an OpenGL context.
+ */
+public final class Frustum {
+
+    /** Four coefficients (a, b, c, d) per plane */
+    private final float[] planes;
+
+    /**
+     * Creates the frustum of a clip matrix
+     *
+     * @param clip
+     *            the projection matrix times the view matrix
+     * @param withDepth
+     *            {@code true} if the near and the far plane should be
+     *            checked, too
+     */
+    public Frustum(Matrix4f clip, boolean withDepth) {
+        planes = new float[withDepth ? 24 : 16];
+        // The rows of the matrix (lwjgl stores mColumnRow)
+        setPlane(0, clip.m03 + clip.m00, clip.m13 + clip.m10, clip.m23 + clip.m20, clip.m33 + clip.m30);
+        setPlane(1, clip.m03 - clip.m00, clip.m13 - clip.m10, clip.m23 - clip.m20, clip.m33 - clip.m30);
+        setPlane(2, clip.m03 + clip.m01, clip.m13 + clip.m11, clip.m23 + clip.m21, clip.m33 + clip.m31);
+        setPlane(3, clip.m03 - clip.m01, clip.m13 - clip.m11, clip.m23 - clip.m21, clip.m33 - clip.m31);
+        if (withDepth) {
+            setPlane(4, clip.m03 + clip.m02, clip.m13 + clip.m12, clip.m23 + clip.m22, clip.m33 + clip.m32);
+            setPlane(5, clip.m03 - clip.m02, clip.m13 - clip.m12, clip.m23 - clip.m22, clip.m33 - clip.m32);
+        }
+    }
+
+    /**
+     * Creates the frustum of an orthographic view without depth limits (like
+     * the one of the 3D editor)
+     *
+     * @param view
+     *            the view matrix
+     * @param halfWidth
+     *            the half width of the view (in view coordinates)
+     * @param halfHeight
+     *            the half height of the view (in view coordinates)
+     * @return the frustum
+     */
+    public static Frustum orthographic(Matrix4f view, float halfWidth, float halfHeight) {
+        final Matrix4f projection = new Matrix4f();
+        projection.m00 = 1f / halfWidth;
+        projection.m11 = 1f / halfHeight;
+        return new Frustum(Matrix4f.mul(projection, view, null), false);
+    }
+
+    private void setPlane(int plane, float a, float b, float c, float d) {
+        final int o = plane * 4;
+        planes[o] = a;
+        planes[o + 1] = b;
+        planes[o + 2] = c;
+        planes[o + 3] = d;
+    }
+
+    /**
+     * Checks if an axis-aligned bounding box intersects with the frustum. The
+     * test is conservative: a box near a corner of the frustum can be reported
+     * as intersecting, but a box which intersects is never reported as
+     * outside.
+     *
+     * @return {@code false} if the box is completely outside the frustum
+     */
+    public boolean intersects(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        for (int o = 0; o < planes.length; o += 4) {
+            final float a = planes[o];
+            final float b = planes[o + 1];
+            final float c = planes[o + 2];
+            // The corner of the box which is the farthest in the direction of the plane normal
+            final float x = a >= 0f ? maxX : minX;
+            final float y = b >= 0f ? maxY : minY;
+            final float z = c >= 0f ? maxZ : minZ;
+            if (a * x + b * y + c * z + planes[o + 3] < 0f) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the point is inside the frustum (or on its
+     *         border)
+     */
+    public boolean contains(float x, float y, float z) {
+        for (int o = 0; o < planes.length; o += 4) {
+            if (planes[o] * x + planes[o + 1] * y + planes[o + 2] * z + planes[o + 3] < 0f) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param bounds
+     *            the bounding box (min x, y, z and max x, y, z)
+     * @return {@code false} if the box is completely outside the frustum
+     */
+    public boolean intersects(float[] bounds) {
+        return intersects(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Frustum other && Arrays.equals(planes, other.planes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(planes);
+    }
+}
@@ -0,0 +1,589 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.helper.math;
+
+import java.math.BigDecimal;
+
+import org.nschmidt.ldparteditor.data.Vertex;
+import org.nschmidt.ldparteditor.enumtype.Threshold;
+
+/**
+ * Filtered geometric predicates.
+ *
+ * Every predicate is first evaluated with double precision. The evaluation
+ * keeps track of an upper bound for the absolute rounding error of each
+ * intermediate result. Only if the decision is not certain within that bound
+ * the predicate falls back to the exact {@link BigDecimal} implementation,
+ * which is identical to the code the mesh tools used before.
+ */
+public enum GeometricPredicates {
+    INSTANCE;
+
+    /** The decision of a floating-point filter */
+    private static final int REJECT = 0;
+    private static final int ACCEPT = 1;
+    private static final int UNKNOWN = 2;
+
+    /** Unit roundoff of double arithmetic (with a safety factor of two) */
+    private static final double EPS = 0x1p-52;
+    /** Additional safety factor for the error bound itself */
+    private static final double SAFETY = 1.001;
+
+    /** The tolerance of the line/triangle intersection test */
+    public static final BigDecimal TOLERANCE = new BigDecimal("0.00001"); //$NON-NLS-1$
+    private static final BigDecimal ZEROT = new BigDecimal("-0.00001"); //$NON-NLS-1$
+    private static final BigDecimal ONET = new BigDecimal("1.00001"); //$NON-NLS-1$
+    private static final Ed TOLERANCE_D = Ed.exact(0.00001);
+    private static final Ed ZEROT_D = Ed.exact(-0.00001);
+    private static final Ed ONET_D = Ed.exact(1.00001);
+    private static final Ed ZERO_D = new Ed(0.0, 0.0);
+    private static final Ed ONE_D = new Ed(1.0, 0.0);
+
+    /**
+     * Tests if the line segment [p,q] intersects the triangle (a,b,c) with a
+     * tolerance of {@link #TOLERANCE} and stores the intersection point in
+     * {@code r}.
+     *
+     * @return {@code true} if there is an intersection point
+     */
+    public static boolean intersectLineTriangle(Vertex p, Vertex q, Vertex a, Vertex b, Vertex c, Vector3d r) {
+        final double[] in = new double[30];
+        putVertex(in, 0, p);
+        putVertex(in, 3, q);
+        putVertex(in, 6, a);
+        putVertex(in, 9, b);
+        putVertex(in, 12, c);
+        switch (filterLineTriangle(Ev.of(in, 0), Ev.of(in, 3), Ev.of(in, 6), Ev.of(in, 9), Ev.of(in, 12))) {
+        case REJECT:
+            return false;
+        case ACCEPT:
+            // Only the intersection point has to be calculated exactly
+            setIntersectionPoint(p, q, a, b, c, r);
+            return true;
+        default:
+            return intersectLineTriangleExact(p, q, a, b, c, r);
+        }
+    }
+
+    /**
+     * The exact version of {@link #intersectLineTriangle(Vertex, Vertex, Vertex, Vertex, Vertex, Vector3d)}
+     */
+    public static boolean intersectLineTriangleExact(Vertex p, Vertex q, Vertex a, Vertex b, Vertex c, Vector3d r) {
+        BigDecimal diskr;
+        BigDecimal invDiskr;
+        Vector3d vert0 = new Vector3d(a);
+        Vector3d vert1 = new Vector3d(b);
+        Vector3d vert2 = new Vector3d(c);
+        Vector3d corner1 = Vector3d.sub(vert1, vert0);
+        Vector3d corner2 = Vector3d.sub(vert2, vert0);
+        Vector3d orig = new Vector3d(p);
+        Vector3d dir = Vector3d.sub(new Vector3d(q), orig);
+        BigDecimal len = dir.normalise(dir);
+        Vector3d pvec = Vector3d.cross(dir, corner2);
+        diskr = Vector3d.dotP(corner1, pvec);
+        if (diskr.abs().compareTo(TOLERANCE) < 0)
+            return false;
+        invDiskr = BigDecimal.ONE.divide(diskr, Threshold.MC);
+        Vector3d tvec = Vector3d.sub(orig, vert0);
+        BigDecimal u = Vector3d.dotP(tvec, pvec).multiply(invDiskr);
+        if (u.compareTo(ZEROT) < 0 || u.compareTo(ONET) > 0)
+            return false;
+        Vector3d qvec = Vector3d.cross(tvec, corner1);
+        BigDecimal v = Vector3d.dotP(dir, qvec).multiply(invDiskr);
+        if (v.compareTo(ZEROT) < 0 || u.add(v).compareTo(ONET) > 0)
+            return false;
+        BigDecimal t = Vector3d.dotP(corner2, qvec).multiply(invDiskr);
+        if (t.compareTo(ZEROT) < 0 || t.compareTo(len.add(TOLERANCE)) > 0)
+            return false;
+        r.setX(orig.x.add(dir.x.multiply(t)));
+        r.setY(orig.y.add(dir.y.multiply(t)));
+        r.setZ(orig.z.add(dir.z.multiply(t)));
+        return true;
+    }
+
+    /**
+     * Calculates the intersection point of the line segment [p,q] with the
+     * plane of the triangle (a,b,c) like
+     * {@link #intersectLineTriangleExact(Vertex, Vertex, Vertex, Vertex, Vertex, Vector3d)},
+     * but without the tests (the filter has already accepted the input).
+     */
+    private static void setIntersectionPoint(Vertex p, Vertex q, Vertex a, Vertex b, Vertex c, Vector3d r) {
+        Vector3d vert0 = new Vector3d(a);
+        Vector3d corner1 = Vector3d.sub(new Vector3d(b), vert0);
+        Vector3d corner2 = Vector3d.sub(new Vector3d(c), vert0);
+        Vector3d orig = new Vector3d(p);
+        Vector3d dir = Vector3d.sub(new Vector3d(q), orig);
+        dir.normalise(dir);
+        BigDecimal invDiskr = BigDecimal.ONE.divide(Vector3d.dotP(corner1, Vector3d.cross(dir, corner2)), Threshold.MC);
+        Vector3d qvec = Vector3d.cross(Vector3d.sub(orig, vert0), corner1);
+        BigDecimal t = Vector3d.dotP(corner2, qvec).multiply(invDiskr);
+        r.setX(orig.x.add(dir.x.multiply(t)));
+        r.setY(orig.y.add(dir.y.multiply(t)));
+        r.setZ(orig.z.add(dir.z.multiply(t)));
+    }
+
+    /**
+     * Calculates the intersection point of two line segments [p,p2] and
+     * [q,q2] for the line intersector. The segment [q,q2] is tested against a
+     * large triangle which contains the segment [p,p2] and is perpendicular
+     * to both segments. The triangle is only constructed with
+     * {@link BigDecimal} numbers if the floating-point filter can not reject
+     * the input.
+     *
+     * @return the intersection point or {@code null} if there is none
+     */
+    public static Vector3d intersectLineLine(Vector3d p, Vector3d p2, Vector3d q, Vector3d q2) {
+        final double[] in = new double[30];
+        putVector(in, 0, p);
+        putVector(in, 3, p2);
+        putVector(in, 6, q);
+        putVector(in, 9, q2);
+        final Ev pd = Ev.of(in, 0);
+        final Ev p2d = Ev.of(in, 3);
+        final Ev cross = p2d.sub(pd).cross(Ev.of(in, 9).sub(Ev.of(in, 6)));
+        if (filterLineTriangle(Ev.of(in, 6), Ev.of(in, 9), pd.sub(cross), p2d, cross.add(pd)) == REJECT) {
+            return null;
+        }
+        return intersectLineLine(p, p2, q, q2, false);
+    }
+
+    /**
+     * The exact version of {@link #intersectLineLine(Vector3d, Vector3d, Vector3d, Vector3d)}
+     */
+    public static Vector3d intersectLineLineExact(Vector3d p, Vector3d p2, Vector3d q, Vector3d q2) {
+        return intersectLineLine(p, p2, q, q2, true);
+    }
+
+    private static Vector3d intersectLineLine(Vector3d p, Vector3d p2, Vector3d q, Vector3d q2, boolean exact) {
+        Vector3d sp = Vector3d.sub(p2, p);
+        Vector3d sq = Vector3d.sub(q2, q);
+        Vector3d c = Vector3d.add(Vector3d.cross(sp, sq), p);
+        Vector3d d = Vector3d.sub(p, Vector3d.cross(sp, sq));
+        final Vertex vq = new Vertex(q);
+        final Vertex vq2 = new Vertex(q2);
+        final Vertex vd = new Vertex(d);
+        final Vertex vp2 = new Vertex(p2);
+        final Vertex vc = new Vertex(c);
+        final boolean intersects = exact ? intersectLineTriangleExact(vq, vq2, vd, vp2, vc, c) : intersectLineTriangle(vq, vq2, vd, vp2, vc, c);
+        return intersects ? c : null;
+    }
+
+    /**
+     * Tests if the ray from {@code orig} in direction {@code dir} hits the
+     * triangle (vert0, vert1, vert2) with the given tolerances.
+     */
+    public static boolean intersectRayTriangle(Vector3d orig, Vector3d dir, Vector3d vert0, Vector3d vert1, Vector3d vert2,
+            BigDecimal tolerance, BigDecimal zero, BigDecimal one) {
+        final double[] in = new double[30];
+        putVector(in, 0, orig);
+        putVector(in, 3, dir);
+        putVector(in, 6, vert0);
+        putVector(in, 9, vert1);
+        putVector(in, 12, vert2);
+        switch (filterRayTriangle(in, Ed.exact(tolerance.doubleValue()), Ed.exact(zero.doubleValue()), Ed.exact(one.doubleValue()))) {
+        case REJECT:
+            return false;
+        case ACCEPT:
+            return true;
+        default:
+            return intersectRayTriangleExact(orig, dir, vert0, vert1, vert2, tolerance, zero, one);
+        }
+    }
+
+    /**
+     * The exact version of {@link #intersectRayTriangle(Vector3d, Vector3d, Vector3d, Vector3d, Vector3d, BigDecimal, BigDecimal, BigDecimal)}
+     */
+    public static boolean intersectRayTriangleExact(Vector3d orig, Vector3d dir, Vector3d vert0, Vector3d vert1, Vector3d vert2,
+            BigDecimal tolerance, BigDecimal zero, BigDecimal one) {
+        BigDecimal diskr;
+        BigDecimal invDiskr;
+        Vector3d corner1 = Vector3d.sub(vert1, vert0);
+        Vector3d corner2 = Vector3d.sub(vert2, vert0);
+        Vector3d pvec = Vector3d.cross(dir, corner2);
+        diskr = Vector3d.dotP(corner1, pvec);
+        if (diskr.abs().compareTo(tolerance) < 0)
+            return false;
+        invDiskr = BigDecimal.ONE.divide(diskr, Threshold.MC);
+        Vector3d tvec = Vector3d.sub(orig, vert0);
+        BigDecimal u = Vector3d.dotP(tvec, pvec).multiply(invDiskr);
+        if (u.compareTo(zero) < 0 || u.compareTo(one) > 0)
+            return false;
+        Vector3d qvec = Vector3d.cross(tvec, corner1);
+        BigDecimal v = Vector3d.dotP(dir, qvec).multiply(invDiskr);
+        return !(v.compareTo(zero) < 0 || u.add(v).compareTo(one) > 0);
+    }
+
+    /**
+     * Tests if the line segment from {@code orig} in the (normalised)
+     * direction {@code dir} with length {@code len} hits the triangle (vert0,
+     * vert1, vert2). In contrast to the other tests, there is no tolerance.
+     * A zero determinant is treated as a miss.
+     */
+    public static boolean intersectSegmentTriangle(Vector3d orig, Vector3d dir, BigDecimal len, Vector3d vert0, Vector3d vert1, Vector3d vert2) {
+        final double[] in = new double[30];
+        putVector(in, 0, orig);
+        putVector(in, 3, dir);
+        putVector(in, 6, vert0);
+        putVector(in, 9, vert1);
+        putVector(in, 12, vert2);
+        final double lenD = len.doubleValue();
+        in[28] = lenD;
+        in[29] = Math.abs(lenD) * EPS;
+        switch (filterSegmentTriangle(in)) {
+        case REJECT:
+            return false;
+        case ACCEPT:
+            return true;
+        default:
+            return intersectSegmentTriangleExact(orig, dir, len, vert0, vert1, vert2);
+        }
+    }
+
+    /**
+     * The exact version of {@link #intersectSegmentTriangle(Vector3d, Vector3d, BigDecimal, Vector3d, Vector3d, Vector3d)}
+     */
+    public static boolean intersectSegmentTriangleExact(Vector3d orig, Vector3d dir, BigDecimal len, Vector3d vert0, Vector3d vert1, Vector3d vert2) {
+        BigDecimal diskr;
+        BigDecimal invDiskr;
+        Vector3d corner1 = Vector3d.sub(vert1, vert0);
+        Vector3d corner2 = Vector3d.sub(vert2, vert0);
+        Vector3d pvec = Vector3d.cross(dir, corner2);
+        diskr = Vector3d.dotP(corner1, pvec);
+        if (diskr.signum() == 0)
+            return false;
+        invDiskr = BigDecimal.ONE.divide(diskr, Threshold.MC);
+        Vector3d tvec = Vector3d.sub(orig, vert0);
+        BigDecimal u = Vector3d.dotP(tvec, pvec).multiply(invDiskr);
+        if (u.signum() < 0 || u.compareTo(BigDecimal.ONE) > 0)
+            return false;
+        Vector3d qvec = Vector3d.cross(tvec, corner1);
+        BigDecimal v = Vector3d.dotP(dir, qvec).multiply(invDiskr);
+        if (v.signum() < 0 || u.add(v).compareTo(BigDecimal.ONE) > 0)
+            return false;
+        BigDecimal t = Vector3d.dotP(corner2, qvec).multiply(invDiskr);
+        return !(t.signum() < 0 || t.compareTo(len) > 0);
+    }
+
+    /**
+     * Tests if the directions of two line segments are nearly parallel. The
+     * measure is the manhattan length of the cross product divided by the
+     * manhattan lengths of both segments.
+     *
+     * @return {@code true} if the measure is smaller than {@code threshold}
+     */
+    public static boolean isParallel(Vector3d p11, Vector3d p12, Vector3d p21, Vector3d p22, BigDecimal threshold) {
+        final double[] in = new double[30];
+        putVector(in, 0, p11);
+        putVector(in, 3, p12);
+        putVector(in, 6, p21);
+        putVector(in, 9, p22);
+        switch (filterParallel(in, threshold.doubleValue())) {
+        case REJECT:
+            return false;
+        case ACCEPT:
+            return true;
+        default:
+            return isParallelExact(p11, p12, p21, p22, threshold);
+        }
+    }
+
+    /**
+     * The exact version of {@link #isParallel(Vector3d, Vector3d, Vector3d, Vector3d, BigDecimal)}
+     */
+    public static boolean isParallelExact(Vector3d p11, Vector3d p12, Vector3d p21, Vector3d p22, BigDecimal threshold) {
+        Vector3d line1 = Vector3d.sub(p12, p11);
+        Vector3d line2 = Vector3d.sub(p22, p21);
+        Vector3d temp = Vector3d.cross(line1, line2);
+        BigDecimal angle = Vector3d.manhattan(temp, new Vector3d()).divide(Vector3d.manhattan(p12, p11), Threshold.MC).divide(Vector3d.manhattan(p22, p21), Threshold.MC);
+        return angle.compareTo(threshold) < 0;
+    }
+
+    /**
+     * Compares two numbers with a tolerance.
+     *
+     * @return {@code 0} if the absolute difference is smaller than the
+     *         tolerance, otherwise the sign of {@code a - b}
+     */
+    public static int compareWithTolerance(BigDecimal a, BigDecimal b, BigDecimal tolerance) {
+        final double ad = a.doubleValue();
+        final double bd = b.doubleValue();
+        final double td = tolerance.doubleValue();
+        final double d = ad - bd;
+        final double err = SAFETY * (EPS * (Math.abs(ad) + Math.abs(bd) + Math.abs(d)) + EPS * td);
+        final double absD = Math.abs(d);
+        if (absD - err > td) {
+            return d < 0.0 ? -1 : 1;
+        } else if (absD + err < td) {
+            return 0;
+        }
+        return compareWithToleranceExact(a, b, tolerance);
+    }
+
+    /**
+     * The exact version of {@link #compareWithTolerance(BigDecimal, BigDecimal, BigDecimal)}
+     */
+    public static int compareWithToleranceExact(BigDecimal a, BigDecimal b, BigDecimal tolerance) {
+        final BigDecimal d = a.subtract(b);
+        if (d.abs().compareTo(tolerance) < 0) {
+            return 0;
+        }
+        return d.signum() < 0 ? -1 : 1;
+    }
+
+    private static void putVertex(double[] in, int offset, Vertex v) {
+        // The float coordinates of subfile content come from the float product matrix
+        // and can differ from the exact coordinates by more than their rounding error
+        final double x = v.xp.doubleValue();
+        final double y = v.yp.doubleValue();
+        final double z = v.zp.doubleValue();
+        in[offset] = x;
+        in[offset + 1] = y;
+        in[offset + 2] = z;
+        // The error of each coordinate is stored in the second half of the array
+        in[offset + 15] = Math.abs(x) * EPS + Double.MIN_NORMAL;
+        in[offset + 16] = Math.abs(y) * EPS + Double.MIN_NORMAL;
+        in[offset + 17] = Math.abs(z) * EPS + Double.MIN_NORMAL;
+    }
+
+    private static void putVector(double[] in, int offset, Vector3d v) {
+        final double x = v.x.doubleValue();
+        final double y = v.y.doubleValue();
+        final double z = v.z.doubleValue();
+        in[offset] = x;
+        in[offset + 1] = y;
+        in[offset + 2] = z;
+        in[offset + 15] = Math.abs(x) * EPS + Double.MIN_NORMAL;
+        in[offset + 16] = Math.abs(y) * EPS + Double.MIN_NORMAL;
+        in[offset + 17] = Math.abs(z) * EPS + Double.MIN_NORMAL;
+    }
+
+    /**
+     * Floating-point filter for the line/triangle test of the segment
+     * [orig,end] and the triangle (vert0, vert1, vert2).
+     */
+    private static int filterLineTriangle(Ev orig, Ev end, Ev vert0, Ev vert1, Ev vert2) {
+        Ev dir = end.sub(orig);
+        final Ed len = dir.dot(dir).sqrt();
+        if (!len.isNonZero()) {
+            return UNKNOWN;
+        }
+        dir = dir.div(len);
+        final Ev corner1 = vert1.sub(vert0);
+        final Ev corner2 = vert2.sub(vert0);
+        final Ev tvec = orig.sub(vert0);
+        final Ed[] t = new Ed[1];
+        final int decision = filterMoellerTrumbore(dir, corner1, corner2, tvec, TOLERANCE_D, ZEROT_D, ONET_D, true, t);
+        if (decision == REJECT || t[0] == null) {
+            return decision;
+        }
+        final Ed maxT = len.add(TOLERANCE_D);
+        if (t[0].hi() < ZEROT_D.lo() || t[0].lo() > maxT.hi()) {
+            return REJECT;
+        } else if (decision == ACCEPT && t[0].lo() >= ZEROT_D.hi() && t[0].hi() <= maxT.lo()) {
+            return ACCEPT;
+        }
+        return UNKNOWN;
+    }
+
+    private static int filterRayTriangle(double[] in, Ed tolerance, Ed zero, Ed one) {
+        final Ev vert0 = Ev.of(in, 6);
+        final Ev corner1 = Ev.of(in, 9).sub(vert0);
+        final Ev corner2 = Ev.of(in, 12).sub(vert0);
+        final Ev tvec = Ev.of(in, 0).sub(vert0);
+        return filterMoellerTrumbore(Ev.of(in, 3), corner1, corner2, tvec, tolerance, zero, one, true, null);
+    }
+
+    private static int filterSegmentTriangle(double[] in) {
+        final Ev vert0 = Ev.of(in, 6);
+        final Ev corner1 = Ev.of(in, 9).sub(vert0);
+        final Ev corner2 = Ev.of(in, 12).sub(vert0);
+        final Ev tvec = Ev.of(in, 0).sub(vert0);
+        final Ed[] t = new Ed[1];
+        final int decision = filterMoellerTrumbore(Ev.of(in, 3), corner1, corner2, tvec, ZERO_D, ZERO_D, ONE_D, false, t);
+        if (decision == REJECT || t[0] == null) {
+            return decision;
+        }
+        final Ed len = new Ed(in[28], in[29]);
+        if (t[0].hi() < 0.0 || t[0].lo() > len.hi()) {
+            return REJECT;
+        } else if (decision == ACCEPT && t[0].lo() >= 0.0 && t[0].hi() <= len.lo()) {
+            return ACCEPT;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * The common part of the Möller-Trumbore intersection tests (determinant,
+     * u and v). The parameter t is only calculated if the array {@code t} is
+     * not {@code null} and the test did not reject the input.
+     */
+    private static int filterMoellerTrumbore(Ev dir, Ev corner1, Ev corner2, Ev tvec, Ed tolerance, Ed zero, Ed one, boolean strictTolerance, Ed[] t) {
+        final Ev pvec = dir.cross(corner2);
+        final Ed diskr = corner1.dot(pvec);
+        final Ed absDiskr = diskr.abs();
+        // The exact test rejects |diskr| < tolerance (or |diskr| <= tolerance)
+        if (strictTolerance ? absDiskr.hi() < tolerance.lo() : absDiskr.hi() <= tolerance.lo()) {
+            return REJECT;
+        }
+        if (!diskr.isNonZero()) {
+            return UNKNOWN;
+        }
+        boolean certain = strictTolerance ? absDiskr.lo() >= tolerance.hi() : absDiskr.lo() > tolerance.hi();
+        final Ed u = tvec.dot(pvec).div(diskr);
+        if (u.hi() < zero.lo() || u.lo() > one.hi()) {
+            return REJECT;
+        }
+        certain &= u.lo() >= zero.hi() && u.hi() <= one.lo();
+        final Ev qvec = tvec.cross(corner1);
+        final Ed v = dir.dot(qvec).div(diskr);
+        final Ed uv = u.add(v);
+        if (v.hi() < zero.lo() || uv.lo() > one.hi()) {
+            return REJECT;
+        }
+        certain &= v.lo() >= zero.hi() && uv.hi() <= one.lo();
+        if (t != null) {
+            t[0] = corner2.dot(qvec).div(diskr);
+        }
+        return certain ? ACCEPT : UNKNOWN;
+    }
+
+    private static int filterParallel(double[] in, double threshold) {
+        final Ev p11 = Ev.of(in, 0);
+        final Ev p12 = Ev.of(in, 3);
+        final Ev p21 = Ev.of(in, 6);
+        final Ev p22 = Ev.of(in, 9);
+        final Ev line1 = p12.sub(p11);
+        final Ev line2 = p22.sub(p21);
+        final Ed length1 = line1.manhattan();
+        final Ed length2 = line2.manhattan();
+        if (!length1.isNonZero() || !length2.isNonZero()) {
+            return UNKNOWN;
+        }
+        final Ed crossLength = line1.cross(line2).manhattan();
+        final Ed limit = length1.mul(length2).mul(Ed.exact(threshold));
+        if (crossLength.hi() < limit.lo()) {
+            return ACCEPT;
+        } else if (crossLength.lo() >= limit.hi()) {
+            return REJECT;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * A double value together with an upper bound of its absolute error.
+     */
+    private static final class Ed {
+        final double v;
+        final double e;
+
+        Ed(double v, double e) {
+            this.v = v;
+            this.e = e;
+        }
+
+        static Ed exact(double v) {
+            return new Ed(v, Math.abs(v) * EPS);
+        }
+
+        double lo() {
+            return v - SAFETY * e;
+        }
+
+        double hi() {
+            return v + SAFETY * e;
+        }
+
+        boolean isNonZero() {
+            return Math.abs(v) > SAFETY * e;
+        }
+
+        Ed add(Ed o) {
+            final double r = v + o.v;
+            return new Ed(r, e + o.e + Math.abs(r) * EPS);
+        }
+
+        Ed sub(Ed o) {
+            final double r = v - o.v;
+            return new Ed(r, e + o.e + Math.abs(r) * EPS);
+        }
+
+        Ed mul(Ed o) {
+            final double r = v * o.v;
+            return new Ed(r, Math.abs(v) * o.e + Math.abs(o.v) * e + e * o.e + Math.abs(r) * EPS + Double.MIN_NORMAL);
+        }
+
+        Ed div(Ed o) {
+            // Requires o.isNonZero()
+            final double r = v / o.v;
+            final double denominator = Math.abs(o.v) - SAFETY * o.e;
+            return new Ed(r, (e + Math.abs(r) * o.e) / denominator + Math.abs(r) * EPS + Double.MIN_NORMAL);
+        }
+
+        Ed abs() {
+            return new Ed(Math.abs(v), e);
+        }
+
+        Ed sqrt() {
+            final double r = Math.sqrt(v);
+            final double upper = Math.sqrt(v + SAFETY * e);
+            final double lower = Math.sqrt(Math.max(0.0, v - SAFETY * e));
+            return new Ed(r, Math.max(upper - r, r - lower) + (upper + r) * EPS);
+        }
+    }
+
+    /**
+     * A double vector together with upper bounds of the absolute errors.
+     */
+    private static final class Ev {
+        final Ed x;
+        final Ed y;
+        final Ed z;
+
+        Ev(Ed x, Ed y, Ed z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        static Ev of(double[] in, int offset) {
+            return new Ev(new Ed(in[offset], in[offset + 15]), new Ed(in[offset + 1], in[offset + 16]), new Ed(in[offset + 2], in[offset + 17]));
+        }
+
+        Ev add(Ev o) {
+            return new Ev(x.add(o.x), y.add(o.y), z.add(o.z));
+        }
+
+        Ev sub(Ev o) {
+            return new Ev(x.sub(o.x), y.sub(o.y), z.sub(o.z));
+        }
+
+        Ev div(Ed d) {
+            return new Ev(x.div(d), y.div(d), z.div(d));
+        }
+
+        Ed dot(Ev o) {
+            return x.mul(o.x).add(y.mul(o.y)).add(z.mul(o.z));
+        }
+
+        Ev cross(Ev o) {
+            return new Ev(y.mul(o.z).sub(z.mul(o.y)), z.mul(o.x).sub(x.mul(o.z)), x.mul(o.y).sub(y.mul(o.x)));
+        }
+
+        Ed manhattan() {
+            return x.abs().add(y.abs()).add(z.abs());
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.helper.math;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A thread-safe set which stores its elements as bits of a
+ * {@link DenseIndex}. The union, difference and intersection with another
+ * set of the same index and copies of such sets work on 64 elements at once.
+ * The iteration order is the order of the indices. An optional listener is
+ * notified after each change of the set.
+ *
+ * @param <T>
+ *            the type of the elements
+ */
+public final class IndexedSet<T> extends AbstractSet<T> {
+
+    private final DenseIndex<? super T> index;
+    /** Guarded by the lock of the index */
+    final BitSet bits = new BitSet();
+
+    private volatile Runnable changeListener = null;
+
+    public IndexedSet(DenseIndex<? super T> index) {
+        this.index = index;
+        index.attach(this);
+    }
+
+    /**
+     * Sets the action which is called after each change of this set. The
+     * action is called without holding the lock of the index.
+     */
+    public void setChangeListener(Runnable listener) {
+        this.changeListener = listener;
+    }
+
+    @Override
+    public boolean add(T element) {
+        index.wl.lock();
+        try {
+            final int i = index.findOrAssign(element);
+            if (bits.get(i)) return false;
+            bits.set(i);
+        } finally {
+            index.wl.unlock();
+        }
+        changed();
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        index.wl.lock();
+        try {
+            final int i = index.find(element);
+            if (i == -1 || !bits.get(i)) return false;
+            bits.clear(i);
+            index.freeIfUnused(i);
+        } finally {
+            index.wl.unlock();
+        }
+        changed();
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        index.rl.lock();
+        try {
+            final int i = index.find(element);
+            return i != -1 && bits.get(i);
+        } finally {
+            index.rl.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        index.rl.lock();
+        try {
+            return bits.cardinality();
+        } finally {
+            index.rl.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        index.rl.lock();
+        try {
+            return bits.isEmpty();
+        } finally {
+            index.rl.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        index.wl.lock();
+        try {
+            if (bits.isEmpty()) return;
+            bits.clear();
+        } finally {
+            index.wl.unlock();
+        }
+        changed();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        if (!isSameIndex(c)) return super.addAll(c);
+        index.wl.lock();
+        try {
+            final int oldSize = bits.cardinality();
+            bits.or(((IndexedSet<?>) c).bits);
+            if (bits.cardinality() == oldSize) return false;
+        } finally {
+            index.wl.unlock();
+        }
+        changed();
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if (!isSameIndex(c)) return super.removeAll(c);
+        index.wl.lock();
+        try {
+            final int oldSize = bits.cardinality();
+            bits.andNot(((IndexedSet<?>) c).bits);
+            if (bits.cardinality() == oldSize) return false;
+        } finally {
+            index.wl.unlock();
+        }
+        changed();
+        return true;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (!isSameIndex(c)) return super.retainAll(c);
+        index.wl.lock();
+        try {
+            final int oldSize = bits.cardinality();
+            bits.and(((IndexedSet<?>) c).bits);
+            if (bits.cardinality() == oldSize) return false;
+        } finally {
+            index.wl.unlock();
+        }
+        changed();
+        return true;
+    }
+
+    /**
+     * Replaces the content of this set with the content of another set of the
+     * same index.
+     */
+    public void copyFrom(IndexedSet<? extends T> other) {
+        checkSameIndex(other);
+        index.wl.lock();
+        try {
+            bits.clear();
+            bits.or(other.bits);
+        } finally {
+            index.wl.unlock();
+        }
+        changed();
+    }
+
+    /**
+     * Replaces the content of this set with all registered objects of a
+     * category which are not part of the given sets.
+     *
+     * @param category
+     *            the category (the objects must be of type {@code T})
+     * @param excluded
+     *            sets of the same index
+     */
+    public void copyFromCategory(int category, IndexedSet<?>... excluded) {
+        for (IndexedSet<?> set : excluded) {
+            checkSameIndex(set);
+        }
+        index.wl.lock();
+        try {
+            bits.clear();
+            bits.or(index.getCategory(category));
+            for (IndexedSet<?> set : excluded) {
+                bits.andNot(set.bits);
+            }
+        } finally {
+            index.wl.unlock();
+        }
+        changed();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    private void changed() {
+        final Runnable listener = changeListener;
+        if (listener != null) listener.run();
+    }
+
+    private boolean isSameIndex(Collection<?> c) {
+        return c instanceof IndexedSet<?> set && set.index == index;
+    }
+
+    private void checkSameIndex(IndexedSet<?> set) {
+        if (set.index != index) {
+            throw new IllegalArgumentException("The sets do not share the same index."); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * The iterator is weakly consistent. It reflects changes of the set
+     * during the iteration, but it never throws a
+     * {@link java.util.ConcurrentModificationException}.
+     */
+    private final class Itr implements Iterator<T> {
+
+        private int nextIndex;
+        private T nextElement;
+        private T lastElement;
+
+        Itr() {
+            advance(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextElement != null;
+        }
+
+        @Override
+        public T next() {
+            if (nextElement == null) throw new NoSuchElementException();
+            lastElement = nextElement;
+            advance(nextIndex + 1);
+            return lastElement;
+        }
+
+        @Override
+        public void remove() {
+            if (lastElement == null) throw new IllegalStateException();
+            IndexedSet.this.remove(lastElement);
+            lastElement = null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance(int fromIndex) {
+            index.rl.lock();
+            try {
+                nextIndex = bits.nextSetBit(fromIndex);
+                nextElement = nextIndex == -1 ? null : (T) index.get(nextIndex);
+            } finally {
+                index.rl.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,456 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.helper.math;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * A bidirectional map from line numbers to values. The keys are stored as
+ * distances to the previous key in a balanced tree (a treap). Therefore all
+ * keys after a line can be moved in O(log n) when lines are inserted or
+ * removed. The lookup of the value for a key and of the key for a value is
+ * O(log n), too.
+ *
+ * @param <V>
+ *            the type of the values (each value can only be stored once)
+ */
+public class LineIndex<V> implements LineIndexView<V> {
+
+    private static final class Node<V> {
+        private V value;
+        /** The distance to the previous key (or the key itself for the first node) */
+        private int gap;
+        /** The sum of all gaps in this subtree */
+        private int sum;
+        private final int priority;
+        private Node<V> left;
+        private Node<V> right;
+        private Node<V> parent;
+
+        Node(V value, int gap, int priority) {
+            this.value = value;
+            this.gap = gap;
+            this.sum = gap;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<V, Node<V>> valueToNode = new HashMap<>();
+    private final Random random = new Random(4711L);
+    private Node<V> root = null;
+    private int modCount = 0;
+
+    /** The results of {@link #split(Node, int, int)} */
+    private Node<V> splitLeft;
+    private Node<V> splitRight;
+
+    @Override
+    public V getValue(Integer key) {
+        if (key == null) return null;
+        final Node<V> node = findNode(key);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public Integer getKey(V value) {
+        final Node<V> node = valueToNode.get(value);
+        return node == null ? null : keyOf(node);
+    }
+
+    @Override
+    public boolean containsKey(Integer key) {
+        return key != null && findNode(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        return valueToNode.containsKey(value);
+    }
+
+    @Override
+    public int size() {
+        return valueToNode.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Stores the value for the key. The value is removed from its old key and
+     * the old value of the key is replaced.
+     *
+     * @return the old value of the key
+     */
+    public V put(int key, V value) {
+        if (value == null)
+            throw new AssertionError();
+        final Node<V> oldNode = valueToNode.get(value);
+        if (oldNode != null) {
+            if (keyOf(oldNode) == key) return value;
+            removeNode(oldNode);
+        }
+        final Node<V> node = findNode(key);
+        if (node != null) {
+            // This is not a structural change, the keys stay the same
+            final V oldValue = node.value;
+            valueToNode.remove(oldValue);
+            node.value = value;
+            valueToNode.put(value, node);
+            return oldValue;
+        }
+
+        modCount++;
+        split(root, key, 0);
+        final Node<V> left = splitLeft;
+        final Node<V> right = splitRight;
+        final int gap = key - sum(left);
+        final Node<V> newNode = new Node<>(value, gap, random.nextInt());
+        valueToNode.put(value, newNode);
+        addToFirstGap(right, -gap);
+        root = merge(merge(left, newNode), right);
+        root.parent = null;
+        return null;
+    }
+
+    public V removeByKey(Integer key) {
+        if (key == null) return null;
+        final Node<V> node = findNode(key);
+        if (node == null) return null;
+        removeNode(node);
+        return node.value;
+    }
+
+    public Integer removeByValue(V value) {
+        final Node<V> node = valueToNode.get(value);
+        if (node == null) return null;
+        return removeNode(node);
+    }
+
+    public void clear() {
+        modCount++;
+        valueToNode.clear();
+        root = null;
+    }
+
+    /**
+     * Adds the delta to all keys which are greater or equal to the first key.
+     * The order of the keys must not change.
+     */
+    public void shiftKeys(int firstKey, int delta) {
+        if (delta == 0 || root == null) return;
+        modCount++;
+        split(root, firstKey, 0);
+        final Node<V> left = splitLeft;
+        final Node<V> right = splitRight;
+        if (right != null && delta < 0 && left != null && firstKeyOf(right, sum(left)) + delta <= sum(left)) {
+            root = merge(left, right);
+            root.parent = null;
+            throw new IllegalArgumentException();
+        }
+        addToFirstGap(right, delta);
+        root = merge(left, right);
+        if (root != null) root.parent = null;
+    }
+
+    /**
+     * Numbers the keys from 1 to {@link #size()}, keeping their order.
+     */
+    public void renumber() {
+        modCount++;
+        renumber(root);
+    }
+
+    /**
+     * @return a read-only view of this index, which is valid until keys are
+     *         added, removed or moved (it does not copy the index)
+     */
+    public LineIndexView<V> view() {
+        final int expectedModCount = modCount;
+        return new LineIndexView<>() {
+
+            @Override
+            public V getValue(Integer key) {
+                check();
+                return LineIndex.this.getValue(key);
+            }
+
+            @Override
+            public Integer getKey(V value) {
+                check();
+                return LineIndex.this.getKey(value);
+            }
+
+            @Override
+            public boolean containsKey(Integer key) {
+                check();
+                return LineIndex.this.containsKey(key);
+            }
+
+            @Override
+            public boolean containsValue(V value) {
+                check();
+                return LineIndex.this.containsValue(value);
+            }
+
+            @Override
+            public int size() {
+                check();
+                return LineIndex.this.size();
+            }
+
+            @Override
+            public boolean isEmpty() {
+                check();
+                return LineIndex.this.isEmpty();
+            }
+
+            @Override
+            public Set<Integer> keySet() {
+                check();
+                return LineIndex.this.keySet();
+            }
+
+            @Override
+            public Collection<V> values() {
+                check();
+                return LineIndex.this.values();
+            }
+
+            private void check() {
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            }
+        };
+    }
+
+    @Override
+    public Set<Integer> keySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            public Iterator<Integer> iterator() {
+                return new InOrderIterator<>() {
+                    @Override
+                    Integer get(Node<V> node, int key) {
+                        return key;
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Integer i && containsKey(i);
+            }
+
+            @Override
+            public int size() {
+                return LineIndex.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+
+            @Override
+            public Iterator<V> iterator() {
+                return new InOrderIterator<>() {
+                    @Override
+                    V get(Node<V> node, int key) {
+                        return node.value;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return LineIndex.this.size();
+            }
+        };
+    }
+
+    private abstract class InOrderIterator<T> implements Iterator<T> {
+
+        private final int expectedModCount = modCount;
+        private Node<V> next = first(root);
+        private int key = next == null ? 0 : next.gap;
+
+        abstract T get(Node<V> node, int key);
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (next == null) throw new NoSuchElementException();
+            final T result = get(next, key);
+            next = successor(next);
+            if (next != null) key += next.gap;
+            return result;
+        }
+    }
+
+    private Node<V> findNode(int key) {
+        Node<V> node = root;
+        int offset = 0;
+        while (node != null) {
+            final int nodeKey = offset + sum(node.left) + node.gap;
+            if (key == nodeKey) {
+                return node;
+            } else if (key < nodeKey) {
+                node = node.left;
+            } else {
+                offset = nodeKey;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    private int keyOf(Node<V> node) {
+        int key = sum(node.left) + node.gap;
+        for (Node<V> n = node; n.parent != null; n = n.parent) {
+            if (n == n.parent.right) {
+                key += sum(n.parent.left) + n.parent.gap;
+            }
+        }
+        return key;
+    }
+
+    private int removeNode(Node<V> node) {
+        modCount++;
+        final int key = keyOf(node);
+        valueToNode.remove(node.value);
+        split(root, key, 0);
+        final Node<V> left = splitLeft;
+        split(splitRight, key + 1, sum(left));
+        final Node<V> right = splitRight;
+        // The next key keeps its value
+        addToFirstGap(right, node.gap);
+        root = merge(left, right);
+        if (root != null) root.parent = null;
+        node.left = null;
+        node.right = null;
+        node.parent = null;
+        return key;
+    }
+
+    /**
+     * Splits the subtree into the nodes with keys lower than the key
+     * ({@link #splitLeft}) and the other nodes ({@link #splitRight}).
+     *
+     * @param offset
+     *            the key before the first node of the subtree
+     */
+    private void split(Node<V> node, int key, int offset) {
+        if (node == null) {
+            splitLeft = null;
+            splitRight = null;
+            return;
+        }
+        final int nodeKey = offset + sum(node.left) + node.gap;
+        if (nodeKey < key) {
+            split(node.right, key, nodeKey);
+            node.right = splitLeft;
+            if (node.right != null) node.right.parent = node;
+            update(node);
+            node.parent = null;
+            splitLeft = node;
+        } else {
+            split(node.left, key, offset);
+            node.left = splitRight;
+            if (node.left != null) node.left.parent = node;
+            update(node);
+            node.parent = null;
+            splitRight = node;
+        }
+    }
+
+    private Node<V> merge(Node<V> a, Node<V> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            a.right.parent = a;
+            update(a);
+            return a;
+        } else {
+            b.left = merge(a, b.left);
+            b.left.parent = b;
+            update(b);
+            return b;
+        }
+    }
+
+    private void addToFirstGap(Node<V> node, int delta) {
+        for (Node<V> n = node; n != null; n = n.left) {
+            n.sum += delta;
+            if (n.left == null) n.gap += delta;
+        }
+    }
+
+    private int firstKeyOf(Node<V> node, int offset) {
+        return offset + first(node).gap;
+    }
+
+    private void renumber(Node<V> node) {
+        if (node == null) return;
+        renumber(node.left);
+        renumber(node.right);
+        node.gap = 1;
+        update(node);
+    }
+
+    private static <V> Node<V> first(Node<V> node) {
+        if (node == null) return null;
+        Node<V> result = node;
+        while (result.left != null) {
+            result = result.left;
+        }
+        return result;
+    }
+
+    private static <V> Node<V> successor(Node<V> node) {
+        if (node.right != null) return first(node.right);
+        Node<V> n = node;
+        while (n.parent != null && n == n.parent.right) {
+            n = n.parent;
+        }
+        return n.parent;
+    }
+
+    private static <V> int sum(Node<V> node) {
+        return node == null ? 0 : node.sum;
+    }
+
+    private static <V> void update(Node<V> node) {
+        node.sum = sum(node.left) + node.gap + sum(node.right);
+    }
+}
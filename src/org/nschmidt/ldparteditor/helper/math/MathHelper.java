@@ -446,6 +446,42 @@ public enum MathHelper {
         target.set(left.y * right.z - left.z * right.y, left.z * right.x - left.x * right.z, left.x * right.y - left.y * right.x, 1f);
     }
 
+    /**
+     * Tests if a condline is shown: the control points C and D have to be on
+     * the same side of the line A-B on the screen. The points are transformed
+     * without temporary objects, with the same float operations as
+     * {@link Matrix4f#transform(Matrix4f, Vector4f, Vector4f)} and
+     * {@link Vector4f#dot(Vector4f, Vector4f)}.
+     *
+     * @param m
+     *            the view matrix of the condline
+     * @param zoom
+     *            the zoom of the view
+     * @return {@code true} if the condline is shown
+     */
+    public static boolean isCondlineShown(Matrix4f m, Vector4f a, Vector4f b, Vector4f c, Vector4f d, float zoom) {
+        final float ax = m.m00 * a.x + m.m10 * a.y + m.m20 * a.z + m.m30 * a.w;
+        final float ay = m.m01 * a.x + m.m11 * a.y + m.m21 * a.z + m.m31 * a.w;
+        final float az = m.m02 * a.x + m.m12 * a.y + m.m22 * a.z + m.m32 * a.w;
+        final float aw = m.m03 * a.x + m.m13 * a.y + m.m23 * a.z + m.m33 * a.w;
+        final float bx = m.m00 * b.x + m.m10 * b.y + m.m20 * b.z + m.m30 * b.w;
+        final float by = m.m01 * b.x + m.m11 * b.y + m.m21 * b.z + m.m31 * b.w;
+        final float cx = m.m00 * c.x + m.m10 * c.y + m.m20 * c.z + m.m30 * c.w;
+        final float cy = m.m01 * c.x + m.m11 * c.y + m.m21 * c.z + m.m31 * c.w;
+        final float cz = m.m02 * c.x + m.m12 * c.y + m.m22 * c.z + m.m32 * c.w;
+        final float cw = m.m03 * c.x + m.m13 * c.y + m.m23 * c.z + m.m33 * c.w;
+        final float dx = m.m00 * d.x + m.m10 * d.y + m.m20 * d.z + m.m30 * d.w;
+        final float dy = m.m01 * d.x + m.m11 * d.y + m.m21 * d.z + m.m31 * d.w;
+        final float dz = m.m02 * d.x + m.m12 * d.y + m.m22 * d.z + m.m32 * d.w;
+        final float dw = m.m03 * d.x + m.m13 * d.y + m.m23 * d.z + m.m33 * d.w;
+        // The normal of the line A-B is (ay - by, bx - ax, 0, 1)
+        final float nx = ay - by;
+        final float ny = bx - ax;
+        final float sideC = nx * (cx - ax) + ny * (cy - ay) + 0f * (cz - az) + 1f * (cw - aw);
+        final float sideD = nx * (dx - ax) + ny * (dy - ay) + 0f * (dz - az) + 1f * (dw - aw);
+        return zoom / sideC * sideD > -1e-20f;
+    }
+
     /**
      * Returns a "direction" indicator from a pair of vectors [sgn(v1*v2)]
      *
@@ -46,7 +46,9 @@ public class Vector3dd extends Vector3d implements Comparable<Vector3dd> {
         }
 
         Vector3dd other = (Vector3dd) obj;
-        return other == this || this.x.subtract(other.x).abs().compareTo(MIN_DIST) < 0 && this.y.subtract(other.y).abs().compareTo(MIN_DIST) < 0 && this.z.subtract(other.z).abs().compareTo(MIN_DIST) < 0;
+        return other == this || GeometricPredicates.compareWithTolerance(x, other.x, MIN_DIST) == 0
+                && GeometricPredicates.compareWithTolerance(y, other.y, MIN_DIST) == 0
+                && GeometricPredicates.compareWithTolerance(z, other.z, MIN_DIST) == 0;
     }
 
     @Override
@@ -66,36 +68,14 @@ public class Vector3dd extends Vector3d implements Comparable<Vector3dd> {
     }
     @Override
     public int compareTo(Vector3dd o) {
-        {
-            BigDecimal d1 = x.subtract(o.x);
-            int c1 = d1.abs().compareTo(EPSILON);
-            switch (c1) {
-            case 0, 1:
-                return d1.compareTo(BigDecimal.ZERO) < 0 ? -1 : 1;
-            default:
-                break;
-            }
+        int result = GeometricPredicates.compareWithTolerance(x, o.x, EPSILON);
+        if (result != 0) {
+            return result;
         }
-        {
-            BigDecimal d1 = y.subtract(o.y);
-            int c1 = d1.abs().compareTo(EPSILON);
-            switch (c1) {
-            case 0, 1:
-                return d1.compareTo(BigDecimal.ZERO) < 0 ? -1 : 1;
-            default:
-                break;
-            }
+        result = GeometricPredicates.compareWithTolerance(y, o.y, EPSILON);
+        if (result != 0) {
+            return result;
         }
-        {
-            BigDecimal d1 = z.subtract(o.z);
-            int c1 = d1.abs().compareTo(EPSILON);
-            switch (c1) {
-            case 0, 1:
-                return d1.compareTo(BigDecimal.ZERO) < 0 ? -1 : 1;
-            default:
-                break;
-            }
-        }
-        return 0;
+        return GeometricPredicates.compareWithTolerance(z, o.z, EPSILON);
     }
 }
\ No newline at end of file
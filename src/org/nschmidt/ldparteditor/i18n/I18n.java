@@ -1040,6 +1040,7 @@ public final class I18n {
     public static final String OPTIONS_MAD_1 = OPTIONS.getString(getProperty());
     public static final String OPTIONS_MAD_2 = OPTIONS.getString(getProperty());
     public static final String OPTIONS_MISC_OPTIONS = OPTIONS.getString(getProperty());
+    public static final String OPTIONS_PRIMITIVE_LOD = OPTIONS.getString(getProperty());
     public static final String OPTIONS_REAL_NAME = OPTIONS.getString(getProperty());
     public static final String OPTIONS_SCALE_FACTOR = OPTIONS.getString(getProperty());
     public static final String OPTIONS_TEXT_WINDOW_ARR = OPTIONS.getString(getProperty());
@@ -39,6 +39,7 @@ import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.opengl.OpenGLRenderer;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
+import org.nschmidt.ldparteditor.text.LineStyleCache;
 import org.nschmidt.ldparteditor.text.UTF8PrintWriter;
 import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 
@@ -118,6 +119,7 @@ public enum LDConfigUtils {
         if (path != null && LDConfig.loadConfig(path)) {
             LDConfig.overrideColour16();
             GData.CACHE_warningsAndErrors.clear();
+            LineStyleCache.invalidateAll();
             WorkbenchManager.getUserSettingState().setLdConfigPath(path);
             Set<DatFile> dfs = new HashSet<>();
             for (OpenGLRenderer renderer : Editor3DWindow.renders) {
@@ -32,15 +32,23 @@ public class GL33Helper {
 
     private int vboGeneral = -1;
     private int eboGeneral = -1;
+    private final int[] vboOverlay = new int[OverlayGeometry.LAYER_COUNT];
+    /** The versions of the overlay vertices which were uploaded to the buffers */
+    private final int[] overlayVersions = new int[OverlayGeometry.LAYER_COUNT];
 
     void createVBO() {
         vboGeneral = GL15.glGenBuffers();
         eboGeneral = GL15.glGenBuffers();
+        for (int layer = 0; layer < OverlayGeometry.LAYER_COUNT; layer++) {
+            vboOverlay[layer] = GL15.glGenBuffers();
+            overlayVersions[layer] = -1;
+        }
     }
 
     void destroyVBO() {
         GL15.glDeleteBuffers(vboGeneral);
         GL15.glDeleteBuffers(eboGeneral);
+        GL15.glDeleteBuffers(vboOverlay);
     }
 
     void drawTrianglesIndexedRGBgeneral(float[] vertices, int[] indices) {
@@ -76,6 +84,29 @@ public class GL33Helper {
         GL11.glDrawArrays(GL11.GL_LINES, 0, vertices.length);
     }
 
+    /**
+     * Draws lines of a cached overlay. The vertices are only uploaded if they
+     * have changed since the last call.
+     */
+    void drawLinesRGBoverlay(OverlayGeometry overlay, int layer, int first, int count) {
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboOverlay[layer]);
+        final int version = overlay.getVersion(layer);
+        if (overlayVersions[layer] != version) {
+            overlayVersions[layer] = version;
+            GL15.glBufferData(GL15.GL_ARRAY_BUFFER, overlay.getVertices(layer), GL15.GL_DYNAMIC_DRAW);
+        }
+
+        GL20.glEnableVertexAttribArray(POSITION_SHADER_LOCATION);
+        GL20.glVertexAttribPointer(POSITION_SHADER_LOCATION, 3, GL11.GL_FLOAT, false, RGB_STRIDE, 0);
+
+        GL20.glEnableVertexAttribArray(COLOUR_SHADER_LOCATION);
+        GL20.glVertexAttribPointer(COLOUR_SHADER_LOCATION, 3, GL11.GL_FLOAT, false, RGB_STRIDE, 12); // 3 * 4
+
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+
+        GL11.glDrawArrays(GL11.GL_LINES, first, count);
+    }
+
     public static void drawLinesRGBgeneralSlow(float[] vertices) {
         int vboGeneral = GL15.glGenBuffers();
         GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboGeneral);
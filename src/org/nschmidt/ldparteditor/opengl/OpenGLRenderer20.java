@@ -1315,6 +1315,7 @@ public class OpenGLRenderer20 extends OpenGLRenderer {
                                 // Update renderedPoints here!
                                 renderedPoints[0] = r;
                                 ViewIdleManager.renderLDrawStandard[0].set(true);
+                                ViewIdleManager.frameScheduler.requestFrame(OpenGLRenderer20.this);
                             } finally {
                                 lock.unlock();
                             }
@@ -49,6 +49,8 @@ import org.nschmidt.ldparteditor.helper.Arrow;
 import org.nschmidt.ldparteditor.helper.ArrowBlunt;
 import org.nschmidt.ldparteditor.helper.Circle;
 import org.nschmidt.ldparteditor.helper.Manipulator;
+import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
+import org.nschmidt.ldparteditor.helper.math.Frustum;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.project.Project;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
@@ -69,6 +71,8 @@ public class OpenGLRenderer33 extends OpenGLRenderer {
     private GLShader shaderProgramCondline = new GLShader();
     private final GLMatrixStack stack = new GLMatrixStack();
     private final GL33Helper helper = new GL33Helper();
+    /** The cached vertices of the grid, the origin and the frame */
+    private final OverlayGeometry overlay = new OverlayGeometry();
     private final GL33ModelRenderer modelRenderer = new GL33ModelRenderer(c3d, this);
     private final GL33ModelRendererLDrawStandard modelRendererLDrawStandard = new GL33ModelRendererLDrawStandard(c3d, this);
 
@@ -77,6 +81,13 @@ public class OpenGLRenderer33 extends OpenGLRenderer {
     private final FloatBuffer rotBuf = BufferUtils.createFloatBuffer(16);
     private final Matrix4f rotationInv4f = new Matrix4f();
 
+    /** Enlarges the view frustum for culling, so that nothing is missing while the view is moved */
+    private static final float CULLING_MARGIN = 1.25f;
+    /** The view frustum for the culling in the render threads (with the margin) */
+    private volatile Frustum frustum = null;
+    /** The rotation of the view when the frustum was created */
+    private final Matrix4f frustumRotation = new Matrix4f();
+
     private static long hoverSettingsTime = System.currentTimeMillis();
 
     public OpenGLRenderer33(Composite3D c3d) {
@@ -88,6 +99,44 @@ public class OpenGLRenderer33 extends OpenGLRenderer {
         return c3d;
     }
 
+    /**
+     * @return the view frustum of the last frame or {@code null} if there was
+     *         no frame yet
+     */
+    public Frustum getFrustum() {
+        return frustum;
+    }
+
+    /**
+     * @return {@code true} if the whole view is inside the frustum for the
+     *         culling
+     */
+    private boolean isInsideFrustum(Matrix4f rotation, Matrix4f viewportTransform, float viewportWidth, float viewportHeight) {
+        final Frustum current = frustum;
+        if (current == null) {
+            return false;
+        }
+        // The frustum has no depth limits, so the view has to look in the same direction
+        final Matrix4f r = frustumRotation;
+        if (rotation.m00 != r.m00 || rotation.m01 != r.m01 || rotation.m02 != r.m02
+                || rotation.m10 != r.m10 || rotation.m11 != r.m11 || rotation.m12 != r.m12
+                || rotation.m20 != r.m20 || rotation.m21 != r.m21 || rotation.m22 != r.m22) {
+            return false;
+        }
+        final Matrix4f viewportInverse = Matrix4f.invert(viewportTransform, null);
+        if (viewportInverse == null) {
+            return false;
+        }
+        for (int c = 0; c < 4; c++) {
+            final Vector4f corner = new Vector4f((c & 1) == 0 ? -viewportWidth : viewportWidth, (c & 2) == 0 ? -viewportHeight : viewportHeight, 0f, 1f);
+            Matrix4f.transform(viewportInverse, corner, corner);
+            if (!current.contains(corner.x, corner.y, corner.z)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void init() {
 
@@ -150,6 +199,8 @@ public class OpenGLRenderer33 extends OpenGLRenderer {
 
         GL11.glPointSize(5);
 
+        helper.createVBO();
+
         modelRenderer.init();
         modelRendererLDrawStandard.init();
     }
@@ -175,7 +226,6 @@ public class OpenGLRenderer33 extends OpenGLRenderer {
         // MARK OpenGL Draw Scene
 
         stack.clear();
-        helper.createVBO();
 
         int state3d = 0;
         boolean isAnaglyph = c3d.isAnaglyph3d() && !ldrawStandardMode;
@@ -229,6 +279,14 @@ public class OpenGLRenderer33 extends OpenGLRenderer {
             viewBuf.flip();
             c3d.setViewport(viewportTransform);
 
+            // Each culling rebuilds the buffers, so the frustum is only replaced when the view leaves its margin
+            if (!isInsideFrustum(viewportRotation, viewportTransform, viewportWidth, viewportHeight)) {
+                frustum = Frustum.orthographic(viewportTransform, viewportWidth * CULLING_MARGIN, viewportHeight * CULLING_MARGIN);
+                Matrix4f.load(viewportRotation, frustumRotation);
+                // The render threads have to cull the data again
+                ViewIdleManager.frameScheduler.invalidate(this);
+            }
+
             {
                 shaderProgram2D.use();
                 int view = shaderProgram2D.getUniformLocation("view" ); //$NON-NLS-1$
@@ -925,85 +983,9 @@ public class OpenGLRenderer33 extends OpenGLRenderer {
                         zOffset = 0;
                         GL11.glLineWidth(1f);
                     }
-                    Vector4f gridCenter1 = new Vector4f();
-                    Vector4f gridCenter2 = new Vector4f();
-                    gridCenter1.set(c3d.getGrid()[r]);
-                    gridCenter2.set(gridCenter1);
-
-                    int size = 0;
-                    float limit = c3d.getGrid()[3 + r].y;
-                    for (float i = 0f; i < limit; i += 1f) {
-                        size = size + 24;
-                    }
-                    limit = c3d.getGrid()[3 + r].x;
-                    for (float i = 0f; i < limit; i += 1f) {
-                        size = size + 24;
-                    }
-
-                    final float[] vertices = new float[size];
-                    int j = 0;
-
-                    limit = c3d.getGrid()[3 + r].y;
-                    for (float i = 0f; i < limit; i += 1f) {
-                        Vector4f.sub(gridCenter2, c3d.getGrid()[2 + r], gridCenter2);
-                        vertices[j] = viewportOriginAxis[0].x; j++;
-                        vertices[j] = gridCenter1.y; j++;
-                        vertices[j] = viewportOriginAxis[0].z + zOffset; j++;
-                        vertices[j] = gR; j++;
-                        vertices[j] = gG; j++;
-                        vertices[j] = gB; j++;
-                        vertices[j] = viewportOriginAxis[1].x; j++;
-                        vertices[j] = gridCenter1.y; j++;
-                        vertices[j] = viewportOriginAxis[1].z + zOffset; j++;
-                        vertices[j] = gR; j++;
-                        vertices[j] = gG; j++;
-                        vertices[j] = gB; j++;
-                        vertices[j] = viewportOriginAxis[0].x; j++;
-                        vertices[j] = gridCenter2.y; j++;
-                        vertices[j] = viewportOriginAxis[0].z + zOffset; j++;
-                        vertices[j] = gR; j++;
-                        vertices[j] = gG; j++;
-                        vertices[j] = gB; j++;
-                        vertices[j] = viewportOriginAxis[1].x; j++;
-                        vertices[j] = gridCenter2.y; j++;
-                        vertices[j] = viewportOriginAxis[1].z + zOffset; j++;
-                        vertices[j] = gR; j++;
-                        vertices[j] = gG; j++;
-                        vertices[j] = gB; j++;
-                        Vector4f.add(gridCenter1, c3d.getGrid()[2 + r], gridCenter1);
-                    }
-                    gridCenter1.set(c3d.getGrid()[r]);
-                    gridCenter2.set(gridCenter1);
-                    limit = c3d.getGrid()[3 + r].x;
-                    for (float i = 0f; i < limit; i += 1f) {
-                        Vector4f.sub(gridCenter2, c3d.getGrid()[1 + r], gridCenter2);
-                        vertices[j] = gridCenter2.x; j++;
-                        vertices[j] = viewportOriginAxis[2].y; j++;
-                        vertices[j] = viewportOriginAxis[2].z + zOffset; j++;
-                        vertices[j] = gR; j++;
-                        vertices[j] = gG; j++;
-                        vertices[j] = gB; j++;
-                        vertices[j] = gridCenter2.x; j++;
-                        vertices[j] = viewportOriginAxis[3].y; j++;
-                        vertices[j] = viewportOriginAxis[3].z + zOffset; j++;
-                        vertices[j] = gR; j++;
-                        vertices[j] = gG; j++;
-                        vertices[j] = gB; j++;
-                        vertices[j] = gridCenter1.x; j++;
-                        vertices[j] = viewportOriginAxis[2].y; j++;
-                        vertices[j] = viewportOriginAxis[2].z + zOffset; j++;
-                        vertices[j] = gR; j++;
-                        vertices[j] = gG; j++;
-                        vertices[j] = gB; j++;
-                        vertices[j] = gridCenter1.x; j++;
-                        vertices[j] = viewportOriginAxis[3].y; j++;
-                        vertices[j] = viewportOriginAxis[3].z + zOffset; j++;
-                        vertices[j] = gR; j++;
-                        vertices[j] = gG; j++;
-                        vertices[j] = gB; j++;
-                        Vector4f.add(gridCenter1, c3d.getGrid()[1 + r], gridCenter1);
-                    }
-                    helper.drawLinesRGBgeneral(vertices);
+                    final int layer = r == 0 ? OverlayGeometry.GRID_1 : OverlayGeometry.GRID_10;
+                    overlay.updateGrid(layer, c3d.getGrid(), r, viewportOriginAxis, zOffset, gR, gG, gB);
+                    helper.drawLinesRGBoverlay(overlay, layer, 0, overlay.getVertexCount(layer));
                 }
                 zOffset = 2f;
             }
@@ -1011,15 +993,8 @@ public class OpenGLRenderer33 extends OpenGLRenderer {
             if (c3d.isOriginShown()) {
                 // Origin
                 GL11.glLineWidth(2f);
-                helper.drawLinesRGBgeneral(new float[]{
-                        viewportOriginAxis[0].x, viewportOriginAxis[0].y, viewportOriginAxis[0].z + zOffset,
-                        Colour.originColourR, Colour.originColourG, Colour.originColourB,
-                        viewportOriginAxis[1].x, viewportOriginAxis[1].y, viewportOriginAxis[1].z + zOffset,
-                        Colour.originColourR, Colour.originColourG, Colour.originColourB,
-                        viewportOriginAxis[2].x, viewportOriginAxis[2].y, viewportOriginAxis[2].z + zOffset,
-                        Colour.originColourR, Colour.originColourG, Colour.originColourB,
-                        viewportOriginAxis[3].x, viewportOriginAxis[3].y, viewportOriginAxis[3].z + zOffset,
-                        Colour.originColourR, Colour.originColourG, Colour.originColourB});
+                overlay.updateOrigin(viewportOriginAxis, zOffset, Colour.originColourR, Colour.originColourG, Colour.originColourB);
+                helper.drawLinesRGBoverlay(overlay, OverlayGeometry.ORIGIN, 0, 4);
             }
 
             if (c3d.isAnaglyph3d() && !ldrawStandardMode && state3d == 0) {
@@ -1129,34 +1104,15 @@ public class OpenGLRenderer33 extends OpenGLRenderer {
                         g = Colour.vertexSelectedColourG;
                         b = Colour.vertexSelectedColourB;
                     }
+                    overlay.updateFrame(viewportWidth, viewportHeight, viewportOriginAxis[3].z, r, g, b);
                     GL11.glLineWidth(7f);
-                    helper.drawLinesRGBgeneral(new float[]{
-                            viewportWidth, viewportHeight, viewportOriginAxis[3].z,
-                            r, g, b,
-                            viewportWidth, -viewportHeight, viewportOriginAxis[3].z,
-                            r, g, b
-                    });
+                    helper.drawLinesRGBoverlay(overlay, OverlayGeometry.FRAME, 0, 2);
                     GL11.glLineWidth(10f);
-                    helper.drawLinesRGBgeneral(new float[]{
-                            -viewportWidth, -viewportHeight, viewportOriginAxis[3].z,
-                            r, g, b,
-                            -viewportWidth, viewportHeight, viewportOriginAxis[3].z,
-                            r, g, b,
-                    });
+                    helper.drawLinesRGBoverlay(overlay, OverlayGeometry.FRAME, 2, 2);
                     GL11.glLineWidth(5f);
-                    helper.drawLinesRGBgeneral(new float[]{
-                            -viewportWidth, viewportHeight, viewportOriginAxis[3].z,
-                            r, g, b,
-                            viewportWidth, viewportHeight, viewportOriginAxis[3].z,
-                            r, g, b
-                    });
+                    helper.drawLinesRGBoverlay(overlay, OverlayGeometry.FRAME, 4, 2);
                     GL11.glLineWidth(10f);
-                    helper.drawLinesRGBgeneral(new float[]{
-                            -viewportWidth, -viewportHeight, viewportOriginAxis[3].z,
-                            r, g, b,
-                            viewportWidth, -viewportHeight, viewportOriginAxis[3].z,
-                            r, g, b
-                    });
+                    helper.drawLinesRGBoverlay(overlay, OverlayGeometry.FRAME, 6, 2);
                 }
 
                 if (!c3d.isDoingSelection() && !manipulator.isLocked() && !AddToolItem.isAddingSomething() && c3d.getDraggedPrimitive() == null) {
@@ -1353,8 +1309,6 @@ public class OpenGLRenderer33 extends OpenGLRenderer {
             }
         }
 
-        helper.destroyVBO();
-
         canvas.swapBuffers();
 
         // NLogger.debug(getClass(), "Frametime: " + (System.currentTimeMillis() - start)); //$NON-NLS-1$
@@ -1365,6 +1319,7 @@ public class OpenGLRenderer33 extends OpenGLRenderer {
         // Properly de-allocate all resources once they've outlived their purpose
         modelRenderer.dispose();
         modelRendererLDrawStandard.dispose();
+        helper.destroyVBO();
         shaderProgram.dispose();
         shaderProgram2.dispose();
         shaderProgram2D.dispose();
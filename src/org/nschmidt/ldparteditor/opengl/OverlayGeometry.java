@@ -0,0 +1,254 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.opengl;
+
+import java.util.Arrays;
+
+import org.lwjgl.util.vector.Vector3f;
+import org.lwjgl.util.vector.Vector4f;
+
+/**
+ * Caches the vertices of the static overlays of the 3D view (the grid, the
+ * origin and the frame of the edited file). The vertices of an overlay are
+ * only generated again if its input (grid, view origin, view size or colour)
+ * has changed. The buffers are re-used, and the version of an overlay tells
+ * the renderer if it has to upload the vertices again.
+ */
+public final class OverlayGeometry {
+
+    /** The lines of the small grid */
+    public static final int GRID_1 = 0;
+    /** The lines of the large grid (every tenth line) */
+    public static final int GRID_10 = 1;
+    /** The two axes through the origin */
+    public static final int ORIGIN = 2;
+    /** The frame of the edited file (right, left, top and bottom line) */
+    public static final int FRAME = 3;
+    public static final int LAYER_COUNT = 4;
+
+    /** The number of floats per vertex (position and colour) */
+    public static final int VERTEX_SIZE = 3 + 3;
+
+    private static final int KEY_SIZE = 4 * 4 + 4 * 3 + 4;
+
+    private final float[] key = new float[KEY_SIZE];
+    private final float[][] keys = new float[LAYER_COUNT][];
+    private final float[][] vertices = new float[LAYER_COUNT][];
+    private final int[] vertexCounts = new int[LAYER_COUNT];
+    private final int[] versions = new int[LAYER_COUNT];
+
+    public OverlayGeometry() {
+        for (int layer = 0; layer < LAYER_COUNT; layer++) {
+            vertices[layer] = new float[0];
+        }
+    }
+
+    /**
+     * Updates the lines of a grid.
+     *
+     * @param layer
+     *            {@link #GRID_1} or {@link #GRID_10}
+     * @param grid
+     *            the grid data of the view
+     * @param offset
+     *            the index of the grid in the grid data (upper left corner,
+     *            x-direction, y-direction and cell count)
+     * @param originAxis
+     *            the axes through the origin of the view
+     * @param zOffset
+     *            the depth offset of the lines
+     * @return {@code true} if the vertices were generated again
+     */
+    public boolean updateGrid(int layer, Vector4f[] grid, int offset, Vector3f[] originAxis, float zOffset, float r, float g, float b) {
+        int k = 0;
+        for (int i = 0; i < 4; i++) {
+            final Vector4f v = grid[offset + i];
+            key[k++] = v.x;
+            key[k++] = v.y;
+            key[k++] = v.z;
+            key[k++] = v.w;
+        }
+        k = putAxis(originAxis, k);
+        k = putColour(zOffset, r, g, b, k);
+        if (isUnchanged(layer, k)) {
+            return false;
+        }
+
+        final Vector4f corner = grid[offset];
+        final Vector4f dirX = grid[offset + 1];
+        final Vector4f dirY = grid[offset + 2];
+        final Vector4f cells = grid[offset + 3];
+
+        final int countY = stepCount(cells.y);
+        final int countX = stepCount(cells.x);
+        final float[] data = ensureCapacity(layer, (countX + countY) * 4);
+        int j = 0;
+
+        float y1 = corner.y;
+        float y2 = corner.y;
+        for (int i = 0; i < countY; i++) {
+            y2 = y2 - dirY.y;
+            j = putVertex(data, j, originAxis[0].x, y1, originAxis[0].z + zOffset, r, g, b);
+            j = putVertex(data, j, originAxis[1].x, y1, originAxis[1].z + zOffset, r, g, b);
+            j = putVertex(data, j, originAxis[0].x, y2, originAxis[0].z + zOffset, r, g, b);
+            j = putVertex(data, j, originAxis[1].x, y2, originAxis[1].z + zOffset, r, g, b);
+            y1 = y1 + dirY.y;
+        }
+
+        float x1 = corner.x;
+        float x2 = corner.x;
+        for (int i = 0; i < countX; i++) {
+            x2 = x2 - dirX.x;
+            j = putVertex(data, j, x2, originAxis[2].y, originAxis[2].z + zOffset, r, g, b);
+            j = putVertex(data, j, x2, originAxis[3].y, originAxis[3].z + zOffset, r, g, b);
+            j = putVertex(data, j, x1, originAxis[2].y, originAxis[2].z + zOffset, r, g, b);
+            j = putVertex(data, j, x1, originAxis[3].y, originAxis[3].z + zOffset, r, g, b);
+            x1 = x1 + dirX.x;
+        }
+
+        vertexCounts[layer] = j / VERTEX_SIZE;
+        return true;
+    }
+
+    /**
+     * Updates the axes through the origin.
+     *
+     * @return {@code true} if the vertices were generated again
+     */
+    public boolean updateOrigin(Vector3f[] originAxis, float zOffset, float r, float g, float b) {
+        int k = putAxis(originAxis, 0);
+        k = putColour(zOffset, r, g, b, k);
+        if (isUnchanged(ORIGIN, k)) {
+            return false;
+        }
+        final float[] data = ensureCapacity(ORIGIN, 4);
+        int j = 0;
+        for (int i = 0; i < 4; i++) {
+            j = putVertex(data, j, originAxis[i].x, originAxis[i].y, originAxis[i].z + zOffset, r, g, b);
+        }
+        vertexCounts[ORIGIN] = 4;
+        return true;
+    }
+
+    /**
+     * Updates the frame of the edited file. The frame consists of four lines
+     * (right, left, top and bottom).
+     *
+     * @param width
+     *            the half width of the view
+     * @param height
+     *            the half height of the view
+     * @param z
+     *            the depth of the lines
+     * @return {@code true} if the vertices were generated again
+     */
+    public boolean updateFrame(float width, float height, float z, float r, float g, float b) {
+        key[0] = width;
+        key[1] = height;
+        final int k = putColour(z, r, g, b, 2);
+        if (isUnchanged(FRAME, k)) {
+            return false;
+        }
+        final float[] data = ensureCapacity(FRAME, 8);
+        int j = 0;
+        j = putVertex(data, j, width, height, z, r, g, b);
+        j = putVertex(data, j, width, -height, z, r, g, b);
+        j = putVertex(data, j, -width, -height, z, r, g, b);
+        j = putVertex(data, j, -width, height, z, r, g, b);
+        j = putVertex(data, j, -width, height, z, r, g, b);
+        j = putVertex(data, j, width, height, z, r, g, b);
+        j = putVertex(data, j, -width, -height, z, r, g, b);
+        putVertex(data, j, width, -height, z, r, g, b);
+        vertexCounts[FRAME] = 8;
+        return true;
+    }
+
+    /**
+     * @return the vertex buffer of the overlay (it can be larger than
+     *         necessary)
+     */
+    public float[] getVertices(int layer) {
+        return vertices[layer];
+    }
+
+    public int getVertexCount(int layer) {
+        return vertexCounts[layer];
+    }
+
+    /**
+     * @return a number which changes each time the vertices of the overlay
+     *         are generated again
+     */
+    public int getVersion(int layer) {
+        return versions[layer];
+    }
+
+    private boolean isUnchanged(int layer, int keySize) {
+        final float[] lastKey = keys[layer];
+        if (lastKey != null && Arrays.equals(lastKey, 0, keySize, key, 0, keySize)) {
+            return true;
+        }
+        keys[layer] = Arrays.copyOf(key, keySize);
+        versions[layer]++;
+        return false;
+    }
+
+    private float[] ensureCapacity(int layer, int vertexCount) {
+        final int size = vertexCount * VERTEX_SIZE;
+        if (vertices[layer].length < size) {
+            vertices[layer] = new float[size];
+        }
+        return vertices[layer];
+    }
+
+    private int putAxis(Vector3f[] originAxis, int k) {
+        for (int i = 0; i < 4; i++) {
+            key[k++] = originAxis[i].x;
+            key[k++] = originAxis[i].y;
+            key[k++] = originAxis[i].z;
+        }
+        return k;
+    }
+
+    private int putColour(float z, float r, float g, float b, int k) {
+        key[k++] = z;
+        key[k++] = r;
+        key[k++] = g;
+        key[k++] = b;
+        return k;
+    }
+
+    private static int putVertex(float[] data, int j, float x, float y, float z, float r, float g, float b) {
+        data[j] = x;
+        data[j + 1] = y;
+        data[j + 2] = z;
+        data[j + 3] = r;
+        data[j + 4] = g;
+        data[j + 5] = b;
+        return j + VERTEX_SIZE;
+    }
+
+    /**
+     * @return the number of loop steps for {@code for (float i = 0f; i < limit; i += 1f)}
+     */
+    private static int stepCount(float limit) {
+        int result = 0;
+        for (float i = 0f; i < limit; i += 1f) {
+            result++;
+        }
+        return result;
+    }
+}
@@ -32,6 +32,7 @@ import org.nschmidt.ldparteditor.helper.Version;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
 import org.nschmidt.ldparteditor.shell.editortext.EditorTextWindow;
+import org.nschmidt.ldparteditor.text.LineStyleCache;
 import org.nschmidt.ldparteditor.win32appdata.AppData;
 import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 
@@ -323,11 +324,12 @@ public enum Project {
     }
 
     public static void addUnsavedFile(DatFile file) {
-        unsavedFiles.add(file);
+        // New files can resolve references in other files
+        if (unsavedFiles.add(file)) LineStyleCache.invalidateAll();
     }
 
     public static void removeUnsavedFile(DatFile file) {
-        unsavedFiles.remove(file);
+        if (unsavedFiles.remove(file)) LineStyleCache.invalidateAll();
     }
 
 
@@ -25,6 +25,7 @@ import java.math.BigDecimal;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -34,7 +35,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -90,6 +90,7 @@ import org.nschmidt.ldparteditor.composite.primitive.CompositePrimitive;
 import org.nschmidt.ldparteditor.data.BFC;
 import org.nschmidt.ldparteditor.data.DatFile;
 import org.nschmidt.ldparteditor.data.DatType;
+import org.nschmidt.ldparteditor.data.DecodedImageCache;
 import org.nschmidt.ldparteditor.data.GData;
 import org.nschmidt.ldparteditor.data.GData0;
 import org.nschmidt.ldparteditor.data.GData1;
@@ -119,10 +120,12 @@ import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.LDPartEditorException;
 import org.nschmidt.ldparteditor.helper.Manipulator;
 import org.nschmidt.ldparteditor.helper.ShellHelper;
+import org.nschmidt.ldparteditor.helper.TrigramIndex;
 import org.nschmidt.ldparteditor.helper.Version;
 import org.nschmidt.ldparteditor.helper.WidgetSelectionHelper;
 import org.nschmidt.ldparteditor.helper.WidgetSelectionListener;
 import org.nschmidt.ldparteditor.helper.composite3d.TreeData;
+import org.nschmidt.ldparteditor.helper.composite3d.FrameScheduler;
 import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
 import org.nschmidt.ldparteditor.helper.compositetext.ProjectActions;
 import org.nschmidt.ldparteditor.helper.compositetext.SubfileCompiler;
@@ -189,6 +192,12 @@ public class Editor3DWindow extends Editor3DDesign {
 
     private boolean updatingSelectionTab = true;
 
+    /** The entries of the part tree (in the order of the library folders) */
+    private final List<SearchEntry> searchEntries = new ArrayList<>();
+    /** Indexes the names of the part tree entries */
+    private TrigramIndex searchIndex = null;
+    private String searchProjectPath = null;
+
     private Map<DatFile, Map<Composite3D, org.nschmidt.ldparteditor.composite.Composite3DViewState>> c3dStates = new HashMap<>();
 
     /**
@@ -196,56 +205,60 @@ public class Editor3DWindow extends Editor3DDesign {
      */
     public Editor3DWindow() {
         super();
-        final int[] i = new int[1];
-        final int[] j = new int[1];
         final GLCanvas[] first1 = ViewIdleManager.firstCanvas;
         final OpenGLRenderer[] first2 = ViewIdleManager.firstRender;
-        final int[] intervall = new int[] { 10 };
-        Display.getCurrent().asyncExec(new Runnable() {
+        final FrameScheduler<OpenGLRenderer> scheduler = ViewIdleManager.frameScheduler;
+        final Display display = Display.getCurrent();
+        final Runnable frameLoop = new Runnable() {
             @Override
             public void run() {
                 if (ViewIdleManager.pause[0].get()) {
                     ViewIdleManager.pause[0].set(false);
-                    intervall[0] = 500;
-                } else {
-                    final int cs = canvasList.size();
-                    if (i[0] < cs && cs > 0) {
-                        GLCanvas canvas;
-                        if (!canvasList.get(i[0]).equals(first1[0])) {
-                            canvas = first1[0];
-                            if (canvas != null && !canvas.isDisposed()) {
-                                first2[0].drawScene();
-                                first1[0] = null;
-                                first2[0] = null;
-                            }
-                        }
-                        canvas = canvasList.get(i[0]);
-                        if (!canvas.isDisposed()) {
-                            boolean stdMode = ViewIdleManager.renderLDrawStandard[0].get();
-                            // FIXME Needs workaround since SWT upgrade to 4.5!
-                            if (renders.get(i[0]).getC3D().getRenderMode() != 5 || cs == 1 || stdMode) {
-                                renders.get(i[0]).drawScene();
-                                if (stdMode) {
-                                    j[0]++;
-                                }
-                            }
-                        } else {
-                            canvasList.remove(i[0]);
-                            renders.remove(i[0]);
-                        }
-                        i[0]++;
-                    } else {
-                        i[0] = 0;
-                        if (j[0] > cs) {
-                            j[0] = 0;
-                            ViewIdleManager.renderLDrawStandard[0].set(false);
-                        }
+                    display.timerExec(500, this);
+                    return;
+                }
+                scheduler.retain(renders);
+                final GLCanvas firstCanvas = first1[0];
+                final OpenGLRenderer firstRenderer = first2[0];
+                first1[0] = null;
+                first2[0] = null;
+                if (firstCanvas != null && !firstCanvas.isDisposed() && firstRenderer != null && scheduler.beginFrame(firstRenderer)) {
+                    firstRenderer.drawScene();
+                }
+                final boolean stdMode = ViewIdleManager.renderLDrawStandard[0].getAndSet(false);
+                final int cs = canvasList.size();
+                for (int i = 0; i < canvasList.size(); i++) {
+                    final GLCanvas canvas = canvasList.get(i);
+                    final OpenGLRenderer renderer = renders.get(i);
+                    if (canvas.isDisposed()) {
+                        canvasList.remove(i);
+                        renders.remove(i);
+                        scheduler.remove(renderer);
+                        i--;
+                        continue;
+                    }
+                    final boolean frameIsDue = scheduler.beginFrame(renderer);
+                    // FIXME Needs workaround since SWT upgrade to 4.5!
+                    if ((frameIsDue || stdMode) && (renderer.getC3D().getRenderMode() != 5 || cs == 1 || stdMode)) {
+                        renderer.drawScene();
                     }
                 }
-                Display.getCurrent().timerExec(intervall[0], this);
-                intervall[0] = 10;
+                final long delay = scheduler.getNextFrameDelay();
+                if (delay != FrameScheduler.SLEEPING) {
+                    display.timerExec((int) delay, this);
+                }
+            }
+        };
+        // Dirty signals from other threads wake up the frame loop
+        // (it has to run even while paused, because the scheduler only wakes it up once)
+        scheduler.setWakeUp(() -> {
+            if (!display.isDisposed()) {
+                display.asyncExec(() -> display.timerExec((int) FrameScheduler.MIN_FRAME_INTERVAL, frameLoop));
             }
         });
+        // Textures which were decoded in the background have to be shown
+        DecodedImageCache.SHARED.setDecodedListener(ViewIdleManager::invalidateAll);
+        display.asyncExec(frameLoop);
     }
 
     /**
@@ -1355,7 +1368,6 @@ public class Editor3DWindow extends Editor3DDesign {
                 getCompositePrimitive().disableRefresh();
             }
             getCompositePrimitive().collapseAll();
-            List<Primitive> prims = getCompositePrimitive().getPrimitives();
             final String crit = txtPrimitiveSearchPtr[0].getText();
             if (crit.trim().isEmpty()) {
                 getCompositePrimitive().setSearchResults(new ArrayList<>());
@@ -1372,11 +1384,7 @@ public class Editor3DWindow extends Editor3DDesign {
                 getCompositePrimitive().getOpenGL().drawScene(-1, -1);
                 return;
             }
-            final Pattern pattern = Pattern.compile(criteria);
-            List<Primitive> results = new ArrayList<>();
-            for (Primitive p : prims) {
-                p.search(pattern, results);
-            }
+            List<Primitive> results = getCompositePrimitive().searchPrimitives(crit);
             if (results.isEmpty()) {
                 results.add(null);
             }
@@ -2261,6 +2269,7 @@ public class Editor3DWindow extends Editor3DDesign {
         WorkbenchManager.getUserSettingState().setRecentItems(NewOpenSaveProjectToolItem.getRecentItems());
         // Save the workbench
         WorkbenchManager.saveWorkbench(WorkbenchManager.SETTINGS_GZ);
+        LibraryManager.saveCatalog();
         setReturnCode(CANCEL);
         close();
     }
@@ -2940,8 +2949,6 @@ public class Editor3DWindow extends Editor3DDesign {
             @Override
             public void run() {
 
-                String criteria = ".*" + word + ".*"; //$NON-NLS-1$ //$NON-NLS-2$
-
                 TreeItem[] folders = new TreeItem[15];
                 folders[0] = treeItemOfficialPartsPtr[0];
                 folders[1] = treeItemOfficialPrimitivesPtr[0];
@@ -2970,38 +2977,22 @@ public class Editor3DWindow extends Editor3DDesign {
                     }
                 }
 
-                try {
-                    "42".matches(criteria); //$NON-NLS-1$
-                } catch (Exception ex) {
-                    criteria = ".*"; //$NON-NLS-1$
+                if (!isSearchIndexValid(folders)) {
+                    rebuildSearchIndex(folders);
                 }
 
-                final Pattern pattern = Pattern.compile(criteria);
-                for (int i = 0; i < 15; i++) {
-                    TreeItem folder = folders[i];
-                    folder.removeAll();
-                    for (DatFile part : (List<DatFile>) folder.getData()) {
-                        StringBuilder nameSb = new StringBuilder(new File(part.getNewName()).getName());
-                        if (i > 9 && (!part.getNewName().startsWith(Project.getProjectPath()) || !part.getNewName().replace(Project.getProjectPath() + File.separator, "").contains(File.separator))) { //$NON-NLS-1$
-                            nameSb.insert(0, "(!) "); //$NON-NLS-1$
-                        }
-                        final String d = part.getDescription();
-                        if (d != null)
-                            nameSb.append(d);
-                        String name = nameSb.toString();
-                        TreeItem finding = new TreeItem(folder);
-                        // Save the path
-                        finding.setData(part);
-                        // Set the filename
-                        if (Project.getUnsavedFiles().contains(part) || !part.getOldName().equals(part.getNewName())) {
-                            // Insert asterisk if the file was
-                            // modified
-                            finding.setText("* " + name); //$NON-NLS-1$
-                        } else {
-                            finding.setText(name);
-                        }
-                        finding.setShown(!(d != null && d.startsWith(" - ~Moved to")) && pattern.matcher(name).matches()); //$NON-NLS-1$
+                // Show and hide the existing entries (and update the asterisk of modified files)
+                final BitSet matches = searchIndex.search(word);
+                for (int i = 0; i < searchEntries.size(); i++) {
+                    final SearchEntry entry = searchEntries.get(i);
+                    final DatFile part = entry.part();
+                    final boolean modified = Project.getUnsavedFiles().contains(part) || !part.getOldName().equals(part.getNewName());
+                    final String text = modified ? "* " + entry.name() : entry.name(); //$NON-NLS-1$
+                    if (!text.equals(entry.item().getText())) {
+                        entry.item().setText(text);
                     }
+                    final String d = entry.description();
+                    entry.item().setShown(!(d != null && d.startsWith(" - ~Moved to")) && matches.get(i)); //$NON-NLS-1$
                 }
                 folders[0].getParent().build();
                 folders[0].getParent().redraw();
@@ -3010,6 +3001,70 @@ public class Editor3DWindow extends Editor3DDesign {
         });
     }
 
+    /**
+     * Checks if the entries of the part tree still belong to the parts of
+     * the library folders (and if the file names and descriptions did not
+     * change). A renamed file gets a new name string, so it is sufficient to
+     * compare the identity of the strings.
+     */
+    @SuppressWarnings({"unchecked", "java:S4973"})
+    private boolean isSearchIndexValid(TreeItem[] folders) {
+        if (searchIndex == null || !Project.getProjectPath().equals(searchProjectPath)) {
+            return false;
+        }
+        int k = 0;
+        for (TreeItem folder : folders) {
+            final List<DatFile> parts = (List<DatFile>) folder.getData();
+            final List<TreeItem> items = folder.getItems();
+            if (parts.size() != items.size() || k + parts.size() > searchEntries.size()) {
+                return false;
+            }
+            for (int j = 0; j < parts.size(); j++) {
+                final SearchEntry entry = searchEntries.get(k++);
+                final DatFile part = parts.get(j);
+                if (entry.item() != items.get(j) || entry.part() != part || entry.newName() != part.getNewName() || entry.description() != part.getDescription()) {
+                    return false;
+                }
+            }
+        }
+        return k == searchEntries.size();
+    }
+
+    /**
+     * Creates the entries of the part tree and indexes their names
+     */
+    @SuppressWarnings("unchecked")
+    private void rebuildSearchIndex(TreeItem[] folders) {
+        searchEntries.clear();
+        searchProjectPath = Project.getProjectPath();
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            TreeItem folder = folders[i];
+            folder.removeAll();
+            for (DatFile part : (List<DatFile>) folder.getData()) {
+                final String newName = part.getNewName();
+                StringBuilder nameSb = new StringBuilder(new File(newName).getName());
+                if (i > 9 && (!newName.startsWith(searchProjectPath) || !newName.replace(searchProjectPath + File.separator, "").contains(File.separator))) { //$NON-NLS-1$
+                    nameSb.insert(0, "(!) "); //$NON-NLS-1$
+                }
+                final String d = part.getDescription();
+                if (d != null)
+                    nameSb.append(d);
+                String name = nameSb.toString();
+                TreeItem finding = new TreeItem(folder);
+                // Save the path
+                finding.setData(part);
+                finding.setText(name);
+                searchEntries.add(new SearchEntry(finding, part, newName, d, name));
+                names.add(name);
+            }
+        }
+        searchIndex = new TrigramIndex(names);
+    }
+
+    /** An entry of the part tree, with the values it was created from */
+    private record SearchEntry(TreeItem item, DatFile part, String newName, String description, String name) {}
+
     public void closeAllComposite3D() {
         canvasList.clear();
         List<OpenGLRenderer> renders2 = new ArrayList<>(renders);
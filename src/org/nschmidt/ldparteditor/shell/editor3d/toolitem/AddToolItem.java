@@ -43,6 +43,7 @@ import org.nschmidt.ldparteditor.enumtype.OpenInWhat;
 import org.nschmidt.ldparteditor.enumtype.Task;
 import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.Cocoa;
+import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
 import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.opengl.OpenGLRenderer;
@@ -430,6 +431,7 @@ public class AddToolItem extends ToolItem {
 
     private static void setAddingSomething(boolean addingSomething) {
         AddToolItem.addingSomething = addingSomething;
+        ViewIdleManager.invalidateAll();
         for (OpenGLRenderer renderer : Editor3DWindow.getRenders()) {
             renderer.getC3D().getLockableDatFileReference().getVertexManager().clearSelection();
         }
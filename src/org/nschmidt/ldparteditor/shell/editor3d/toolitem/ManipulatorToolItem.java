@@ -24,6 +24,7 @@ import org.nschmidt.ldparteditor.enumtype.Task;
 import org.nschmidt.ldparteditor.helper.Cocoa;
 import org.nschmidt.ldparteditor.helper.Manipulator;
 import org.nschmidt.ldparteditor.helper.WidgetSelectionHelper;
+import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
 import org.nschmidt.ldparteditor.helper.math.MatrixOperations;
 import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.opengl.OpenGLRenderer;
@@ -937,6 +938,8 @@ public class ManipulatorToolItem extends ToolItem {
     }
 
     private static void regainFocus() {
+        // The manipulators of the edited file have changed
+        ViewIdleManager.invalidate(Project.getFileToEdit());
         Editor3DWindow.getWindow().regainFocus();
     }
 }
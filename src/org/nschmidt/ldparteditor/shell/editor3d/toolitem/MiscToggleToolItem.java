@@ -23,6 +23,7 @@ import org.nschmidt.ldparteditor.composite.ToolItem;
 import org.nschmidt.ldparteditor.enumtype.Task;
 import org.nschmidt.ldparteditor.helper.Cocoa;
 import org.nschmidt.ldparteditor.helper.composite3d.GuiStatusManager;
+import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
 import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.resource.ResourceManager;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
@@ -59,6 +60,7 @@ public class MiscToggleToolItem extends ToolItem {
     public static void setMovingAdjacentData(boolean movingAdjacentData) {
         btnMoveAdjacentDataPtr[0].setSelection(movingAdjacentData);
         MiscToggleToolItem.movingAdjacentData = movingAdjacentData;
+        ViewIdleManager.invalidateAll();
         WorkbenchManager.getUserSettingState().setMovingAdjacentData(movingAdjacentData);
     }
 
@@ -68,6 +70,7 @@ public class MiscToggleToolItem extends ToolItem {
 
     public static void setNoTransparentSelection(boolean noTransparentSelection) {
         MiscToggleToolItem.noTransparentSelection = noTransparentSelection;
+        ViewIdleManager.invalidateAll();
     }
 
     public static boolean hasBfcToggle() {
@@ -76,6 +79,7 @@ public class MiscToggleToolItem extends ToolItem {
 
     public static void setBfcToggle(boolean bfcToggle) {
         MiscToggleToolItem.bfcToggle = bfcToggle;
+        ViewIdleManager.invalidateAll();
     }
 
     private static void createWidgets(MiscToggleToolItem miscToggleToolItem) {
@@ -128,6 +128,7 @@ import org.nschmidt.ldparteditor.helper.composite3d.SymSplitterSettings;
 import org.nschmidt.ldparteditor.helper.composite3d.TJunctionSettings;
 import org.nschmidt.ldparteditor.helper.composite3d.Txt2DatSettings;
 import org.nschmidt.ldparteditor.helper.composite3d.UnificatorSettings;
+import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
 import org.nschmidt.ldparteditor.helper.composite3d.YTruderSettings;
 import org.nschmidt.ldparteditor.helper.compositetext.SubfileCompiler;
 import org.nschmidt.ldparteditor.helper.math.Vector3d;
@@ -143,6 +144,7 @@ import org.nschmidt.ldparteditor.shell.editortext.EditorTextWindow;
 import org.nschmidt.ldparteditor.state.KeyStateManager;
 import org.nschmidt.ldparteditor.text.DatParser;
 import org.nschmidt.ldparteditor.text.LDParsingException;
+import org.nschmidt.ldparteditor.text.LineStyleCache;
 import org.nschmidt.ldparteditor.text.StringHelper;
 import org.nschmidt.ldparteditor.text.TextTriangulator;
 import org.nschmidt.ldparteditor.text.UTF8BufferedReader;
@@ -2706,6 +2708,9 @@ public class MiscToolItem extends ToolItem {
         widgetUtil(mntmOptionsPtr[0]).addSelectionListener(e -> {
             OptionsDialog dialog = new OptionsDialog(Editor3DWindow.getWindow().getShell());
             dialog.run();
+            // The options may change the colours of all views and the library folders
+            ViewIdleManager.invalidateAll();
+            LineStyleCache.invalidateAll();
             regainFocus();
         });
 
@@ -2721,6 +2726,7 @@ public class MiscToolItem extends ToolItem {
 
             String selected = fd.open();
             LDConfigUtils.reloadLDConfig(selected);
+            ViewIdleManager.invalidateAll();
             regainFocus();
         });
 
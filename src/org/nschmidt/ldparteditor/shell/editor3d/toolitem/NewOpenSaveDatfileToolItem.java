@@ -48,7 +48,6 @@ import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
 import org.nschmidt.ldparteditor.shell.editortext.EditorTextWindow;
 import org.nschmidt.ldparteditor.state.KeyStateManager;
 import org.nschmidt.ldparteditor.text.Stl2Dat;
-import org.nschmidt.ldparteditor.text.UTF8PrintWriter;
 import org.nschmidt.ldparteditor.widget.NButton;
 import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 
@@ -302,9 +301,8 @@ public class NewOpenSaveDatfileToolItem extends ToolItem {
                 NLogger.debug(NewOpenSaveDatfileToolItem.class, "Convert stl-file to dat-file..."); //$NON-NLS-1$
                 String stlFilePath = new File(fd.getFilterPath() + File.separator + fileName).getAbsolutePath();
                 absoluteFilePath = new File(fd.getFilterPath() + File.separator + fileName).getAbsolutePath() + ".dat"; //$NON-NLS-1$
-                try (UTF8PrintWriter r = new UTF8PrintWriter(absoluteFilePath)) {
-                    r.println(Stl2Dat.convertStlToDatFile(stlFilePath, WorkbenchManager.getUserSettingState()));
-                    r.flush();
+                try {
+                    Stl2Dat.convertStlToDatFile(stlFilePath, absoluteFilePath, WorkbenchManager.getUserSettingState());
                 } catch (IOException ioe) {
                     NLogger.debug(NewOpenSaveDatfileToolItem.class, ioe);
                 }
@@ -23,6 +23,7 @@ import org.nschmidt.ldparteditor.composite.ToolItem;
 import org.nschmidt.ldparteditor.enumtype.Task;
 import org.nschmidt.ldparteditor.enumtype.WorkingMode;
 import org.nschmidt.ldparteditor.helper.Cocoa;
+import org.nschmidt.ldparteditor.helper.composite3d.ViewIdleManager;
 import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.resource.ResourceManager;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
@@ -51,6 +52,7 @@ public class TransformationModeToolItem extends ToolItem {
 
     public static void setWorkingAction(WorkingMode workingAction) {
         TransformationModeToolItem.workingAction = workingAction;
+        ViewIdleManager.invalidateAll();
         switch (workingAction) {
         case COMBINED:
             clickRadioBtn(btnCombinedPtr[0]);
@@ -111,6 +113,7 @@ public class TransformationModeToolItem extends ToolItem {
     private static void switchWorkingAction(NButton[] ptr, WorkingMode workingMode) {
         clickRadioBtn(ptr[0]);
         workingAction = workingMode;
+        ViewIdleManager.invalidateAll();
         AddToolItem.disableAddAction();
         regainFocus();
     }
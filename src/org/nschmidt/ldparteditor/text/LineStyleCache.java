@@ -0,0 +1,171 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor.text;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.swt.custom.StyleRange;
+
+/**
+ * Remembers the style ranges of the formatted lines of one file. A line is
+ * only formatted again if its text or one of the highlighting inputs has
+ * changed. The lines are identified by their text, so an edit invalidates
+ * only the lines which were changed.<br>
+ * <br>
+ * The styles of a line are shared by all lines with the same text. Only the
+ * ranges (see {@link org.eclipse.swt.custom.LineStyleEvent#ranges}) depend on
+ * the position of the line.
+ */
+public final class LineStyleCache {
+
+    /** The maximum number of cached lines (the least recently formatted lines are removed first) */
+    public static final int MAX_SIZE = 100000;
+
+    /** Changes when the formatting of unchanged lines can change (e.g. new files or colours) */
+    private static int globalGeneration = 0;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    private int generation = globalGeneration;
+
+    /**
+     * Invalidates the cached lines of all files. This is necessary when the
+     * formatting of a line depends on something else than its text, like the
+     * colour table or the existence of a referenced file.
+     */
+    public static void invalidateAll() {
+        globalGeneration++;
+    }
+
+    /**
+     * @return the cached styles for the line or {@code null} if the line has
+     *         to be formatted
+     */
+    public LineStyles get(String lineText, int lineOffset, float vx, float vy, float vz, float replaceEpsilon, int flags) {
+        if (generation != globalGeneration) {
+            generation = globalGeneration;
+            entries.clear();
+            return null;
+        }
+        final Entry entry = entries.get(lineText);
+        if (entry == null || !entry.matches(lineOffset, vx, vy, vz, replaceEpsilon, flags)) {
+            return null;
+        }
+        if (entry.lines.lineOffset != lineOffset) {
+            // The text above the line has changed (or the same text is on another line)
+            entry.lines = entry.lines.moveTo(lineOffset);
+        }
+        return entry.lines;
+    }
+
+    /**
+     * Remembers the styles of a formatted line.
+     *
+     * @param styles
+     *            the style ranges with absolute offsets (the array must not be
+     *            modified afterwards)
+     * @return the styles which can be used for the line
+     */
+    public LineStyles put(String lineText, int lineOffset, float vx, float vy, float vz, float replaceEpsilon, int flags, StyleRange[] styles) {
+        final int[] ranges = new int[styles.length * 2];
+        for (int i = 0; i < styles.length; i++) {
+            ranges[2 * i] = styles[i].start;
+            ranges[2 * i + 1] = styles[i].length;
+        }
+        final LineStyles lines = new LineStyles(lineOffset, styles, ranges);
+        entries.put(lineText, new Entry(vx, vy, vz, replaceEpsilon, flags, lines));
+        return lines;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * The styles of a line at a certain position. The arrays must not be
+     * modified.
+     */
+    public static final class LineStyles {
+        private final int lineOffset;
+        private final StyleRange[] styles;
+        private final int[] ranges;
+
+        private LineStyles(int lineOffset, StyleRange[] styles, int[] ranges) {
+            this.lineOffset = lineOffset;
+            this.styles = styles;
+            this.ranges = ranges;
+        }
+
+        /**
+         * @return the styles (their start and length are only valid for the
+         *         line where they were created)
+         */
+        public StyleRange[] getStyles() {
+            return styles;
+        }
+
+        /**
+         * @return the start and length of each style (with the offsets of this
+         *         line)
+         */
+        public int[] getRanges() {
+            return ranges;
+        }
+
+        private LineStyles moveTo(int newOffset) {
+            // The old ranges may still be in use by the text widget
+            final int delta = newOffset - lineOffset;
+            final int[] moved = ranges.clone();
+            for (int i = 0; i < moved.length; i += 2) {
+                moved[i] += delta;
+            }
+            return new LineStyles(newOffset, styles, moved);
+        }
+    }
+
+    private static final class Entry {
+        private final float vx;
+        private final float vy;
+        private final float vz;
+        private final float replaceEpsilon;
+        private final int flags;
+        private LineStyles lines;
+
+        Entry(float vx, float vy, float vz, float replaceEpsilon, int flags, LineStyles lines) {
+            this.vx = vx;
+            this.vy = vy;
+            this.vz = vz;
+            this.replaceEpsilon = replaceEpsilon;
+            this.flags = flags;
+            this.lines = lines;
+        }
+
+        boolean matches(int lineOffset, float vx, float vy, float vz, float replaceEpsilon, int flags) {
+            // The first line is formatted in a different way
+            return this.flags == flags
+                    && (lines.lineOffset == 0) == (lineOffset == 0)
+                    && this.vx == vx && this.vy == vy && this.vz == vz && this.replaceEpsilon == replaceEpsilon;
+        }
+    }
+}
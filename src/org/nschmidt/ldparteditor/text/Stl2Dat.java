@@ -15,149 +15,354 @@ FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TOR
 ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
 package org.nschmidt.ldparteditor.text;
 
-import java.io.DataInputStream;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.regex.Pattern;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
 
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.workbench.UserSettingState;
 
 public enum Stl2Dat {
     INSTANCE;
-    
-    private static final Pattern WHITESPACE = Pattern.compile("\\s+"); //$NON-NLS-1$
-    
+
+    /** The size of the header of a binary STL file (80 bytes text + 4 bytes facet count) */
+    private static final int BINARY_HEADER_SIZE = 84;
+    /** The size of one facet in a binary STL file (normal, three vertices and the attribute byte count) */
+    private static final int BINARY_FACET_SIZE = 50;
+    /** The number of facets which are mapped into memory at once */
+    private static final int FACETS_PER_CHUNK = 1 << 20;
+    /** Vertices which are closer than this distance (on each axis) are welded */
+    static final double WELD_DISTANCE = 1E-5;
+
+    /**
+     * Converts a STL file into the text of a DAT file.
+     *
+     * @param path
+     *            the path of the STL file
+     * @param userSetting
+     *            the user settings for the header of the DAT file
+     * @return the text of the DAT file
+     */
     public static String convertStlToDatFile(String path, UserSettingState userSetting) {
         final StringBuilder result = new StringBuilder();
-        appendPartHeader(result, userSetting);
-        
-        boolean readBinaryStl = false;
-        
-        try (UTF8BufferedReader reader = new UTF8BufferedReader(path)) {
-            String firstLine = reader.readLine();
-            if (firstLine.startsWith("solid ")) { //$NON-NLS-1$
-                readAsciiStlFile(result, reader);
-            } else {
+        convertStlToDatFile(path, userSetting, line -> {
+            result.append(line);
+            result.append("\r\n"); //$NON-NLS-1$
+        });
+        return result.toString();
+    }
+
+    /**
+     * Converts a STL file into a DAT file. The DAT file is written while the
+     * STL file is read, so the memory usage does not depend on the size of the
+     * file (only on the number of distinct vertices).
+     *
+     * @param path
+     *            the path of the STL file
+     * @param datPath
+     *            the path of the new DAT file
+     * @param userSetting
+     *            the user settings for the header of the DAT file
+     * @throws IOException
+     *             if the DAT file can't be written
+     */
+    public static void convertStlToDatFile(String path, String datPath, UserSettingState userSetting) throws IOException {
+        try (UTF8PrintWriter r = new UTF8PrintWriter(datPath)) {
+            convertStlToDatFile(path, userSetting, r::println);
+            r.flush();
+        }
+    }
+
+    private static void convertStlToDatFile(String path, UserSettingState userSetting, Consumer<String> out) {
+        appendPartHeader(out, userSetting);
+
+        boolean readBinaryStl = isBinaryStlFile(path);
+
+        if (!readBinaryStl) {
+            try (UTF8BufferedReader reader = new UTF8BufferedReader(path)) {
+                String firstLine = reader.readLine();
+                if (firstLine != null && firstLine.startsWith("solid ")) { //$NON-NLS-1$
+                    readAsciiStlFile(out, reader);
+                } else {
+                    readBinaryStl = true;
+                }
+            } catch (IOException ex) {
+                NLogger.debug(Stl2Dat.class, ex);
                 readBinaryStl = true;
             }
-        } catch (IOException ex) {
-            NLogger.debug(Stl2Dat.class, ex);
-            readBinaryStl = true;
         }
-        
+
         if (readBinaryStl) {
-            readBinaryStlFile(result, path);
+            readBinaryStlFile(out, path);
         }
-        
-        return result.toString();
     }
 
-    private static void appendPartHeader(StringBuilder result, UserSettingState userSetting) {
-        result.append("0 STL-Import\r\n"); //$NON-NLS-1$
-        result.append("0 Name: stl.dat\r\n"); //$NON-NLS-1$
+    private static void appendPartHeader(Consumer<String> out, UserSettingState userSetting) {
+        out.accept("0 STL-Import"); //$NON-NLS-1$
+        out.accept("0 Name: stl.dat"); //$NON-NLS-1$
         String ldrawName = userSetting.getLdrawUserName();
         if (ldrawName == null || ldrawName.isEmpty()) {
-            result.append("0 Author: " + userSetting.getRealUserName()+ "\r\n"); //$NON-NLS-1$ //$NON-NLS-2$
+            out.accept("0 Author: " + userSetting.getRealUserName()); //$NON-NLS-1$
         } else {
-            result.append("0 Author: " + userSetting.getRealUserName() + " [" + userSetting.getLdrawUserName() + "]\r\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            out.accept("0 Author: " + userSetting.getRealUserName() + " [" + userSetting.getLdrawUserName() + "]"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
         }
-        
-        result.append("0 !LDRAW_ORG Unofficial_\r\n"); //$NON-NLS-1$
+
+        out.accept("0 !LDRAW_ORG Unofficial_"); //$NON-NLS-1$
         String license = userSetting.getLicense();
         if (license == null || license.isEmpty()) {
-            result.append("0 !LICENSE Licensed under CC BY 4.0 : see CAreadme.txt\r\n"); //$NON-NLS-1$
+            out.accept("0 !LICENSE Licensed under CC BY 4.0 : see CAreadme.txt"); //$NON-NLS-1$
         } else {
-            result.append(license);
-            result.append("\r\n"); //$NON-NLS-1$
+            out.accept(license);
+        }
+
+        out.accept(""); //$NON-NLS-1$
+        out.accept("0 BFC CERTIFY CCW"); //$NON-NLS-1$
+        out.accept(""); //$NON-NLS-1$
+    }
+
+    /**
+     * Binary STL files can start with "solid", too. The size of the file has
+     * to match the facet count from the header.
+     */
+    private static boolean isBinaryStlFile(String path) {
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < BINARY_HEADER_SIZE) return false;
+            final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, BINARY_HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            final long facetCount = header.getInt(80) & 0xFFFFFFFFL;
+            return size == BINARY_HEADER_SIZE + facetCount * BINARY_FACET_SIZE;
+        } catch (IOException ex) {
+            NLogger.debug(Stl2Dat.class, ex);
+            return false;
         }
-        
-        result.append("\r\n"); //$NON-NLS-1$
-        result.append("0 BFC CERTIFY CCW\r\n"); //$NON-NLS-1$
-        result.append("\r\n"); //$NON-NLS-1$
     }
-    
-    private static void readAsciiStlFile(StringBuilder result, UTF8BufferedReader reader) throws LDParsingException {
+
+    private static void readAsciiStlFile(Consumer<String> out, UTF8BufferedReader reader) throws LDParsingException {
+        final VertexWelder welder = new VertexWelder(true);
+        final double[] coordinates = new double[3];
+        final int[] triangle = new int[3];
+        final StringBuilder lineSb = new StringBuilder();
+        int vertexCount = 0;
         String line;
-        
-        int counter = 0;
-        
-        StringBuilder lineSb = new StringBuilder();
-        lineSb.append("3 16 "); //$NON-NLS-1$
         while ((line = reader.readLine()) != null) {
-            counter++;
             line = line.trim();
             if (line.startsWith("endsolid")) break; //$NON-NLS-1$
-            
-            if (counter == 3 || counter == 4) {
-                String[] lineSegments = WHITESPACE.split(line);
-                lineSb.append(lineSegments[1] + " " + lineSegments[2] + " " + lineSegments[3] + " "); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-            } else if (counter == 5) {
-                String[] lineSegments = WHITESPACE.split(line);
-                lineSb.append(lineSegments[1] + " " + lineSegments[2] + " " + lineSegments[3]); //$NON-NLS-1$ //$NON-NLS-2$
-            } else if (counter == 7) {
-                result.append(lineSb.toString());
-                result.append("\r\n"); //$NON-NLS-1$
-                
-                lineSb.setLength(0);
-                lineSb.append("3 16 "); //$NON-NLS-1$
-                counter = 0;
+            if (!line.startsWith("vertex")) continue; //$NON-NLS-1$
+
+            // Split "vertex x y z" at the whitespace
+            int start = 6;
+            int end = line.length();
+            for (int i = 0; i < 3; i++) {
+                while (start < end && Character.isWhitespace(line.charAt(start))) start++;
+                int tokenEnd = start;
+                while (tokenEnd < end && !Character.isWhitespace(line.charAt(tokenEnd))) tokenEnd++;
+                try {
+                    coordinates[i] = Double.parseDouble(line.substring(start, tokenEnd));
+                } catch (NumberFormatException nfe) {
+                    NLogger.debug(Stl2Dat.class, nfe);
+                    coordinates[i] = 0.0;
+                }
+                start = tokenEnd;
+            }
+
+            triangle[vertexCount] = welder.weld(coordinates[0], coordinates[1], coordinates[2], line.substring(6).trim());
+            vertexCount++;
+            if (vertexCount == 3) {
+                vertexCount = 0;
+                appendTriangle(out, lineSb, welder, triangle);
             }
         }
     }
-    
-    private static void readBinaryStlFile(StringBuilder result, String path) {
-        try (DataInputStream is = new DataInputStream(new FileInputStream(path))) {
-            // Read header
-            is.readNBytes(80);
-            // Read number of facets in file
-            is.readNBytes(4);
-            // Read bytes for normal (ignored)
-            while (is.readNBytes(12).length != 0) {
-                // Read triangle
-                result.append("3 16 "); //$NON-NLS-1$
-                result.append(readFloat(is));
-                result.append(' ');
-                result.append(readFloat(is));
-                result.append(' ');
-                result.append(readFloat(is));
-                
-                result.append(' ');
-                result.append(readFloat(is));
-                result.append(' ');
-                result.append(readFloat(is));
-                result.append(' ');
-                result.append(readFloat(is));
-                
-                result.append(' ');
-                result.append(readFloat(is));
-                result.append(' ');
-                result.append(readFloat(is));
-                result.append(' ');
-                result.append(readFloat(is));
-                result.append('\r');
-                result.append('\n');
-                // Read attribute byte count (usually zero, ignored)
-                is.readNBytes(2);
+
+    private static void readBinaryStlFile(Consumer<String> out, String path) {
+        final VertexWelder welder = new VertexWelder(false);
+        final int[] triangle = new int[3];
+        final StringBuilder lineSb = new StringBuilder();
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            final long facetCount = Math.max(0L, (channel.size() - BINARY_HEADER_SIZE) / BINARY_FACET_SIZE);
+            for (long firstFacet = 0; firstFacet < facetCount; firstFacet += FACETS_PER_CHUNK) {
+                final int facets = (int) Math.min(FACETS_PER_CHUNK, facetCount - firstFacet);
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, BINARY_HEADER_SIZE + firstFacet * BINARY_FACET_SIZE, (long) facets * BINARY_FACET_SIZE);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                for (int f = 0; f < facets; f++) {
+                    // Skip the normal (the first 12 bytes) and ignore the attribute byte count
+                    int pos = f * BINARY_FACET_SIZE + 12;
+                    for (int v = 0; v < 3; v++) {
+                        triangle[v] = welder.weld(buffer.getFloat(pos), buffer.getFloat(pos + 4), buffer.getFloat(pos + 8), null);
+                        pos += 12;
+                    }
+                    appendTriangle(out, lineSb, welder, triangle);
+                }
             }
         } catch (IOException ex) {
             NLogger.debug(Stl2Dat.class, ex);
-            result.append("0 // "); //$NON-NLS-1$
-            result.append(ex.getMessage());
-            result.append('\r');
-            result.append('\n');
+            out.accept("0 // " + ex.getMessage()); //$NON-NLS-1$
+        }
+    }
+
+    private static void appendTriangle(Consumer<String> out, StringBuilder lineSb, VertexWelder welder, int[] triangle) {
+        // Triangles with welded vertices are degenerated
+        if (triangle[0] == triangle[1] || triangle[1] == triangle[2] || triangle[2] == triangle[0]) return;
+        lineSb.setLength(0);
+        lineSb.append("3 16"); //$NON-NLS-1$
+        for (int v : triangle) {
+            lineSb.append(' ');
+            welder.appendVertex(lineSb, v);
         }
+        out.accept(lineSb.toString());
     }
 
-    private static float readFloat(DataInputStream is) throws IOException {
-        final byte[] bytes = is.readNBytes(4);
-        if (bytes.length != 4) return 0f;
-        
-        int value = bytes[3] & 0xFF;
-        value = (value << 8) + (bytes[2] & 0xFF);
-        value = (value << 8) + (bytes[1] & 0xFF);
-        value = (value << 8) + (bytes[0] & 0xFF);
-        
-        return Float.intBitsToFloat(value);
+    /**
+     * Merges vertices which are closer than {@link #WELD_DISTANCE} with a hash
+     * grid. Each vertex is stored only once and is written with the
+     * coordinates of its first occurrence.
+     */
+    static final class VertexWelder {
+
+        /** The edge length of a cell. A close vertex is in the same cell or in one of the seven neighbour cells towards the nearest corner. */
+        private static final double CELL_SIZE = 2.0 * WELD_DISTANCE;
+
+        private final boolean keepText;
+        private String[] texts = new String[1024];
+        private double[] coordinates = new double[3 * 1024];
+        /** The next vertex in the same cell */
+        private int[] next = new int[1024];
+        private int count = 0;
+
+        /** Open addressing table from the cell key to the first vertex in the cell */
+        private long[] cellKeys = new long[2048];
+        private int[] cellHeads = new int[2048];
+        private int cellCount = 0;
+
+        /**
+         * @param keepText
+         *            {@code true} if the vertices should be written with
+         *            their original text
+         */
+        VertexWelder(boolean keepText) {
+            this.keepText = keepText;
+            Arrays.fill(cellHeads, -1);
+        }
+
+        /**
+         * @return the index of the vertex (the index of an earlier vertex if
+         *         it was close enough)
+         */
+        int weld(double x, double y, double z, String text) {
+            final double gx = x / CELL_SIZE;
+            final double gy = y / CELL_SIZE;
+            final double gz = z / CELL_SIZE;
+            final long cx = (long) Math.floor(gx);
+            final long cy = (long) Math.floor(gy);
+            final long cz = (long) Math.floor(gz);
+            int result = find(cx, cy, cz, x, y, z);
+            if (result == -1) {
+                final int dx = gx - cx < 0.5 ? -1 : 1;
+                final int dy = gy - cy < 0.5 ? -1 : 1;
+                final int dz = gz - cz < 0.5 ? -1 : 1;
+                for (int i = 1; i < 8 && result == -1; i++) {
+                    result = find(cx + ((i & 1) != 0 ? dx : 0), cy + ((i & 2) != 0 ? dy : 0), cz + ((i & 4) != 0 ? dz : 0), x, y, z);
+                }
+            }
+            if (result == -1) {
+                result = add(cx, cy, cz, x, y, z, text);
+            }
+            return result;
+        }
+
+        void appendVertex(StringBuilder sb, int index) {
+            if (keepText) {
+                sb.append(texts[index]);
+            } else {
+                sb.append((float) coordinates[3 * index]);
+                sb.append(' ');
+                sb.append((float) coordinates[3 * index + 1]);
+                sb.append(' ');
+                sb.append((float) coordinates[3 * index + 2]);
+            }
+        }
+
+        private int find(long cx, long cy, long cz, double x, double y, double z) {
+            final long key = key(cx, cy, cz);
+            int slot = slot(key);
+            while (cellHeads[slot] != -1) {
+                if (cellKeys[slot] == key) {
+                    for (int v = cellHeads[slot]; v != -1; v = next[v]) {
+                        if (Math.abs(coordinates[3 * v] - x) < WELD_DISTANCE
+                                && Math.abs(coordinates[3 * v + 1] - y) < WELD_DISTANCE
+                                && Math.abs(coordinates[3 * v + 2] - z) < WELD_DISTANCE) {
+                            return v;
+                        }
+                    }
+                    return -1;
+                }
+                slot = (slot + 1) & (cellHeads.length - 1);
+            }
+            return -1;
+        }
+
+        private int add(long cx, long cy, long cz, double x, double y, double z, String text) {
+            if (count == next.length) {
+                next = Arrays.copyOf(next, count * 2);
+                coordinates = Arrays.copyOf(coordinates, count * 6);
+                if (keepText) texts = Arrays.copyOf(texts, count * 2);
+            }
+            final int index = count;
+            count++;
+            coordinates[3 * index] = x;
+            coordinates[3 * index + 1] = y;
+            coordinates[3 * index + 2] = z;
+            if (keepText) texts[index] = text;
+
+            if (2 * (cellCount + 1) > cellHeads.length) {
+                growCells();
+            }
+            final long key = key(cx, cy, cz);
+            int slot = slot(key);
+            while (cellHeads[slot] != -1 && cellKeys[slot] != key) {
+                slot = (slot + 1) & (cellHeads.length - 1);
+            }
+            if (cellHeads[slot] == -1) {
+                cellKeys[slot] = key;
+                cellCount++;
+            }
+            next[index] = cellHeads[slot];
+            cellHeads[slot] = index;
+            return index;
+        }
+
+        private void growCells() {
+            final long[] oldKeys = cellKeys;
+            final int[] oldHeads = cellHeads;
+            cellKeys = new long[oldKeys.length * 2];
+            cellHeads = new int[oldHeads.length * 2];
+            Arrays.fill(cellHeads, -1);
+            for (int i = 0; i < oldHeads.length; i++) {
+                if (oldHeads[i] != -1) {
+                    int slot = slot(oldKeys[i]);
+                    while (cellHeads[slot] != -1) {
+                        slot = (slot + 1) & (cellHeads.length - 1);
+                    }
+                    cellKeys[slot] = oldKeys[i];
+                    cellHeads[slot] = oldHeads[i];
+                }
+            }
+        }
+
+        /** Packs the cell coordinates into one key (cells which share a key are told apart by the distance check) */
+        private static long key(long cx, long cy, long cz) {
+            return (cx & 0x1FFFFFL) << 42 | (cy & 0x1FFFFFL) << 21 | cz & 0x1FFFFFL;
+        }
+
+        private int slot(long key) {
+            final long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 32) & (cellHeads.length - 1);
+        }
     }
 }
@@ -38,6 +38,7 @@ import org.nschmidt.ldparteditor.helper.math.MathHelper;
 import org.nschmidt.ldparteditor.helper.math.Vector3d;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.project.Project;
+import org.nschmidt.ldparteditor.text.LineStyleCache.LineStyles;
 import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
 
 /**
@@ -63,6 +64,9 @@ public class SyntaxFormatter {
     private final Vector3d controlI = new Vector3d();
     private final Vector3d controlII = new Vector3d();
 
+    /** {@code true} if the last formatted line references a file which does not exist */
+    private boolean referencesMissingFile = false;
+
     public SyntaxFormatter(StyledText compositeText) {
         this.compositeText = compositeText;
     }
@@ -84,6 +88,36 @@ public class SyntaxFormatter {
             float replaceEpsilon, boolean replaceVertex, boolean isSelected, boolean isDuplicate, boolean isVisible,
             DatFile df) {
 
+        // The vertex to replace is only relevant for the formatting if it is highlighted
+        final float vx = replaceVertex ? vxPrecise.floatValue() : 0f;
+        final float vy = replaceVertex ? vyPrecise.floatValue() : 0f;
+        final float vz = replaceVertex ? vzPrecise.floatValue() : 0f;
+        final float epsilon = replaceVertex ? replaceEpsilon : 0f;
+        final int flags = (replaceVertex ? 1 : 0) | (isSelected ? 2 : 0) | (isDuplicate ? 4 : 0) | (isVisible ? 8 : 0);
+
+        final LineStyleCache cache = df == null ? null : df.getLineStyleCache();
+        if (cache != null) {
+            final LineStyles cachedStyles = cache.get(e.lineText, e.lineOffset, vx, vy, vz, epsilon, flags);
+            if (cachedStyles != null) {
+                e.styles = cachedStyles.getStyles();
+                e.ranges = cachedStyles.getRanges();
+                return;
+            }
+        }
+
+        referencesMissingFile = false;
+        e.styles = createStyles(e, vx, vy, vz, epsilon, replaceVertex, isSelected, isDuplicate, isVisible, df);
+
+        // The referenced file can be created at any time, so the warning is not cached
+        if (cache != null && !referencesMissingFile) {
+            cache.put(e.lineText, e.lineOffset, vx, vy, vz, epsilon, flags, e.styles);
+        }
+    }
+
+    private StyleRange[] createStyles(LineStyleEvent e, float vx, float vy, float vz,
+            float replaceEpsilon, boolean replaceVertex, boolean isSelected, boolean isDuplicate, boolean isVisible,
+            DatFile df) {
+
         List<StyleRange> styles = new ArrayList<>();
 
         if (isDuplicate) {
@@ -94,14 +128,9 @@ public class SyntaxFormatter {
             errStyleRange.underlineColor = TextEditorColour.getLineErrorUnderline();
             errStyleRange.underlineStyle = SWT.UNDERLINE_ERROR;
             styles.add(errStyleRange);
-            e.styles = styles.toArray(new StyleRange[0]);
-            return;
+            return styles.toArray(new StyleRange[0]);
         }
 
-        float vx = vxPrecise.floatValue();
-        float vy = vyPrecise.floatValue();
-        float vz = vzPrecise.floatValue();
-
         String[] textSegments = e.lineText.split(" "); //$NON-NLS-1$
 
         // Get the linetype
@@ -119,8 +148,7 @@ public class SyntaxFormatter {
                     errStyleRange.underlineColor = TextEditorColour.getLineErrorUnderline();
                     errStyleRange.underlineStyle = SWT.UNDERLINE_ERROR;
                     styles.add(errStyleRange);
-                    e.styles = styles.toArray(new StyleRange[0]);
-                    return;
+                    return styles.toArray(new StyleRange[0]);
                 }
             }
         }
@@ -175,7 +203,7 @@ public class SyntaxFormatter {
                 }
             }
         }
-        e.styles = styles.toArray(new StyleRange[0]);
+        return styles.toArray(new StyleRange[0]);
     }
     
     /**
@@ -717,6 +745,7 @@ public class SyntaxFormatter {
                     if (fileExists) break;
                 }
             }
+            referencesMissingFile = !fileExists;
             // [WARNING] Check spaces in dat file name
             if (!fileExists || dataSegments.length > 15 || !isLowercase) {
                 for (int s = 15; s < styles.size(); s++) {
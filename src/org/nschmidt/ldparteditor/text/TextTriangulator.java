@@ -20,13 +20,19 @@ import java.awt.Shape;
 import java.awt.font.FontRenderContext;
 import java.awt.font.GlyphVector;
 import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -40,6 +46,7 @@ import org.nschmidt.ldparteditor.data.GData3;
 import org.nschmidt.ldparteditor.data.PGData3;
 import org.nschmidt.ldparteditor.enumtype.View;
 import org.nschmidt.ldparteditor.helper.LDPartEditorException;
+import org.nschmidt.ldparteditor.helper.ParallelFor;
 import org.nschmidt.ldparteditor.i18n.I18n;
 import org.nschmidt.ldparteditor.logger.NLogger;
 import org.nschmidt.ldparteditor.shell.editor3d.Editor3DWindow;
@@ -51,10 +58,28 @@ import org.tinfour.constrained.delaunay.SimpleTriangle;
 public enum TextTriangulator {
     INSTANCE;
 
+    /** The maximum number of cached glyph triangulations */
+    private static final int MAX_CACHED_GLYPHS = 2048;
+    /** The maximum number of triangles per shape */
+    private static final int TRIANGLE_LIMIT = 4000;
+
+    /**
+     * Caches the triangulation of single glyphs (in the coordinates of the
+     * glyph), since most texts use the same glyphs over and over again
+     */
+    private static final Map<GlyphKey, Triangulation> glyphCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<GlyphKey, Triangulation> eldest) {
+            return size() > MAX_CACHED_GLYPHS;
+        }
+    });
+
     public static Set<GData> triangulateText(Font font, final float r, final float g, final float b, final String text, final double flatness, final double marginPercentage, final GData1 parent, final DatFile datFile, int fontHeight, int mode) {
         final GlyphVector vector = font.createGlyphVector(new FontRenderContext(null, false, false), text);
 
-        final Set<GData> finalTriangleSet = Collections.synchronizedSet(new HashSet<>());
+        final Set<GData> finalTriangleSet = new HashSet<>();
 
         if (vector.getNumGlyphs() == 0)
             return finalTriangleSet;
@@ -67,8 +92,6 @@ public enum TextTriangulator {
         }
 
         final double scale = fontHeight / maxHeight;
-        final Thread[] threads = new Thread[vector.getNumGlyphs()];
-        final AtomicInteger counter = new AtomicInteger(vector.getNumGlyphs());
 
         try
         {
@@ -80,55 +103,27 @@ public enum TextTriangulator {
                     try
                     {
                         monitor.beginTask(I18n.TXT2DAT_TRIANGULATE, IProgressMonitor.UNKNOWN);
+                        NLogger.debug(TextTriangulator.class, "Triangulating {0}", text); //$NON-NLS-1$
                         if (mode == 2) {
-                            NLogger.debug(TextTriangulator.class, "Triangulating {0}", text); //$NON-NLS-1$
                             List<Shape> shapes = new ArrayList<>();
                             for (int j = 0; j < vector.getNumGlyphs(); j++) {
                                 shapes.add(vector.getGlyphOutline(j));
                             }
-                            Set<GData> characterTriangleSet = triangulateShape(monitor, shapes, parent, datFile, flatness, marginPercentage, scale, r, g, b, mode);
-                            NLogger.debug(TextTriangulator.class, "Triangulating [Done] {0}", text); //$NON-NLS-1$
-                            
-                            synchronized (finalTriangleSet) {
-                                finalTriangleSet.addAll(characterTriangleSet);
+                            final Triangulation triangulation = triangulateOutlines(shapes, flatness, marginPercentage, monitor::isCanceled);
+                            if (triangulation != null) {
+                                addTriangles(finalTriangleSet, triangulation, 0.0, 0.0, scale, r, g, b, parent, datFile, mode);
                             }
                         } else {
-                            for (int j = 0; j < vector.getNumGlyphs(); j++) {
-                                final int[] i = new int[1];
-                                i[0] = j;
-                                threads[j] = new Thread(() -> {
-                                    Shape characterShape = vector.getGlyphOutline(i[0]);
-                                    NLogger.debug(TextTriangulator.class, "Triangulating {0}", text.charAt(i[0])); //$NON-NLS-1$
-                                    List<Shape> shapes = new ArrayList<>();
-                                    shapes.add(characterShape);
-                                    Set<GData> characterTriangleSet = triangulateShape(monitor, shapes, parent, datFile, flatness, marginPercentage, scale, r, g, b, mode);
-                                    if (characterTriangleSet.isEmpty()) {
-                                        counter.decrementAndGet();
-                                    }
-    
-                                    NLogger.debug(TextTriangulator.class, "Triangulating [Done] {0}", text.charAt(i[0])); //$NON-NLS-1$
-    
-                                    synchronized (finalTriangleSet) {
-                                        finalTriangleSet.addAll(characterTriangleSet);
-                                    }
-                                });
-                                threads[j].start();
-                            }
-                            boolean isRunning = true;
-                            while (isRunning) {
-                                try {
-                                    Thread.sleep(100);
-                                } catch (InterruptedException ie) {
-                                    Thread.currentThread().interrupt();
-                                    throw new LDPartEditorException(ie);
-                                }
-                                isRunning = false;
-                                for (Thread thread : threads) {
-                                    if (thread.isAlive())
-                                        isRunning = true;
+                            final Triangulation[] glyphs = triangulateGlyphs(font, vector, flatness, marginPercentage, monitor::isCanceled);
+                            for (int j = 0; j < glyphs.length; j++) {
+                                if (glyphs[j] != null) {
+                                    final Point2D position = vector.getGlyphPosition(j);
+                                    addTriangles(finalTriangleSet, glyphs[j], position.getX(), position.getY(), scale, r, g, b, parent, datFile, mode);
                                 }
                             }
                         }
+                        NLogger.debug(TextTriangulator.class, "Triangulating [Done] {0}", text); //$NON-NLS-1$
+                        if (monitor.isCanceled()) finalTriangleSet.clear();
                     } catch (Exception ex) {
                         NLogger.error(TextTriangulator.class, ex);
                         throw ex;
@@ -156,22 +151,81 @@ public enum TextTriangulator {
         return finalTriangleSet;
     }
 
-    private static Set<GData> triangulateShape(IProgressMonitor monitor, List<Shape> shapes, GData1 parent, DatFile datFile, double flatness, double marginPercentage, double scale, float r, float g,
-            float b, int mode) {
-        
+    /**
+     * Triangulates each glyph of a glyph vector. A glyph is triangulated
+     * only once for a font, flatness and margin. The distinct glyphs which
+     * are not cached yet are triangulated in parallel.
+     *
+     * @param font
+     *            the font of the glyph vector
+     * @param vector
+     *            the glyph vector
+     * @param flatness
+     *            the maximum distance between the curves and their line
+     *            segments
+     * @param marginPercentage
+     *            the margin of the outer triangles (in percent of the glyph
+     *            size)
+     * @param isCancelled
+     *            stops the triangulation
+     * @return the triangulation of each glyph in the coordinates of the glyph
+     *         (it has to be moved to the glyph position). The entry is
+     *         {@code null} if the triangulation was cancelled.
+     */
+    public static Triangulation[] triangulateGlyphs(Font font, GlyphVector vector, double flatness, double marginPercentage, BooleanSupplier isCancelled) {
+        final int glyphCount = vector.getNumGlyphs();
+        final FontRenderContext frc = vector.getFontRenderContext();
+        final GlyphKey[] keys = new GlyphKey[glyphCount];
+        final Map<GlyphKey, Triangulation> triangulations = new HashMap<>();
+        final List<GlyphKey> missingKeys = new ArrayList<>();
+        for (int j = 0; j < glyphCount; j++) {
+            final GlyphKey key = new GlyphKey(font, vector.getGlyphCode(j), flatness, marginPercentage);
+            keys[j] = key;
+            if (!triangulations.containsKey(key)) {
+                final Triangulation cached = glyphCache.get(key);
+                triangulations.put(key, cached);
+                if (cached == null) missingKeys.add(key);
+            }
+        }
+
+        final List<GlyphTriangulation> results = ParallelFor.run(missingKeys.size(), isCancelled, (done, total) -> {}, (i, glyphResults) -> {
+            final GlyphKey key = missingKeys.get(i);
+            final Shape outline = font.createGlyphVector(frc, new int[] { key.glyphCode() }).getGlyphOutline(0);
+            final Triangulation triangulation = triangulateOutlines(List.of(outline), flatness, marginPercentage, isCancelled);
+            if (triangulation != null) {
+                glyphResults.add(new GlyphTriangulation(key, triangulation));
+            }
+        });
+        for (GlyphTriangulation result : results) {
+            triangulations.put(result.key(), result.triangulation());
+            glyphCache.put(result.key(), result.triangulation());
+        }
+
+        final Triangulation[] glyphs = new Triangulation[glyphCount];
+        for (int j = 0; j < glyphCount; j++) {
+            glyphs[j] = triangulations.get(keys[j]);
+        }
+        return glyphs;
+    }
+
+    /**
+     * Triangulates the area within the outlines of the shapes and the area
+     * between the shapes and their bounding box (with a margin)
+     *
+     * @return the triangulation or {@code null} if it was cancelled
+     */
+    public static Triangulation triangulateOutlines(List<Shape> shapes, double flatness, double marginPercentage, BooleanSupplier isCancelled) {
+
         double minX = Double.MAX_VALUE;
         double minY = Double.MAX_VALUE;
-        
+
         double maxX = -Double.MAX_VALUE;
         double maxY = -Double.MAX_VALUE;
-        
-        // now add all triangles which are in the shape to the set
-        Set<GData> finalTriangleSet = new HashSet<>();
-        
+
         /*
          * Add all polygons of the shape to the triangulation
          */
-        final IncrementalTin tin = new IncrementalTin(); 
+        final IncrementalTin tin = new IncrementalTin();
         final List<PolygonConstraint> outlines = new ArrayList<>();
 
         // Loop on characters and generate constraints.
@@ -225,11 +279,11 @@ public enum TextTriangulator {
                 default:
                     break;
                 }
-                
+
                 path.next();
             }
         }
-        
+
         // default is 1% marginPercentage => marginPercentage / 100.0 = 0.01
         marginPercentage = marginPercentage / 100.0;
         if (!outlines.isEmpty()) {
@@ -240,16 +294,17 @@ public enum TextTriangulator {
             poly.add(new Pnt(maxX + (maxX - minX) * marginPercentage, minY - (maxY - minY) * marginPercentage));
             outlines.add(poly);
         }
-        
+
         tin.addConstraints(outlines, true);
 
+        final Triangulation result = new Triangulation();
         if (tin.isBootstrapped()) {
-              GData anchor = new GData0(null, View.DUMMY_REFERENCE);
               int newTriangleCount = 0;
-              int limit = 4000 * shapes.size();
+              int limit = TRIANGLE_LIMIT * shapes.size();
               for (SimpleTriangle triangle : tin.triangles()) {
                   newTriangleCount += 1;
-                  if (newTriangleCount > limit || monitor.isCanceled()) break;
+                  if (newTriangleCount > limit) break;
+                  if (isCancelled.getAsBoolean()) return null;
 
                   Pnt point1 = triangle.getVertexA();
                   Pnt point2 = triangle.getVertexB();
@@ -265,49 +320,90 @@ public enum TextTriangulator {
                   midX /= 3.0;
                   midY /= 3.0;
 
-                  if (shapesContains(shapes, midX, midY)) {
-                      double[] vec1 = new double[] { point3.x - point1.x, point3.y - point1.y };
-                      double[] vec2 = new double[] { point3.x - point2.x, point3.y - point2.y };
-                      double wind = vec1[0] * vec2[1] - vec1[1] * vec2[0];
-                      if (wind < 0) {
-                          GData3 gdt = new GData3(-1, r, g, b, 1f, (float) (point1.x * scale), (float) (point1.y * scale), 0f, (float) (point2.x * scale),
-                                  (float) (point2.y * scale), 0f, (float) (point3.x * scale), (float) (point3.y * scale), 0f, parent, datFile, true);
-                          anchor.setNext(gdt);
-                          anchor = gdt;
-                          finalTriangleSet.add(gdt);
-                      } else {
-                          GData3 gdt = new GData3(-1, r, g, b, 1f, (float) (point1.x * scale), (float) (point1.y * scale), 0f, (float) (point3.x * scale),
-                                  (float) (point3.y * scale), 0f, (float) (point2.x * scale), (float) (point2.y * scale), 0f, parent, datFile, true);
-                          anchor.setNext(gdt);
-                          anchor = gdt;
-                          finalTriangleSet.add(gdt);
-                      }
-                  } else if (mode != 1) {
-                      double[] vec1 = new double[] { point3.x - point1.x, point3.y - point1.y };
-                      double[] vec2 = new double[] { point3.x - point2.x, point3.y - point2.y };
-                      double wind = vec1[0] * vec2[1] - vec1[1] * vec2[0];
-                      if (wind < 0) {
-                          GData3 gdt = new GData3(-1, 0.95f, 0.95f, 0.90f, 1f, (float) (point1.x * scale), (float) (point1.y * scale), 0f, (float) (point2.x * scale),
-                                  (float) (point2.y * scale), 0f, (float) (point3.x * scale), (float) (point3.y * scale), 0f, parent, datFile, true);
-                          anchor.setNext(gdt);
-                          anchor = gdt;
-                          finalTriangleSet.add(gdt);
-                      } else {
-                          GData3 gdt = new GData3(-1, 0.95f, 0.95f, 0.90f, 1f, (float) (point1.x * scale), (float) (point1.y * scale), 0f, (float) (point3.x * scale),
-                                  (float) (point3.y * scale), 0f, (float) (point2.x * scale), (float) (point2.y * scale), 0f, parent, datFile, true);
-                          anchor.setNext(gdt);
-                          anchor = gdt;
-                          finalTriangleSet.add(gdt);
-                      }
+                  final boolean inside = shapesContains(shapes, midX, midY);
+                  double[] vec1 = new double[] { point3.x - point1.x, point3.y - point1.y };
+                  double[] vec2 = new double[] { point3.x - point2.x, point3.y - point2.y };
+                  double wind = vec1[0] * vec2[1] - vec1[1] * vec2[0];
+                  if (wind < 0) {
+                      result.add(point1, point2, point3, inside);
+                  } else {
+                      result.add(point1, point3, point2, inside);
                   }
-
               }
         }
 
-        if (monitor.isCanceled()) finalTriangleSet.clear();
-        return finalTriangleSet;
+        return result;
+    }
+
+    /**
+     * Creates the triangles of a triangulation at a position
+     */
+    private static void addTriangles(Set<GData> finalTriangleSet, Triangulation triangulation, double dx, double dy, double scale, float r, float g, float b,
+            GData1 parent, DatFile datFile, int mode) {
+        GData anchor = new GData0(null, View.DUMMY_REFERENCE);
+        final double[] c = triangulation.coordinates;
+        for (int t = 0; t < triangulation.size; t++) {
+            final boolean inside = triangulation.inside.get(t);
+            if (!inside && mode == 1) continue;
+            final int o = t * 6;
+            final GData3 gdt;
+            if (inside) {
+                gdt = new GData3(-1, r, g, b, 1f, (float) ((c[o] + dx) * scale), (float) ((c[o + 1] + dy) * scale), 0f, (float) ((c[o + 2] + dx) * scale),
+                        (float) ((c[o + 3] + dy) * scale), 0f, (float) ((c[o + 4] + dx) * scale), (float) ((c[o + 5] + dy) * scale), 0f, parent, datFile, true);
+            } else {
+                gdt = new GData3(-1, 0.95f, 0.95f, 0.90f, 1f, (float) ((c[o] + dx) * scale), (float) ((c[o + 1] + dy) * scale), 0f, (float) ((c[o + 2] + dx) * scale),
+                        (float) ((c[o + 3] + dy) * scale), 0f, (float) ((c[o + 4] + dx) * scale), (float) ((c[o + 5] + dy) * scale), 0f, parent, datFile, true);
+            }
+            anchor.setNext(gdt);
+            anchor = gdt;
+            finalTriangleSet.add(gdt);
+        }
     }
 
+    /**
+     * The triangles of a triangulated shape (with the winding for LDraw)
+     */
+    public static final class Triangulation {
+        /** Six coordinates per triangle */
+        private double[] coordinates = new double[60];
+        /** Marks the triangles which are within the outline of the shape */
+        private final BitSet inside = new BitSet();
+        private int size = 0;
+
+        private void add(Pnt p1, Pnt p2, Pnt p3, boolean isInside) {
+            final int o = size * 6;
+            if (o + 6 > coordinates.length) {
+                coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+            }
+            coordinates[o] = p1.x;
+            coordinates[o + 1] = p1.y;
+            coordinates[o + 2] = p2.x;
+            coordinates[o + 3] = p2.y;
+            coordinates[o + 4] = p3.x;
+            coordinates[o + 5] = p3.y;
+            inside.set(size, isInside);
+            size++;
+        }
+
+        /**
+         * @return the number of triangles
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return the number of triangles within the outline of the shape
+         */
+        public int getInsideCount() {
+            return inside.cardinality();
+        }
+    }
+
+    private record GlyphKey(Font font, int glyphCode, double flatness, double marginPercentage) {}
+
+    private record GlyphTriangulation(GlyphKey key, Triangulation triangulation) {}
+
     static boolean shapesContains(List<Shape> shapes, double x, double y) {
         for (Shape shape : shapes) {
             if (shape.contains(x, y)) return true;
@@ -28,6 +28,7 @@ import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Menu;
 import org.nschmidt.ldparteditor.helper.WidgetSelectionListener;
@@ -39,19 +40,31 @@ public class Tree {
     private final List<TreeItem> items = new ArrayList<>();
     private final Map<org.eclipse.swt.widgets.TreeItem, TreeItem> tiFromSWT = new HashMap<>();
     private org.eclipse.swt.widgets.TreeItem[] itemsSWT;
+    /** The flat list of all rows (only for a tree with the style {@code SWT.VIRTUAL}) */
+    private final List<TreeItem> rows = new ArrayList<>();
+    private final boolean virtual;
 
     int counter;
 
     /**
+     * Creates a new tree. With the style {@code SWT.VIRTUAL} the SWT items are
+     * only populated when they become visible.
+     *
      * @param parent
      * @param columnCount
      *
      */
     public Tree(Composite parent, int columnCount, int initialSize) {
         tree = new org.eclipse.swt.widgets.Tree(parent, columnCount);
-        setItemsSWT(new org.eclipse.swt.widgets.TreeItem[initialSize]);
-        for (int i = 0; i < initialSize; i++) {
-            itemsSWT[i] = new org.eclipse.swt.widgets.TreeItem(tree, SWT.NONE);
+        virtual = (columnCount & SWT.VIRTUAL) != 0;
+        if (virtual) {
+            setItemsSWT(new org.eclipse.swt.widgets.TreeItem[0]);
+            tree.addListener(SWT.SetData, this::populate);
+        } else {
+            setItemsSWT(new org.eclipse.swt.widgets.TreeItem[initialSize]);
+            for (int i = 0; i < initialSize; i++) {
+                itemsSWT[i] = new org.eclipse.swt.widgets.TreeItem(tree, SWT.NONE);
+            }
         }
     }
 
@@ -61,6 +74,12 @@ public class Tree {
         org.eclipse.swt.widgets.TreeItem[] sel = tree.getSelection();
         for (int i = 0; i < length; i++) {
             result[i] = tiFromSWT.get(sel[i]);
+            if (result[i] == null && virtual) {
+                final int index = tree.indexOf(sel[i]);
+                if (index > -1 && index < rows.size()) {
+                    result[i] = rows.get(index);
+                }
+            }
         }
         return result;
     }
@@ -120,6 +139,15 @@ public class Tree {
         counter = 0;
         tiFromSWT.clear();
         swtFromTi.clear();
+        if (virtual) {
+            rows.clear();
+            for (TreeItem t : items) {
+                t.build(0);
+            }
+            tree.setItemCount(rows.size());
+            tree.clearAll(true);
+            return;
+        }
         for (TreeItem t : items) {
             t.build(0);
         }
@@ -181,6 +209,30 @@ public class Tree {
         if (swtFromTi.containsKey(treeItem)) {
             tree.select(swtFromTi.get(treeItem));
             tree.showSelection();
+        } else if (virtual) {
+            final int index = rows.indexOf(treeItem);
+            if (index > -1) {
+                tree.select(tree.getItem(index));
+                tree.showSelection();
+            }
         }
     }
+
+    boolean isVirtual() {
+        return virtual;
+    }
+
+    void addRow(TreeItem treeItem) {
+        rows.add(treeItem);
+    }
+
+    private void populate(Event event) {
+        final int index = event.index;
+        if (index < 0 || index >= rows.size()) return;
+        final org.eclipse.swt.widgets.TreeItem t = (org.eclipse.swt.widgets.TreeItem) event.item;
+        final TreeItem treeItem = rows.get(index);
+        tiFromSWT.put(t, treeItem);
+        swtFromTi.put(treeItem, t);
+        treeItem.fill(t, treeItem.getStep());
+    }
 }
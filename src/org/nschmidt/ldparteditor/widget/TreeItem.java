@@ -18,14 +18,10 @@ package org.nschmidt.ldparteditor.widget;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.SortedSet;
-import java.util.TreeSet;
 
 import org.eclipse.swt.SWT;
-import org.eclipse.swt.custom.StyledText;
 import org.eclipse.swt.graphics.Image;
 import org.nschmidt.ldparteditor.enumtype.MyLanguage;
 import org.nschmidt.ldparteditor.i18n.I18n;
@@ -40,6 +36,9 @@ public class TreeItem {
     private Image image;
     private boolean visible;
     private boolean shown;
+    private int lineNumber;
+
+    private static final Comparator<TreeItem> BY_LINE = (a, b) -> Integer.compare(a.lineNumber, b.lineNumber);
 
     public TreeItem(Tree parent) {
         this.parent = parent;
@@ -110,81 +109,99 @@ public class TreeItem {
     }
 
     /**
-     * ONLY FOR PARSER MECHANICS!
+     * ONLY FOR PARSER MECHANICS!<br>
+     * Removes all issues on the old lines from {@code startLine} to
+     * {@code oldEndLine} and moves the issues behind them. The items have to
+     * be sorted by their line number.
      *
-     * @param start
-     * @param end
+     * @param startLine
+     *            the first changed line (1-based)
+     * @param oldEndLine
+     *            the last changed line before the change (1-based)
+     * @param lineDelta
+     *            the number of added (or removed) lines
+     * @param offsetDelta
+     *            the number of added (or removed) characters
      */
-    public void removeWithinPosition(StyledText compositeText, int startOffset, int endOffset, int length) {
-
-        List<TreeItem> nl = new ArrayList<>(items.size() + 100);
-
-        for (TreeItem t : items) {
-            try {
-                int o = (Integer) t.getData();
-                int lstart = compositeText.getLineAtOffset(startOffset) + 1;
-                int litem = 0;
-
-                if (o > -1 && o < startOffset && (litem = compositeText.getLineAtOffset(o) + 1) != lstart) {
-
-                    Object[] messageArguments = {litem, o};
-                    MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                    formatter.setLocale(MyLanguage.getLocale());
-                    formatter.applyPattern(I18n.TREEITEM_LINE);
-
-                    t.setText(formatter.format(messageArguments), 1);
-                    nl.add(t);
-
-                } else if (o >= endOffset || o > startOffset && o + length >= endOffset) {
-
-                    int newOffset = o + length;
-                    int lnew = compositeText.getLineAtOffset(Math.max(newOffset, 0)) + 1;
-
-                    if (newOffset > endOffset && lstart != lnew) {
-
-                        t.setData(newOffset);
-
-                        Object[] messageArguments = {lnew, newOffset};
-                        MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
-                        formatter.setLocale(MyLanguage.getLocale());
-                        formatter.applyPattern(I18n.TREEITEM_LINE);
-
-                        t.setText(formatter.format(messageArguments), 1);
-                        nl.add(t);
-                    }
-                }
-            } catch (IllegalArgumentException iae) {
-                // Skip if the index was out bounds
+    public void removeWithinLines(int startLine, int oldEndLine, int lineDelta, int offsetDelta) {
+        final int from = firstIndexAtLine(startLine);
+        final int to = firstIndexAtLine(oldEndLine + 1);
+        if (from < to) {
+            items.subList(from, to).clear();
+        }
+        if (lineDelta != 0 || offsetDelta != 0) {
+            final int size = items.size();
+            for (int i = from; i < size; i++) {
+                items.get(i).moveIssue(lineDelta, offsetDelta);
             }
         }
-        items = nl;
     }
 
     /**
      * ONLY FOR PARSER MECHANICS!
+     *
+     * @param line
+     *            the line number (1-based)
+     * @return the index of the first issue at or behind the line
      */
-    public void sortItems() {
-        if (!items.isEmpty()) {
-            List<TreeItem> nl = new ArrayList<>(items.size() + 100);
-            Map<Integer, List<TreeItem>> itemsPerLine = new HashMap<>();
-            SortedSet<Integer> lines = new TreeSet<>();
-            for (TreeItem t : items) {
-                Integer litem = (Integer) t.getData();
-                if (!lines.contains(litem)) {
-                    itemsPerLine.put(litem, new ArrayList<>());
-                    lines.add(litem);
-                }
-                itemsPerLine.get(litem).add(t);
-            }
-            for (Integer l : lines) {
-                nl.addAll(itemsPerLine.get(l));
+    public int firstIndexAtLine(int line) {
+        int low = 0;
+        int high = items.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (items.get(mid).lineNumber < line) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
-            items = nl;
+        }
+        return low;
+    }
+
+    /**
+     * ONLY FOR PARSER MECHANICS!<br>
+     * Sorts the issues by their line number. Issues on the same line keep
+     * their order, since {@link List#sort} is a stable merge sort. New issues
+     * are appended at the end, so the items consist of a few sorted runs which
+     * the sort detects and merges.
+     */
+    public void sortItems() {
+        if (items.size() > 1) {
+            items.sort(BY_LINE);
         }
     }
 
-    private void setText(String text, int i) {
-        this.text[i] = text;
+    /**
+     * Sets the text of an issue. The location text (column 1) is formatted
+     * when it gets displayed for the first time.
+     *
+     * @param message
+     *            the description of the issue
+     * @param lineNumber
+     *            the line number (1-based)
+     * @param position
+     *            the offset of the line start
+     * @param type
+     *            the issue type (e.g. "[E0D] Syntax Error")
+     */
+    public void setIssue(String message, int lineNumber, int position, String type) {
+        this.text = new String[] { message, null, type };
+        this.lineNumber = lineNumber;
+        this.data = position;
+    }
+
+    /**
+     * @return the line number of the issue (1-based) or {@code 0} if the item
+     *         is not bound to a line
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    private void moveIssue(int lineDelta, int offsetDelta) {
+        lineNumber += lineDelta;
+        data = (Integer) data + offsetDelta;
+        text[1] = null;
     }
 
     public Tree getParent() {
@@ -200,10 +217,26 @@ public class TreeItem {
     }
 
     public String getText(int i) {
+        if (i == 1 && text[1] == null && lineNumber > 0) {
+            Object[] messageArguments = {lineNumber, data};
+            MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
+            formatter.setLocale(MyLanguage.getLocale());
+            formatter.applyPattern(I18n.DATFILE_LINE);
+            text[1] = formatter.format(messageArguments);
+        }
         return text[i];
     }
 
     void build(int step) {
+        if (parent.isVirtual()) {
+            parent.addRow(this);
+            if (visible) {
+                for (TreeItem ti : items) {
+                    if (ti.isShown()) ti.build(step + 1);
+                }
+            }
+            return;
+        }
         org.eclipse.swt.widgets.TreeItem[] itemsSWT = parent.getItemsSWT();
         if (parent.counter > itemsSWT.length - 1) {
             int doubleLength;
@@ -223,6 +256,15 @@ public class TreeItem {
         parent.counter++;
         parent.getMap().put(t, this);
         parent.getMapInv().put(this, t);
+        fill(t, step);
+        if (visible && !items.isEmpty()) {
+            for (TreeItem ti : items) {
+                if (ti.isShown()) ti.build(step + 1);
+            }
+        }
+    }
+
+    void fill(org.eclipse.swt.widgets.TreeItem t, int step) {
         t.setImage(image);
         StringBuilder offset = new StringBuilder();
         if (visible && !items.isEmpty()) {
@@ -239,14 +281,6 @@ public class TreeItem {
             default:
                 break;
             }
-            offset.append(text[0]);
-            String tmp = text[0];
-            text[0] = offset.toString();
-            t.setText(text);
-            text[0] = tmp;
-            for (TreeItem ti : items) {
-                if (ti.isShown()) ti.build(step + 1);
-            }
         } else {
             switch (step) {
             case 0:
@@ -261,12 +295,21 @@ public class TreeItem {
             default:
                 break;
             }
-            offset.append(text[0]);
-            String tmp = text[0];
-            text[0] = offset.toString();
-            t.setText(text);
-            text[0] = tmp;
         }
+        offset.append(text[0]);
+        if (text.length > 1) getText(1);
+        String tmp = text[0];
+        text[0] = offset.toString();
+        t.setText(text);
+        text[0] = tmp;
+    }
+
+    int getStep() {
+        int step = 0;
+        for (TreeItem p = parentItem; p != null; p = p.parentItem) {
+            step++;
+        }
+        return step;
     }
 
     /**
@@ -139,6 +139,9 @@ public class UserSettingState implements Serializable {
     /** {@code true} if the user can translate the 3D view with the cursor */
     private boolean translateViewByCursor = false;
 
+    /** {@code true} if the renderer can replace primitives with their low or high resolution variant */
+    private boolean primitiveLevelOfDetail = false;
+
     private boolean disableMAD3D = false;
     private boolean disableMADtext = false;
 
@@ -1242,6 +1245,14 @@ public class UserSettingState implements Serializable {
         this.translateViewByCursor = translateViewByCursor;
     }
 
+    public boolean isPrimitiveLevelOfDetail() {
+        return primitiveLevelOfDetail;
+    }
+
+    public void setPrimitiveLevelOfDetail(boolean primitiveLevelOfDetail) {
+        this.primitiveLevelOfDetail = primitiveLevelOfDetail;
+    }
+
     public double getCoplanarityAngleWarning() {
         return coplanarityAngleWarning;
     }
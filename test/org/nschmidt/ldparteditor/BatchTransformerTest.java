@@ -0,0 +1,90 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.data.BatchTransformer;
+import org.nschmidt.ldparteditor.data.Matrix;
+import org.nschmidt.ldparteditor.data.Vertex;
+import org.nschmidt.ldparteditor.enumtype.Threshold;
+
+@SuppressWarnings("java:S5960")
+public class BatchTransformerTest {
+
+    /** Enough vertices for several chunks */
+    private static final int SELECTION_SIZE = 5000;
+
+    @Test
+    public void testLargeSelection() {
+        final Random rnd = new Random(4711L);
+        final Vertex[] vertices = randomVertices(rnd, SELECTION_SIZE);
+        final Matrix transformation = randomTransformation(rnd);
+        final Vertex[] expected = transformOneByOne(vertices, transformation);
+        final Vertex[] result = BatchTransformer.transform(vertices, transformation);
+        assertEquals(SELECTION_SIZE, result.length);
+        for (int i = 0; i < SELECTION_SIZE; i++) {
+            assertEquals(0, expected[i].xp.compareTo(result[i].xp));
+            assertEquals(0, expected[i].yp.compareTo(result[i].yp));
+            assertEquals(0, expected[i].zp.compareTo(result[i].zp));
+        }
+    }
+
+    @Test
+    public void testEmptySelection() {
+        final Matrix transformation = new Matrix(
+                BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ZERO,
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE);
+        assertEquals(0, BatchTransformer.transform(new Vertex[0], transformation).length);
+    }
+
+    static Vertex[] randomVertices(Random rnd, int count) {
+        final Vertex[] result = new Vertex[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = new Vertex(randomDecimal(rnd), randomDecimal(rnd), randomDecimal(rnd));
+        }
+        return result;
+    }
+
+    static Matrix randomTransformation(Random rnd) {
+        return new Matrix(
+                randomDecimal(rnd), randomDecimal(rnd), randomDecimal(rnd), BigDecimal.ZERO,
+                randomDecimal(rnd), randomDecimal(rnd), randomDecimal(rnd), BigDecimal.ZERO,
+                randomDecimal(rnd), randomDecimal(rnd), randomDecimal(rnd), BigDecimal.ZERO,
+                randomDecimal(rnd), randomDecimal(rnd), randomDecimal(rnd), BigDecimal.ONE);
+    }
+
+    /** The transformation as it was done before the batch */
+    static Vertex[] transformOneByOne(Vertex[] vertices, Matrix transformation) {
+        final Vertex[] result = new Vertex[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            final Vertex v = vertices[i];
+            final BigDecimal[] temp = transformation.transform(v.xp, v.yp, v.zp);
+            result[i] = new Vertex(temp[0], temp[1], temp[2]);
+        }
+        return result;
+    }
+
+    private static BigDecimal randomDecimal(Random rnd) {
+        return new BigDecimal(rnd.nextDouble() * 20.0 - 10.0).round(Threshold.MC);
+    }
+}
@@ -0,0 +1,183 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNoException;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Vector4f;
+import org.nschmidt.ldparteditor.data.ClipboardCloner;
+import org.nschmidt.ldparteditor.data.DatFile;
+import org.nschmidt.ldparteditor.data.DatType;
+import org.nschmidt.ldparteditor.data.GData;
+import org.nschmidt.ldparteditor.data.GData1;
+import org.nschmidt.ldparteditor.data.Matrix;
+import org.nschmidt.ldparteditor.enumtype.LDConfig;
+import org.nschmidt.ldparteditor.enumtype.View;
+import org.nschmidt.ldparteditor.text.DatParser;
+import org.nschmidt.ldparteditor.workbench.UserSettingState;
+import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
+
+/**
+ * The graphical data needs the SWT libraries. The test is skipped if they are
+ * not available.
+ */
+@SuppressWarnings("java:S5960")
+public class ClipboardClonerTest {
+
+    private static final int SELECTION_SIZE = 2000;
+
+    /** The field types which describe the data (the links to other data are not compared) */
+    private static final Set<Class<?>> COMPARED_TYPES = Set.of(int.class, float.class, boolean.class, BigDecimal.class, String.class, Matrix4f.class, Matrix.class, Vector4f.class);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void checkGraphicalData() {
+        try {
+            Class.forName("org.nschmidt.ldparteditor.enumtype.View"); //$NON-NLS-1$
+        } catch (Throwable t) {
+            assumeNoException(t);
+        }
+    }
+
+    @Test
+    public void testPasteSelection() throws IllegalAccessException {
+        final DatFile df = new DatFile("clipboard.dat"); //$NON-NLS-1$
+        for (GData g : createSelection(df, SELECTION_SIZE)) {
+            assertSameData(parse(g.toString(), df), ClipboardCloner.paste(g, df, true));
+        }
+    }
+
+    @Test
+    public void testPasteReference() throws IOException, IllegalAccessException {
+        if (WorkbenchManager.getUserSettingState() == null) {
+            WorkbenchManager.setUserSettingState(new UserSettingState());
+        }
+        final File subfile = folder.newFile("clipboard_sub.dat"); //$NON-NLS-1$
+        Files.writeString(subfile.toPath(), """
+                0 Subfile
+                2 24 0 0 0 1 0 0
+                3 16 0 0 0 1 0 0 0 1 0
+                4 0x2FF8800 0 0 0 1 0 0 1 1 0 0 1 0
+                5 24 0 0 0 1 0 0 0 1 0 0 -1 0
+                """, StandardCharsets.UTF_8); //$NON-NLS-1$
+        final DatFile df = new DatFile(new File(folder.getRoot(), "clipboard.dat").getAbsolutePath(), "", false, DatType.PART); //$NON-NLS-1$ //$NON-NLS-2$
+
+        for (String line : new String[] {
+                "1 16 0 0 0 1 0 0 0 1 0 0 0 1 clipboard_sub.dat", //$NON-NLS-1$
+                "1 4 10 -20 30.5 0 0 1 0 1 0 -1 0 0 clipboard_sub.dat", //$NON-NLS-1$
+                "1 0x2FF8800 1 2 3 2 0 0 0 -1 0 0 0 2 clipboard_sub.dat"}) { //$NON-NLS-1$
+            final GData1 parsed = (GData1) parse(line, df);
+            assertNotNull(parsed);
+            assertTrue(GData.CACHE_parsedFilesSource.keySet().stream().anyMatch(name -> name.endsWith(subfile.getName())));
+            assertSameData(parsed, ClipboardCloner.paste(parsed, df, true));
+        }
+
+        // The clone uses the cached source of the subfile, it does not need the file anymore
+        final GData1 parsed = (GData1) parse("1 16 0 0 0 1 0 0 0 1 0 0 0 1 clipboard_sub.dat", df); //$NON-NLS-1$
+        Files.delete(subfile.toPath());
+        assertSameData(parsed, ClipboardCloner.paste(parsed, df, true));
+    }
+
+    /**
+     * Compares the type, the text and the fields which describe the data
+     * (colour, alpha, vertices, normals and matrices). The lines of a subfile
+     * are compared, too.
+     */
+    private static void assertSameData(GData expected, GData actual) throws IllegalAccessException {
+        assertEquals(expected.type(), actual.type());
+        assertEquals(expected.toString(), actual.toString());
+        for (Class<?> c = expected.getClass(); c != GData.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) continue;
+                field.setAccessible(true);
+                if (COMPARED_TYPES.contains(field.getType())) {
+                    final Object expectedValue = field.get(expected);
+                    final Object actualValue = field.get(actual);
+                    if (expectedValue instanceof Matrix4f || expectedValue instanceof Matrix || expectedValue instanceof Vector4f) {
+                        assertEquals(field.getName(), String.valueOf(expectedValue), String.valueOf(actualValue));
+                    } else {
+                        assertEquals(field.getName(), expectedValue, actualValue);
+                    }
+                } else if ("myGData".equals(field.getName())) { //$NON-NLS-1$
+                    GData expectedChild = ((GData) field.get(expected)).getNext();
+                    GData actualChild = ((GData) field.get(actual)).getNext();
+                    while (expectedChild != null) {
+                        assertNotNull(actualChild);
+                        assertSameData(expectedChild, actualChild);
+                        expectedChild = expectedChild.getNext();
+                        actualChild = actualChild.getNext();
+                    }
+                    assertNull(actualChild);
+                }
+            }
+        }
+    }
+
+    static List<GData> createSelection(DatFile df, int size) {
+        final Random rnd = new Random(4711L);
+        final String[] colours = {"16", "24", "4", "0x2FF8800"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        final List<GData> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            final int type = 2 + i % 4;
+            final StringBuilder sb = new StringBuilder();
+            sb.append(type);
+            sb.append(' ');
+            sb.append(colours[rnd.nextInt(colours.length)]);
+            for (int v = 0; v < (type == 2 ? 2 : 4) * 3; v++) {
+                sb.append(' ');
+                sb.append(rnd.nextInt(20000) / 100.0 - 100.0);
+            }
+            if (type == 3) {
+                sb.setLength(sb.lastIndexOf(" ", sb.lastIndexOf(" ", sb.lastIndexOf(" ") - 1) - 1)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+            final GData g = parse(sb.toString(), df);
+            assertNotNull(g);
+            result.add(g);
+        }
+        return result;
+    }
+
+    static GData parse(String line, DatFile df) {
+        final Set<String> alreadyParsed = new HashSet<>();
+        alreadyParsed.add(df.getShortName());
+        return DatParser.parseLine(line, -1, 0, LDConfig.getColour16().getR(), LDConfig.getColour16().getG(), LDConfig.getColour16().getB(), 1.1f,
+                View.DUMMY_REFERENCE, View.ID, View.ACCURATE_ID, df, false, alreadyParsed).get(0).getGraphicalData();
+    }
+}
@@ -0,0 +1,84 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Vector3f;
+import org.lwjgl.util.vector.Vector4f;
+import org.nschmidt.ldparteditor.helper.math.MathHelper;
+
+@SuppressWarnings("java:S5960")
+public class CondlineVisibilityTest {
+
+    @Test
+    public void testSides() {
+        final Matrix4f identity = new Matrix4f();
+        final Vector4f a = new Vector4f(0f, 0f, 0f, 1f);
+        final Vector4f b = new Vector4f(1f, 0f, 0f, 1f);
+        // C and D are on the same side of the line A-B
+        assertTrue(MathHelper.isCondlineShown(identity, a, b, new Vector4f(0f, 1f, 0f, 1f), new Vector4f(1f, 1f, 5f, 1f), 1f));
+        // C and D are on different sides of the line A-B
+        assertFalse(MathHelper.isCondlineShown(identity, a, b, new Vector4f(0f, 1f, 0f, 1f), new Vector4f(1f, -1f, 0f, 1f), 1f));
+    }
+
+    @Test
+    public void testMatchesTransformedVectors() {
+        final Random rnd = new Random(4242L);
+        int shown = 0;
+        for (int i = 0; i < 100000; i++) {
+            final Matrix4f m = randomMatrix(rnd);
+            final Vector4f a = randomPoint(rnd);
+            final Vector4f b = randomPoint(rnd);
+            final Vector4f c = randomPoint(rnd);
+            final Vector4f d = randomPoint(rnd);
+            final float zoom = rnd.nextFloat() * 2f + 0.01f;
+            final boolean expected = isShown(m, a, b, c, d, zoom);
+            assertEquals(expected, MathHelper.isCondlineShown(m, a, b, c, d, zoom));
+            if (expected) shown++;
+        }
+        assertTrue(shown > 0);
+        assertTrue(shown < 100000);
+    }
+
+    /** The calculation which GData5 used before (with temporary vectors) */
+    static boolean isShown(Matrix4f m, Vector4f a, Vector4f b, Vector4f c, Vector4f d, float zoom) {
+        final Vector4f sA = Matrix4f.transform(m, a, null);
+        final Vector4f sB = Matrix4f.transform(m, b, null);
+        final Vector4f sC = Matrix4f.transform(m, c, null);
+        final Vector4f sD = Matrix4f.transform(m, d, null);
+        final Vector4f n = new Vector4f(sA.y - sB.y, sB.x - sA.x, 0f, 1f);
+        return zoom / Vector4f.dot(n, Vector4f.sub(sC, sA, null)) * Vector4f.dot(n, Vector4f.sub(sD, sA, null)) > -1e-20f;
+    }
+
+    static Matrix4f randomMatrix(Random rnd) {
+        final Matrix4f result = new Matrix4f();
+        result.rotate(rnd.nextFloat() * 6f, new Vector3f(rnd.nextFloat(), rnd.nextFloat(), rnd.nextFloat() + 0.1f));
+        result.scale(new Vector3f(rnd.nextFloat() * 3f + 0.1f, rnd.nextFloat() * 3f + 0.1f, rnd.nextFloat() * 3f + 0.1f));
+        result.translate(new Vector3f(rnd.nextFloat() * 100f - 50f, rnd.nextFloat() * 100f - 50f, rnd.nextFloat() * 100f - 50f));
+        return result;
+    }
+
+    static Vector4f randomPoint(Random rnd) {
+        return new Vector4f(rnd.nextFloat() * 20f - 10f, rnd.nextFloat() * 20f - 10f, rnd.nextFloat() * 20f - 10f, 1f);
+    }
+}
@@ -0,0 +1,73 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assume.assumeNoException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nschmidt.ldparteditor.data.DatFile;
+import org.nschmidt.ldparteditor.data.GData;
+import org.nschmidt.ldparteditor.data.GData0;
+import org.nschmidt.ldparteditor.enumtype.View;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
+
+/**
+ * The graphical data needs the SWT libraries. The test is skipped if they are
+ * not available.
+ */
+@SuppressWarnings("java:S5960")
+public class DatFileTest {
+
+    @Before
+    public void checkGraphicalData() {
+        try {
+            Class.forName("org.nschmidt.ldparteditor.enumtype.View"); //$NON-NLS-1$
+        } catch (Throwable t) {
+            assumeNoException(t);
+        }
+    }
+
+    @Test
+    public void testInsertAfter() {
+        final DatFile df = new DatFile("insert.dat"); //$NON-NLS-1$
+        final GData first = new GData0("0 first", View.DUMMY_REFERENCE); //$NON-NLS-1$
+        final GData second = new GData0("0 second", View.DUMMY_REFERENCE); //$NON-NLS-1$
+        df.addToTail(first);
+        df.addToTail(second);
+
+        // The selection starts at line 1, so the new line is inserted after the anchor
+        final GData top = new GData0("0 top", View.DUMMY_REFERENCE); //$NON-NLS-1$
+        df.insertAfter(df.getDrawChainStart(), top);
+        final GData middle = new GData0("0 middle", View.DUMMY_REFERENCE); //$NON-NLS-1$
+        df.insertAfter(first, middle);
+        final GData last = new GData0("0 last", View.DUMMY_REFERENCE); //$NON-NLS-1$
+        df.insertAfter(second, last);
+
+        final GData[] expected = {top, first, middle, second, last};
+        final LineIndex<GData> lines = df.getDrawPerLineNoClone();
+        assertEquals(expected.length, lines.size());
+        GData gd = df.getDrawChainStart();
+        for (int i = 0; i < expected.length; i++) {
+            gd = gd.getNext();
+            assertSame(expected[i], gd);
+            assertSame(expected[i], lines.getValue(i + 1));
+        }
+        assertSame(last, df.getDrawChainTail());
+    }
+}
@@ -0,0 +1,149 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.nschmidt.ldparteditor.data.DecodedImageCache;
+import org.nschmidt.ldparteditor.data.DecodedImageCache.DecodedImage;
+
+@SuppressWarnings("java:S5960")
+public class DecodedImageCacheTest {
+
+    private static final long TIMEOUT = 10000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testDecodeInBackground() throws IOException {
+        final DecodedImageCache cache = new DecodedImageCache(1024L * 1024L, 2);
+        final File file = writePNG("sticker.png", 3, 2, 0xFF00FF00); //$NON-NLS-1$
+
+        assertSame(DecodedImage.PENDING, cache.request(file));
+        final DecodedImage image = awaitImage(cache, file);
+        assertTrue(image.isReady());
+        assertEquals(3, image.getWidth());
+        assertEquals(2, image.getHeight());
+        assertEquals(3 * 2 * 4, image.getRGBA().length);
+        assertArrayEquals(new byte[] { 0, -1, 0, -1 }, new byte[] { image.getRGBA()[0], image.getRGBA()[1], image.getRGBA()[2], image.getRGBA()[3] });
+
+        // Other renderers get the same image without decoding it again
+        assertSame(image, cache.request(new File(file.getPath())));
+        assertEquals(1, cache.getDecodeCount());
+    }
+
+    @Test
+    public void testModifiedFileIsDecodedAgain() throws IOException {
+        final DecodedImageCache cache = new DecodedImageCache(1024L * 1024L, 1);
+        final File file = writePNG("pattern.png", 2, 2, 0xFFFF0000); //$NON-NLS-1$
+        final DecodedImage first = awaitImage(cache, file);
+
+        writePNG("pattern.png", 4, 4, 0xFF0000FF); //$NON-NLS-1$
+        assertTrue(file.setLastModified(file.lastModified() + 2000L));
+        final DecodedImage second = awaitImage(cache, file);
+
+        assertFalse(first == second);
+        assertEquals(4, second.getWidth());
+        assertEquals(2, cache.getDecodeCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedImagesAreEvicted() throws IOException {
+        // Each 8x8 image needs 256 bytes, the budget allows three of them
+        final DecodedImageCache cache = new DecodedImageCache(3L * 256L, 1);
+        final byte[] png = encodePNG(8, 8, 0xFFFFFFFF);
+        for (int i = 0; i < 3; i++) {
+            cache.load("image" + i, 0L, () -> new ByteArrayInputStream(png)); //$NON-NLS-1$
+        }
+        assertEquals(3, cache.getImageCount());
+        assertEquals(3L * 256L, cache.getSize());
+
+        // Touch image0, so image1 is the least recently used one
+        cache.load("image0", 0L, () -> new ByteArrayInputStream(png)); //$NON-NLS-1$
+        assertEquals(3, cache.getDecodeCount());
+        cache.load("image3", 0L, () -> new ByteArrayInputStream(png)); //$NON-NLS-1$
+        assertEquals(3, cache.getImageCount());
+        assertTrue(cache.getSize() <= 3L * 256L);
+
+        cache.load("image0", 0L, () -> new ByteArrayInputStream(png)); //$NON-NLS-1$
+        assertEquals(4, cache.getDecodeCount());
+        cache.load("image1", 0L, () -> new ByteArrayInputStream(png)); //$NON-NLS-1$
+        assertEquals(5, cache.getDecodeCount());
+
+        // Images which exceed the whole budget are rejected before they are decoded
+        final byte[] bigPng = encodePNG(32, 32, 0xFFFFFFFF);
+        assertSame(DecodedImage.UNREADABLE, cache.load("big", 0L, () -> new ByteArrayInputStream(bigPng))); //$NON-NLS-1$
+        assertEquals(3, cache.getImageCount());
+        assertTrue(cache.getSize() <= 3L * 256L);
+    }
+
+    @Test
+    public void testUnreadableImage() {
+        final DecodedImageCache cache = new DecodedImageCache(1024L, 1);
+        assertSame(DecodedImage.UNREADABLE, cache.load("missing", 0L, () -> null)); //$NON-NLS-1$
+        assertSame(DecodedImage.UNREADABLE, cache.load("garbage", 0L, () -> new ByteArrayInputStream(new byte[] { 1, 2, 3 }))); //$NON-NLS-1$
+        assertFalse(DecodedImage.UNREADABLE.isReady());
+        assertFalse(DecodedImage.PENDING.isReady());
+    }
+
+    private DecodedImage awaitImage(DecodedImageCache cache, File file) {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        DecodedImage result;
+        while ((result = cache.request(file)) == DecodedImage.PENDING) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.onSpinWait();
+        }
+        return result;
+    }
+
+    private File writePNG(String name, int width, int height, int argb) throws IOException {
+        final File file = new File(folder.getRoot(), name);
+        ImageIO.write(createImage(width, height, argb), "png", file); //$NON-NLS-1$
+        return file;
+    }
+
+    private byte[] encodePNG(int width, int height, int argb) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(createImage(width, height, argb), "png", out); //$NON-NLS-1$
+        return out.toByteArray();
+    }
+
+    private BufferedImage createImage(int width, int height, int argb) {
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, argb);
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,423 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.data.DuplicateIndex;
+
+@SuppressWarnings("java:S5960")
+public class DuplicateIndexTest {
+
+    private static final String[] FIXTURES = {"subdivision.txt", "meshreduce.txt", "fulltest.txt", "texmap_complete.txt", "61071s04.dat"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+    private static final int EDITS = 40;
+
+    @Test
+    public void testRules() {
+        final TestFile file = new TestFile(Arrays.asList(
+                "0 Test", //$NON-NLS-1$
+                "3 16 0 0 0 1 0 0 0 1 0", //$NON-NLS-1$
+                "3 4 1 0 0 0 1 0 0 0 0", //$NON-NLS-1$
+                "3 16 0 0 0 0 1 0 1 0 0", //$NON-NLS-1$
+                "2 24 0 0 0 1 0 0", //$NON-NLS-1$
+                "2 24 1 0 0 0 0 0", //$NON-NLS-1$
+                "0 BFC INVERTNEXT", //$NON-NLS-1$
+                "1 16 0 0 0 1 0 0 0 1 0 0 0 1 4-4disc.dat", //$NON-NLS-1$
+                "1 16 0 0 0 1 0 0 0 1 0 0 0 1 4-4disc.dat", //$NON-NLS-1$
+                "1 4 0 0 0 1 0 0 0 1 0 0 0 1 4-4disc.dat", //$NON-NLS-1$
+                "0 !TEXMAP START PLANAR 0 0 0 1 0 0 0 1 0 tex.png", //$NON-NLS-1$
+                "0 !TEXMAP START PLANAR 0 0 0 1 0 0 0 1 0 tex.png", //$NON-NLS-1$
+                "3 16 0 0 0 1 0 0 0 1 0", //$NON-NLS-1$
+                "3 4 1 0 0 0 1 0 0 0 0", //$NON-NLS-1$
+                "5 24 0 0 0 1 0 0 0 1 0 0 -1 0", //$NON-NLS-1$
+                "5 24 1 0 0 0 0 0 0 -1 0 0 1 0")); //$NON-NLS-1$
+        final DuplicateIndex<TestLine> index = file.buildIndex();
+
+        // Rotated triangle with another colour
+        assertEquals(2, index.getProblem(file.get(3)));
+        // Reversed winding
+        assertEquals(DuplicateIndex.NO_PROBLEM, index.getProblem(file.get(4)));
+        // Reversed line
+        assertEquals(5, index.getProblem(file.get(6)));
+        // The first reference is inverted, the second one is not
+        assertEquals(DuplicateIndex.NO_PROBLEM, index.getProblem(file.get(9)));
+        assertEquals(9, index.getProblem(file.get(10)));
+        // Meta commands refer to the line above
+        assertEquals(11, index.getProblem(file.get(12)));
+        // Identical text wins over the same vertices
+        assertEquals(2, index.getProblem(file.get(13)));
+        assertEquals(3, index.getProblem(file.get(14)));
+        // Reversed condline
+        assertEquals(15, index.getProblem(file.get(16)));
+
+        // Removing the first triangle makes the rotated one the original
+        file.replace(2, 2, Arrays.asList("0 // removed")); //$NON-NLS-1$
+        assertNotNull(file.update(index));
+        assertEquals(DuplicateIndex.NO_PROBLEM, index.getProblem(file.get(3)));
+        assertEquals(3, index.getProblem(file.get(13)));
+
+        // Removing the INVERTNEXT makes the first reference the original
+        file.replace(6, 7, Arrays.asList("2 24 1 0 0 0 0 0")); //$NON-NLS-1$
+        assertNotNull(file.update(index));
+        assertEquals(DuplicateIndex.NO_PROBLEM, index.getProblem(file.get(7)));
+        assertEquals(7, index.getProblem(file.get(8)));
+        assertEquals(7, index.getProblem(file.get(9)));
+        assertEquals(problemLines(file, file.buildIndex()), problemLines(file, index));
+    }
+
+    @Test
+    public void testUnknownLinesNeedAFullBuild() {
+        final TestFile file = new TestFile(Arrays.asList("3 16 0 0 0 1 0 0 0 1 0", "3 16 0 0 0 1 0 0 0 1 0")); //$NON-NLS-1$ //$NON-NLS-2$
+        final DuplicateIndex<TestLine> index = file.buildIndex();
+        final DuplicateIndex<TestLine> otherIndex = new TestFile(Arrays.asList("0 Other")).buildIndex(); //$NON-NLS-1$
+        file.replace(1, 1, Arrays.asList("0 Changed")); //$NON-NLS-1$
+        assertEquals(null, file.update(otherIndex));
+        assertNotNull(file.update(index));
+    }
+
+    @Test
+    public void testSameResultAsTheFullScan() throws IOException {
+        for (String fixture : FIXTURES) {
+            final TestFile file = new TestFile(repeat(readFixture(fixture), 2));
+            assertEquals(fullScan(file), lineNumbers(file.buildIndex()));
+        }
+    }
+
+    @Test
+    public void testEditSequences() throws IOException {
+        for (String fixture : FIXTURES) {
+            final TestFile file = new TestFile(repeat(readFixture(fixture), 2));
+            final DuplicateIndex<TestLine> index = file.buildIndex();
+            final Random rnd = new Random(fixture.hashCode());
+            for (int edit = 0; edit < EDITS; edit++) {
+                file.randomEdit(rnd);
+                assertNotNull(file.update(index));
+                assertEquals(problemLines(file, file.buildIndex()), problemLines(file, index));
+                assertEquals(fullScan(file), lineNumbers(index));
+            }
+        }
+    }
+
+    /**
+     * The duplicate check as it was done before the index, a scan from the
+     * top of the file. A key is registered for the first line which has it.
+     * The old check referred a quad with an identical text to itself, here it
+     * refers to the first identical quad (like the index).
+     */
+    private static Map<Integer, Integer> fullScan(TestFile file) {
+        final Map<Integer, Integer> result = new HashMap<>();
+        final Map<String, Integer> keys = new HashMap<>();
+        String lastCommentLine = null;
+        for (TestLine line : file.lines) {
+            final int lineNumber = line.lineNumber;
+            final String trimmedLine = line.text.trim();
+            final String[] segments = trimmedLine.split("\\s+"); //$NON-NLS-1$
+            final int type = file.getType(line);
+            Integer duplicate = null;
+            switch (type) {
+            case 0, 6:
+                break;
+            case 1:
+            {
+                TestLine invertNext = line.before;
+                while (invertNext != null && file.getType(invertNext) != 1 && !file.isInvertNext(invertNext)) {
+                    invertNext = invertNext.before;
+                }
+                final boolean inverted = invertNext != null && file.getType(invertNext) != 1;
+                final String key = (inverted ? "IV" : "NIV") + withoutColour(segments) + file.getShortName(line); //$NON-NLS-1$ //$NON-NLS-2$
+                duplicate = keys.get(key);
+                if (duplicate == null) {
+                    keys.put(key, lineNumber);
+                    lastCommentLine = null;
+                } else if (inverted) {
+                    lastCommentLine = "0 BFC INVERTNEXT"; //$NON-NLS-1$
+                }
+                break;
+            }
+            case 2, 3, 4, 5:
+            {
+                final List<String> candidates = new ArrayList<>();
+                if (type != 5) {
+                    candidates.add(trimmedLine);
+                }
+                final int vertexCount = type == 5 ? 2 : type;
+                // The rotations in the order of the old check (the first one, then backwards)
+                for (int r = 0; r < vertexCount; r++) {
+                    final StringBuilder sb = new StringBuilder(segments[0]);
+                    for (int v = 0; v < vertexCount; v++) {
+                        final int o = 2 + (vertexCount - r + v) % vertexCount * 3;
+                        sb.append(' ').append(segments[o]).append(' ').append(segments[o + 1]).append(' ').append(segments[o + 2]);
+                    }
+                    candidates.add(sb.toString());
+                }
+                for (int i = 0; i < candidates.size() && duplicate == null; i++) {
+                    duplicate = keys.get(candidates.get(i));
+                    if (duplicate == null) {
+                        keys.put(candidates.get(i), lineNumber);
+                    }
+                    if (duplicate == null && type == 2 && i == 1) lastCommentLine = null;
+                }
+                if (duplicate == null) {
+                    lastCommentLine = null;
+                }
+                break;
+            }
+            default:
+                if (!trimmedLine.isEmpty()) {
+                    final String normalizedLine = withoutColour(segments);
+                    if (normalizedLine.equals(lastCommentLine)) {
+                        duplicate = lineNumber - 1;
+                    } else {
+                        lastCommentLine = normalizedLine;
+                    }
+                }
+                break;
+            }
+            if (duplicate != null) {
+                result.put(lineNumber, duplicate);
+            }
+        }
+        return result;
+    }
+
+    private static String withoutColour(String[] segments) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < segments.length; i++) {
+            if (i != 1) {
+                if (sb.length() > 0) sb.append(' ');
+                sb.append(segments[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Map<Integer, Integer> lineNumbers(DuplicateIndex<TestLine> index) {
+        final Map<Integer, Integer> result = new HashMap<>();
+        for (TestLine line : index.getProblems()) {
+            result.put(line.lineNumber, index.getProblem(line));
+        }
+        return result;
+    }
+
+    static List<String> repeat(List<String> content, int times) {
+        final List<String> result = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            result.addAll(content);
+        }
+        return result;
+    }
+
+    static Map<TestLine, Integer> problemLines(TestFile file, DuplicateIndex<TestLine> index) {
+        final Map<TestLine, Integer> result = new HashMap<>();
+        for (TestLine line : index.getProblems()) {
+            result.put(line, index.getProblem(line));
+        }
+        assertEquals(file.lines.size(), index.size());
+        return result;
+    }
+
+    static List<String> readFixture(String fileName) throws IOException {
+        try (InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream(fileName)) {
+            assertNotNull(is);
+            return Arrays.asList(new String(is.readAllBytes(), StandardCharsets.UTF_8).split("\r?\n")); //$NON-NLS-1$
+        }
+    }
+
+    static final class TestLine {
+        final String text;
+        TestLine next;
+        TestLine before;
+        int lineNumber;
+
+        TestLine(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * A text file which records its last change like a text editor.
+     */
+    static final class TestFile implements DuplicateIndex.Lines<TestLine> {
+        final List<TestLine> lines = new ArrayList<>();
+        final List<TestLine> removed = new ArrayList<>();
+        final List<TestLine> added = new ArrayList<>();
+
+        TestFile(List<String> content) {
+            for (String text : content) {
+                lines.add(new TestLine(text));
+            }
+            link(0);
+        }
+
+        TestLine get(int lineNumber) {
+            return lines.get(lineNumber - 1);
+        }
+
+        DuplicateIndex<TestLine> buildIndex() {
+            final DuplicateIndex<TestLine> index = new DuplicateIndex<>(this);
+            index.build(lines.isEmpty() ? null : lines.get(0));
+            return index;
+        }
+
+        Object update(DuplicateIndex<TestLine> index) {
+            return index.update(removed, added);
+        }
+
+        /** Replaces the lines from {@code from} to {@code to} (1-based) */
+        void replace(int from, int to, List<String> newTexts) {
+            removed.clear();
+            added.clear();
+            final List<TestLine> range = lines.subList(from - 1, to);
+            removed.addAll(range);
+            range.clear();
+            for (String text : newTexts) {
+                added.add(new TestLine(text));
+            }
+            lines.addAll(from - 1, added);
+            link(from - 1);
+        }
+
+        void randomEdit(Random rnd) {
+            final int size = lines.size();
+            final int line = 1 + rnd.nextInt(size);
+            final String text = get(line).text;
+            final String other = get(1 + rnd.nextInt(size)).text;
+            switch (rnd.nextInt(7)) {
+            case 0:
+                // Insert a copy of another line
+                replace(line, line, Arrays.asList(text, other));
+                break;
+            case 1:
+                // Join two lines (delete the second one)
+                if (line < size) {
+                    replace(line, line + 1, Arrays.asList(text));
+                } else {
+                    replace(line, line, Arrays.asList("")); //$NON-NLS-1$
+                }
+                break;
+            case 2:
+                // Change the colour
+                replace(line, line, Arrays.asList(changeColour(text, rnd)));
+                break;
+            case 3:
+                // Type a character
+                replace(line, line, Arrays.asList(text + rnd.nextInt(10)));
+                break;
+            case 4:
+                replace(line, line, Arrays.asList("0 BFC INVERTNEXT", text)); //$NON-NLS-1$
+                break;
+            case 5:
+            {
+                // Paste a block of lines
+                final int start = 1 + rnd.nextInt(size);
+                final List<String> block = new ArrayList<>();
+                block.add(text);
+                for (int i = start; i < Math.min(size, start + 5); i++) {
+                    block.add(get(i).text);
+                }
+                replace(line, line, block);
+                break;
+            }
+            default:
+                // Overwrite a line
+                replace(line, line, Arrays.asList(other));
+                break;
+            }
+        }
+
+        private String changeColour(String text, Random rnd) {
+            final String[] segments = text.trim().split("\\s+"); //$NON-NLS-1$
+            if (segments.length < 2 || "0".equals(segments[0])) return text; //$NON-NLS-1$
+            segments[1] = Integer.toString(rnd.nextInt(3));
+            return String.join(" ", segments); //$NON-NLS-1$
+        }
+
+        private void link(int from) {
+            for (int i = Math.max(0, from - 1); i < lines.size(); i++) {
+                final TestLine line = lines.get(i);
+                line.lineNumber = i + 1;
+                line.before = i > 0 ? lines.get(i - 1) : null;
+                line.next = i + 1 < lines.size() ? lines.get(i + 1) : null;
+            }
+        }
+
+        @Override
+        public TestLine getNext(TestLine line) {
+            return line.next;
+        }
+
+        @Override
+        public TestLine getBefore(TestLine line) {
+            return line.before;
+        }
+
+        @Override
+        public int getLineNumber(TestLine line) {
+            return line.lineNumber;
+        }
+
+        @Override
+        public int getType(TestLine line) {
+            final String text = line.text.trim();
+            if (text.startsWith("0 BFC")) return 6; //$NON-NLS-1$
+            if (text.startsWith("0 !LPE CSG")) return 8; //$NON-NLS-1$
+            if (text.startsWith("0 !TEXMAP")) return 9; //$NON-NLS-1$
+            if (text.startsWith("0 !LPE PNG")) return 10; //$NON-NLS-1$
+            final String[] segments = text.split("\\s+"); //$NON-NLS-1$
+            final int[] minimumLength = {0, 15, 8, 11, 14, 14};
+            for (int type = 1; type < 6; type++) {
+                if (Integer.toString(type).equals(segments[0]) && segments.length >= minimumLength[type]) {
+                    return type;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public boolean isInvertNext(TestLine line) {
+            return "0 BFC INVERTNEXT".equals(line.text.trim()); //$NON-NLS-1$
+        }
+
+        @Override
+        public boolean isInvisibleCondline(TestLine line) {
+            return false;
+        }
+
+        @Override
+        public String getText(TestLine line) {
+            return line.text;
+        }
+
+        @Override
+        public String getShortName(TestLine line) {
+            final String[] segments = line.text.trim().split("\\s+"); //$NON-NLS-1$
+            return segments[segments.length - 1].toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.helper.composite3d.FrameScheduler;
+
+@SuppressWarnings("java:S5960")
+public class FrameSchedulerTest {
+
+    private static final List<String> VIEWPORTS = List.of("top", "front", "left", "perspective"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+    /**
+     * Runs the frame loop of the 3D editor with a simulated clock and a script
+     * of dirty signals.
+     */
+    private static final class Harness {
+        private final AtomicLong clock = new AtomicLong();
+        private final AtomicBoolean wokenUp = new AtomicBoolean();
+        private final AtomicBoolean pause = new AtomicBoolean();
+        private final FrameScheduler<String> scheduler = new FrameScheduler<>(clock::get);
+        private final TreeMap<Long, List<Runnable>> script = new TreeMap<>();
+
+        Harness() {
+            scheduler.setWakeUp(() -> wokenUp.set(true));
+        }
+
+        Harness at(long time, Runnable signal) {
+            script.computeIfAbsent(time, t -> new ArrayList<>()).add(signal);
+            return this;
+        }
+
+        FrameScheduler<String> run(long duration) {
+            long nextFrame = 0L;
+            while (true) {
+                final Long nextSignal = script.isEmpty() ? null : script.firstKey();
+                if (nextSignal != null && nextSignal < nextFrame) {
+                    clock.set(nextSignal);
+                    script.remove(nextSignal).forEach(Runnable::run);
+                    if (wokenUp.getAndSet(false)) {
+                        nextFrame = Math.min(nextFrame, nextSignal + FrameScheduler.MIN_FRAME_INTERVAL);
+                    }
+                    continue;
+                }
+                if (nextFrame > duration) {
+                    return scheduler;
+                }
+                clock.set(nextFrame);
+                if (pause.getAndSet(false)) {
+                    // The frame loop tries again later
+                    nextFrame += 500L;
+                    continue;
+                }
+                scheduler.retain(VIEWPORTS);
+                for (String viewport : VIEWPORTS) {
+                    scheduler.beginFrame(viewport);
+                }
+                final long delay = scheduler.getNextFrameDelay();
+                // A sleeping frame loop waits for the next wake up
+                nextFrame = delay == FrameScheduler.SLEEPING ? Long.MAX_VALUE : nextFrame + delay;
+            }
+        }
+    }
+
+    @Test
+    public void testIdleViewportsDrawNoFrames() {
+        final FrameScheduler<String> scheduler = new Harness().run(60000L);
+        for (String viewport : VIEWPORTS) {
+            // Only the first frame
+            assertEquals(1L, scheduler.getFrameCount(viewport));
+            assertFalse(scheduler.beginFrame(viewport));
+        }
+        // The frame loop does not need a timer
+        assertEquals(FrameScheduler.SLEEPING, scheduler.getNextFrameDelay());
+    }
+
+    @Test
+    public void testSignalsAreCoalesced() {
+        final Harness harness = new Harness();
+        // A mouse drag with 200 move events, five events per millisecond
+        for (int i = 0; i < 200; i++) {
+            harness.at(100L + i / 5, harness.scheduler::invalidateAll);
+        }
+        final FrameScheduler<String> scheduler = harness.run(200L);
+        for (String viewport : VIEWPORTS) {
+            // Initial frame, four frames during the drag (every 10ms) and no idle frame
+            assertEquals(1L + 4L, scheduler.getFrameCount(viewport));
+        }
+    }
+
+    @Test
+    public void testSingleViewportInvalidation() {
+        final Harness harness = new Harness();
+        // The camera of one viewport is rotated
+        for (long t = 30L; t < 130L; t += 20L) {
+            harness.at(t, () -> harness.scheduler.invalidate("top")); //$NON-NLS-1$
+        }
+        final FrameScheduler<String> scheduler = harness.run(200L);
+        assertEquals(6L, scheduler.getFrameCount("top")); //$NON-NLS-1$
+        assertEquals(1L, scheduler.getFrameCount("front")); //$NON-NLS-1$
+        assertEquals(1L, scheduler.getFrameCount("left")); //$NON-NLS-1$
+        assertEquals(1L, scheduler.getFrameCount("perspective")); //$NON-NLS-1$
+        assertEquals(9L, scheduler.getFrameCount());
+    }
+
+    @Test
+    public void testEditSequence() {
+        final Harness harness = new Harness();
+        // Select, move (data changes and new render data) and deselect
+        harness.at(50L, harness.scheduler::invalidateAll);
+        harness.at(70L, () -> VIEWPORTS.forEach(harness.scheduler::requestFrame));
+        harness.at(300L, harness.scheduler::invalidateAll);
+        harness.at(301L, harness.scheduler::invalidateAll);
+        harness.at(330L, () -> VIEWPORTS.forEach(harness.scheduler::requestFrame));
+        harness.at(600L, harness.scheduler::invalidateAll);
+        final FrameScheduler<String> scheduler = harness.run(700L);
+        // 1 initial frame and 5 frames for the signals (at 60, 80, 310, 340 and 610)
+        for (String viewport : VIEWPORTS) {
+            assertEquals(1L + 5L, scheduler.getFrameCount(viewport));
+        }
+    }
+
+    @Test
+    public void testFileInvalidation() {
+        final Harness harness = new Harness();
+        // The selection of the file which is shown by "top" and "front" changes
+        harness.at(100L, () -> harness.scheduler.invalidate(viewport -> viewport.equals("top") || viewport.equals("front"))); //$NON-NLS-1$ //$NON-NLS-2$
+        final FrameScheduler<String> scheduler = harness.run(1000L);
+        assertEquals(2L, scheduler.getFrameCount("top")); //$NON-NLS-1$
+        assertEquals(2L, scheduler.getFrameCount("front")); //$NON-NLS-1$
+        assertEquals(1L, scheduler.getFrameCount("left")); //$NON-NLS-1$
+        assertEquals(1L, scheduler.getFrameCount("perspective")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testDelayedInvalidation() {
+        final Harness harness = new Harness();
+        // The render data of "top" has to be culled again after the manipulation
+        harness.at(100L, () -> harness.scheduler.invalidateLater("top", 1500L)); //$NON-NLS-1$
+        harness.at(1590L, () -> assertEquals(1L, harness.scheduler.getFrameCount("top"))); //$NON-NLS-1$
+        final FrameScheduler<String> scheduler = harness.run(5000L);
+        assertEquals(2L, scheduler.getFrameCount("top")); //$NON-NLS-1$
+        assertEquals(1L, scheduler.getFrameCount("front")); //$NON-NLS-1$
+        assertEquals(FrameScheduler.SLEEPING, scheduler.getNextFrameDelay());
+    }
+
+    @Test
+    public void testSignalDuringPause() {
+        final Harness harness = new Harness();
+        // A dialog pauses the sleeping frame loop and the model changes meanwhile
+        harness.at(100L, () -> harness.pause.set(true));
+        harness.at(110L, () -> harness.scheduler.invalidate("top")); //$NON-NLS-1$
+        harness.at(200L, () -> harness.scheduler.invalidate("front")); //$NON-NLS-1$
+        harness.at(2000L, () -> harness.scheduler.invalidate("top")); //$NON-NLS-1$
+        final FrameScheduler<String> scheduler = harness.run(3000L);
+        // The frames are drawn after the pause (at 620) and the loop still wakes up later (at 2010)
+        assertEquals(3L, scheduler.getFrameCount("top")); //$NON-NLS-1$
+        assertEquals(2L, scheduler.getFrameCount("front")); //$NON-NLS-1$
+        assertEquals(1L, scheduler.getFrameCount("left")); //$NON-NLS-1$
+        assertEquals(FrameScheduler.SLEEPING, scheduler.getNextFrameDelay());
+    }
+
+    @Test
+    public void testRenderThreadWakeUp() throws InterruptedException {
+        final FrameScheduler<String> scheduler = new FrameScheduler<>();
+        final long generation = scheduler.awaitChange("top", -1L, 0L); //$NON-NLS-1$
+
+        // Nothing happens, the render thread waits until the timeout
+        assertEquals(generation, scheduler.awaitChange("top", generation, 20L)); //$NON-NLS-1$
+
+        // New render data does not trigger a re-calculation
+        scheduler.requestFrame("top"); //$NON-NLS-1$
+        assertEquals(generation, scheduler.awaitChange("top", generation, 20L)); //$NON-NLS-1$
+
+        final AtomicLong result = new AtomicLong(generation);
+        final Thread renderThread = new Thread(() -> {
+            try {
+                result.set(scheduler.awaitChange("top", generation)); //$NON-NLS-1$
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        final long start = System.currentTimeMillis();
+        renderThread.start();
+        Thread.sleep(20L);
+        scheduler.invalidate("top"); //$NON-NLS-1$
+        renderThread.join();
+        assertTrue(result.get() != generation);
+        assertTrue(System.currentTimeMillis() - start < 5000L);
+    }
+}
@@ -0,0 +1,151 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeNoException;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.lwjgl.util.vector.Matrix4f;
+import org.nschmidt.ldparteditor.data.DatFile;
+import org.nschmidt.ldparteditor.data.DatType;
+import org.nschmidt.ldparteditor.data.GData;
+import org.nschmidt.ldparteditor.data.GL33ModelRenderer;
+import org.nschmidt.ldparteditor.data.GL33ModelRendererLDrawStandard;
+import org.nschmidt.ldparteditor.helper.math.Frustum;
+import org.nschmidt.ldparteditor.helper.math.ThreadsafeHashMap;
+import org.nschmidt.ldparteditor.workbench.UserSettingState;
+import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
+
+/**
+ * Checks the BFC state of the GL33 renderers when subfiles are culled. The
+ * graphical data needs the SWT libraries. The test is skipped if they are
+ * not available.
+ */
+@SuppressWarnings("java:S5960")
+public class FrustumCullingTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void checkGraphicalData() {
+        try {
+            Class.forName("org.nschmidt.ldparteditor.enumtype.View"); //$NON-NLS-1$
+        } catch (Throwable t) {
+            assumeNoException(t);
+        }
+    }
+
+    @Test
+    public void testInvertNextOfCulledSubfile() throws IOException, ReflectiveOperationException {
+        if (WorkbenchManager.getUserSettingState() == null) {
+            WorkbenchManager.setUserSettingState(new UserSettingState());
+        }
+        final File subfile = folder.newFile("culling_sub.dat"); //$NON-NLS-1$
+        Files.writeString(subfile.toPath(), "0 Subfile\n3 16 0 0 0 1 0 0 0 1 0\n", StandardCharsets.UTF_8); //$NON-NLS-1$
+        final DatFile df = new DatFile(new File(folder.getRoot(), "culling.dat").getAbsolutePath(), "", false, DatType.PART); //$NON-NLS-1$ //$NON-NLS-2$
+        final GData invertNext = ClipboardClonerTest.parse("0 BFC INVERTNEXT", df); //$NON-NLS-1$
+        final GData offscreen = ClipboardClonerTest.parse("1 16 1000 0 0 1 0 0 0 1 0 0 0 1 culling_sub.dat", df); //$NON-NLS-1$
+        final GData visible = ClipboardClonerTest.parse("1 16 0 0 0 1 0 0 0 1 0 0 0 1 culling_sub.dat", df); //$NON-NLS-1$
+        assertNotNull(invertNext);
+        assertNotNull(offscreen);
+        assertNotNull(visible);
+        df.addToTail(invertNext);
+        df.addToTail(offscreen);
+        df.addToTail(visible);
+
+        // The view shows the area from -10 to 10 around the origin
+        final Frustum frustum = Frustum.orthographic(new Matrix4f(), 10f, 10f);
+        for (Object renderer : new Object[] { new GL33ModelRenderer(null, null), new GL33ModelRendererLDrawStandard(null, null) }) {
+            final Map<GData, Boolean> invertedWithoutCulling = loadBFCInfo(renderer, df, null);
+            assertEquals(Boolean.TRUE, invertedWithoutCulling.get(offscreen));
+            assertEquals(Boolean.FALSE, invertedWithoutCulling.get(visible));
+
+            // The INVERTNEXT belongs to the culled subfile, it must not invert the visible one
+            final Map<GData, Boolean> invertedWithCulling = loadBFCInfo(renderer, df, frustum);
+            assertNull(invertedWithCulling.get(offscreen));
+            assertEquals(Boolean.FALSE, invertedWithCulling.get(visible));
+        }
+    }
+
+    /**
+     * Collects the data of the file like the render thread does (with the stud
+     * logo, so that the subfile references are collected, too).
+     *
+     * @return the "invert next" state of each collected data
+     */
+    private static Map<GData, Boolean> loadBFCInfo(Object renderer, DatFile df, Frustum frustum) throws ReflectiveOperationException {
+        Method load = null;
+        for (Method m : renderer.getClass().getDeclaredMethods()) {
+            if (m.getName().startsWith("loadBFC")) { //$NON-NLS-1$
+                load = m;
+            }
+        }
+        assertNotNull(load);
+        load.setAccessible(true);
+        final Class<?>[] types = load.getParameterTypes();
+        final Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == List.class) {
+                args[i] = new ArrayList<>();
+            } else if (types[i] == ThreadsafeHashMap.class) {
+                args[i] = new ThreadsafeHashMap<>();
+            } else if (types[i] == Map.class) {
+                args[i] = new HashMap<>();
+            } else if (types[i] == Frustum.class) {
+                args[i] = frustum;
+            } else if (types[i] == DatFile.class) {
+                args[i] = df;
+            } else if (types[i] == boolean.class) {
+                args[i] = true;
+            }
+        }
+        try {
+            load.invoke(renderer, args);
+        } catch (InvocationTargetException ite) {
+            throw new IllegalStateException(ite.getCause());
+        }
+
+        // The first list holds the data in the order of the file
+        final Map<GData, Boolean> result = new HashMap<>();
+        for (Object gdw : (List<?>) args[0]) {
+            final Field data = gdw.getClass().getDeclaredField("data"); //$NON-NLS-1$
+            final Field invertNext = gdw.getClass().getDeclaredField("invertNext"); //$NON-NLS-1$
+            data.setAccessible(true);
+            invertNext.setAccessible(true);
+            result.put((GData) data.get(gdw), invertNext.getBoolean(gdw));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,166 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Vector3f;
+import org.lwjgl.util.vector.Vector4f;
+import org.nschmidt.ldparteditor.helper.math.Frustum;
+
+@SuppressWarnings("java:S5960")
+public class FrustumTest {
+
+    private static final int SAMPLES = 10000;
+
+    @Test
+    public void testOrthographicView() {
+        // Like the 3D editor: zoom times rotation times translation
+        final Matrix4f view = new Matrix4f();
+        Matrix4f.scale(new Vector3f(0.002f, 0.002f, 0.002f), view, view);
+        final Matrix4f rotation = new Matrix4f();
+        Matrix4f.rotate((float) Math.toRadians(30.0), new Vector3f(1f, 0f, 0f), rotation, rotation);
+        Matrix4f.rotate((float) Math.toRadians(45.0), new Vector3f(0f, 1f, 0f), rotation, rotation);
+        Matrix4f.mul(rotation, view, view);
+        final Matrix4f translation = new Matrix4f();
+        Matrix4f.translate(new Vector3f(-100f, 0f, 0f), translation, translation);
+        Matrix4f.mul(view, translation, view);
+
+        final Frustum frustum = Frustum.orthographic(view, 0.4f, 0.3f);
+        // The center of the view
+        assertTrue(frustum.intersects(new float[]{90f, -10f, -10f, 110f, 10f, 10f}));
+        // Far behind or in front of the view (there are no depth limits)
+        final Vector4f behind = transformInverse(view, new Vector4f(0f, 0f, 1000f, 1f));
+        assertTrue(frustum.intersects(behind.x - 1f, behind.y - 1f, behind.z - 1f, behind.x + 1f, behind.y + 1f, behind.z + 1f));
+        // Left and above of the view
+        assertFalse(frustum.intersects(box(transformInverse(view, new Vector4f(-0.5f, 0f, 0f, 1f)), 10f)));
+        assertFalse(frustum.intersects(box(transformInverse(view, new Vector4f(0f, 0.35f, 0f, 1f)), 10f)));
+        // A big box which contains the whole view
+        assertTrue(frustum.intersects(new float[]{-10000f, -10000f, -10000f, 10000f, 10000f, 10000f}));
+
+        assertEquals(frustum, Frustum.orthographic(view, 0.4f, 0.3f));
+        assertNotEquals(frustum, Frustum.orthographic(view, 0.5f, 0.3f));
+    }
+
+    @Test
+    public void testContains() {
+        final Matrix4f view = new Matrix4f();
+        Matrix4f.rotate((float) Math.toRadians(30.0), new Vector3f(0f, 0f, 1f), view, view);
+        final Frustum frustum = Frustum.orthographic(view, 1.25f, 1.25f);
+        // The corners of a view without the margin (at any depth)
+        for (float z : new float[]{-1000f, 0f, 1000f}) {
+            for (int c = 0; c < 4; c++) {
+                final Vector4f p = transformInverse(view, new Vector4f((c & 1) == 0 ? -1f : 1f, (c & 2) == 0 ? -1f : 1f, z, 1f));
+                assertTrue(frustum.contains(p.x, p.y, p.z));
+            }
+        }
+        final Vector4f outside = transformInverse(view, new Vector4f(1.3f, 0f, 0f, 1f));
+        assertFalse(frustum.contains(outside.x, outside.y, outside.z));
+    }
+
+    @Test
+    public void testNoVisibleBoxIsCulled() {
+        final Random rnd = new Random(4711L);
+        final Matrix4f perspective = perspective(60f, 4f / 3f, 1f, 500f);
+        final Matrix4f view = new Matrix4f();
+        Matrix4f.rotate((float) Math.toRadians(20.0), new Vector3f(0f, 1f, 0f), view, view);
+        Matrix4f.translate(new Vector3f(0f, -10f, -100f), view, view);
+        final Matrix4f clip = Matrix4f.mul(perspective, view, null);
+        final Frustum frustum = new Frustum(clip, true);
+
+        int visible = 0;
+        int culled = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            final float x = rnd.nextFloat() * 800f - 400f;
+            final float y = rnd.nextFloat() * 800f - 400f;
+            final float z = rnd.nextFloat() * 800f - 400f;
+            final float size = rnd.nextFloat() * 40f;
+            final float[] b = new float[]{x, y, z, x + size, y + size, z + size};
+            final boolean intersects = frustum.intersects(b);
+            if (hasVisibleCorner(clip, b)) {
+                visible++;
+                assertTrue(intersects);
+            }
+            if (!intersects) {
+                culled++;
+                assertTrue(isOutsideOfOnePlane(clip, b));
+            }
+        }
+        assertTrue(visible > 0);
+        assertTrue(culled > 0);
+    }
+
+    private Matrix4f perspective(float fovy, float aspect, float near, float far) {
+        final float f = (float) (1.0 / Math.tan(Math.toRadians(fovy) / 2.0));
+        final Matrix4f result = new Matrix4f();
+        result.m00 = f / aspect;
+        result.m11 = f;
+        result.m22 = (far + near) / (near - far);
+        result.m32 = 2f * far * near / (near - far);
+        result.m23 = -1f;
+        result.m33 = 0f;
+        return result;
+    }
+
+    private boolean hasVisibleCorner(Matrix4f clip, float[] b) {
+        for (int c = 0; c < 8; c++) {
+            final Vector4f p = Matrix4f.transform(clip, corner(b, c), null);
+            if (Math.abs(p.x) <= p.w && Math.abs(p.y) <= p.w && Math.abs(p.z) <= p.w) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isOutsideOfOnePlane(Matrix4f clip, float[] b) {
+        final Vector4f[] p = new Vector4f[8];
+        for (int c = 0; c < 8; c++) {
+            p[c] = Matrix4f.transform(clip, corner(b, c), null);
+        }
+        for (int plane = 0; plane < 6; plane++) {
+            boolean allOutside = true;
+            for (Vector4f v : p) {
+                final float coordinate = plane / 2 == 0 ? v.x : plane / 2 == 1 ? v.y : v.z;
+                final float distance = plane % 2 == 0 ? v.w + coordinate : v.w - coordinate;
+                if (distance >= 0f) {
+                    allOutside = false;
+                    break;
+                }
+            }
+            if (allOutside) return true;
+        }
+        return false;
+    }
+
+    private Vector4f corner(float[] b, int c) {
+        return new Vector4f((c & 1) == 0 ? b[0] : b[3], (c & 2) == 0 ? b[1] : b[4], (c & 4) == 0 ? b[2] : b[5], 1f);
+    }
+
+    private Vector4f transformInverse(Matrix4f m, Vector4f v) {
+        return Matrix4f.transform(Matrix4f.invert(m, null), v, null);
+    }
+
+    private float[] box(Vector4f center, float halfSize) {
+        return new float[]{center.x - halfSize, center.y - halfSize, center.z - halfSize, center.x + halfSize, center.y + halfSize, center.z + halfSize};
+    }
+}
@@ -0,0 +1,201 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Vector4f;
+import org.nschmidt.ldparteditor.data.Vertex;
+import org.nschmidt.ldparteditor.enumtype.Threshold;
+import org.nschmidt.ldparteditor.helper.math.GeometricPredicates;
+import org.nschmidt.ldparteditor.helper.math.Vector3d;
+
+@SuppressWarnings("java:S5960")
+public class GeometricPredicatesTest {
+
+    private static final int SAMPLES = 10000;
+    private static final BigDecimal TOLERANCE = new BigDecimal("0.00001"); //$NON-NLS-1$
+    private static final BigDecimal ZERO = new BigDecimal("-0.00001"); //$NON-NLS-1$
+    private static final BigDecimal ONE = new BigDecimal("1.00001"); //$NON-NLS-1$
+
+    @Test
+    public void testLineTriangleEquivalence() {
+        final Random rnd = new Random(4711L);
+        for (int i = 0; i < SAMPLES; i++) {
+            final Vertex[] v = randomVertices(rnd, 5);
+            final Vector3d r1 = new Vector3d();
+            final Vector3d r2 = new Vector3d();
+            final boolean exact = GeometricPredicates.intersectLineTriangleExact(v[0], v[1], v[2], v[3], v[4], r1);
+            final boolean filtered = GeometricPredicates.intersectLineTriangle(v[0], v[1], v[2], v[3], v[4], r2);
+            assertEquals(exact, filtered);
+            if (exact) {
+                assertEquals(0, r1.x.compareTo(r2.x));
+                assertEquals(0, r1.y.compareTo(r2.y));
+                assertEquals(0, r1.z.compareTo(r2.z));
+            }
+        }
+    }
+
+    @Test
+    public void testRayTriangleEquivalence() {
+        final Random rnd = new Random(815L);
+        for (int i = 0; i < SAMPLES; i++) {
+            final Vector3d[] v = randomVectors(rnd, 5);
+            assertEquals(
+                    GeometricPredicates.intersectRayTriangleExact(v[0], v[1], v[2], v[3], v[4], TOLERANCE, ZERO, ONE),
+                    GeometricPredicates.intersectRayTriangle(v[0], v[1], v[2], v[3], v[4], TOLERANCE, ZERO, ONE));
+        }
+    }
+
+    @Test
+    public void testSegmentTriangleEquivalence() {
+        final Random rnd = new Random(42L);
+        for (int i = 0; i < SAMPLES; i++) {
+            final Vector3d[] v = randomVectors(rnd, 5);
+            final Vector3d dir = new Vector3d(v[1]);
+            final BigDecimal len = dir.normalise(dir);
+            assertEquals(
+                    GeometricPredicates.intersectSegmentTriangleExact(v[0], dir, len, v[2], v[3], v[4]),
+                    GeometricPredicates.intersectSegmentTriangle(v[0], dir, len, v[2], v[3], v[4]));
+        }
+    }
+
+    @Test
+    public void testLineLineEquivalence() {
+        final Random rnd = new Random(2023L);
+        int hits = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            final Vector3d[] v = randomVectors(rnd, 4);
+            if (rnd.nextInt(4) == 0) {
+                // Let the second segment cross the first one
+                final Vector3d m = Vector3d.add(v[0], v[1]);
+                final Vector3d mid = new Vector3d(m.x.divide(BigDecimal.valueOf(2L)), m.y.divide(BigDecimal.valueOf(2L)), m.z.divide(BigDecimal.valueOf(2L)));
+                v[3] = Vector3d.add(mid, Vector3d.sub(mid, v[2]));
+            }
+            final Vector3d exact = GeometricPredicates.intersectLineLineExact(v[0], v[1], v[2], v[3]);
+            final Vector3d filtered = GeometricPredicates.intersectLineLine(v[0], v[1], v[2], v[3]);
+            assertEquals(exact == null, filtered == null);
+            if (exact != null) {
+                hits++;
+                assertEquals(0, exact.x.compareTo(filtered.x));
+                assertEquals(0, exact.y.compareTo(filtered.y));
+                assertEquals(0, exact.z.compareTo(filtered.z));
+            }
+        }
+        assertTrue(hits > 0);
+    }
+
+    @Test
+    public void testToleranceAndParallelEquivalence() {
+        final Random rnd = new Random(1337L);
+        final BigDecimal smallAngle = new BigDecimal("0.00001"); //$NON-NLS-1$
+        final BigDecimal distance = new BigDecimal("0.001"); //$NON-NLS-1$
+        for (int i = 0; i < SAMPLES; i++) {
+            final Vector3d[] v = randomVectors(rnd, 4);
+            assertEquals(GeometricPredicates.compareWithToleranceExact(v[0].x, v[1].x, distance), GeometricPredicates.compareWithTolerance(v[0].x, v[1].x, distance));
+            if (Vector3d.manhattan(v[0], v[1]).signum() != 0 && Vector3d.manhattan(v[2], v[3]).signum() != 0) {
+                assertEquals(GeometricPredicates.isParallelExact(v[0], v[1], v[2], v[3], smallAngle), GeometricPredicates.isParallel(v[0], v[1], v[2], v[3], smallAngle));
+            }
+        }
+    }
+
+    @Test
+    public void testTransformedSubfileVertices() throws ReflectiveOperationException {
+        // A subfile with large coordinates, which is rotated and moved back to the origin
+        final BigDecimal cos = new BigDecimal("0.6"); //$NON-NLS-1$
+        final BigDecimal sin = new BigDecimal("0.8"); //$NON-NLS-1$
+        final BigDecimal tx = new BigDecimal("20000"); //$NON-NLS-1$
+        final BigDecimal ty = new BigDecimal("-140000"); //$NON-NLS-1$
+        final Matrix4f productMatrix = new Matrix4f();
+        productMatrix.m00 = 0.6f;
+        productMatrix.m01 = 0.8f;
+        productMatrix.m10 = -0.8f;
+        productMatrix.m11 = 0.6f;
+        productMatrix.m30 = 20000f;
+        productMatrix.m31 = -140000f;
+        final String[][] triangle = {{"100000", "100000", "0"}, {"100100", "100000", "0"}, {"100000", "100100", "0"}}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$
+        final Vertex[] t = new Vertex[3];
+        for (int i = 0; i < 3; i++) {
+            t[i] = subfileVertex(new BigDecimal(triangle[i][0]), new BigDecimal(triangle[i][1]), new BigDecimal(triangle[i][2]), cos, sin, tx, ty, productMatrix);
+        }
+        int hits = 0;
+        for (int i = -200; i <= 200; i++) {
+            // The line runs along the edge, close to the tolerance of the test
+            final BigDecimal x = new BigDecimal("99999.999").add(new BigDecimal(i).scaleByPowerOfTen(-5)); //$NON-NLS-1$
+            final Vertex p = subfileVertex(x, new BigDecimal("100050"), new BigDecimal("-10"), cos, sin, tx, ty, productMatrix); //$NON-NLS-1$ //$NON-NLS-2$
+            final Vertex q = subfileVertex(x, new BigDecimal("100050"), new BigDecimal("10"), cos, sin, tx, ty, productMatrix); //$NON-NLS-1$ //$NON-NLS-2$
+            final boolean exact = GeometricPredicates.intersectLineTriangleExact(p, q, t[0], t[1], t[2], new Vector3d());
+            assertEquals(exact, GeometricPredicates.intersectLineTriangle(p, q, t[0], t[1], t[2], new Vector3d()));
+            if (exact) hits++;
+        }
+        assertTrue(hits > 0 && hits < 401);
+    }
+
+    /**
+     * Creates a vertex like the vertex manager does for the content of a
+     * subfile: the exact position from the accurate matrix and the float
+     * position from the float product matrix.
+     */
+    private static Vertex subfileVertex(BigDecimal x, BigDecimal y, BigDecimal z, BigDecimal cos, BigDecimal sin, BigDecimal tx, BigDecimal ty, Matrix4f productMatrix) throws ReflectiveOperationException {
+        final BigDecimal ex = cos.multiply(x).subtract(sin.multiply(y)).add(tx).scaleByPowerOfTen(-3);
+        final BigDecimal ey = sin.multiply(x).add(cos.multiply(y)).add(ty).scaleByPowerOfTen(-3);
+        final BigDecimal ez = z.scaleByPowerOfTen(-3);
+        final Vector4f position = Matrix4f.transform(productMatrix, new Vector4f(x.floatValue(), y.floatValue(), z.floatValue(), 1f), null);
+        final Constructor<Vertex> constructor = Vertex.class.getDeclaredConstructor(BigDecimal.class, BigDecimal.class, BigDecimal.class, Vector4f.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(ex, ey, ez, position);
+    }
+
+    /**
+     * Creates random input. Half of the samples are snapped to a coarse grid
+     * and share coordinates, which creates many degenerated cases.
+     */
+    static Vector3d[] randomVectors(Random rnd, int count) {
+        final Vector3d[] result = new Vector3d[count];
+        final boolean degenerated = rnd.nextBoolean();
+        for (int i = 0; i < count; i++) {
+            if (degenerated && i > 0 && rnd.nextInt(4) == 0) {
+                result[i] = new Vector3d(result[rnd.nextInt(i)]);
+            } else {
+                result[i] = new Vector3d(randomCoordinate(rnd, degenerated), randomCoordinate(rnd, degenerated), randomCoordinate(rnd, degenerated));
+            }
+        }
+        return result;
+    }
+
+    static Vertex[] randomVertices(Random rnd, int count) {
+        final Vector3d[] vectors = randomVectors(rnd, count);
+        final Vertex[] result = new Vertex[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = new Vertex(vectors[i]);
+        }
+        return result;
+    }
+
+    private static BigDecimal randomCoordinate(Random rnd, boolean degenerated) {
+        if (degenerated) {
+            return new BigDecimal(rnd.nextInt(5) - 2);
+        }
+        return new BigDecimal(rnd.nextDouble() * 20.0 - 10.0).round(Threshold.MC);
+    }
+}
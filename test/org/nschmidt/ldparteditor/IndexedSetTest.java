@@ -0,0 +1,205 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.helper.math.DenseIndex;
+import org.nschmidt.ldparteditor.helper.math.IndexedSet;
+
+@SuppressWarnings("java:S5960")
+public class IndexedSetTest {
+
+    /** A stand-in for the geometry of a mesh (with the identity of an object) */
+    static final class Element {
+        private final int type;
+
+        Element(int type) {
+            this.type = type;
+        }
+    }
+
+    @Test
+    public void testBehavesLikeHashSet() {
+        final Random rnd = new Random(4711L);
+        final DenseIndex<Element> index = new DenseIndex<>(6);
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            elements.add(new Element(2));
+        }
+        final IndexedSet<Element> a = new IndexedSet<>(index);
+        final IndexedSet<Element> b = new IndexedSet<>(index);
+        final Set<Element> expectedA = new HashSet<>();
+        final Set<Element> expectedB = new HashSet<>();
+
+        for (int step = 0; step < 50000; step++) {
+            final Element e = elements.get(rnd.nextInt(elements.size()));
+            switch (rnd.nextInt(12)) {
+            case 0, 1, 2:
+                assertEquals(expectedA.add(e), a.add(e));
+                break;
+            case 3, 4:
+                assertEquals(expectedB.add(e), b.add(e));
+                break;
+            case 5, 6:
+                assertEquals(expectedA.remove(e), a.remove(e));
+                break;
+            case 7:
+                index.register(e, 2);
+                break;
+            case 8:
+                index.release(e);
+                break;
+            case 9:
+                // A new object which may get the index of an unused one
+                elements.set(rnd.nextInt(elements.size()), new Element(2));
+                break;
+            case 10:
+                if (rnd.nextBoolean()) {
+                    assertEquals(expectedA.addAll(expectedB), a.addAll(b));
+                } else {
+                    assertEquals(expectedA.removeAll(expectedB), a.removeAll(b));
+                }
+                break;
+            default:
+                if (rnd.nextInt(20) == 0) {
+                    expectedB.clear();
+                    b.clear();
+                }
+                break;
+            }
+            assertTrue(a.contains(e) == expectedA.contains(e));
+        }
+        assertEquals(expectedA, new HashSet<>(a));
+        assertEquals(expectedB, new HashSet<>(b));
+        assertEquals(expectedA.size(), a.size());
+    }
+
+    @Test
+    public void testIndicesAreReused() {
+        final DenseIndex<Element> index = new DenseIndex<>(6);
+        final IndexedSet<Element> selection = new IndexedSet<>(index);
+        final Element selected = new Element(3);
+        index.register(selected, 3);
+        selection.add(selected);
+        for (int i = 0; i < 10000; i++) {
+            final Element e = new Element(3);
+            index.register(e, 3);
+            index.release(e);
+        }
+        // Only the selected element keeps its index
+        assertEquals(1, index.size());
+
+        // A removed element stays selected until it is removed from the set
+        index.release(selected);
+        assertTrue(selection.contains(selected));
+        selection.clear();
+        final Element other = new Element(3);
+        index.register(other, 3);
+        assertFalse(selection.contains(other));
+
+        index.releaseAll();
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testCategories() {
+        final DenseIndex<Element> index = new DenseIndex<>(6);
+        final IndexedSet<Element> hidden = new IndexedSet<>(index);
+        final IndexedSet<Element> selected = new IndexedSet<>(index);
+        final List<Element> triangles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final Element line = new Element(2);
+            final Element triangle = new Element(3);
+            index.register(line, 2);
+            index.register(triangle, 3);
+            triangles.add(triangle);
+            if (i % 10 == 0) hidden.add(triangle);
+        }
+        selected.add(triangles.get(1));
+
+        // Select inverse
+        final IndexedSet<Element> last = new IndexedSet<>(index);
+        last.copyFrom(selected);
+        selected.copyFromCategory(3, hidden, last);
+        assertEquals(89, selected.size());
+        for (Element e : selected) {
+            assertEquals(3, e.type);
+            assertFalse(hidden.contains(e));
+        }
+        assertFalse(selected.contains(triangles.get(1)));
+        assertTrue(selected.contains(triangles.get(2)));
+        assertTrue(index.isRegistered(triangles.get(2), 3));
+        assertFalse(index.isRegistered(triangles.get(2), 2));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        final DenseIndex<Element> index = new DenseIndex<>(1);
+        final IndexedSet<Element> set = new IndexedSet<>(index);
+        for (int i = 0; i < 100; i++) {
+            set.add(new Element(0));
+        }
+        int i = 0;
+        for (Iterator<Element> it = set.iterator(); it.hasNext();) {
+            it.next();
+            if (i % 2 == 0) it.remove();
+            i++;
+        }
+        assertEquals(100, i);
+        assertEquals(50, set.size());
+    }
+
+    @Test
+    public void testChangeListener() {
+        final DenseIndex<Element> index = new DenseIndex<>(1);
+        final IndexedSet<Element> selection = new IndexedSet<>(index);
+        final IndexedSet<Element> backup = new IndexedSet<>(index);
+        final int[] changes = new int[1];
+        selection.setChangeListener(() -> changes[0]++);
+        final Element a = new Element(0);
+        final Element b = new Element(0);
+
+        // Only real changes are reported
+        assertTrue(selection.add(a));
+        assertFalse(selection.add(a));
+        assertFalse(selection.remove(b));
+        assertEquals(1, changes[0]);
+
+        // Changes of other sets of the same index are not reported
+        backup.add(b);
+        backup.copyFrom(selection);
+        assertEquals(1, changes[0]);
+
+        assertFalse(selection.addAll(backup));
+        backup.add(b);
+        assertTrue(selection.addAll(backup));
+        assertEquals(2, changes[0]);
+        selection.clear();
+        selection.clear();
+        assertEquals(3, changes[0]);
+    }
+}
@@ -0,0 +1,78 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.enumtype.LevelOfDetail;
+
+@SuppressWarnings("java:S5960")
+public class LevelOfDetailTest {
+
+    @Test
+    public void testThresholds() {
+        assertEquals(LevelOfDetail.LOW, LevelOfDetail.select(1f, null));
+        assertEquals(LevelOfDetail.LOW, LevelOfDetail.select(LevelOfDetail.LOW_MAX_SIZE - 1f, null));
+        assertEquals(LevelOfDetail.STANDARD, LevelOfDetail.select(LevelOfDetail.LOW_MAX_SIZE, null));
+        assertEquals(LevelOfDetail.STANDARD, LevelOfDetail.select(LevelOfDetail.HIGH_MIN_SIZE - 1f, null));
+        assertEquals(LevelOfDetail.HIGH, LevelOfDetail.select(LevelOfDetail.HIGH_MIN_SIZE, null));
+    }
+
+    @Test
+    public void testHysteresis() {
+        // Slightly above the threshold, the current level is kept
+        final float aboveLow = LevelOfDetail.LOW_MAX_SIZE * 1.1f;
+        assertEquals(LevelOfDetail.LOW, LevelOfDetail.select(aboveLow, LevelOfDetail.LOW));
+        assertEquals(LevelOfDetail.STANDARD, LevelOfDetail.select(aboveLow, LevelOfDetail.STANDARD));
+        final float belowHigh = LevelOfDetail.HIGH_MIN_SIZE * 0.9f;
+        assertEquals(LevelOfDetail.HIGH, LevelOfDetail.select(belowHigh, LevelOfDetail.HIGH));
+        assertEquals(LevelOfDetail.STANDARD, LevelOfDetail.select(belowHigh, LevelOfDetail.STANDARD));
+        // Far away from the threshold, the level changes
+        assertEquals(LevelOfDetail.STANDARD, LevelOfDetail.select(LevelOfDetail.LOW_MAX_SIZE * 2f, LevelOfDetail.LOW));
+        assertEquals(LevelOfDetail.STANDARD, LevelOfDetail.select(LevelOfDetail.HIGH_MIN_SIZE * 0.5f, LevelOfDetail.HIGH));
+        assertEquals(LevelOfDetail.HIGH, LevelOfDetail.select(LevelOfDetail.HIGH_MIN_SIZE * 2f, LevelOfDetail.LOW));
+    }
+
+    @Test
+    public void testNoFlickeringWhileZooming() {
+        // Zoom back and forth around both thresholds
+        for (float threshold : new float[]{LevelOfDetail.LOW_MAX_SIZE, LevelOfDetail.HIGH_MIN_SIZE}) {
+            LevelOfDetail level = null;
+            LevelOfDetail last = null;
+            int changes = 0;
+            for (int i = 0; i < 1000; i++) {
+                final float size = threshold * (1f + 0.15f * (float) Math.sin(i * 0.1));
+                level = LevelOfDetail.select(size, level);
+                if (last != null && last != level) {
+                    changes++;
+                }
+                last = level;
+            }
+            assertTrue(changes <= 1);
+        }
+    }
+
+    @Test
+    public void testFolders() {
+        assertEquals(LevelOfDetail.LOW, LevelOfDetail.fromFolder("8")); //$NON-NLS-1$
+        assertEquals(LevelOfDetail.HIGH, LevelOfDetail.fromFolder("48")); //$NON-NLS-1$
+        assertNull(LevelOfDetail.fromFolder("p")); //$NON-NLS-1$
+        assertNull(LevelOfDetail.STANDARD.getFolder());
+    }
+}
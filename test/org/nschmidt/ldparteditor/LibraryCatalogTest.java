@@ -0,0 +1,135 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.nschmidt.ldparteditor.data.DatType;
+import org.nschmidt.ldparteditor.data.LibraryCatalog;
+
+@SuppressWarnings("java:S5960")
+public class LibraryCatalogTest {
+
+    private Path folder;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("catalog"); //$NON-NLS-1$
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        delete(folder);
+    }
+
+    @Test
+    public void testScanReadsDescriptionAndType() throws IOException {
+        write("3001.dat", "0 Brick  2 x  4\n0 Name: 3001.dat\n0 !LDRAW_ORG Part UPDATE 2004-03\n1 16 0 0 0 1 0 0 0 1 0 0 0 1 s\\3001s01.dat\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        write("4-4cyli.dat", "0 Cylinder 1.0\n0 !LDRAW_ORG Primitive UPDATE 2012-01\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        write("empty.dat", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        write("readme.txt", "0 Not a part\n"); //$NON-NLS-1$ //$NON-NLS-2$
+
+        final Map<String, LibraryCatalog.Entry> entries = scan(new LibraryCatalog(), false);
+        assertEquals(3, entries.size());
+        assertEquals(" - Brick  2 x  4", entries.get("3001.dat").getDescription()); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(DatType.PART, entries.get("3001.dat").getType()); //$NON-NLS-1$
+        assertEquals(DatType.PRIMITIVE, entries.get("4-4cyli.dat").getType()); //$NON-NLS-1$
+        assertEquals("", entries.get("empty.dat").getDescription()); //$NON-NLS-1$ //$NON-NLS-2$
+        assertNull(entries.get("empty.dat").getType()); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testOnlyChangedFilesAreReadAgain() throws IOException {
+        write("a.dat", "0 First\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        write("b.dat", "0 Second\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        final LibraryCatalog catalog = new LibraryCatalog();
+        final Map<String, LibraryCatalog.Entry> first = scan(catalog, false);
+
+        write("b.dat", "0 Second (changed)\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        write("c.dat", "0 Third\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        final Map<String, LibraryCatalog.Entry> second = scan(catalog, false);
+
+        assertEquals(3, second.size());
+        assertSame(first.get("a.dat"), second.get("a.dat")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertNotSame(first.get("b.dat"), second.get("b.dat")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(" - Second (changed)", second.get("b.dat").getDescription()); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(" - Third", second.get("c.dat").getDescription()); //$NON-NLS-1$ //$NON-NLS-2$
+
+        Files.delete(folder.resolve("a.dat")); //$NON-NLS-1$
+        assertEquals(2, scan(catalog, false).size());
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        write("3001.dat", "0 Brick  2 x  4\n0 !LDRAW_ORG Part UPDATE 2004-03\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        final LibraryCatalog catalog = new LibraryCatalog();
+        final Map<String, LibraryCatalog.Entry> entries = scan(catalog, true);
+        final File catalogFile = File.createTempFile("catalog", ".gz"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            catalog.save(catalogFile.getAbsolutePath());
+            final LibraryCatalog loaded = LibraryCatalog.load(catalogFile.getAbsolutePath());
+            assertEquals(1, loaded.size());
+            final LibraryCatalog.Entry entry = scan(loaded, true).get("3001.dat"); //$NON-NLS-1$
+            assertEquals(entries.get("3001.dat").getDescription(), entry.getDescription()); //$NON-NLS-1$
+            assertEquals(DatType.PART, entry.getType());
+        } finally {
+            Files.delete(catalogFile.toPath());
+        }
+        assertEquals(0, LibraryCatalog.load(catalogFile.getAbsolutePath()).size());
+    }
+
+    private Map<String, LibraryCatalog.Entry> scan(LibraryCatalog catalog, boolean trustFolderTimestamp) {
+        final List<LibraryCatalog.Entry> entries = catalog.scan(folder.toFile(), trustFolderTimestamp);
+        final Map<String, LibraryCatalog.Entry> result = new HashMap<>();
+        for (LibraryCatalog.Entry entry : entries) {
+            result.put(entry.getName(), entry);
+        }
+        return result;
+    }
+
+    private void write(String name, String content) throws IOException {
+        write(folder, name, content);
+    }
+
+    static void write(Path folder, String name, String content) throws IOException {
+        Files.write(folder.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void delete(Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.data.LineFlags;
+
+@SuppressWarnings("java:S5960")
+public class LineFlagsTest {
+
+    /** A stand-in for the draw chain of a file */
+    static final class Entry {
+        Entry next;
+        boolean line;
+        Entry content;
+        /** The subfile line which contains this entry */
+        Entry parent;
+        boolean flag;
+    }
+
+    static final Predicate<Entry> FLAG = e -> e.flag;
+
+    static final LineFlags.Structure<Entry> STRUCTURE = new LineFlags.Structure<>() {
+
+        @Override
+        public Entry getNext(Entry entry) {
+            return entry.next;
+        }
+
+        @Override
+        public boolean isLine(Entry entry) {
+            return entry.line;
+        }
+
+        @Override
+        public Entry getContent(Entry line) {
+            return line.content;
+        }
+    };
+
+    @Test
+    public void testRestore() {
+        final Random rnd = new Random(4711L);
+        final List<Entry> all = new ArrayList<>();
+        final Entry first = createFile(rnd, 3, 40, all);
+        for (Entry e : all) {
+            e.flag = rnd.nextInt(10) == 0;
+        }
+        final Set<Entry> expected = new HashSet<>();
+        for (Entry e : all) {
+            if (e.flag) expected.add(e);
+        }
+
+        final LineFlags snapshot = LineFlags.create(first, STRUCTURE, FLAG, null);
+        assertFalse(snapshot.isEmpty());
+
+        final Set<Entry> restored = new HashSet<>();
+        for (Entry e : all) {
+            e.flag = !e.flag;
+        }
+        snapshot.restore(first, STRUCTURE, (e, flag) -> {
+            e.flag = flag;
+            if (flag) restored.add(e);
+        });
+        assertEquals(expected, restored);
+        for (Entry e : all) {
+            assertEquals(expected.contains(e), e.flag);
+        }
+
+        final Set<Entry> visited = new HashSet<>();
+        snapshot.forEachSet(first, STRUCTURE, (e, flag) -> assertTrue(visited.add(e)));
+        assertEquals(expected, visited);
+
+        // Skipping subfiles without set flags gives the same snapshot
+        for (Entry e : all) {
+            e.flag = expected.contains(e);
+        }
+        final Set<Entry> descended = new HashSet<>();
+        final LineFlags pruned = LineFlags.create(first, STRUCTURE, FLAG, e -> {
+            assertTrue(descended.add(e));
+            return containsFlag(e.content);
+        }, null);
+        assertFalse(descended.isEmpty());
+        final Set<Entry> prunedVisited = new HashSet<>();
+        pruned.forEachSet(first, STRUCTURE, (e, flag) -> prunedVisited.add(e));
+        assertEquals(expected, prunedVisited);
+    }
+
+    private static boolean containsFlag(Entry first) {
+        for (Entry e = first; e != null; e = e.next) {
+            if (e.flag || e.content != null && containsFlag(e.content)) return true;
+        }
+        return false;
+    }
+
+    @Test
+    public void testUnchangedNodesAreShared() {
+        final Random rnd = new Random(815L);
+        final List<Entry> all = new ArrayList<>();
+        final Entry first = createFile(rnd, 2, 20, all);
+        for (Entry e : all) {
+            e.flag = rnd.nextInt(5) == 0;
+        }
+        final LineFlags first1 = LineFlags.create(first, STRUCTURE, FLAG, null);
+        assertSame(first1, LineFlags.create(first, STRUCTURE, FLAG, first1));
+
+        // Change a flag inside the first subfile
+        Entry subfileLine = first.next;
+        while (subfileLine.content == null) subfileLine = subfileLine.next;
+        final Entry nested = subfileLine.content.next;
+        nested.flag = !nested.flag;
+        final LineFlags second = LineFlags.create(first, STRUCTURE, FLAG, first1);
+        assertNotSame(first1, second);
+        int shared = 0;
+        for (int line = 1; line < 100; line++) {
+            final LineFlags child = second.getChild(line);
+            if (child != null && child == first1.getChild(line)) shared++;
+        }
+        assertTrue(shared > 0);
+
+        // A snapshot without set flags is not empty (it restores the state)
+        for (Entry e : all) {
+            e.flag = false;
+        }
+        final LineFlags cleared = LineFlags.create(first, STRUCTURE, FLAG, second);
+        assertFalse(cleared.isEmpty());
+        assertFalse(cleared.get(1));
+        assertTrue(LineFlags.EMPTY.isEmpty());
+    }
+
+    /**
+     * Creates a file with lines, meta lines and subfiles. The subfiles
+     * contain the same structure, up to the given depth. Only the start of
+     * the file and its lines (which have a flag) are added to the list.
+     */
+    static Entry createFile(Random rnd, int depth, int lineCount, List<Entry> all) {
+        final Entry head = new Entry();
+        all.add(head);
+        Entry last = head;
+        for (int i = 0; i < lineCount; i++) {
+            final Entry e = new Entry();
+            e.line = rnd.nextInt(8) != 0;
+            if (e.line && depth > 0 && rnd.nextInt(4) == 0) {
+                e.content = createFile(rnd, depth - 1, lineCount, all);
+                for (Entry c = e.content; c != null; c = c.next) {
+                    c.parent = e;
+                }
+            }
+            if (e.line) all.add(e);
+            last.next = e;
+            last = e;
+        }
+        return head;
+    }
+}
@@ -0,0 +1,133 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.helper.math.LineIndex;
+import org.nschmidt.ldparteditor.helper.math.LineIndexView;
+
+@SuppressWarnings("java:S5960")
+public class LineIndexTest {
+
+    @Test
+    public void testAgainstTreeMap() {
+        final Random rnd = new Random(1234L);
+        final LineIndex<String> index = new LineIndex<>();
+        final TreeMap<Integer, String> expected = new TreeMap<>();
+        int valueCounter = 0;
+        for (int i = 0; i < 20000; i++) {
+            final int operation = rnd.nextInt(10);
+            final int key = 1 + rnd.nextInt(500);
+            if (operation < 4) {
+                final String value = "v" + valueCounter++; //$NON-NLS-1$
+                assertEquals(expected.put(key, value), index.put(key, value));
+            } else if (operation < 5 && !expected.isEmpty()) {
+                // Move an existing value to another key
+                final String value = expected.firstEntry().getValue();
+                expected.remove(expected.firstKey());
+                expected.put(key, value);
+                index.put(key, value);
+            } else if (operation < 7) {
+                assertEquals(expected.remove(key), index.removeByKey(key));
+            } else if (operation < 8 && !expected.isEmpty()) {
+                final String value = expected.lastEntry().getValue();
+                assertEquals(expected.lastKey(), index.removeByValue(value));
+                expected.remove(expected.lastKey());
+            } else if (operation < 9) {
+                final Integer lower = expected.lowerKey(key);
+                final int minDelta = lower == null ? 1 - key : lower + 1 - key;
+                final int delta = Math.max(minDelta, rnd.nextInt(7) - 3);
+                final TreeMap<Integer, String> shifted = new TreeMap<>(expected.headMap(key));
+                for (Entry<Integer, String> entry : expected.tailMap(key).entrySet()) {
+                    shifted.put(entry.getKey() + delta, entry.getValue());
+                }
+                expected.clear();
+                expected.putAll(shifted);
+                index.shiftKeys(key, delta);
+            } else if (rnd.nextInt(20) == 0) {
+                final List<String> values = new ArrayList<>(expected.values());
+                expected.clear();
+                for (int j = 0; j < values.size(); j++) {
+                    expected.put(j + 1, values.get(j));
+                }
+                index.renumber();
+            }
+            if (i % 100 == 0) {
+                assertSameContent(expected, index);
+            }
+        }
+        assertSameContent(expected, index);
+    }
+
+    @Test
+    public void testShiftMustKeepTheOrder() {
+        final LineIndex<String> index = new LineIndex<>();
+        index.put(1, "a"); //$NON-NLS-1$
+        index.put(2, "b"); //$NON-NLS-1$
+        try {
+            index.shiftKeys(2, -1);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // The keys would collide
+        }
+        assertEquals("b", index.getValue(2)); //$NON-NLS-1$
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testViewIsInvalidAfterStructuralChanges() {
+        final LineIndex<String> index = new LineIndex<>();
+        index.put(1, "a"); //$NON-NLS-1$
+        final LineIndexView<String> view = index.view();
+        index.put(1, "b"); //$NON-NLS-1$
+        assertEquals("b", view.getValue(1)); //$NON-NLS-1$
+        index.put(2, "c"); //$NON-NLS-1$
+        try {
+            view.getValue(1);
+            fail();
+        } catch (ConcurrentModificationException expected) {
+            // The view is outdated
+        }
+    }
+
+    private void assertSameContent(TreeMap<Integer, String> expected, LineIndex<String> index) {
+        assertEquals(expected.size(), index.size());
+        assertEquals(expected.isEmpty(), index.isEmpty());
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(index.keySet()));
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(index.values()));
+        for (Entry<Integer, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), index.getValue(entry.getKey()));
+            assertEquals(entry.getKey(), index.getKey(entry.getValue()));
+            assertTrue(index.containsKey(entry.getKey()));
+            assertTrue(index.containsValue(entry.getValue()));
+        }
+        assertNull(index.getValue(0));
+        assertFalse(index.containsValue("x")); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,103 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.swt.custom.StyleRange;
+import org.junit.Test;
+import org.nschmidt.ldparteditor.text.LineStyleCache;
+import org.nschmidt.ldparteditor.text.LineStyleCache.LineStyles;
+
+@SuppressWarnings("java:S5960")
+public class LineStyleCacheTest {
+
+    private static final String LINE = "2 24 0 0 0 1 1 1"; //$NON-NLS-1$
+
+    @Test
+    public void testSameLineIsNotFormattedAgain() {
+        final LineStyleCache cache = new LineStyleCache();
+        assertNull(cache.get(LINE, 100, 0f, 0f, 0f, 0f, 8));
+        final StyleRange[] styles = styles(100);
+        final LineStyles put = cache.put(LINE, 100, 0f, 0f, 0f, 0f, 8, styles);
+        assertSame(styles, put.getStyles());
+        assertSame(put, cache.get(LINE, 100, 0f, 0f, 0f, 0f, 8));
+        // Other highlighting inputs need a new formatting
+        assertNull(cache.get(LINE, 100, 0f, 0f, 0f, 0f, 10));
+        assertNull(cache.get(LINE, 100, 1f, 0f, 0f, 0.1f, 9));
+        // A changed line is not known
+        assertNull(cache.get(LINE + " ", 100, 0f, 0f, 0f, 0f, 8)); //$NON-NLS-1$
+        // The first line is formatted in a different way
+        assertNull(cache.get(LINE, 0, 0f, 0f, 0f, 0f, 8));
+    }
+
+    @Test
+    public void testMovedLine() {
+        final LineStyleCache cache = new LineStyleCache();
+        final StyleRange[] styles = styles(100);
+        final int[] ranges = cache.put(LINE, 100, 0f, 0f, 0f, 0f, 8, styles).getRanges();
+        final LineStyles moved = cache.get(LINE, 150, 0f, 0f, 0f, 0f, 8);
+        // The styles are shared, only the ranges are moved
+        assertSame(styles, moved.getStyles());
+        assertEquals(styles.length * 2, moved.getRanges().length);
+        for (int i = 0; i < styles.length; i++) {
+            assertEquals(styles[i].start + 50, moved.getRanges()[2 * i]);
+            assertEquals(styles[i].length, moved.getRanges()[2 * i + 1]);
+        }
+        // The ranges which were returned before are not changed
+        assertEquals(100, ranges[0]);
+        assertSame(moved, cache.get(LINE, 150, 0f, 0f, 0f, 0f, 8));
+    }
+
+    @Test
+    public void testRepeatedLines() {
+        final LineStyleCache cache = new LineStyleCache();
+        final StyleRange[] styles = styles(100);
+        cache.put(LINE, 100, 0f, 0f, 0f, 0f, 8, styles);
+        for (int i = 1; i < 10; i++) {
+            final LineStyles lineStyles = cache.get(LINE, 100 + i * 50, 0f, 0f, 0f, 0f, 8);
+            assertSame(styles, lineStyles.getStyles());
+            assertEquals(100 + i * 50, lineStyles.getRanges()[0]);
+        }
+    }
+
+    @Test
+    public void testInvalidation() {
+        final LineStyleCache cache = new LineStyleCache();
+        cache.put(LINE, 100, 0f, 0f, 0f, 0f, 8, styles(100));
+        LineStyleCache.invalidateAll();
+        assertNull(cache.get(LINE, 100, 0f, 0f, 0f, 0f, 8));
+        assertEquals(0, cache.size());
+
+        for (int i = 0; i <= LineStyleCache.MAX_SIZE; i++) {
+            cache.put(Integer.toString(i), i, 0f, 0f, 0f, 0f, 8, new StyleRange[0]);
+        }
+        assertEquals(LineStyleCache.MAX_SIZE, cache.size());
+        assertNull(cache.get("0", 0, 0f, 0f, 0f, 0f, 8)); //$NON-NLS-1$
+    }
+
+    private StyleRange[] styles(int lineOffset) {
+        final StyleRange[] result = new StyleRange[8];
+        int offset = lineOffset;
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new StyleRange(offset, 1, null, null);
+            offset += 2;
+        }
+        return result;
+    }
+}
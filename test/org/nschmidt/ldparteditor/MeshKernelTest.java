@@ -0,0 +1,254 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.data.MeshKernel;
+import org.nschmidt.ldparteditor.data.Vertex;
+import org.nschmidt.ldparteditor.enumtype.Threshold;
+
+@SuppressWarnings("java:S5960")
+public class MeshKernelTest {
+
+    private static final int GRID_SIZE = 150;
+    private static final double TOLERANCE = 1E-9;
+
+    @Test
+    public void testSmoothingMatchesExactSmoothing() {
+        final Vertex[] vertices = grid(new Random(4711L));
+        final BigDecimal factor = new BigDecimal("0.7"); //$NON-NLS-1$
+        final int iterations = 5;
+
+        // Only the inner vertices are smoothed (with their four direct neighbours)
+        final MeshKernel.Builder builder = new MeshKernel.Builder();
+        for (Vertex v : vertices) {
+            builder.addVertex(v);
+        }
+        final List<int[]> adjacency = new ArrayList<>();
+        for (int i = 0; i < vertices.length; i++) {
+            final int[] neighbours = isBorder(i) ? new int[0] : new int[]{i - 1, i + 1, i - GRID_SIZE, i + GRID_SIZE};
+            adjacency.add(neighbours);
+            for (int n : neighbours) {
+                builder.addNeighbour(i, n);
+            }
+        }
+        final MeshKernel kernel = builder.build();
+        kernel.smooth(factor.doubleValue(), iterations, true, false, true);
+
+        // The exact algorithm of the smooth tool
+        final BigDecimal oneMinusFactor = BigDecimal.ONE.subtract(factor);
+        Vertex[] expected = vertices.clone();
+        for (int j = 0; j < iterations; j++) {
+            final Vertex[] next = expected.clone();
+            for (int i = 0; i < vertices.length; i++) {
+                final int[] il = adjacency.get(i);
+                if (il.length == 0) continue;
+                final BigDecimal ad = new BigDecimal(il.length);
+                BigDecimal vx = BigDecimal.ZERO;
+                BigDecimal vz = BigDecimal.ZERO;
+                for (int k : il) {
+                    vx = vx.add(expected[k].xp);
+                    vz = vz.add(expected[k].zp);
+                }
+                vx = vx.divide(ad, Threshold.MC).multiply(factor).add(expected[i].xp.multiply(oneMinusFactor));
+                vz = vz.divide(ad, Threshold.MC).multiply(factor).add(expected[i].zp.multiply(oneMinusFactor));
+                next[i] = new Vertex(vx, expected[i].yp, vz);
+            }
+            expected = next;
+        }
+
+        for (int i = 0; i < vertices.length; i++) {
+            final Vertex result = kernel.getVertex(i);
+            if (isBorder(i)) {
+                assertSame(vertices[i], result);
+            } else {
+                assertClose(expected[i], result);
+                // The Y coordinate was not smoothed and stays exact
+                assertSame(vertices[i].yp, result.yp);
+            }
+        }
+    }
+
+    @Test
+    public void testCatmullClarkMatchesExactVertexRule() {
+        final Vertex[] vertices = grid(new Random(815L));
+        final int[][] faces = quads();
+        final MeshKernel kernel = subdivisionKernel(vertices, faces);
+        kernel.applyCatmullClarkVertexRule();
+
+        for (int i = 0; i < vertices.length; i++) {
+            if (isFixed(i)) {
+                assertSame(vertices[i], kernel.getVertex(i));
+                continue;
+            }
+            final List<Vertex> midEdge = neighbours(vertices, faces, i);
+            final BigDecimal c = new BigDecimal(Math.max(midEdge.size() * 2, 1));
+            BigDecimal x = BigDecimal.ZERO;
+            BigDecimal y = BigDecimal.ZERO;
+            BigDecimal z = BigDecimal.ZERO;
+            for (Vertex n : midEdge) {
+                x = x.add(vertices[i].xp).add(n.xp);
+                y = y.add(vertices[i].yp).add(n.yp);
+                z = z.add(vertices[i].zp).add(n.zp);
+            }
+            assertClose(new Vertex(x.divide(c, Threshold.MC), y.divide(c, Threshold.MC), z.divide(c, Threshold.MC)), kernel.getVertex(i));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("java:S2111")
+    public void testLoopMatchesExactVertexRule() {
+        final Vertex[] vertices = grid(new Random(1337L));
+        final int[][] faces = triangles();
+        final MeshKernel kernel = subdivisionKernel(vertices, faces);
+        kernel.applyLoopVertexRule();
+
+        for (int i = 0; i < vertices.length; i++) {
+            if (isFixed(i)) {
+                assertSame(vertices[i], kernel.getVertex(i));
+                continue;
+            }
+            final List<Vertex> midEdge = neighbours(vertices, faces, i);
+            final double n = midEdge.size() + 1d;
+            final double t = 3.0 / 8.0 + 1.0 / 4.0 * Math.cos(Math.PI * 2.0 / n);
+            final double alphaN = 3.0 / 8.0 + t * t;
+            final BigDecimal oneMinusAlphaDivN = new BigDecimal((1.0 - alphaN) / n);
+            final BigDecimal alphaN2 = new BigDecimal(alphaN);
+            BigDecimal x = BigDecimal.ZERO;
+            BigDecimal y = BigDecimal.ZERO;
+            BigDecimal z = BigDecimal.ZERO;
+            for (Vertex v : midEdge) {
+                x = x.add(v.xp);
+                y = y.add(v.yp);
+                z = z.add(v.zp);
+            }
+            final Vertex v = vertices[i];
+            assertClose(new Vertex(
+                    v.xp.multiply(alphaN2).add(x.multiply(oneMinusAlphaDivN, Threshold.MC)),
+                    v.yp.multiply(alphaN2).add(y.multiply(oneMinusAlphaDivN, Threshold.MC)),
+                    v.zp.multiply(alphaN2).add(z.multiply(oneMinusAlphaDivN, Threshold.MC))), kernel.getVertex(i));
+        }
+    }
+
+    @Test
+    public void testEqualVerticesShareTheIndex() {
+        final MeshKernel.Builder builder = new MeshKernel.Builder();
+        final int a = builder.addVertex(new Vertex(BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO));
+        final int b = builder.addVertex(new Vertex(BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.ZERO));
+        assertEquals(a, builder.addVertex(new Vertex(BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO)));
+        builder.addNeighbour(a, b);
+        builder.addNeighbour(a, b);
+        final MeshKernel kernel = builder.build();
+        assertEquals(2, kernel.size());
+        assertEquals(2, kernel.getNeighbourCount(a));
+        assertEquals(0, kernel.getNeighbourCount(b));
+        assertEquals(b, kernel.getNeighbour(a, 1));
+    }
+
+    private MeshKernel subdivisionKernel(Vertex[] vertices, int[][] faces) {
+        final MeshKernel.Builder builder = new MeshKernel.Builder();
+        for (Vertex v : vertices) {
+            builder.addVertex(v);
+        }
+        for (int[] face : faces) {
+            final int c = face.length;
+            for (int p = 0; p < c; p++) {
+                builder.addNeighbour(face[p], face[(p + 1) % c]);
+                builder.addNeighbour(face[p], face[(p + c - 1) % c]);
+            }
+        }
+        for (int i = 0; i < vertices.length; i++) {
+            if (isFixed(i)) builder.setFixed(i);
+        }
+        return builder.build();
+    }
+
+    /** Collects the neighbours of a vertex like the subdivision tools (once per face) */
+    private List<Vertex> neighbours(Vertex[] vertices, int[][] faces, int vertex) {
+        final List<Vertex> result = new ArrayList<>();
+        for (int[] face : faces) {
+            final int c = face.length;
+            for (int p = 0; p < c; p++) {
+                if (face[p] == vertex) {
+                    result.add(vertices[face[(p + 1) % c]]);
+                    result.add(vertices[face[(p + c - 1) % c]]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /** The first row of the grid is part of a line */
+    private boolean isFixed(int vertex) {
+        return vertex < GRID_SIZE;
+    }
+
+    private boolean isBorder(int vertex) {
+        final int row = vertex / GRID_SIZE;
+        final int column = vertex % GRID_SIZE;
+        return row == 0 || column == 0 || row == GRID_SIZE - 1 || column == GRID_SIZE - 1;
+    }
+
+    private Vertex[] grid(Random rnd) {
+        final Vertex[] result = new Vertex[GRID_SIZE * GRID_SIZE];
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int column = 0; column < GRID_SIZE; column++) {
+                result[row * GRID_SIZE + column] = new Vertex(
+                        new BigDecimal(column * 10),
+                        new BigDecimal(rnd.nextDouble() * 20.0 - 10.0).round(Threshold.MC),
+                        new BigDecimal(row * 10));
+            }
+        }
+        return result;
+    }
+
+    private int[][] quads() {
+        final int[][] result = new int[(GRID_SIZE - 1) * (GRID_SIZE - 1)][];
+        int f = 0;
+        for (int row = 0; row < GRID_SIZE - 1; row++) {
+            for (int column = 0; column < GRID_SIZE - 1; column++) {
+                final int i = row * GRID_SIZE + column;
+                result[f++] = new int[]{i, i + 1, i + GRID_SIZE + 1, i + GRID_SIZE};
+            }
+        }
+        return result;
+    }
+
+    private int[][] triangles() {
+        final int[][] result = new int[(GRID_SIZE - 1) * (GRID_SIZE - 1) * 2][];
+        int f = 0;
+        for (int[] quad : quads()) {
+            result[f++] = new int[]{quad[0], quad[1], quad[2]};
+            result[f++] = new int[]{quad[2], quad[3], quad[0]};
+        }
+        return result;
+    }
+
+    private void assertClose(Vertex expected, Vertex actual) {
+        assertTrue(Math.abs(expected.xp.doubleValue() - actual.xp.doubleValue()) < TOLERANCE);
+        assertTrue(Math.abs(expected.yp.doubleValue() - actual.yp.doubleValue()) < TOLERANCE);
+        assertTrue(Math.abs(expected.zp.doubleValue() - actual.zp.doubleValue()) < TOLERANCE);
+    }
+}
@@ -0,0 +1,166 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+import org.lwjgl.util.vector.Vector4f;
+import org.nschmidt.ldparteditor.opengl.OverlayGeometry;
+
+@SuppressWarnings("java:S5960")
+public class OverlayGeometryTest {
+
+    @Test
+    public void testGridMatchesLegacyGenerator() {
+        final Vector3f[] axis = axis(12.5f, 7.25f, -3f);
+        for (int offset = 0; offset < 5; offset += 4) {
+            final Vector4f[] grid = grid(0.37f, 1.3f, 41f, 27f);
+            final OverlayGeometry overlay = new OverlayGeometry();
+            final int layer = offset == 0 ? OverlayGeometry.GRID_1 : OverlayGeometry.GRID_10;
+            assertTrue(overlay.updateGrid(layer, grid, offset, axis, offset, .1f, .2f, .3f));
+            final float[] expected = legacyGrid(grid, offset, axis, offset, .1f, .2f, .3f);
+            assertEquals(expected.length / OverlayGeometry.VERTEX_SIZE, overlay.getVertexCount(layer));
+            assertArrayEquals(expected, Arrays.copyOf(overlay.getVertices(layer), expected.length), 0f);
+        }
+    }
+
+    @Test
+    public void testOriginAndFrame() {
+        final OverlayGeometry overlay = new OverlayGeometry();
+        final Vector3f[] axis = axis(3f, 2f, 5f);
+        assertTrue(overlay.updateOrigin(axis, 2f, 1f, 0f, 0f));
+        assertEquals(4, overlay.getVertexCount(OverlayGeometry.ORIGIN));
+        assertArrayEquals(new float[]{-3f, 0f, 7f, 1f, 0f, 0f}, Arrays.copyOf(overlay.getVertices(OverlayGeometry.ORIGIN), 6), 0f);
+
+        assertTrue(overlay.updateFrame(4f, 3f, 5f, 0f, 1f, 0f));
+        assertEquals(8, overlay.getVertexCount(OverlayGeometry.FRAME));
+        final float[] frame = overlay.getVertices(OverlayGeometry.FRAME);
+        // The right line goes from the upper right to the lower right corner
+        assertArrayEquals(new float[]{4f, 3f, 5f, 0f, 1f, 0f, 4f, -3f, 5f, 0f, 1f, 0f}, Arrays.copyOf(frame, 12), 0f);
+    }
+
+    @Test
+    public void testRegeneratesOnlyOnChange() {
+        final OverlayGeometry overlay = new OverlayGeometry();
+        final Vector4f[] grid = grid(0f, 0f, 10f, 10f);
+        final Vector3f[] axis = axis(5f, 5f, 0f);
+        assertTrue(overlay.updateGrid(OverlayGeometry.GRID_1, grid, 0, axis, 0f, .5f, .5f, .5f));
+        final int version = overlay.getVersion(OverlayGeometry.GRID_1);
+        final float[] buffer = overlay.getVertices(OverlayGeometry.GRID_1);
+
+        assertFalse(overlay.updateGrid(OverlayGeometry.GRID_1, grid, 0, axis, 0f, .5f, .5f, .5f));
+        assertEquals(version, overlay.getVersion(OverlayGeometry.GRID_1));
+
+        // A smaller grid re-uses the buffer
+        grid[3].set(5f, 5f, 0f, 0f);
+        assertTrue(overlay.updateGrid(OverlayGeometry.GRID_1, grid, 0, axis, 0f, .5f, .5f, .5f));
+        assertEquals(version + 1, overlay.getVersion(OverlayGeometry.GRID_1));
+        assertEquals(40, overlay.getVertexCount(OverlayGeometry.GRID_1));
+        assertTrue(buffer == overlay.getVertices(OverlayGeometry.GRID_1));
+
+        // Panning (or zooming) changes the axes
+        axis[0].x = 6f;
+        assertTrue(overlay.updateGrid(OverlayGeometry.GRID_1, grid, 0, axis, 0f, .5f, .5f, .5f));
+        // A new colour
+        assertTrue(overlay.updateGrid(OverlayGeometry.GRID_1, grid, 0, axis, 0f, .5f, .5f, .6f));
+        // The other layers are not affected
+        assertEquals(0, overlay.getVersion(OverlayGeometry.GRID_10));
+
+        assertTrue(overlay.updateFrame(1f, 1f, 0f, 1f, 1f, 1f));
+        assertFalse(overlay.updateFrame(1f, 1f, 0f, 1f, 1f, 1f));
+        assertTrue(overlay.updateFrame(1f, 2f, 0f, 1f, 1f, 1f));
+    }
+
+    static Vector4f[] grid(float cornerX, float cornerY, float cellsX, float cellsY) {
+        final Vector4f[] result = new Vector4f[8];
+        for (int offset = 0; offset < 5; offset += 4) {
+            final float step = offset == 0 ? 0.25f : 2.5f;
+            result[offset] = new Vector4f(cornerX, cornerY, 0f, 1f);
+            result[offset + 1] = new Vector4f(step, 0f, 0f, 1f);
+            result[offset + 2] = new Vector4f(0f, step, 0f, 1f);
+            result[offset + 3] = new Vector4f(cellsX, cellsY, 0f, 0f);
+        }
+        return result;
+    }
+
+    static Vector3f[] axis(float width, float height, float z) {
+        return new Vector3f[]{
+                new Vector3f(-width, 0f, z),
+                new Vector3f(width, 0f, z),
+                new Vector3f(0f, -height, z),
+                new Vector3f(0f, height, z)};
+    }
+
+    /** The grid generator which was used before the overlay cache */
+    static float[] legacyGrid(Vector4f[] grid, int r, Vector3f[] viewportOriginAxis, float zOffset, float gR, float gG, float gB) {
+        Vector4f gridCenter1 = new Vector4f();
+        Vector4f gridCenter2 = new Vector4f();
+        gridCenter1.set(grid[r]);
+        gridCenter2.set(gridCenter1);
+
+        int size = 0;
+        float limit = grid[3 + r].y;
+        for (float i = 0f; i < limit; i += 1f) {
+            size = size + 24;
+        }
+        limit = grid[3 + r].x;
+        for (float i = 0f; i < limit; i += 1f) {
+            size = size + 24;
+        }
+
+        final float[] vertices = new float[size];
+        int j = 0;
+
+        limit = grid[3 + r].y;
+        for (float i = 0f; i < limit; i += 1f) {
+            Vector4f.sub(gridCenter2, grid[2 + r], gridCenter2);
+            j = put(vertices, j, viewportOriginAxis[0].x, gridCenter1.y, viewportOriginAxis[0].z + zOffset, gR, gG, gB);
+            j = put(vertices, j, viewportOriginAxis[1].x, gridCenter1.y, viewportOriginAxis[1].z + zOffset, gR, gG, gB);
+            j = put(vertices, j, viewportOriginAxis[0].x, gridCenter2.y, viewportOriginAxis[0].z + zOffset, gR, gG, gB);
+            j = put(vertices, j, viewportOriginAxis[1].x, gridCenter2.y, viewportOriginAxis[1].z + zOffset, gR, gG, gB);
+            Vector4f.add(gridCenter1, grid[2 + r], gridCenter1);
+        }
+        gridCenter1.set(grid[r]);
+        gridCenter2.set(gridCenter1);
+        limit = grid[3 + r].x;
+        for (float i = 0f; i < limit; i += 1f) {
+            Vector4f.sub(gridCenter2, grid[1 + r], gridCenter2);
+            j = put(vertices, j, gridCenter2.x, viewportOriginAxis[2].y, viewportOriginAxis[2].z + zOffset, gR, gG, gB);
+            j = put(vertices, j, gridCenter2.x, viewportOriginAxis[3].y, viewportOriginAxis[3].z + zOffset, gR, gG, gB);
+            j = put(vertices, j, gridCenter1.x, viewportOriginAxis[2].y, viewportOriginAxis[2].z + zOffset, gR, gG, gB);
+            j = put(vertices, j, gridCenter1.x, viewportOriginAxis[3].y, viewportOriginAxis[3].z + zOffset, gR, gG, gB);
+            Vector4f.add(gridCenter1, grid[1 + r], gridCenter1);
+        }
+        return vertices;
+    }
+
+    static int put(float[] vertices, int j, float x, float y, float z, float r, float g, float b) {
+        vertices[j] = x;
+        vertices[j + 1] = y;
+        vertices[j + 2] = z;
+        vertices[j + 3] = r;
+        vertices[j + 4] = g;
+        vertices[j + 5] = b;
+        return j + 6;
+    }
+}
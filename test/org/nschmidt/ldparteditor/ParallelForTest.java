@@ -0,0 +1,64 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.helper.ParallelFor;
+
+@SuppressWarnings("java:S5960")
+public class ParallelForTest {
+
+    private static final int SIZE = 100000;
+
+    @Test
+    public void testResultsAreInIndexOrder() {
+        final AtomicInteger maxDone = new AtomicInteger();
+        final List<Integer> result = ParallelFor.run(SIZE, () -> false, (done, total) -> maxDone.accumulateAndGet(done, Math::max), (i, results) -> {
+            if (i % 3 == 0) {
+                results.add(i);
+                results.add(-i);
+            }
+        });
+        assertEquals(SIZE, maxDone.get());
+        assertEquals((SIZE + 2) / 3 * 2, result.size());
+        for (int i = 0; i < result.size(); i += 2) {
+            assertEquals(i / 2 * 3, (int) result.get(i));
+            assertEquals(-i / 2 * 3, (int) result.get(i + 1));
+        }
+    }
+
+    @Test
+    public void testCancellation() {
+        final AtomicInteger processed = new AtomicInteger();
+        final List<Integer> result = ParallelFor.run(SIZE, () -> processed.get() >= 10, (done, total) -> {}, (i, results) -> {
+            processed.incrementAndGet();
+            results.add(i);
+        });
+        assertTrue(result.size() < SIZE);
+        assertEquals(processed.get(), result.size());
+    }
+
+    @Test
+    public void testEmptyRange() {
+        assertTrue(ParallelFor.run(0, () -> false, (done, total) -> {}, (i, results) -> results.add(i)).isEmpty());
+    }
+}
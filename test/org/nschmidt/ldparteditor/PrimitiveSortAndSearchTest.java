@@ -0,0 +1,199 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.data.Primitive;
+import org.nschmidt.ldparteditor.data.PrimitiveSearchIndex;
+import org.nschmidt.ldparteditor.enumtype.Rule;
+
+@SuppressWarnings("java:S5960")
+public class PrimitiveSortAndSearchTest {
+
+    private static final String[] SHAPES = {"cyli", "edge", "disc", "ndis", "ring", "con", "rin", "chrd", "tang", "cylo", "cyls", "stud", "box", "rect", "tri"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$ //$NON-NLS-13$ //$NON-NLS-14$ //$NON-NLS-15$
+    static final Pattern NUMBER_AND_MINUS = Pattern.compile("[\\d|\\-\\\\]+"); //$NON-NLS-1$
+
+    @Test
+    public void testSameOrderAsBefore() {
+        final List<Primitive> primitives = library(new Random(4711L), 3000);
+        assertSameOrder(primitives, Rule.FILENAME_ORDER_BY_ALPHABET_WO_NUMBERS, (o1, o2) -> NUMBER_AND_MINUS.matcher(o1.getName()).replaceAll("").compareToIgnoreCase(NUMBER_AND_MINUS.matcher(o2.getName()).replaceAll(""))); //$NON-NLS-1$ //$NON-NLS-2$
+        assertSameOrder(primitives, Rule.FILENAME_ORDER_BY_LASTNUMBER, (o1, o2) -> Integer.compare(lastNumber(o1.getName()), lastNumber(o2.getName())));
+        final List<Primitive> fractions = new ArrayList<>();
+        for (Primitive p : primitives) {
+            if (fraction(p.getName()) != null) fractions.add(p);
+        }
+        assertSameOrder(fractions, Rule.FILENAME_ORDER_BY_FRACTION, PrimitiveSortAndSearchTest::compareFractions);
+    }
+
+    @Test
+    public void testSameSearchResultsAsBefore() {
+        final List<Primitive> roots = categories(library(new Random(815L), 3000));
+        final PrimitiveSearchIndex index = new PrimitiveSearchIndex(roots);
+        for (String word : new String[]{"4", "4-", "4-4", "4-4cyli", "48\\\\1-4", "edge", "Cylinder", "Cyl.nder", "4-4c(yli|edge)", "nothing"}) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+            assertEquals(word, searchWithPattern(roots, word), index.search(word));
+        }
+    }
+
+    private void assertSameOrder(List<Primitive> primitives, Rule rule, Comparator<Primitive> reference) {
+        final Primitive category = category(primitives);
+        final List<Primitive> expected = new ArrayList<>(primitives);
+        Collections.sort(expected, reference);
+        category.sort(rule);
+        final List<Primitive> actual = category.getCategories();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertTrue(rule + " at " + i, expected.get(i) == actual.get(i)); //$NON-NLS-1$
+        }
+    }
+
+    /** The former search, which matched every primitive against a regular expression */
+    static List<Primitive> searchWithPattern(List<Primitive> roots, String word) {
+        final List<Primitive> primitives = new ArrayList<>();
+        for (Primitive p : roots) {
+            p.collectPrimitives(primitives);
+        }
+        final List<Primitive> results = new ArrayList<>();
+        final Pattern pattern = Pattern.compile(".*" + word + ".*"); //$NON-NLS-1$ //$NON-NLS-2$
+        for (Primitive p : primitives) {
+            if (pattern.matcher(p.toString()).matches()) {
+                results.add(p);
+            }
+        }
+        return results;
+    }
+
+    static Primitive category(List<Primitive> primitives) {
+        final Primitive category = Primitive.createPrimitiveCategory();
+        category.setName("Category"); //$NON-NLS-1$
+        category.getCategories().addAll(primitives);
+        return category;
+    }
+
+    /** Distributes the primitives on nested categories */
+    static List<Primitive> categories(List<Primitive> primitives) {
+        final List<Primitive> roots = new ArrayList<>();
+        Primitive parent = null;
+        for (int i = 0; i < primitives.size(); i++) {
+            if (i % 500 == 0) {
+                parent = category(new ArrayList<>());
+                roots.add(parent);
+            }
+            if (i % 100 == 50) {
+                final Primitive sub = category(new ArrayList<>());
+                parent.getCategories().add(sub);
+                parent = sub;
+            }
+            parent.getCategories().add(primitives.get(i));
+        }
+        return roots;
+    }
+
+    static List<Primitive> copy(List<Primitive> primitives) {
+        final List<Primitive> result = new ArrayList<>(primitives.size());
+        for (Primitive p : primitives) {
+            final Primitive c = Primitive.createPrimitive();
+            c.setName(p.getName());
+            c.setDescription(p.getDescription());
+            result.add(c);
+        }
+        return result;
+    }
+
+    /** Creates names like the ones from the primitive folders (e.g. "48\1-4cyli.dat") */
+    static List<Primitive> library(Random rnd, int size) {
+        final List<Primitive> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final Primitive p = Primitive.createPrimitive();
+            final String shape = SHAPES[rnd.nextInt(SHAPES.length)];
+            final StringBuilder sb = new StringBuilder();
+            final int kind = rnd.nextInt(4);
+            if (kind == 0) {
+                sb.append(shape).append(rnd.nextInt(40)).append(rnd.nextBoolean() ? "a" : ""); //$NON-NLS-1$ //$NON-NLS-2$
+            } else {
+                // Hi-res primitives are fractions, too
+                if (kind == 1) sb.append("48\\"); //$NON-NLS-1$
+                final int lower = 1 << (1 + rnd.nextInt(4));
+                sb.append(1 + rnd.nextInt(lower)).append('-').append(lower).append(shape);
+                if (rnd.nextInt(3) == 0) sb.append(rnd.nextInt(20));
+            }
+            sb.append(".dat"); //$NON-NLS-1$
+            p.setName(sb.toString());
+            p.setDescription(shape.startsWith("cyl") ? "Cylinder " + rnd.nextInt(8) : "Other " + shape); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            result.add(p);
+        }
+        return result;
+    }
+
+    // The former comparisons (which parsed the names over and over again)
+
+    static int lastNumber(String name) {
+        final char[] chars = name.toCharArray();
+        final StringBuilder number = new StringBuilder();
+        boolean readDigit = false;
+        for (int i = chars.length - 1; i > 0 ; i--) {
+            char c = chars[i];
+            if (Character.isDigit(c)) {
+                number.insert(0, c);
+                readDigit = true;
+            } else if (readDigit || i < chars.length - 5) {
+                break;
+            }
+        }
+        return readDigit ? Integer.parseInt(number.toString()) : 0;
+    }
+
+    private static Object[] fraction(String name) {
+        try {
+            if (name.startsWith("48\\")) name = name.substring(3); //$NON-NLS-1$
+            if (name.charAt(1) != '-' && name.charAt(2) != '-') return null;
+            final StringBuilder upper = new StringBuilder();
+            final StringBuilder lower = new StringBuilder();
+            String suffix = ""; //$NON-NLS-1$
+            boolean readUpper = true;
+            for (int i = 0; i < name.length(); i++) {
+                final char c = name.charAt(i);
+                if (Character.isDigit(c)) {
+                    (readUpper ? upper : lower).append(c);
+                } else if (readUpper) {
+                    readUpper = false;
+                } else {
+                    suffix = name.substring(i);
+                    break;
+                }
+            }
+            return new Object[]{Float.parseFloat(upper.toString()) / Float.parseFloat(lower.toString()), suffix};
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    private static int compareFractions(Primitive o1, Primitive o2) {
+        final Object[] f1 = fraction(o1.getName());
+        final Object[] f2 = fraction(o2.getName());
+        if (!f1[1].equals(f2[1])) return ((String) f1[1]).compareTo((String) f2[1]);
+        return -Float.compare((Float) f1[0], (Float) f2[0]);
+    }
+}
@@ -0,0 +1,140 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNoException;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.nschmidt.ldparteditor.data.DatFile;
+import org.nschmidt.ldparteditor.data.DatType;
+import org.nschmidt.ldparteditor.data.GData;
+import org.nschmidt.ldparteditor.data.GData1;
+import org.nschmidt.ldparteditor.workbench.UserSettingState;
+import org.nschmidt.ldparteditor.workbench.WorkbenchManager;
+
+/**
+ * Checks that the data of unused primitive variants does not pile up while the
+ * file is edited. The graphical data needs the SWT libraries. The test is
+ * skipped if they are not available.
+ */
+@SuppressWarnings("java:S5960")
+public class PrimitiveVariantsTest {
+
+    private static final int VARIANT_TRIANGLES = 600;
+    private static final int EDITS = 100;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void checkGraphicalData() {
+        try {
+            Class.forName("org.nschmidt.ldparteditor.enumtype.View"); //$NON-NLS-1$
+        } catch (Throwable t) {
+            assumeNoException(t);
+        }
+    }
+
+    @Test
+    public void testEditsKeepVariantDataBounded() throws IOException, ReflectiveOperationException {
+        if (WorkbenchManager.getUserSettingState() == null) {
+            WorkbenchManager.setUserSettingState(new UserSettingState());
+        }
+        final File primitiveFolder = folder.newFolder("p"); //$NON-NLS-1$
+        final File highResFolder = folder.newFolder("p", "48"); //$NON-NLS-1$ //$NON-NLS-2$
+        Files.writeString(new File(primitiveFolder, "variants_disc.dat").toPath(), "0 Disc\n3 16 0 0 0 1 0 0 0 0 1\n", StandardCharsets.UTF_8); //$NON-NLS-1$ //$NON-NLS-2$
+        final StringBuilder highRes = new StringBuilder("0 Hi-Res Disc\n"); //$NON-NLS-1$
+        for (int i = 0; i < VARIANT_TRIANGLES; i++) {
+            highRes.append("3 16 0 0 0 1 0 0 0 0 ").append(1 + i / (float) VARIANT_TRIANGLES).append('\n'); //$NON-NLS-1$
+        }
+        Files.writeString(new File(highResFolder, "variants_disc.dat").toPath(), highRes, StandardCharsets.UTF_8); //$NON-NLS-1$
+        Files.writeString(folder.newFile("variants_sub.dat").toPath(), "0 Part\n1 16 0 0 0 1 0 0 0 1 0 0 0 1 variants_disc.dat\n", StandardCharsets.UTF_8); //$NON-NLS-1$ //$NON-NLS-2$
+        final DatFile df = new DatFile(new File(folder.getRoot(), "variants.dat").getAbsolutePath(), "", false, DatType.PART); //$NON-NLS-1$ //$NON-NLS-2$
+
+        // The parsing tasks are collected and run like on the UI thread
+        final List<Runnable> tasks = new ArrayList<>();
+        final Class<?> type = Class.forName("org.nschmidt.ldparteditor.data.PrimitiveVariants"); //$NON-NLS-1$
+        final Constructor<?> constructor = type.getDeclaredConstructor(Executor.class, Runnable.class);
+        constructor.setAccessible(true);
+        final Object variants = constructor.newInstance((Executor) tasks::add, (Runnable) () -> {});
+        final Method begin = type.getDeclaredMethod("begin", DatFile.class, float.class, boolean.class, Set.class, Set.class); //$NON-NLS-1$
+        final Method select = type.getDeclaredMethod("select", GData1.class); //$NON-NLS-1$
+        final Method end = type.getDeclaredMethod("end"); //$NON-NLS-1$
+        final Field variantFile = type.getDeclaredField("variantFile"); //$NON-NLS-1$
+        begin.setAccessible(true);
+        select.setAccessible(true);
+        end.setAccessible(true);
+        variantFile.setAccessible(true);
+
+        int maxSize = 0;
+        for (int edit = 0; edit < EDITS; edit++) {
+            // Each edit replaces the subfile reference, so that the previous variant is not used anymore
+            final GData1 reference = (GData1) ClipboardClonerTest.parse("1 16 " + edit + " 0 0 1 0 0 0 1 0 0 0 1 variants_sub.dat", df); //$NON-NLS-1$ //$NON-NLS-2$
+            final GData1 primitive = firstSubfile(reference);
+
+            frame(variants, begin, select, end, df, reference, primitive);
+            for (int i = 0; i < tasks.size(); i++) {
+                tasks.get(i).run();
+            }
+            tasks.clear();
+            assertNotSame(primitive, frame(variants, begin, select, end, df, reference, primitive));
+
+            final DatFile file = (DatFile) variantFile.get(variants);
+            assertNotNull(file);
+            maxSize = Math.max(maxSize, file.getVertexManager().getTrianglesNoClone().size());
+        }
+
+        // Without cleanup, the variant file would hold the data of all edits
+        assertTrue(maxSize >= VARIANT_TRIANGLES);
+        assertTrue(maxSize < EDITS * VARIANT_TRIANGLES / 3);
+    }
+
+    private static Object frame(Object variants, Method begin, Method select, Method end, DatFile df, GData1 reference, GData1 primitive) throws ReflectiveOperationException {
+        begin.invoke(variants, df, 1f, true, Set.of(reference), Set.of());
+        final Object result = select.invoke(variants, primitive);
+        end.invoke(variants);
+        return result;
+    }
+
+    private static GData1 firstSubfile(GData1 reference) throws ReflectiveOperationException {
+        final Field myGData = GData1.class.getDeclaredField("myGData"); //$NON-NLS-1$
+        myGData.setAccessible(true);
+        GData gd = (GData) myGData.get(reference);
+        while (gd != null && gd.type() != 1) {
+            gd = gd.getNext();
+        }
+        assertNotNull(gd);
+        return (GData1) gd;
+    }
+}
@@ -0,0 +1,108 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.data.tool.RingsAndConesSolver;
+import org.nschmidt.ldparteditor.data.tool.RingsAndConesSolver.Solution;
+
+@SuppressWarnings("java:S5960")
+public class RingsAndConesSolverTest {
+
+    private static final long F = RingsAndConesSolver.FACTOR;
+
+    /** Pairs of inner and outer radii (times 1000) */
+    static final long[][] SCENARIOS = new long[][] {
+        {1000, 10000},
+        {2000, 7500},
+        {3250, 17000},
+        {5000, 5500},
+        {1500, 48000},
+    };
+
+    @Test
+    public void testSolutionsAreValidAndDeterministic() {
+        final long[] radii = allRadii();
+        for (long[] scenario : SCENARIOS) {
+            final long radMin = scenario[0] * F / 1000L;
+            final long radMax = scenario[1] * F / 1000L;
+            final Solution first = RingsAndConesSolver.solve(radMin, radMax, radii, () -> false);
+            final Solution second = RingsAndConesSolver.solve(radMin, radMax, radii, () -> false);
+            assertNotNull(first);
+            assertValid(first, radMin, radMax);
+            assertEquals(first.getAmount(), second.getAmount());
+            assertEquals(first.getDelta(), second.getDelta());
+            assertEquals(first.getDigits(), second.getDigits());
+            for (int i = 1; i <= first.getAmount(); i++) {
+                assertEquals(first.getRadius(i), second.getRadius(i));
+            }
+        }
+    }
+
+    @Test
+    public void testSingleRing() {
+        // ring2 scaled by 2 fills the gap between 4 and 6 exactly
+        final Solution solution = RingsAndConesSolver.solve(4 * F, 6 * F, allRadii(), () -> false);
+        assertNotNull(solution);
+        assertEquals(1, solution.getAmount());
+        assertEquals(0L, solution.getDelta());
+        assertEquals(2L, solution.getRadius(1));
+    }
+
+    @Test
+    public void testNoSolution() {
+        // Only ring1 is available, which doubles the radius with every step
+        assertNull(RingsAndConesSolver.solve(1 * F, 3 * F, new long[]{1}, () -> false));
+    }
+
+    @Test(timeout = 10000)
+    public void testInfeasibleInputFailsFast() {
+        // The scale of ring1 at 0.05 is below the minimum scale
+        assertNull(RingsAndConesSolver.solve(5 * F / 100L, 99 * F, allRadii(), () -> false));
+        // Every primitive overshoots the outer radius
+        assertNull(RingsAndConesSolver.solve(F / 10L, 105 * F / 1000L, allRadii(), () -> false));
+        // 46 steps of ring99 do not reach the outer radius
+        assertNull(RingsAndConesSolver.solve(10 * F, 20 * F, new long[]{99}, () -> false));
+    }
+
+    private void assertValid(Solution solution, long radMin, long radMax) {
+        long current = radMin;
+        for (int i = 1; i <= solution.getAmount(); i++) {
+            assertEquals(current, solution.getStart(i));
+            final long s = current / solution.getRadius(i);
+            assertEquals(s, solution.getScale(i));
+            current += s;
+            if (i < solution.getAmount()) {
+                assertTrue(current < radMax);
+            }
+        }
+        assertEquals(current, solution.getStart(solution.getAmount() + 1));
+        assertEquals(current - radMax, solution.getDelta());
+    }
+
+    static long[] allRadii() {
+        final long[] result = new long[99];
+        for (int r = 1; r < 100; r++) {
+            result[r - 1] = r;
+        }
+        return result;
+    }
+}
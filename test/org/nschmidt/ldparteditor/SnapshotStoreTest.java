@@ -0,0 +1,109 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.data.SnapshotStore;
+
+@SuppressWarnings("java:S5960")
+public class SnapshotStoreTest {
+
+    @Test
+    public void testRoundTrip() {
+        final List<String> lines = randomFile(new Random(4711L), 5000);
+        lines.add(0, ""); //$NON-NLS-1$
+        lines.add(""); //$NON-NLS-1$
+        final SnapshotStore store = new SnapshotStore();
+        final SnapshotStore.Content content = store(store, lines);
+        assertEquals(lines.size(), content.getLineCount());
+        assertArrayEquals(lines.toArray(new String[0]), content.getLines());
+        assertEquals(String.join("\n", lines), content.getText()); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testEmptySnapshot() {
+        final SnapshotStore.Content content = new SnapshotStore().newContent().build();
+        assertEquals(0, content.getLineCount());
+        assertEquals("", content.getText()); //$NON-NLS-1$
+        assertEquals(0, content.getLines().length);
+    }
+
+    @Test
+    public void testUnchangedChunksAreShared() {
+        final List<String> lines = randomFile(new Random(815L), 20000);
+        final SnapshotStore store = new SnapshotStore();
+        store(store, lines);
+        final int chunkCount = store.getChunkCount();
+        store(store, lines);
+        assertEquals(chunkCount, store.getChunkCount());
+
+        // A new line only changes the chunk where it was inserted
+        lines.add(lines.size() / 2, "0 // inserted"); //$NON-NLS-1$
+        final SnapshotStore.Content content = store(store, lines);
+        assertTrue(store.getChunkCount() <= chunkCount + 2);
+        assertArrayEquals(lines.toArray(new String[0]), content.getLines());
+    }
+
+    @Test
+    public void testSnapshotsAreSmallerThanTheLines() {
+        final Random rnd = new Random(1337L);
+        final List<String> lines = randomFile(rnd, 20000);
+        final SnapshotStore store = new SnapshotStore();
+        long arrayBytes = 0L;
+        for (int s = 0; s < 5; s++) {
+            lines.set(rnd.nextInt(lines.size()), randomLine(rnd));
+            for (String line : lines) {
+                // Header and array slot of the String and its Latin-1 byte array
+                arrayBytes += 56L + line.length();
+            }
+            store(store, lines);
+        }
+        assertTrue(store.getStoredBytes() * 10L < arrayBytes);
+    }
+
+    static SnapshotStore.Content store(SnapshotStore store, List<String> lines) {
+        final SnapshotStore.Builder builder = store.newContent();
+        for (String line : lines) {
+            builder.addLine(line);
+        }
+        return builder.build();
+    }
+
+    static List<String> randomFile(Random rnd, int count) {
+        final List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(randomLine(rnd));
+        }
+        return result;
+    }
+
+    static String randomLine(Random rnd) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(3).append(' ').append(16);
+        for (int i = 0; i < 9; i++) {
+            sb.append(' ').append(rnd.nextInt(2000) / 100.0 - 10.0);
+        }
+        return sb.toString();
+    }
+}
@@ -18,16 +18,27 @@ package org.nschmidt.ldparteditor;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.nschmidt.ldparteditor.text.Stl2Dat;
 import org.nschmidt.ldparteditor.workbench.UserSettingState;
 
 @SuppressWarnings("java:S5960")
 public class StlToDatTest {
-    
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void testStlImportOfAsciiFile() {
         UserSettingState userSettings = createTestUserSettings();
@@ -44,7 +55,58 @@ public class StlToDatTest {
         assertEquals(EXPECTED_BINARY.replace("\r", "").replace("\n", "\r\n"), result); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
     }
     
-    private UserSettingState createTestUserSettings() {
+    @Test
+    public void testStlImportIntoFile() throws IOException {
+        UserSettingState userSettings = createTestUserSettings();
+        String datPath = new File(folder.getRoot(), "stl.dat").getAbsolutePath(); //$NON-NLS-1$
+        Stl2Dat.convertStlToDatFile(resourcePath("stl2dat_binary.stl"), datPath, userSettings); //$NON-NLS-1$
+        String result = Files.readString(new File(datPath).toPath(), StandardCharsets.UTF_8);
+        assertEquals(EXPECTED_BINARY.replace("\r", "").replace("\n", "\r\n"), result); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+
+    @Test
+    public void testVertexWelding() throws IOException {
+        // A binary file which starts with "solid"
+        File stl = writeBinaryStl("solid binary", new float[][] { //$NON-NLS-1$
+            {0f, 0f, 0f, 10f, 0f, 0f, 0f, 10f, 0f},
+            // The first vertex is welded with the first vertex above
+            {0.000001f, 0f, 0f, 0f, 10f, 0f, 0f, 0f, 10f},
+            // All vertices are welded, so the triangle is left out
+            {10f, 0f, 0f, 10.000001f, 0f, 0f, 10f, 0f, 0.000001f},
+            {10f, 0f, 0f, -10f, 0f, 0f, 0f, 0f, 10f},
+        });
+        String result = Stl2Dat.convertStlToDatFile(stl.getAbsolutePath(), createTestUserSettings());
+        String geometry = result.substring(result.indexOf("3 16")); //$NON-NLS-1$
+        assertEquals("""
+                3 16 0.0 0.0 0.0 10.0 0.0 0.0 0.0 10.0 0.0
+                3 16 0.0 0.0 0.0 0.0 10.0 0.0 0.0 0.0 10.0
+                3 16 10.0 0.0 0.0 -10.0 0.0 0.0 0.0 0.0 10.0
+                """.replace("\n", "\r\n"), geometry); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+    private File writeBinaryStl(String header, float[][] triangles) throws IOException {
+        final File result = folder.newFile();
+        writeBinaryStl(result, header, triangles);
+        return result;
+    }
+
+    static void writeBinaryStl(File file, String header, float[][] triangles) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(84 + triangles.length * 50).order(ByteOrder.LITTLE_ENDIAN);
+        final byte[] headerBytes = header.getBytes(StandardCharsets.US_ASCII);
+        buffer.put(headerBytes, 0, Math.min(80, headerBytes.length));
+        buffer.position(80);
+        buffer.putInt(triangles.length);
+        for (float[] triangle : triangles) {
+            buffer.putFloat(0f).putFloat(0f).putFloat(1f);
+            for (float f : triangle) {
+                buffer.putFloat(f);
+            }
+            buffer.putShort((short) 0);
+        }
+        Files.write(file.toPath(), buffer.array());
+    }
+
+    static UserSettingState createTestUserSettings() {
         UserSettingState userSettings = new UserSettingState();
         userSettings.setLdrawUserName("BlackBrick89"); //$NON-NLS-1$
         userSettings.setRealUserName("Nils Schmidt"); //$NON-NLS-1$
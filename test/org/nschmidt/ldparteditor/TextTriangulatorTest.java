@@ -0,0 +1,72 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.util.List;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.text.TextTriangulator;
+import org.nschmidt.ldparteditor.text.TextTriangulator.Triangulation;
+
+@SuppressWarnings("java:S5960")
+public class TextTriangulatorTest {
+
+    static final double FLATNESS = 0.1;
+    static final double MARGIN = 1.0;
+    static final FontRenderContext FRC = new FontRenderContext(null, false, false);
+
+    @Test
+    public void testCachedGlyphsMatchDirectTriangulation() {
+        final Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 31);
+        final GlyphVector vector = font.createGlyphVector(FRC, "LDraw part 3001"); //$NON-NLS-1$
+        final Triangulation[] glyphs = TextTriangulator.triangulateGlyphs(font, vector, FLATNESS, MARGIN, () -> false);
+        assertEquals(vector.getNumGlyphs(), glyphs.length);
+        for (int j = 0; j < glyphs.length; j++) {
+            assertNotNull(glyphs[j]);
+            final GlyphVector single = font.createGlyphVector(FRC, new int[] { vector.getGlyphCode(j) });
+            final Triangulation direct = TextTriangulator.triangulateOutlines(List.of(single.getGlyphOutline(0)), FLATNESS, MARGIN, () -> false);
+            assertEquals(direct.size(), glyphs[j].size());
+            assertEquals(direct.getInsideCount(), glyphs[j].getInsideCount());
+        }
+        // The glyph for the space has no outline
+        assertEquals(0, glyphs[5].size());
+        // Equal glyphs share their triangulation
+        assertSame(glyphs[3], glyphs[7]);
+        assertTrue(glyphs[0].getInsideCount() > 0);
+    }
+
+    @Test
+    public void testCancelledTriangulationIsNotCached() {
+        final Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 33);
+        final GlyphVector vector = font.createGlyphVector(FRC, "ABC"); //$NON-NLS-1$
+        for (Triangulation glyph : TextTriangulator.triangulateGlyphs(font, vector, FLATNESS, MARGIN, () -> true)) {
+            assertNull(glyph);
+        }
+        for (Triangulation glyph : TextTriangulator.triangulateGlyphs(font, vector, FLATNESS, MARGIN, () -> false)) {
+            assertNotNull(glyph);
+            assertTrue(glyph.size() > 0);
+        }
+    }
+}
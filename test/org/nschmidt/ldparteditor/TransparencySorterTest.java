@@ -0,0 +1,153 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Vector3f;
+import org.nschmidt.ldparteditor.data.TransparencySorter;
+
+@SuppressWarnings("java:S5960")
+public class TransparencySorterTest {
+
+    private static final int V = TransparencySorter.VERTEX_SIZE;
+    private static final int SOLID = 100;
+
+    @Test
+    public void testBackToFront() {
+        final Random rnd = new Random(4711L);
+        for (int count : new int[]{2, 10, 1000, 100000}) {
+            final float[] data = randomTriangles(rnd, SOLID + count);
+            final float[] solid = Arrays.copyOf(data, SOLID * 3 * V);
+            final Matrix4f view = rotation(0.3f, 0.7f);
+            final TransparencySorter sorter = new TransparencySorter();
+            sorter.sort(data, SOLID * 3, count * 3, view);
+            // The solid triangles are not touched
+            assertArrayEquals(solid, Arrays.copyOf(data, SOLID * 3 * V), 0f);
+            assertSorted(data, count, view);
+        }
+    }
+
+    @Test
+    public void testOrderIsStableForEqualDepth() {
+        final float[] data = new float[4 * 3 * V];
+        for (int t = 0; t < 4; t++) {
+            for (int v = 0; v < 3; v++) {
+                data[(t * 3 + v) * V] = v;
+                data[(t * 3 + v) * V + 6] = t;
+            }
+        }
+        new TransparencySorter().sort(data, 0, 12, new Matrix4f());
+        for (int t = 0; t < 4; t++) {
+            assertEquals(t, data[t * 3 * V + 6], 0f);
+        }
+    }
+
+    @Test
+    public void testOrderIsReusedForSmallRotations() {
+        final Random rnd = new Random(815L);
+        final float[] original = randomTriangles(rnd, 5000);
+        final TransparencySorter sorter = new TransparencySorter();
+
+        float[] data = original.clone();
+        sorter.sort(data, 0, data.length / V, rotation(0f, 0f));
+        final float[] sorted = data.clone();
+        assertEquals(1, sorter.getSortCount());
+
+        // The renderer rebuilds the buffer in file order for each frame
+        data = original.clone();
+        sorter.sort(data, 0, data.length / V, rotation(0f, (float) Math.toRadians(TransparencySorter.ANGLE_THRESHOLD / 2.0)));
+        assertEquals(1, sorter.getSortCount());
+        assertArrayEquals(sorted, data, 0f);
+
+        data = original.clone();
+        sorter.sort(data, 0, data.length / V, rotation(0f, (float) Math.toRadians(TransparencySorter.ANGLE_THRESHOLD * 2.0)));
+        assertEquals(2, sorter.getSortCount());
+
+        // Changed triangles need a new order
+        data = original.clone();
+        data[0] += 1f;
+        sorter.sort(data, 0, data.length / V, rotation(0f, (float) Math.toRadians(TransparencySorter.ANGLE_THRESHOLD * 2.0)));
+        assertEquals(3, sorter.getSortCount());
+    }
+
+    private static void assertSorted(float[] data, int count, Matrix4f view) {
+        assertTrue(isSorted(data, count, view));
+    }
+
+    static boolean isSorted(float[] data, int count, Matrix4f view) {
+        final int first = data.length / (3 * V) - count;
+        // The keys are quantised, so only differences larger than the quantisation have to be in order
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (int t = first; t < first + count; t++) {
+            min = Math.min(min, depth(data, t, view));
+            max = Math.max(max, depth(data, t, view));
+        }
+        final float tolerance = (max - min) / (1 << 20);
+        float last = Float.NEGATIVE_INFINITY;
+        for (int t = first; t < first + count; t++) {
+            final float d = depth(data, t, view);
+            if (d < last - tolerance) {
+                return false;
+            }
+            last = Math.max(last, d);
+        }
+        return true;
+    }
+
+    static float depth(float[] data, int triangle, Matrix4f view) {
+        final int o = triangle * 3 * V;
+        float result = 0f;
+        for (int v = 0; v < 3; v++) {
+            final int p = o + v * V;
+            result += view.m02 * data[p] + view.m12 * data[p + 1] + view.m22 * data[p + 2];
+        }
+        return result;
+    }
+
+    static Matrix4f rotation(float x, float y) {
+        final Matrix4f result = new Matrix4f();
+        result.rotate(x, new Vector3f(1f, 0f, 0f));
+        result.rotate(y, new Vector3f(0f, 1f, 0f));
+        return result;
+    }
+
+    static float[] randomTriangles(Random rnd, int count) {
+        final float[] result = new float[count * 3 * V];
+        for (int t = 0; t < count; t++) {
+            final float cx = rnd.nextFloat() * 10000f - 5000f;
+            final float cy = rnd.nextFloat() * 10000f - 5000f;
+            final float cz = rnd.nextFloat() * 10000f - 5000f;
+            for (int v = 0; v < 3; v++) {
+                final int o = (t * 3 + v) * V;
+                result[o] = cx + rnd.nextFloat() * 100f;
+                result[o + 1] = cy + rnd.nextFloat() * 100f;
+                result[o + 2] = cz + rnd.nextFloat() * 100f;
+                result[o + 6] = rnd.nextFloat();
+                result[o + 9] = 0.5f;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,100 @@
+/* MIT - License
+
+Copyright (c) 2012 - this year, Nils Schmidt
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
+package org.nschmidt.ldparteditor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.nschmidt.ldparteditor.helper.TrigramIndex;
+
+@SuppressWarnings("java:S5960")
+public class TrigramIndexTest {
+
+    private static final String[] WORDS = {"Brick", "Plate", "Tile", "Slope", "Technic", "Pattern", "Sticker", "Minifig", "Wedge", "Round", "with", "Hole", "Axle", "Pin", "Bar", "Clip"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$ //$NON-NLS-13$ //$NON-NLS-14$ //$NON-NLS-15$ //$NON-NLS-16$
+
+    @Test
+    public void testSameResultAsRegularExpression() {
+        final List<String> names = library(new Random(4711L), 2000);
+        final TrigramIndex index = new TrigramIndex(names);
+        final String[] queries = {"", "3", "30", "300", "3001", "3001.dat", "3001.da", "Brick", "Brick  2", "rick", "Br.ck", "p0..dat", "s\\", "(!)", "[0-9]+p", "Tile|Plate", "*", "xyz", "~Moved", " - "}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$ //$NON-NLS-13$ //$NON-NLS-14$ //$NON-NLS-15$ //$NON-NLS-16$ //$NON-NLS-17$ //$NON-NLS-18$ //$NON-NLS-19$ //$NON-NLS-20$
+        for (String query : queries) {
+            assertEquals(query, scan(names, query), index.search(query));
+        }
+        // The same queries in reverse order (the last result must not narrow unrelated queries)
+        for (int i = queries.length - 1; i >= 0; i--) {
+            assertEquals(queries[i], scan(names, queries[i]), index.search(queries[i]));
+        }
+    }
+
+    @Test
+    public void testNarrowingWhileTyping() {
+        final List<String> names = library(new Random(815L), 2000);
+        final TrigramIndex index = new TrigramIndex(names);
+        final String typed = "Brick  1 x  2 with Pattern"; //$NON-NLS-1$
+        for (int i = 0; i <= typed.length(); i++) {
+            final String query = typed.substring(0, i);
+            assertEquals(query, scan(names, query), index.search(query));
+        }
+        for (int i = typed.length(); i >= 0; i--) {
+            final String query = typed.substring(0, i);
+            assertEquals(query, scan(names, query), index.search(query));
+        }
+    }
+
+    static BitSet scan(List<String> names, String word) {
+        final BitSet result = new BitSet();
+        Pattern pattern;
+        try {
+            pattern = Pattern.compile(".*" + word + ".*"); //$NON-NLS-1$ //$NON-NLS-2$
+        } catch (Exception ex) {
+            pattern = Pattern.compile(".*"); //$NON-NLS-1$
+        }
+        for (int i = 0; i < names.size(); i++) {
+            if (pattern.matcher(names.get(i)).matches()) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    /** Creates names like the ones in the part tree (e.g. "3001p01.dat - Brick  2 x  4 with Pattern") */
+    static List<String> library(Random rnd, int size) {
+        final List<String> result = new ArrayList<>(size);
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            sb.setLength(0);
+            if (rnd.nextInt(20) == 0) sb.append("(!) "); //$NON-NLS-1$
+            if (rnd.nextInt(10) == 0) sb.append(rnd.nextBoolean() ? 'u' : 's');
+            sb.append(rnd.nextInt(10000));
+            if (rnd.nextBoolean()) sb.append('p').append(rnd.nextInt(10)).append(rnd.nextInt(10));
+            sb.append(".dat - "); //$NON-NLS-1$
+            if (rnd.nextInt(50) == 0) sb.append("~Moved to "); //$NON-NLS-1$
+            final int words = 1 + rnd.nextInt(4);
+            for (int w = 0; w < words; w++) {
+                sb.append(WORDS[rnd.nextInt(WORDS.length)]).append(' ');
+                if (rnd.nextBoolean()) sb.append(' ').append(1 + rnd.nextInt(8)).append(" x  ").append(1 + rnd.nextInt(8)).append(' '); //$NON-NLS-1$
+            }
+            result.add(sb.toString().trim());
+        }
+        return result;
+    }
+}